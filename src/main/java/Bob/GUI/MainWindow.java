@@ -128,6 +128,7 @@ public class MainWindow {
      */
     @FXML
     private void delayExit() {
+        this.uiManager.flush();
         PauseTransition delay = new PauseTransition(Duration.seconds(2));
         delay.setOnFinished((event) -> {
             Platform.exit();
@@ -0,0 +1,98 @@
+package bob.commands;
+
+import java.io.IOException;
+import java.util.List;
+
+import bob.exceptions.InvalidCommandException;
+import bob.managers.BackupManager;
+import bob.managers.TaskManager;
+import bob.managers.WorkspaceManager;
+import bob.storage.BackupStore;
+
+/**
+ * User command to back up the current workspace, list its backups or restore one of them.
+ */
+public class BackupCommand extends Command {
+    private WorkspaceManager workspaceManager;
+
+    /**
+     * Primary constructor of BackupCommand.
+     *
+     * @param inputs user command separated by spaces.
+     * @param workspaceManager the workspaces and their lists of tasks.
+     */
+    public BackupCommand(String[] inputs, WorkspaceManager workspaceManager) {
+        super(inputs);
+        this.workspaceManager = workspaceManager;
+    }
+
+    /**
+     * Backs up the current workspace, or lists or restores its backups as given by inputs.
+     *
+     * @param taskManager the list of tasks of the current workspace.
+     * @return result of the backup operation.
+     * @throws InvalidCommandException if the operation is invalid or the backup cannot be used.
+     */
+    @Override
+    public String exec(TaskManager taskManager) throws InvalidCommandException {
+        BackupManager backupManager = this.workspaceManager.getBackupManager();
+        if (backupManager == null) {
+            throw new InvalidCommandException("This list isn't saved to a file, so I can't back it up.");
+        }
+
+        String name = this.workspaceManager.getCurrentName();
+        try {
+            if (this.inputs.length == 1) {
+                return getBackupOutput(name, backupManager.backup(name));
+            }
+
+            switch (this.inputs[1]) {
+            case "list":
+                return listBackups(name, backupManager.listBackups(name));
+            case "restore":
+                if (this.inputs.length < 3) {
+                    throw new InvalidCommandException("Please tell me which backup to restore.");
+                }
+                String previousId = backupManager.backup(name).getId(); // Lets the restore be undone
+                backupManager.restore(name, this.inputs[2], taskManager);
+                return "Alright, I've restored " + name + " to the backup " + this.inputs[2] + ".\n"
+                        + "Your list from before is in the backup " + previousId + ".\n";
+            default:
+                throw new InvalidCommandException("I can only back up, list backups or restore a backup.");
+            }
+        } catch (IOException e) {
+            throw new InvalidCommandException("Something went wrong with the backup: " + e.getMessage());
+        }
+    }
+
+    private String getBackupOutput(String name, BackupStore.Result result) {
+        return "Okay, I've backed up " + name + " as " + result.getId() + ".\n"
+                + "Only " + result.getNewChunkCount() + " of its " + result.getChunkCount() + " pieces ("
+                + formatSize(result.getNewSize()) + " of " + formatSize(result.getSize()) + ") had to be stored.\n";
+    }
+
+    /**
+     * Lists every backup of a workspace, oldest first.
+     *
+     * @param name name of workspace.
+     * @param ids ids of backups.
+     * @return list of backups.
+     */
+    private String listBackups(String name, List<String> ids) {
+        if (ids.isEmpty()) {
+            return "There are no backups of " + name + " yet.\n";
+        }
+
+        StringBuffer buffer = new StringBuffer();
+        buffer.append("Here are the backups of " + name + ":\n");
+        for (int i = 1; i <= ids.size(); i++) {
+            buffer.append(i + ". " + ids.get(i - 1) + "\n");
+        }
+
+        return buffer.toString();
+    }
+
+    private static String formatSize(long bytes) {
+        return bytes < 1024 ? bytes + " B" : String.format("%.1f KB", bytes / 1024.0);
+    }
+}
@@ -1,12 +1,16 @@
 package bob.commands;
 
+import java.util.List;
+
 import bob.exceptions.InvalidCommandException;
+import bob.exceptions.InvalidTaskOperationException;
 import bob.managers.ConversionManager;
 import bob.managers.TaskManager;
 import bob.tasks.Task;
 
 /**
- * User command to delete a task from the list of tasks.
+ * User command to delete a task from the list of tasks, given by its position or by its id such as #12,
+ * or several tasks given as a list or range such as 1-50, 3,7,9-12 or all.
  */
 public class DeleteCommand extends Command {
     /**
@@ -19,10 +23,10 @@ public class DeleteCommand extends Command {
     }
 
     /**
-     * Deletes the task with the given index from the list of tasks.
+     * Deletes the tasks with the given indexes from the list of tasks.
      *
      * @param taskManager the list of tasks and their operations.
-     * @return deleted task.
+     * @return deleted tasks.
      * @throws InvalidCommandException if task index is invalid.
      */
     @Override
@@ -31,6 +35,14 @@ public class DeleteCommand extends Command {
             throw new InvalidCommandException("Please tell me which task to delete.");
         }
 
+        if (ConversionManager.isIndexList(this.inputs[1])) {
+            return deleteTasks(taskManager);
+        }
+
+        if (ConversionManager.isTaskId(this.inputs[1])) {
+            return deleteTaskById(taskManager);
+        }
+
         int index = ConversionManager.convertInputToIndex(
                 this.inputs[1], "Please give me a valid task number.");
 
@@ -45,7 +57,54 @@ public class DeleteCommand extends Command {
 
         return "Alright. I've removed this task:\n"
                 + task.toString() + "\n"
-                + "Now you have " + taskManager.getSize() + " task"
+                + getSizeMessage(taskManager);
+    }
+
+    /**
+     * Deletes the task with the id given by inputs, without looking up its position first.
+     *
+     * @param taskManager the list of tasks and their operations.
+     * @return deleted task.
+     * @throws InvalidCommandException if task id is invalid.
+     */
+    private String deleteTaskById(TaskManager taskManager) throws InvalidCommandException {
+        int id = ConversionManager.convertInputToId(this.inputs[1], "Please give me a valid task id.");
+
+        try {
+            Task task = taskManager.deleteTaskById(id);
+            return "Alright. I've removed this task:\n"
+                    + task.toString() + "\n"
+                    + getSizeMessage(taskManager);
+        } catch (InvalidTaskOperationException e) {
+            throw new InvalidCommandException(e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes every task in the list or range given by inputs, saving the change once.
+     *
+     * @param taskManager the list of tasks and their operations.
+     * @return deleted tasks.
+     * @throws InvalidCommandException if invalid task numbers given.
+     */
+    private String deleteTasks(TaskManager taskManager) throws InvalidCommandException {
+        List<Integer> indexes = ConversionManager.convertInputToIndexes(this.inputs[1], taskManager.getSize(),
+                "Please give me valid task numbers.");
+        if (indexes.isEmpty()) {
+            throw new InvalidCommandException("There are no tasks to delete.");
+        }
+
+        List<Task> tasks = taskManager.deleteTasks(indexes);
+
+        StringBuffer buffer = new StringBuffer();
+        buffer.append("Alright. I've removed these tasks:\n");
+        tasks.forEach((t) -> buffer.append(t.toString() + "\n"));
+        buffer.append(getSizeMessage(taskManager));
+        return buffer.toString();
+    }
+
+    private String getSizeMessage(TaskManager taskManager) {
+        return "Now you have " + taskManager.getSize() + " task"
                 + (taskManager.getSize() == 1 || taskManager.getSize() == 0 ? "" : "s") + " in the list.\n";
     }
 }
@@ -1,15 +1,21 @@
 package bob.commands;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import bob.exceptions.InvalidCommandException;
 import bob.managers.TaskManager;
+import bob.managers.TaskQuery;
 import bob.tasks.Task;
 
 /**
  * User command to find tasks containing a string in their task names.
+ * Strings can be combined with AND, OR and NOT, and with --all, archived tasks are searched as well.
  */
 public class FindCommand extends Command {
+    private static final String allOption = "--all";
+
     /**
      * Primary constructor of FindCommand.
      *
@@ -20,61 +26,69 @@ public class FindCommand extends Command {
     }
 
     /**
-     * Returns all tasks with inputted string in their task name.
+     * Returns all tasks with inputted string in their task name, including archived tasks if asked for.
      *
      * @param taskManager the list of tasks and their operations.
      * @return list of tasks with matching task names.
-     * @throws InvalidCommandException when no string is entered.
+     * @throws InvalidCommandException when no string is entered, or a keyword is missing a string.
      */
     @Override
     public String exec(TaskManager taskManager) throws InvalidCommandException {
-        String stringToContain = getStringToContain();
-        List<Task> matchingTasks = taskManager.getMatchingTasks(stringToContain);
-        return getOutput(stringToContain, matchingTasks);
+        boolean isAll = this.inputs.length > 1 && this.inputs[1].equals(allOption);
+        TaskQuery query = getQuery(isAll ? 2 : 1);
+        List<Task> matchingTasks = taskManager.getMatchingTasks(query);
+        List<Task> matchingArchivedTasks = isAll
+                ? taskManager.getMatchingArchivedTasks(query)
+                : new ArrayList<>();
+        return getOutput(matchingTasks, matchingArchivedTasks);
     }
 
     /**
-     * Concatenates the string to check for.
+     * Parses the strings to check for and the keywords combining them.
      *
-     * @return string to check for.
-     * @throws InvalidCommandException if there is no string input.
+     * @param start index of the first input in the query.
+     * @return query to match tasks with.
+     * @throws InvalidCommandException if there is no string input, or a keyword is missing a string.
      */
-    private String getStringToContain() throws InvalidCommandException {
-        if (this.inputs.length == 1) {
+    private TaskQuery getQuery(int start) throws InvalidCommandException {
+        if (this.inputs.length <= start) {
             throw new InvalidCommandException("Please give me a task name.");
         }
 
-        StringBuffer buffer = new StringBuffer();
-
-        buffer.append(this.inputs[1]);
-        for (int i = 2; i < this.inputs.length; i++) {
-            buffer.append(" ");
-            buffer.append(this.inputs[i]);
+        try {
+            return TaskQuery.parse(Arrays.asList(this.inputs).subList(start, this.inputs.length));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCommandException(e.getMessage());
         }
-
-        return buffer.toString();
     }
 
     /**
      * Gets all matching tasks.
      *
-     * @param stringToContain string to check for.
      * @param matchingTasks list of matching tasks.
+     * @param matchingArchivedTasks list of matching archived tasks.
      * @return output that contains all matching tasks.
      *     if no matching task is found, indicates there are none.
      */
-    private String getOutput(String stringToContain, List<Task> matchingTasks) {
-        if (!matchingTasks.isEmpty()) {
-            StringBuffer outputBuffer = new StringBuffer();
+    private String getOutput(List<Task> matchingTasks, List<Task> matchingArchivedTasks) {
+        if (matchingTasks.isEmpty() && matchingArchivedTasks.isEmpty()) {
+            return "I can't find any matching tasks.\n";
+        }
 
-            outputBuffer.append("Here are the matching tasks in your list:\n");
-            for (int i = 1; i <= matchingTasks.size(); i++) {
-                outputBuffer.append(i + ". " + matchingTasks.get(i - 1).toString() + "\n");
-            }
+        StringBuffer outputBuffer = new StringBuffer();
+        appendTasks(outputBuffer, "Here are the matching tasks in your list:\n", matchingTasks);
+        appendTasks(outputBuffer, "Here are the matching tasks in your archive:\n", matchingArchivedTasks);
+        return outputBuffer.toString();
+    }
 
-            return outputBuffer.toString();
-        } else {
-            return "I can't find any matching tasks.\n";
+    private void appendTasks(StringBuffer outputBuffer, String heading, List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        outputBuffer.append(heading);
+        for (int i = 1; i <= tasks.size(); i++) {
+            outputBuffer.append(i + ". " + tasks.get(i - 1).toString() + "\n");
         }
     }
 }
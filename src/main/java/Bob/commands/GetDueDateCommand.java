@@ -1,7 +1,9 @@
 package bob.commands;
 
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
 
 import bob.exceptions.InvalidCommandException;
 import bob.exceptions.InvalidDateFormatException;
@@ -10,9 +12,12 @@ import bob.managers.TaskManager;
 import javafx.util.Pair;
 
 /**
- * User command to get all tasks with deadlines that are due in the given date.
+ * User command to get all tasks with deadlines that are due in the given date, or between two dates
+ * separated by "..".
  */
 public class GetDueDateCommand extends Command {
+    private static final String rangeSeparator = "..";
+
     private static final String longDateFormat = "dd MMMM yyyy HH:mm";
     private static final String shortDateFormat = "dd/MM/yyyy HH:mm";
 
@@ -28,29 +33,45 @@ public class GetDueDateCommand extends Command {
     }
 
     /**
-     * Gets all tasks with deadlines that are due in the given date.
+     * Gets all tasks with deadlines that are due in the given date or range of dates.
+     * A range includes both of its dates, and the whole of any date given without a time.
      *
      * @param taskManager the list of tasks and their operations.
      * @return list of due tasks.
-     * @throws InvalidCommandException if invalid date is given.
+     * @throws InvalidCommandException if invalid date or range is given.
      */
     @Override
     public String exec(TaskManager taskManager) throws InvalidCommandException {
-        String date = getDueDate();
-        Pair<LocalDateTime, Boolean> dueDate = parseDueDate(date);
-        return taskManager.displaySameDeadlines(dueDate);
+        int separatorIndex = Arrays.asList(this.inputs).indexOf(rangeSeparator);
+        if (separatorIndex < 0) {
+            String date = getDueDate(1, this.inputs.length);
+            Pair<LocalDateTime, Boolean> dueDate = parseDueDate(date);
+            return taskManager.displaySameDeadlines(dueDate);
+        }
+
+        Pair<LocalDateTime, Boolean> from = parseDueDate(getDueDate(1, separatorIndex));
+        Pair<LocalDateTime, Boolean> to = parseDueDate(getDueDate(separatorIndex + 1, this.inputs.length));
+        LocalDateTime start = from.getValue() ? from.getKey() : from.getKey().toLocalDate().atStartOfDay();
+        LocalDateTime end = to.getValue() ? to.getKey() : to.getKey().toLocalDate().atTime(LocalTime.MAX);
+        if (end.isBefore(start)) {
+            throw new InvalidCommandException("The second date should not be before the first.");
+        }
+
+        return taskManager.displayDeadlinesBetween(start, end);
     }
 
     /**
      * Parses the due date from input.
      *
+     * @param start index of the first input in the date.
+     * @param end index after the last input in the date.
      * @return given due date.
      */
-    private String getDueDate() {
+    private String getDueDate(int start, int end) {
         StringBuffer buffer = new StringBuffer();
         boolean hasSpace = false;
 
-        for (int i = 1; i < inputs.length; i++) {
+        for (int i = start; i < end; i++) {
             if (hasSpace) {
                 buffer.append(" ");
             } else {
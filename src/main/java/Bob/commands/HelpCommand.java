@@ -48,39 +48,79 @@ public class HelpCommand extends Command {
 
         buffer.append(createFunctionParagraph(
             "Delete",
-            "delete <task index>",
-            "Deletes a task by its index."
+            "delete <task index, #id, indexes or all>",
+            "Deletes a task by its index. Several tasks can be deleted at once with a list of indexes"
+                    + " and ranges, such as delete 3,7,9-12, or with all. A task can also be deleted by its id,"
+                    + " such as delete #12."
         ));
 
         buffer.append(createFunctionParagraph(
             "Find",
-            "find <name>",
-            "Lists down all tasks containing <name>."
+            "find <nothing or --all> <name>",
+            "Lists down all tasks containing <name>. Names can be combined with AND, OR and NOT, such as"
+                    + " find essay AND NOT draft. With --all, tasks archived after being completed"
+                    + " for 14 days are included."
         ));
 
         buffer.append(createFunctionParagraph(
             "Get due date",
-            "getDueDate <due date>",
+            "getDueDate <due date> or getDueDate <from> .. <to>",
             "Lists down all tasks with the specified due date (if inputted due date does not"
                     + " have time, time will not be accounted for when getting matching tasks)."
+                    + " With <from> .. <to>, lists down all tasks due between the two dates, including both."
         ));
 
         buffer.append(createFunctionParagraph(
             "List",
-            "list",
-            "Lists all existing tasks."
+            "list <nothing, --archived or --ids>",
+            "Lists all existing tasks, or with --archived, all tasks archived after being completed"
+                    + " for 14 days. With --ids, the id of each task is shown. Ids stay the same as other tasks are"
+                    + " deleted or the list is reloaded, but not after its workspace is closed or Bob restarts."
         ));
 
         buffer.append(createFunctionParagraph(
             "Mark",
-            "mark <task index>",
-            "Marks a task at the given index as completed."
+            "mark <task index, #id, indexes or all>",
+            "Marks a task at the given index as completed. Several tasks can be marked at once with a list"
+                    + " of indexes and ranges, such as mark 1-50, or with all. A task can also be marked by its id,"
+                    + " such as mark #12."
         ));
 
         buffer.append(createFunctionParagraph(
             "Unmark",
-            "unmark <task index>",
-            "Marks a task at the given index as incomplete."
+            "unmark <task index, #id, indexes or all>",
+            "Marks a task at the given index as incomplete. Several tasks can be unmarked at once with a"
+                    + " list of indexes and ranges, such as unmark 3,7, or with all. A task can also be unmarked by its"
+                    + " id, such as unmark #12."
+        ));
+
+        buffer.append(createFunctionParagraph(
+            "Workspace",
+            "workspace <list, switch <name> or close <name>>",
+            "Lists all workspaces, switches to a workspace (creating it if needed), or saves and closes"
+                    + " an idle workspace. Each workspace has its own list of tasks."
+        ));
+
+        buffer.append(createFunctionParagraph(
+            "Sync",
+            "sync <directory>",
+            "Swaps changes with copies of this list on other computers that sync through the same directory,"
+                    + " such as a shared folder. Only changes since the last sync are swapped."
+        ));
+
+        buffer.append(createFunctionParagraph(
+            "Backup",
+            "backup <nothing, list or restore <backup id>>",
+            "Backs up the list, lists its backups, or restores it to a backup. Only the parts of the list"
+                    + " that changed since earlier backups are stored. Changed lists are also backed up"
+                    + " every 30 minutes."
+        ));
+
+        buffer.append(createFunctionParagraph(
+            "Stats",
+            "stats storage",
+            "Shows how much saving and loading your lists has cost so far: bytes read and written, how often"
+                    + " each kind of save ran, and how long they took."
         ));
 
         return buffer.toString();
@@ -1,12 +1,19 @@
 package bob.commands;
 
+import java.util.List;
+
 import bob.exceptions.InvalidCommandException;
 import bob.managers.TaskManager;
+import bob.tasks.Task;
 
 /**
- * User command to list all tasks in the list.
+ * User command to list all tasks in the list, or all archived tasks with --archived.
+ * With --ids, the id of each task is shown as well, to mark, unmark or delete it by.
  */
 public class ListCommand extends Command {
+    private static final String archivedOption = "--archived";
+    private static final String idsOption = "--ids";
+
     /**
      * Primary constructor of ListCommand.
      *
@@ -17,7 +24,7 @@ public class ListCommand extends Command {
     }
 
     /**
-     * Lists all tasks currently in the list.
+     * Lists all tasks currently in the list, or all archived tasks if asked for.
      * If no tasks are found, indicates this to the user.
      *
      * @param taskManager the list of tasks and their operations.
@@ -26,12 +33,18 @@ public class ListCommand extends Command {
      */
     @Override
     public String exec(TaskManager taskManager) throws InvalidCommandException {
+        if (this.inputs.length > 1 && this.inputs[1].equals(archivedOption)) {
+            return listArchivedTasks(taskManager.getArchivedTasks());
+        }
+
+        boolean isShowingIds = this.inputs.length > 1 && this.inputs[1].equals(idsOption);
         if (taskManager.getSize() != 0) {
             StringBuffer buffer = new StringBuffer();
 
             buffer.append("Here are the tasks in your list:\n");
             for (int i = 1; i <= taskManager.getSize(); i++) {
-                buffer.append(i + ". " + taskManager.getTask(i - 1).toString() + "\n");
+                Task task = taskManager.getTask(i - 1);
+                buffer.append(i + ". " + (isShowingIds ? "#" + task.getId() + " " : "") + task.toString() + "\n");
             }
 
             return buffer.toString();
@@ -39,4 +52,24 @@ public class ListCommand extends Command {
             return "There are no tasks in your list.\n";
         }
     }
+
+    /**
+     * Lists all archived tasks, oldest first.
+     *
+     * @param archivedTasks archived tasks.
+     * @return list of archived tasks.
+     */
+    private String listArchivedTasks(List<Task> archivedTasks) {
+        if (archivedTasks.isEmpty()) {
+            return "There are no archived tasks.\n";
+        }
+
+        StringBuffer buffer = new StringBuffer();
+        buffer.append("Here are the archived tasks:\n");
+        for (int i = 1; i <= archivedTasks.size(); i++) {
+            buffer.append(i + ". " + archivedTasks.get(i - 1).toString() + "\n");
+        }
+
+        return buffer.toString();
+    }
 }
@@ -1,12 +1,15 @@
 package bob.commands;
 
+import java.util.List;
+
 import bob.exceptions.InvalidCommandException;
 import bob.managers.ConversionManager;
 import bob.managers.TaskManager;
 import bob.tasks.Task;
 
 /**
- * User command to mark or unmark a task.
+ * User command to mark or unmark a task, given by its position or by its id such as #12, or several tasks
+ * given as a list or range such as 1-50, 3,7,9-12 or all.
  */
 public class MarkCommand extends Command {
     private boolean isMark;
@@ -23,10 +26,10 @@ public class MarkCommand extends Command {
     }
 
     /**
-     * Marks or unmarks the task as given by inputs.
+     * Marks or unmarks the tasks as given by inputs.
      *
      * @param taskManager the list of tasks and their operations.
-     * @return marked/unmarked task.
+     * @return marked/unmarked tasks.
      * @throws InvalidCommandException if invalid task number given.
      */
     @Override
@@ -35,8 +38,11 @@ public class MarkCommand extends Command {
             throw new InvalidCommandException("Please tell me which task to delete.");
         }
 
-        int index = ConversionManager.convertInputToIndex(this.inputs[1],
-                "Please tell me which task to " + (this.isMark ? "" : "un") + "mark.");
+        if (ConversionManager.isIndexList(this.inputs[1])) {
+            return markTasks(taskManager);
+        }
+
+        int index = getIndex(taskManager);
 
         if (taskManager.getSize() < index) {
             throw new InvalidCommandException("There is no task with that number.");
@@ -53,4 +59,56 @@ public class MarkCommand extends Command {
                     + task.toString() + "\n";
         }
     }
+
+    /**
+     * Returns the position of the task given by inputs, looking it up by id if an id is given.
+     *
+     * @param taskManager the list of tasks and their operations.
+     * @return position of task, counting from 1.
+     * @throws InvalidCommandException if invalid task number or id given.
+     */
+    private int getIndex(TaskManager taskManager) throws InvalidCommandException {
+        String errorMessage = "Please tell me which task to " + (this.isMark ? "" : "un") + "mark.";
+        if (!ConversionManager.isTaskId(this.inputs[1])) {
+            return ConversionManager.convertInputToIndex(this.inputs[1], errorMessage);
+        }
+
+        int index = taskManager.getIndexById(ConversionManager.convertInputToId(this.inputs[1], errorMessage));
+        if (index < 0) {
+            throw new InvalidCommandException("There is no task with that id.");
+        }
+
+        return index + 1;
+    }
+
+    /**
+     * Marks or unmarks every task in the list or range given by inputs, saving the change once.
+     * Tasks that are already marked or unmarked are left as they are.
+     *
+     * @param taskManager the list of tasks and their operations.
+     * @return marked/unmarked tasks.
+     * @throws InvalidCommandException if invalid task numbers given.
+     */
+    private String markTasks(TaskManager taskManager) throws InvalidCommandException {
+        String action = (this.isMark ? "" : "un") + "mark";
+        List<Integer> indexes = ConversionManager.convertInputToIndexes(this.inputs[1], taskManager.getSize(),
+                "Please tell me which tasks to " + action + ".");
+        if (indexes.isEmpty()) {
+            throw new InvalidCommandException("There are no tasks to " + action + ".");
+        }
+
+        List<Task> tasks = taskManager.markTasks(indexes, this.isMark);
+        if (tasks.isEmpty()) {
+            return this.isMark
+                    ? "Those tasks have all been done already.\n"
+                    : "None of those tasks have been done yet.\n";
+        }
+
+        StringBuffer buffer = new StringBuffer();
+        buffer.append(this.isMark
+                ? "Nice! I've marked these tasks as done:\n"
+                : "Oh, I guess these aren't done yet:\n");
+        tasks.forEach((t) -> buffer.append(t.toString() + "\n"));
+        return buffer.toString();
+    }
 }
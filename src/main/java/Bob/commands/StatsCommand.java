@@ -0,0 +1,36 @@
+package bob.commands;
+
+import bob.exceptions.InvalidCommandException;
+import bob.managers.TaskManager;
+import bob.storage.Storage;
+
+/**
+ * User command to show statistics on how the lists of tasks are being saved.
+ */
+public class StatsCommand extends Command {
+    /**
+     * Primary constructor of StatsCommand.
+     *
+     * @param inputs user command separated by spaces.
+     */
+    public StatsCommand(String[] inputs) {
+        super(inputs);
+    }
+
+    /**
+     * Returns the statistics asked for by inputs.
+     *
+     * @param taskManager the list of tasks and their operations.
+     * @return statistics on the saving and loading done so far.
+     * @throws InvalidCommandException if no statistics or unknown statistics are asked for.
+     */
+    @Override
+    public String exec(TaskManager taskManager) throws InvalidCommandException {
+        if (this.inputs.length != 2 || !this.inputs[1].equals("storage")) {
+            throw new InvalidCommandException("I can only show stats for storage.");
+        }
+
+        taskManager.flush(); // Counts changes still waiting to be saved
+        return "Here's what saving your tasks has cost so far:\n" + Storage.getStorageStats();
+    }
+}
@@ -0,0 +1,73 @@
+package bob.commands;
+
+import java.io.IOException;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import bob.exceptions.InvalidCommandException;
+import bob.managers.TaskManager;
+
+/**
+ * User command to sync the list of tasks with its copies on other computers.
+ */
+public class SyncCommand extends Command {
+    /**
+     * Primary constructor of SyncCommand.
+     *
+     * @param inputs user command separated by spaces.
+     */
+    public SyncCommand(String[] inputs) {
+        super(inputs);
+    }
+
+    /**
+     * Swaps changes with the copies of the list syncing through the directory given by inputs.
+     *
+     * @param taskManager the list of tasks and their operations.
+     * @return number of changes received.
+     * @throws InvalidCommandException if no directory is given or the changes cannot be swapped.
+     */
+    @Override
+    public String exec(TaskManager taskManager) throws InvalidCommandException {
+        Path directory = getDirectory();
+
+        try {
+            int changeCount = taskManager.syncWith(directory);
+            if (changeCount == 0) {
+                return "All synced! Nothing changed on your other lists.\n";
+            } else {
+                return "All synced! I got " + changeCount + (changeCount == 1 ? " change" : " changes")
+                        + " from your other lists.\n";
+            }
+        } catch (IOException e) {
+            throw new InvalidCommandException("I couldn't sync with " + directory + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Concatenates the path of the directory to sync through.
+     *
+     * @return path of directory.
+     * @throws InvalidCommandException if there is no valid path input.
+     */
+    private Path getDirectory() throws InvalidCommandException {
+        if (this.inputs.length == 1) {
+            throw new InvalidCommandException("Please tell me which directory to sync through.");
+        }
+
+        StringBuffer buffer = new StringBuffer();
+
+        buffer.append(this.inputs[1]);
+        for (int i = 2; i < this.inputs.length; i++) {
+            buffer.append(" ");
+            buffer.append(this.inputs[i]);
+        }
+
+        try {
+            return Paths.get(buffer.toString());
+        } catch (InvalidPathException e) {
+            throw new InvalidCommandException("That's not a directory I can use.");
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package bob.commands;
+
+import bob.exceptions.InvalidCommandException;
+import bob.managers.TaskManager;
+import bob.managers.WorkspaceManager;
+
+/**
+ * User command to list, switch between and close workspaces.
+ */
+public class WorkspaceCommand extends Command {
+    private WorkspaceManager workspaceManager;
+
+    /**
+     * Primary constructor of WorkspaceCommand.
+     *
+     * @param inputs user command separated by spaces.
+     * @param workspaceManager the workspaces and their lists of tasks.
+     */
+    public WorkspaceCommand(String[] inputs, WorkspaceManager workspaceManager) {
+        super(inputs);
+        this.workspaceManager = workspaceManager;
+    }
+
+    /**
+     * Lists all workspaces, or switches to or closes the workspace given by inputs.
+     *
+     * @param taskManager the list of tasks of the current workspace.
+     * @return result of the workspace operation.
+     * @throws InvalidCommandException if the operation or workspace name is invalid.
+     */
+    @Override
+    public String exec(TaskManager taskManager) throws InvalidCommandException {
+        if (this.inputs.length == 1) {
+            throw new InvalidCommandException("Please tell me whether to list, switch or close workspaces.");
+        }
+
+        switch (this.inputs[1]) {
+        case "list":
+            return listWorkspaces();
+        case "switch":
+            this.workspaceManager.switchTo(getName());
+            return "Okay, you're now in the workspace " + this.workspaceManager.getCurrentName() + ".\n"
+                    + this.workspaceManager.getCurrent().getSavedListMessage() + "\n";
+        case "close":
+            String name = getName();
+            if (this.workspaceManager.close(name)) {
+                return "Alright. I've saved and closed the workspace " + name + ".\n";
+            } else {
+                return "The workspace " + name + " isn't open.\n";
+            }
+        default:
+            throw new InvalidCommandException("I can only list, switch or close workspaces.");
+        }
+    }
+
+    /**
+     * Lists every workspace, marking the current one and the ones that are loaded.
+     *
+     * @return list of workspaces.
+     */
+    private String listWorkspaces() {
+        StringBuffer buffer = new StringBuffer();
+        buffer.append("Here are your workspaces:\n");
+
+        for (String name : this.workspaceManager.listWorkspaces()) {
+            buffer.append(name.equals(this.workspaceManager.getCurrentName()) ? "* " : "  ");
+            buffer.append(name);
+            buffer.append(this.workspaceManager.isLoaded(name) ? " (open)" : "");
+            buffer.append("\n");
+        }
+
+        return buffer.toString();
+    }
+
+    private String getName() throws InvalidCommandException {
+        if (this.inputs.length < 3) {
+            throw new InvalidCommandException("Please tell me which workspace.");
+        }
+
+        return this.inputs[2];
+    }
+}
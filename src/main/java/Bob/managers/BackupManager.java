@@ -0,0 +1,225 @@
+package bob.managers;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import bob.storage.BackupStore;
+import bob.storage.SlottedStorage;
+import bob.storage.Storage;
+import bob.storage.TaskArchive;
+import bob.storage.TaskStorage;
+import bob.tasks.Task;
+
+/**
+ * Backs up the save files of workspaces into a BackupStore, on command and on a schedule.
+ *
+ * Each backup covers a workspace's save file and the journal, completion and archive files next to it, so it
+ * captures every saved change and the day each completed task was completed. Restoring a backup restores
+ * those days along with the list, and archives again the tasks archived in the backup. Scheduled backups run
+ * on a background thread and skip workspaces whose files have not changed since they were last backed up, so
+ * idle workspaces cost nothing to keep backed up.
+ *
+ * Before a workspace is backed up, the changes its loaded list has not written yet are written, and its files
+ * are then read under the process lock of its storage, so a compaction cannot leave a backup with the old
+ * snapshot but the new journal.
+ */
+public class BackupManager {
+    private static final String backupDirectoryName = "backups";
+    private static final String[] neighbourSuffixes = {".compacting", ".journal", ".completed", ".archive"};
+
+    private final File directory;
+    private final String fileSuffix;
+    private final BackupStore store;
+    // Sizes and modification times of the files of each workspace when last backed up
+    private final Map<String, String> backedUpStates = new ConcurrentHashMap<>();
+    // Lists of the loaded workspaces, whose unwritten changes are written before they are backed up
+    private final Map<String, TaskManager> loadedLists = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Primary constructor of BackupManager, keeping backups in a directory inside the workspace directory.
+     *
+     * @param directoryPath path of directory holding the workspace files.
+     * @param fileSuffix suffix of the save file of each workspace.
+     */
+    public BackupManager(String directoryPath, String fileSuffix) {
+        this.directory = new File(directoryPath);
+        this.fileSuffix = fileSuffix;
+        this.store = new BackupStore(Paths.get(directoryPath, backupDirectoryName).toString());
+    }
+
+    /**
+     * Backs up the saved files of a workspace as a new snapshot.
+     *
+     * @param name name of workspace.
+     * @return sizes of the snapshot.
+     * @throws IOException if the files cannot be backed up.
+     */
+    public BackupStore.Result backup(String name) throws IOException {
+        flushLoadedList(name);
+        String state = getFileState(name);
+        BackupStore.Result result = this.store.backup(name, getFilePaths(name));
+        this.backedUpStates.put(name, state);
+        return result;
+    }
+
+    /**
+     * Records that the list of a workspace is loaded, so its changes are written before it is backed up.
+     *
+     * @param name name of workspace.
+     * @param taskManager the list of tasks of the workspace.
+     */
+    void addLoadedList(String name, TaskManager taskManager) {
+        this.loadedLists.put(name, taskManager);
+    }
+
+    /**
+     * Records that the list of a workspace is no longer loaded.
+     *
+     * @param name name of workspace.
+     */
+    void removeLoadedList(String name) {
+        this.loadedLists.remove(name);
+    }
+
+    /**
+     * Returns the ids of every backup of a workspace, oldest first.
+     *
+     * @param name name of workspace.
+     * @return ids of backups.
+     * @throws IOException if the backups cannot be listed.
+     */
+    public List<String> listBackups(String name) throws IOException {
+        return this.store.listSnapshots(name);
+    }
+
+    /**
+     * Restores the tasks of a workspace to the given backup, with their completion days and archive.
+     *
+     * @param name name of workspace.
+     * @param id id of backup.
+     * @param taskManager the list of tasks of the workspace.
+     * @throws IOException if the backup does not exist or cannot be restored.
+     */
+    public void restore(String name, String id, TaskManager taskManager) throws IOException {
+        Path restoreDirectory = Files.createTempDirectory(this.directory.toPath(), "restore");
+        try {
+            this.store.restore(name, id, restoreDirectory);
+            String filePath = restoreDirectory.resolve(name + this.fileSuffix).toString();
+
+            List<Task> tasks = new ArrayList<>();
+            if (Files.exists(Paths.get(filePath))) {
+                TaskStorage storage = SlottedStorage.isSlotted(Paths.get(filePath))
+                        ? new SlottedStorage(filePath) : new Storage(filePath);
+                storage.loadTasks((t) -> tasks.add(t));
+                storage.close();
+            }
+            taskManager.restoreTasks(tasks, new TaskArchive(filePath));
+        } finally {
+            File[] files = restoreDirectory.toFile().listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    file.delete();
+                }
+            }
+            restoreDirectory.toFile().delete();
+        }
+    }
+
+    /**
+     * Backs up every changed workspace in the background at a fixed interval, starting after one interval.
+     *
+     * @param intervalMinutes minutes between backups.
+     */
+    public synchronized void scheduleBackups(long intervalMinutes) {
+        stop();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor((r) -> {
+            Thread thread = new Thread(r, "bob-backup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::backupChanged, intervalMinutes, intervalMinutes,
+                TimeUnit.MINUTES);
+    }
+
+    /**
+     * Stops scheduled backups.
+     */
+    public synchronized void stop() {
+        if (this.scheduler != null) {
+            this.scheduler.shutdown();
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Backs up every workspace whose files changed since they were last backed up.
+     *
+     * @return number of workspaces backed up.
+     */
+    int backupChanged() {
+        this.loadedLists.values().forEach(TaskManager::flush);
+        File[] files = this.directory.listFiles();
+        int count = 0;
+        if (files == null) {
+            return count;
+        }
+
+        for (File file : files) {
+            String fileName = file.getName();
+            if (!file.isFile() || !fileName.endsWith(this.fileSuffix)) {
+                continue;
+            }
+
+            String name = fileName.substring(0, fileName.length() - this.fileSuffix.length());
+            try {
+                if (!getFileState(name).equals(this.backedUpStates.get(name))) {
+                    backup(name);
+                    count++;
+                }
+            } catch (IOException e) {
+                System.err.println("There was a problem backing up the workspace " + name + ": " + e.getMessage());
+            }
+        }
+
+        return count;
+    }
+
+    private void flushLoadedList(String name) {
+        TaskManager taskManager = this.loadedLists.get(name);
+        if (taskManager != null) {
+            taskManager.flush();
+        }
+    }
+
+    private List<String> getFilePaths(String name) {
+        List<String> filePaths = new ArrayList<>();
+        String filePath = Paths.get(this.directory.getPath(), name + this.fileSuffix).toString();
+        filePaths.add(filePath);
+        for (String suffix : neighbourSuffixes) {
+            filePaths.add(filePath + suffix);
+        }
+
+        return filePaths;
+    }
+
+    private String getFileState(String name) {
+        StringBuffer buffer = new StringBuffer();
+        for (String filePath : getFilePaths(name)) {
+            File file = new File(filePath);
+            buffer.append(file.length()).append(':').append(file.lastModified()).append(' ');
+        }
+
+        return buffer.toString();
+    }
+}
@@ -0,0 +1,286 @@
+package bob.managers;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+import bob.exceptions.InvalidTaskOperationException;
+import bob.storage.TaskArchive;
+import bob.storage.TaskStorage;
+import bob.tasks.Task;
+import javafx.util.Pair;
+
+/**
+ * TaskManager that can be shared between threads, such as the JavaFX thread and a background loader.
+ *
+ * Changes are serialised by the write lock of a StampedLock. Tasks are loaded and every index is built
+ * before the lock is released, so queries never build anything and only read. Reading the size or the task
+ * at a position is optimistic: it only reads fields and plain arrays, so it runs without locking and is
+ * retried under the read lock if a change was made meanwhile. Finding a task by id reads a HashMap, which
+ * may not fail cleanly or even finish if it is resized during the read, so like searches and date queries,
+ * it takes the read lock. Locked reads run alongside each other but not alongside changes.
+ *
+ * A StampedLock lets new readers in while a writer waits, so a steady stream of queries could keep changes
+ * out forever. Writers therefore take their turn through a fair lock first, and readers that find a writer
+ * waiting queue behind it.
+ *
+ * The locks are not reentrant, so the methods of this class must not be called while handling a change.
+ */
+public class ConcurrentTaskManager extends TaskManager {
+    private final StampedLock lock = new StampedLock();
+    private final ReentrantLock writerTurn = new ReentrantLock(true);
+
+    /**
+     * Constructor for ConcurrentTaskManager that saves to the given storage.
+     *
+     * @param storage storage to load tasks from and save changes to.
+     */
+    public ConcurrentTaskManager(TaskStorage storage) {
+        this(storage, null);
+    }
+
+    /**
+     * Primary constructor of ConcurrentTaskManager.
+     * Tasks are loaded straight away, as they cannot be loaded later without the write lock.
+     *
+     * @param storage storage to load tasks from and save changes to.
+     * @param archive archive to move completed tasks to, or null if they should stay in the list.
+     */
+    public ConcurrentTaskManager(TaskStorage storage, TaskArchive archive) {
+        super(storage, archive, false);
+        buildIndexes();
+    }
+
+    @Override
+    public int getSize() {
+        return readOptimistically(super::getSize);
+    }
+
+    @Override
+    public Task getTask(int index) {
+        return readOptimistically(() -> super.getTask(index));
+    }
+
+    @Override
+    public int getIndexById(int id) {
+        return readLocked(() -> super.getIndexById(id));
+    }
+
+    @Override
+    public long getEstimatedMemory() {
+        return readOptimistically(super::getEstimatedMemory);
+    }
+
+    @Override
+    public List<Task> getMatchingTasks(TaskQuery query) {
+        return readLocked(() -> super.getMatchingTasks(query));
+    }
+
+    @Override
+    public List<Task> getMatchingArchivedTasks(TaskQuery query) {
+        return readLocked(() -> super.getMatchingArchivedTasks(query));
+    }
+
+    @Override
+    public String displayIncomingDeadlines() {
+        return readLocked(super::displayIncomingDeadlines);
+    }
+
+    @Override
+    public String displaySameDeadlines(Pair<LocalDateTime, Boolean> pair) {
+        return readLocked(() -> super.displaySameDeadlines(pair));
+    }
+
+    @Override
+    public String displayDeadlinesBetween(LocalDateTime from, LocalDateTime to) {
+        return readLocked(() -> super.displayDeadlinesBetween(from, to));
+    }
+
+    @Override
+    public Task addTask(String taskType, String[] taskValues) throws InvalidTaskOperationException {
+        long stamp = lockWrite();
+        try {
+            return super.addTask(taskType, taskValues);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void deleteTask(int index) {
+        long stamp = lockWrite();
+        try {
+            super.deleteTask(index);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Task markTask(int index, boolean isCheck) throws InvalidTaskOperationException {
+        long stamp = lockWrite();
+        try {
+            return super.markTask(index, isCheck);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Task deleteTaskById(int id) throws InvalidTaskOperationException {
+        long stamp = lockWrite();
+        try {
+            return super.deleteTaskById(id);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public List<Task> deleteTasks(List<Integer> indexes) throws InvalidTaskOperationException {
+        long stamp = lockWrite();
+        try {
+            return super.deleteTasks(indexes);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public List<Task> markTasks(List<Integer> indexes, boolean isCheck) throws InvalidTaskOperationException {
+        long stamp = lockWrite();
+        try {
+            return super.markTasks(indexes, isCheck);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void replaceTasks(List<Task> tasks) {
+        long stamp = lockWrite();
+        try {
+            super.replaceTasks(tasks);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void restoreTasks(List<Task> tasks, TaskArchive restoredArchive) {
+        long stamp = lockWrite();
+        try {
+            super.restoreTasks(tasks, restoredArchive);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void refresh() {
+        long stamp = lockWrite();
+        try {
+            super.refresh();
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public int syncWith(Path directory) throws IOException {
+        long stamp = lockWrite();
+        try {
+            return super.syncWith(directory);
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void flush() {
+        long stamp = lockWrite();
+        try {
+            super.flush();
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void close() {
+        long stamp = lockWrite();
+        try {
+            super.close();
+        } finally {
+            unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Waits for the turn of this writer, then for the readers already reading to finish.
+     *
+     * @return stamp of the write lock.
+     */
+    private long lockWrite() {
+        this.writerTurn.lock();
+        return this.lock.writeLock();
+    }
+
+    /**
+     * Rebuilds any index dropped by a change, then releases the write lock and the turn of this writer.
+     *
+     * @param stamp stamp of the write lock.
+     */
+    private void unlockWrite(long stamp) {
+        try {
+            buildIndexes();
+        } finally {
+            this.lock.unlockWrite(stamp);
+            this.writerTurn.unlock();
+        }
+    }
+
+    /**
+     * Runs a read without locking, retrying it under the read lock if a change was made while it ran.
+     * Exceptions thrown while a change was being made are discarded along with the result.
+     *
+     * @param reader read to run, which must not change anything and must only read fields and arrays, as
+     *     collections such as HashMap may loop forever when read during a change.
+     * @return result of the read.
+     */
+    private <T> T readOptimistically(Supplier<T> reader) {
+        long stamp = this.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                T result = reader.get();
+                if (this.lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                if (this.lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+
+        return readLocked(reader);
+    }
+
+    private <T> T readLocked(Supplier<T> reader) {
+        if (this.writerTurn.isLocked()) { // Lets the waiting writer go first
+            this.writerTurn.lock();
+            this.writerTurn.unlock();
+        }
+
+        long stamp = this.lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            this.lock.unlockRead(stamp);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package bob.managers;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import bob.exceptions.InvalidCommandException;
 import bob.exceptions.InvalidDateFormatException;
 
@@ -7,6 +10,11 @@ import bob.exceptions.InvalidDateFormatException;
  * Converts types from one to another.
  */
 public abstract class ConversionManager {
+    private static final String allIndexes = "all";
+    private static final String listSeparator = ",";
+    private static final String rangeSeparator = "-";
+    private static final String idPrefix = "#";
+
     /**
      * Converts a string input to an index.
      *
@@ -24,6 +32,80 @@ public abstract class ConversionManager {
         }
     }
 
+    /**
+     * Returns whether a string input is the id of a task, such as #12, rather than its position in the list.
+     *
+     * @param str string to check.
+     * @return if string is a task id.
+     */
+    public static boolean isTaskId(String str) {
+        return str.startsWith(idPrefix);
+    }
+
+    /**
+     * Converts a string input such as #12 to a task id.
+     *
+     * @param str string to convert.
+     * @param errorMessage error message if string is not a task id.
+     * @return task id.
+     * @throws InvalidCommandException if string is not a task id.
+     */
+    public static int convertInputToId(String str, String errorMessage) throws InvalidCommandException {
+        return convertInputToIndex(str.substring(idPrefix.length()), errorMessage);
+    }
+
+    /**
+     * Returns whether a string input names several tasks, such as 1-50, 3,7,9-12 or all.
+     *
+     * @param str string to check.
+     * @return if string is a list or range of task numbers.
+     */
+    public static boolean isIndexList(String str) {
+        return str.equals(allIndexes) || str.contains(listSeparator) || str.indexOf(rangeSeparator) > 0;
+    }
+
+    /**
+     * Converts a list of task numbers and ranges of task numbers, or all, to indexes in the list of tasks.
+     *
+     * @param str string to convert, such as 1-50, 3,7,9-12 or all.
+     * @param size number of tasks in the list.
+     * @param errorMessage error message if string is not a list of task numbers.
+     * @return zero-based indexes, in the order given.
+     * @throws InvalidCommandException if string is not a list of task numbers, or a range is not in the list.
+     */
+    public static List<Integer> convertInputToIndexes(String str, int size, String errorMessage)
+            throws InvalidCommandException {
+        List<Integer> indexes = new ArrayList<>();
+        if (str.equals(allIndexes)) {
+            for (int i = 0; i < size; i++) {
+                indexes.add(i);
+            }
+            return indexes;
+        }
+
+        for (String part : str.split(listSeparator, -1)) {
+            int separatorIndex = part.indexOf(rangeSeparator, 1);
+            if (separatorIndex < 0) {
+                indexes.add(convertInputToIndex(part, errorMessage) - 1);
+                continue;
+            }
+
+            int start = convertInputToIndex(part.substring(0, separatorIndex), errorMessage);
+            int end = convertInputToIndex(part.substring(separatorIndex + 1), errorMessage);
+            if (end < start) {
+                throw new InvalidCommandException("The range " + part + " should not end before it starts.");
+            } else if (start < 1 || end > size) {
+                throw new InvalidCommandException("There is no task with that number.");
+            }
+
+            for (int i = start; i <= end; i++) {
+                indexes.add(i - 1);
+            }
+        }
+
+        return indexes;
+    }
+
     /**
      * Converts the array of date strings into integers.
      *
@@ -3,6 +3,7 @@ package bob.managers;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -36,6 +37,9 @@ public class DateManager {
     private static final String longDateFormat = "dd MMMM yyyy HH:mm";
     private static final String shortDateFormat = "dd/MM/yyyy HH:mm";
 
+    private static final DateTimeFormatter shortDateFormatter = DateTimeFormatter.ofPattern(shortDateFormat);
+    private static final DateTimeFormatter longDateFormatter = DateTimeFormatter.ofPattern(longDateFormat);
+
     private static final String invalidDateErrorMessage =
             "Invalid date format. Example format: dd/MM/yyyy or dd MMMM yyyy HH:mm (in 24 hour format).";
 
@@ -546,6 +550,26 @@ public class DateManager {
         }
     }
 
+    /**
+     * Parses a deadline in either standardised format.
+     *
+     * @param deadline deadline to parse.
+     * @return date and time of deadline, or null if it is not in a standardised format.
+     */
+    public static LocalDateTime parseDeadline(String deadline) {
+        try {
+            if (deadline.contains(slashSeparator)) {
+                return LocalDateTime.parse(deadline, shortDateFormatter);
+            } else if (deadline.contains(spaceSeparator)) {
+                return LocalDateTime.parse(deadline, longDateFormatter);
+            } else {
+                return null;
+            }
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
     /**
      * Checks if a deadline is due on the given date.
      *
@@ -555,26 +579,13 @@ public class DateManager {
      * @return whether deadline is due on the given date.
      */
     public static boolean isSameDay(String deadline, LocalDateTime date, boolean withTime) {
-        if (deadline.contains(slashSeparator)) {
-            LocalDateTime targetDate =
-                    LocalDateTime.parse(deadline, DateTimeFormatter.ofPattern(shortDateFormat));
-
-            if (withTime) {
-                return targetDate.equals(date);
-            } else {
-                return targetDate.toLocalDate().equals(date.toLocalDate());
-            }
-        } else if (deadline.contains(spaceSeparator)) {
-            LocalDateTime targetDate =
-                    LocalDateTime.parse(deadline, DateTimeFormatter.ofPattern(longDateFormat));
-
-            if (withTime) {
-                return targetDate.equals(date);
-            } else {
-                return targetDate.toLocalDate().equals(date.toLocalDate());
-            }
-        } else {
+        LocalDateTime targetDate = parseDeadline(deadline);
+        if (targetDate == null) {
             return false;
+        } else if (withTime) {
+            return targetDate.equals(date);
+        } else {
+            return targetDate.toLocalDate().equals(date.toLocalDate());
         }
     }
 }
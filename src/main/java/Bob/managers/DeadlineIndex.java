@@ -0,0 +1,87 @@
+package bob.managers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import bob.tasks.Task;
+import bob.tasks.TaskWithDeadline;
+
+/**
+ * Sorted index of tasks by their deadline, or start date for Events, so the tasks due in a range of dates
+ * are found in O(log n + k) without parsing every deadline again.
+ *
+ * Tasks whose deadline is not in a standardised format, such as a day of the week, are never due on a
+ * given date, so they are left out.
+ */
+class DeadlineIndex {
+    private final NavigableMap<LocalDateTime, List<TaskWithDeadline>> tasksByDeadline = new TreeMap<>();
+
+    /**
+     * Primary constructor of DeadlineIndex.
+     *
+     * @param tasks tasks to index, in list order.
+     */
+    DeadlineIndex(List<Task> tasks) {
+        tasks.forEach(this::add);
+    }
+
+    /**
+     * Adds a task to the index, after the tasks with the same deadline.
+     *
+     * @param task task to add.
+     */
+    void add(Task task) {
+        LocalDateTime deadline = getDeadline(task);
+        if (deadline != null) {
+            this.tasksByDeadline.computeIfAbsent(deadline, (d) -> new ArrayList<>()).add((TaskWithDeadline) task);
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task task to remove.
+     */
+    void remove(Task task) {
+        LocalDateTime deadline = getDeadline(task);
+        List<TaskWithDeadline> tasks = deadline == null ? null : this.tasksByDeadline.get(deadline);
+        if (tasks == null) {
+            return;
+        }
+
+        tasks.removeIf((t) -> t == task);
+        if (tasks.isEmpty()) {
+            this.tasksByDeadline.remove(deadline);
+        }
+    }
+
+    /**
+     * Returns the tasks due between two dates, both inclusive, from the earliest deadline.
+     *
+     * @param from start of range.
+     * @param to end of range.
+     * @return tasks due in the range.
+     */
+    List<TaskWithDeadline> getDueBetween(LocalDateTime from, LocalDateTime to) {
+        List<TaskWithDeadline> dueTasks = new ArrayList<>();
+        this.tasksByDeadline.subMap(from, true, to, true).values().forEach(dueTasks::addAll);
+        return dueTasks;
+    }
+
+    /**
+     * Returns the deadline of a task as a date and time.
+     *
+     * @param task task to check.
+     * @return deadline of task, or null if it has none in a standardised format.
+     */
+    static LocalDateTime getDeadline(Task task) {
+        if (!(task instanceof TaskWithDeadline)) {
+            return null;
+        }
+
+        return DateManager.parseDeadline(((TaskWithDeadline) task).getDeadline());
+    }
+}
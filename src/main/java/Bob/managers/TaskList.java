@@ -0,0 +1,277 @@
+package bob.managers;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import bob.tasks.Task;
+
+/**
+ * List of tasks that finds and removes tasks by position or by id in O(log n), instead of shifting every
+ * task after a removed one.
+ *
+ * Tasks are kept in slots in list order, and a Fenwick tree counts the tasks left in each range of slots.
+ * Removing a task only empties its slot and updates the counts, so a position is found by descending the
+ * tree, and the position of a task by summing the counts of the slots before it. Once every slot has been
+ * used, the tasks left are packed into new slots. Tasks can only be added at the end, as the order of the
+ * slots is the list order.
+ */
+class TaskList extends AbstractList<Task> {
+    private static final int minCapacity = 16;
+
+    private final Map<Integer, Integer> slotsById = new HashMap<>();
+    private Task[] slots;
+    private int[] counts; // Fenwick tree over the used slots, indexed from 1
+    private int slotCount;
+    private int size;
+
+    /**
+     * Constructor for an empty TaskList.
+     */
+    TaskList() {
+        this(Collections.emptyList());
+    }
+
+    /**
+     * Primary constructor of TaskList.
+     *
+     * @param tasks tasks in list order.
+     */
+    TaskList(Collection<Task> tasks) {
+        pack(tasks);
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public Task get(int index) {
+        checkIndex(index);
+        return this.slots[findSlot(index)];
+    }
+
+    /**
+     * Adds a task to the end of the list.
+     *
+     * @param index index to add at, which must be the size of the list.
+     * @param task task to add.
+     * @throws UnsupportedOperationException if the index is not the end of the list.
+     */
+    @Override
+    public void add(int index, Task task) {
+        if (index != this.size) {
+            throw new UnsupportedOperationException("Tasks can only be added at the end of the list.");
+        }
+
+        if (this.slotCount == this.slots.length) {
+            pack(new ArrayList<>(this));
+        }
+
+        this.slots[this.slotCount] = task;
+        this.slotsById.put(task.getId(), this.slotCount);
+        this.slotCount++;
+
+        int node = this.slotCount;
+        this.counts[node] = 1 + countBefore(node - 1) - countBefore(node - (node & -node));
+        this.size++;
+        this.modCount++;
+    }
+
+    @Override
+    public Task remove(int index) {
+        checkIndex(index);
+        return removeSlot(findSlot(index));
+    }
+
+    @Override
+    public void clear() {
+        pack(Collections.emptyList());
+        this.modCount++;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (!(o instanceof Task) || getById(((Task) o).getId()) != o) {
+            return -1;
+        }
+
+        return indexOfId(((Task) o).getId());
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    /**
+     * Returns the task with the given id.
+     *
+     * @param id id of task.
+     * @return task with the id, or null if no task in the list has it.
+     */
+    Task getById(int id) {
+        Integer slot = this.slotsById.get(id);
+        return slot == null ? null : this.slots[slot];
+    }
+
+    /**
+     * Returns the position of the task with the given id.
+     *
+     * @param id id of task.
+     * @return index of task, or -1 if no task in the list has the id.
+     */
+    int indexOfId(int id) {
+        Integer slot = this.slotsById.get(id);
+        return slot == null ? -1 : countBefore(slot);
+    }
+
+    /**
+     * Removes the task with the given id.
+     *
+     * @param id id of task.
+     * @return removed task, or null if no task in the list has the id.
+     */
+    Task removeById(int id) {
+        Integer slot = this.slotsById.get(id);
+        return slot == null ? null : removeSlot(slot);
+    }
+
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<Task>() {
+            private int nextSlot = findUsedSlot(0);
+            private int lastSlot = -1;
+
+            @Override
+            public boolean hasNext() {
+                return this.nextSlot < slotCount;
+            }
+
+            @Override
+            public Task next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                this.lastSlot = this.nextSlot;
+                this.nextSlot = findUsedSlot(this.nextSlot + 1);
+                return slots[this.lastSlot];
+            }
+
+            @Override
+            public void remove() {
+                if (this.lastSlot < 0) {
+                    throw new IllegalStateException();
+                }
+
+                removeSlot(this.lastSlot);
+                this.lastSlot = -1;
+            }
+        };
+    }
+
+    /**
+     * Returns the slot holding the task at the given position, descending the Fenwick tree from the largest
+     * range of slots.
+     *
+     * @param index position of task.
+     * @return slot of task.
+     */
+    private int findSlot(int index) {
+        int node = 0;
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(this.slotCount); step > 0; step >>= 1) {
+            int next = node + step;
+            if (next <= this.slotCount && this.counts[next] < remaining) {
+                node = next;
+                remaining -= this.counts[next];
+            }
+        }
+
+        return node; // Node after the last range with fewer tasks is the slot, counting from 1
+    }
+
+    /**
+     * Returns the number of tasks in the slots before the given slot.
+     *
+     * @param slot slot to count up to.
+     * @return number of tasks before the slot.
+     */
+    private int countBefore(int slot) {
+        int count = 0;
+        for (int node = slot; node > 0; node -= node & -node) {
+            count += this.counts[node];
+        }
+
+        return count;
+    }
+
+    private int findUsedSlot(int from) {
+        int slot = from;
+        while (slot < this.slotCount && this.slots[slot] == null) {
+            slot++;
+        }
+
+        return slot;
+    }
+
+    private Task removeSlot(int slot) {
+        Task task = this.slots[slot];
+        this.slots[slot] = null;
+        this.slotsById.remove(task.getId());
+        for (int node = slot + 1; node <= this.slotCount; node += node & -node) {
+            this.counts[node]--;
+        }
+
+        this.size--;
+        this.modCount++;
+        return task;
+    }
+
+    /**
+     * Puts the given tasks into new slots with room to add as many again, building the Fenwick tree in
+     * O(n).
+     *
+     * @param tasks tasks in list order.
+     */
+    private void pack(Collection<Task> tasks) {
+        int capacity = Math.max(minCapacity, tasks.size() * 2);
+        this.slots = new Task[capacity];
+        this.counts = new int[capacity + 1];
+        this.slotsById.clear();
+        this.slotCount = 0;
+
+        for (Task task : tasks) {
+            this.slots[this.slotCount] = task;
+            this.slotsById.put(task.getId(), this.slotCount);
+            this.slotCount++;
+        }
+
+        for (int node = 1; node <= this.slotCount; node++) {
+            this.counts[node]++;
+            int parent = node + (node & -node);
+            if (parent <= this.slotCount) {
+                this.counts[parent] += this.counts[node];
+            }
+        }
+        this.size = this.slotCount;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+    }
+}
@@ -1,15 +1,30 @@
 package bob.managers;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.function.Function;
+import java.util.Map;
+import java.util.Set;
 
 import bob.exceptions.InvalidTaskOperationException;
+import bob.storage.JournalRecord;
 import bob.storage.Storage;
+import bob.storage.SyncedStorage;
+import bob.storage.TaskArchive;
+import bob.storage.TaskStorage;
 import bob.tasks.Deadline;
 import bob.tasks.Event;
 import bob.tasks.Task;
+import bob.tasks.TaskIdentity;
 import bob.tasks.TaskWithDeadline;
 import bob.tasks.ToDo;
 import javafx.util.Pair;
@@ -21,19 +36,80 @@ public class TaskManager {
     private static final String todoShortFormat = "T";
     private static final String deadlineShortFormat = "D";
     private static final String eventShortFormat = "E";
-
-    private List<Task> tasks;
-    private Storage storage;
+    // Rough heap size of a loaded task, including its strings and list entry
+    private static final int estimatedTaskBytes = 256;
+
+    private TaskList tasks;
+    // Indexes of the loaded tasks, built when first needed after the list is replaced
+    private Map<TaskIdentity, Task> tasksByIdentity;
+    private DeadlineIndex deadlineIndex;
+    private TokenIndex tokenIndex;
+    private TaskStorage storage;
+    private TaskArchive archive;
+    private LocalDate archivedOn; // Day completed tasks were last archived
 
     /**
-     * Primary constructor of TaskManager.
+     * Constructor for TaskManager that saves to a text file.
      *
      * @param filePath path of file to save to.
      */
     public TaskManager(String filePath) {
-        this.tasks = new ArrayList<>();
-        this.storage = new Storage(filePath);
-        this.storage.loadTasks((Task t) -> this.tasks.add(t));
+        this(filePath, false);
+    }
+
+    /**
+     * Constructor for TaskManager that can make every change durable before returning.
+     *
+     * @param filePath path of file to save to.
+     * @param isDurable whether changes should be group committed and forced to disk.
+     */
+    public TaskManager(String filePath, boolean isDurable) {
+        this(new SyncedStorage(new Storage(filePath, isDurable), filePath), new TaskArchive(filePath));
+    }
+
+    /**
+     * Constructor for TaskManager that saves to the given storage.
+     *
+     * @param storage storage to load tasks from and save changes to.
+     */
+    public TaskManager(TaskStorage storage) {
+        this(storage, false);
+    }
+
+    /**
+     * Constructor for TaskManager that moves tasks completed long ago from the list to the given archive.
+     *
+     * @param storage storage to load tasks from and save changes to.
+     * @param archive archive to move completed tasks to.
+     */
+    public TaskManager(TaskStorage storage, TaskArchive archive) {
+        this(storage, archive, false);
+    }
+
+    /**
+     * Constructor for TaskManager that can wait to load tasks until the whole list is needed.
+     * Until then, the size and date queries are answered by the storage alone.
+     *
+     * @param storage storage to load tasks from and save changes to.
+     * @param isLoadDeferred whether tasks should only be loaded when first needed.
+     */
+    public TaskManager(TaskStorage storage, boolean isLoadDeferred) {
+        this(storage, null, isLoadDeferred);
+    }
+
+    /**
+     * Primary constructor of TaskManager.
+     *
+     * @param storage storage to load tasks from and save changes to.
+     * @param archive archive to move completed tasks to, or null if they should stay in the list.
+     * @param isLoadDeferred whether tasks should only be loaded when first needed.
+     */
+    public TaskManager(TaskStorage storage, TaskArchive archive, boolean isLoadDeferred) {
+        this.storage = storage;
+        this.archive = archive;
+        if (!isLoadDeferred) {
+            getTasks();
+        }
     }
 
     /**
@@ -42,7 +118,7 @@ public class TaskManager {
      * @return size of list of tasks.
      */
     public int getSize() {
-        return this.tasks.size();
+        return this.tasks == null ? this.storage.countTasks() : this.tasks.size();
     }
 
     /**
@@ -71,7 +147,14 @@ public class TaskManager {
 
         checkForExistingTasks(task);
 
-        this.tasks.add(task);
+        getTasks().add(task);
+        this.tasksByIdentity.put(task.getIdentity(), task);
+        if (this.deadlineIndex != null) {
+            this.deadlineIndex.add(task);
+        }
+        if (this.tokenIndex != null) {
+            this.tokenIndex.add(task);
+        }
         this.storage.saveTask(task);
         return task;
     }
@@ -83,7 +166,7 @@ public class TaskManager {
      * @return task at index.
      */
     public Task getTask(int index) {
-        return this.tasks.get(index);
+        return getTasks().get(index);
     }
 
     /**
@@ -92,8 +175,65 @@ public class TaskManager {
      * @param index index of task to remove.
      */
     public void deleteTask(int index) {
-        this.tasks.remove(index);
-        this.storage.rewriteTaskList(this.tasks);
+        Task task = getTasks().remove(index);
+        saveDeletion(task);
+    }
+
+    /**
+     * Removes the task with the given id from the list of tasks.
+     *
+     * @param id id of task to remove.
+     * @return removed task.
+     * @throws InvalidTaskOperationException if no task in the list has the id.
+     */
+    public Task deleteTaskById(int id) throws InvalidTaskOperationException {
+        Task task = getTasks().removeById(id);
+        if (task == null) {
+            throw new InvalidTaskOperationException("There is no task with that id.");
+        }
+
+        saveDeletion(task);
+        return task;
+    }
+
+    /**
+     * Returns the position in the list of the task with the given id.
+     *
+     * @param id id of task.
+     * @return index of task, or -1 if no task in the list has the id.
+     */
+    public int getIndexById(int id) {
+        return getTasks().indexOfId(id);
+    }
+
+    /**
+     * Removes the tasks at the given indexes from the list of tasks, saving the change once.
+     * Every index is checked before any task is removed.
+     *
+     * @param indexes indexes of tasks to remove, in any order.
+     * @return removed tasks, in list order.
+     * @throws InvalidTaskOperationException if any index is not in the list.
+     */
+    public List<Task> deleteTasks(List<Integer> indexes) throws InvalidTaskOperationException {
+        List<Task> loadedTasks = getTasks();
+        boolean[] isSelected = getSelection(indexes);
+
+        List<Task> deletedTasks = new ArrayList<>();
+        TaskList keptTasks = new TaskList();
+        int i = 0;
+        for (Task task : loadedTasks) {
+            (isSelected[i++] ? deletedTasks : keptTasks).add(task);
+        }
+
+        this.tasks = keptTasks;
+        deletedTasks.forEach(this::removeFromIndexes);
+        this.storage.deleteTasks(deletedTasks);
+        if (this.archive != null) {
+            List<Task> completedTasks = new ArrayList<>();
+            deletedTasks.stream().filter(Task::isCompleted).forEach(completedTasks::add);
+            this.archive.clearCompletions(completedTasks);
+        }
+        return deletedTasks;
     }
 
     /**
@@ -105,7 +245,7 @@ public class TaskManager {
      * @throws InvalidTaskOperationException if invalid index given.
      */
     public Task markTask(int index, boolean isCheck) throws InvalidTaskOperationException {
-        Task task = this.getTask(index);
+        Task task = getTasks().get(index);
         assert task != null : "Task should not be null.";
 
         if (isCheck) {
@@ -114,10 +254,58 @@ public class TaskManager {
             task.unmarkTask();
         }
 
-        this.storage.rewriteTaskList(this.tasks);
+        this.storage.updateTask(task);
+        if (this.archive != null) {
+            if (isCheck) {
+                this.archive.recordCompletion(task, LocalDate.now());
+            } else {
+                this.archive.clearCompletion(task);
+            }
+        }
         return task;
     }
 
+    /**
+     * Marks or unmarks the tasks at the given indexes, saving the change once.
+     * Every index is checked before any task is changed, and tasks already marked or unmarked are left
+     * as they are.
+     *
+     * @param indexes indexes of tasks to edit, in any order.
+     * @param isCheck whether the tasks should be marked or unmarked.
+     * @return edited tasks, in list order.
+     * @throws InvalidTaskOperationException if any index is not in the list.
+     */
+    public List<Task> markTasks(List<Integer> indexes, boolean isCheck) throws InvalidTaskOperationException {
+        List<Task> loadedTasks = getTasks();
+        boolean[] isSelected = getSelection(indexes);
+
+        List<Task> changedTasks = new ArrayList<>();
+        int i = 0;
+        for (Task task : loadedTasks) {
+            if (isSelected[i++] && task.isCompleted() != isCheck) {
+                changedTasks.add(task);
+            }
+        }
+
+        for (Task task : changedTasks) {
+            if (isCheck) {
+                task.markTask();
+            } else {
+                task.unmarkTask();
+            }
+        }
+
+        this.storage.updateTasks(changedTasks);
+        if (this.archive != null) {
+            if (isCheck) {
+                this.archive.recordCompletions(changedTasks, LocalDate.now());
+            } else {
+                this.archive.clearCompletions(changedTasks);
+            }
+        }
+        return changedTasks;
+    }
+
     /**
      * Returns a list of tasks containing stringToCheck in their names.
      *
@@ -125,26 +313,78 @@ public class TaskManager {
      * @return list of matching tasks.
      */
     public List<Task> getMatchingTasks(String stringToCheck) {
-        List<Task> matchingTasks = new ArrayList<>();
+        return getMatchingTasks(TaskQuery.of(stringToCheck));
+    }
+
+    /**
+     * Returns a list of tasks matching a query, looking up the trigrams of its terms in the token index.
+     * If tasks have not been loaded and the query is a single string, only the tasks the storage finds for
+     * that string are read.
+     *
+     * @param query query to match.
+     * @return list of matching tasks.
+     */
+    public List<Task> getMatchingTasks(TaskQuery query) {
+        String singleTerm = query.getSingleTerm();
+        if (this.tasks == null && singleTerm != null) {
+            List<Task> matchingTasks = new ArrayList<>();
+            this.storage.loadTasksMatching(singleTerm, (Task t) -> {
+                if (t.contains(singleTerm)) {
+                    matchingTasks.add(t);
+                }
+            });
+            return matchingTasks;
+        }
+
+        return getTokenIndex().search(query);
+    }
+
+    /**
+     * Returns a list of archived tasks containing stringToCheck in their names, oldest first.
+     *
+     * @param stringToCheck string to check for.
+     * @return list of matching archived tasks.
+     */
+    public List<Task> getMatchingArchivedTasks(String stringToCheck) {
+        return getMatchingArchivedTasks(TaskQuery.of(stringToCheck));
+    }
 
-        this.tasks.stream()
-                  .filter((t) -> t.contains(stringToCheck))
-                  .forEach((t) -> matchingTasks.add(t));
+    /**
+     * Returns a list of archived tasks matching a query, oldest first.
+     *
+     * @param query query to match.
+     * @return list of matching archived tasks.
+     */
+    public List<Task> getMatchingArchivedTasks(TaskQuery query) {
+        List<Task> matchingTasks = new ArrayList<>();
+        if (this.archive != null) {
+            String singleTerm = query.getSingleTerm();
+            this.archive.loadTasksMatching(singleTerm == null ? "" : singleTerm, (t) -> {
+                if (query.matches(t)) {
+                    matchingTasks.add(t);
+                }
+            });
+        }
 
         return matchingTasks;
     }
 
+    /**
+     * Returns every archived task, oldest first.
+     *
+     * @return list of archived tasks.
+     */
+    public List<Task> getArchivedTasks() {
+        return getMatchingArchivedTasks("");
+    }
+
     /**
      * Displays all Deadlines and Events with deadlines due today.
      */
     public String displayIncomingDeadlines() {
-        Function<TaskWithDeadline, Boolean> isIncomingDeadline =
-                (d) -> d.isTaskType(deadlineShortFormat) && d.isSameDay(LocalDateTime.now(), false);
-        Function<TaskWithDeadline, Boolean> isIncomingEvent =
-                (e) -> e.isTaskType(eventShortFormat) && e.isSameDay(LocalDateTime.now(), false);
-
+        LocalDate today = LocalDate.now();
         Pair<List<TaskWithDeadline>, List<TaskWithDeadline>> incomingLists =
-                getFilteredLists(isIncomingDeadline, isIncomingEvent);
+                getFilteredLists(getTasksDueBetween(today.atStartOfDay(), today.atTime(LocalTime.MAX)));
         return concatenateTasks(incomingLists, "Here's today's incoming tasks:\n",
                 "You...don't have any incoming tasks today.\n");
     }
@@ -156,24 +396,135 @@ public class TaskManager {
      * @return output to be displayed.
      */
     public String displaySameDeadlines(Pair<LocalDateTime, Boolean> pair) {
-        Function<TaskWithDeadline, Boolean> isSameDeadline =
-                (d) -> d.isTaskType(deadlineShortFormat) && d.isSameDay(pair.getKey(), pair.getValue());
-        Function<TaskWithDeadline, Boolean> isSameEvent =
-                (e) -> e.isTaskType(eventShortFormat) && e.isSameDay(pair.getKey(), pair.getValue());
+        LocalDateTime from = pair.getValue() ? pair.getKey() : pair.getKey().toLocalDate().atStartOfDay();
+        LocalDateTime to = pair.getValue() ? pair.getKey() : pair.getKey().toLocalDate().atTime(LocalTime.MAX);
 
-        Pair<List<TaskWithDeadline>, List<TaskWithDeadline>> lists =
-                getFilteredLists(isSameDeadline, isSameEvent);
+        Pair<List<TaskWithDeadline>, List<TaskWithDeadline>> lists = getFilteredLists(getTasksDueBetween(from, to));
         return concatenateTasks(lists, "Here's the tasks due at that date:\n",
                 "You...don't have any tasks due that day!");
     }
 
+    /**
+     * Displays all Deadlines and Events with deadlines between the given dates, both inclusive,
+     * from the earliest deadline.
+     *
+     * @param from start of range.
+     * @param to end of range.
+     * @return output to be displayed.
+     */
+    public String displayDeadlinesBetween(LocalDateTime from, LocalDateTime to) {
+        Pair<List<TaskWithDeadline>, List<TaskWithDeadline>> lists = getFilteredLists(getTasksDueBetween(from, to));
+        return concatenateTasks(lists, "Here's the tasks due between those dates:\n",
+                "You...don't have any tasks due between those dates!");
+    }
+
+    /**
+     * Replaces every task with the given list, such as one restored from a backup.
+     *
+     * @param tasks tasks in list order.
+     */
+    public void replaceTasks(List<Task> tasks) {
+        replaceTaskList(tasks);
+    }
+
+    /**
+     * Replaces every task with the given list restored from a backup, along with the days its tasks were
+     * completed and the tasks archived in the backup. Tasks completed long ago are then archived again.
+     *
+     * @param tasks tasks in list order.
+     * @param restoredArchive archive restored from the same backup.
+     */
+    public void restoreTasks(List<Task> tasks, TaskArchive restoredArchive) {
+        replaceTaskList(tasks);
+        if (this.archive != null) {
+            this.archive.restoreFrom(restoredArchive, this.tasks);
+            archiveExpiredTasks(LocalDate.now());
+        }
+    }
+
+    /**
+     * Brings the loaded tasks up to date with changes saved by other processes.
+     * Only the changes made since the last load or refresh are read, unless the save file was replaced.
+     */
+    public void refresh() {
+        refresh(LocalDate.now());
+    }
+
+    /**
+     * Brings the loaded tasks up to date on the given day. Tasks that expired since they were last archived
+     * are archived once a day, as Bob may stay open for days.
+     *
+     * @param today current day.
+     */
+    void refresh(LocalDate today) {
+        if (this.tasks == null) {
+            return; // Tasks are up to date when they are first loaded
+        }
+
+        List<JournalRecord> changes = new ArrayList<>();
+        if (!this.storage.loadExternalChanges((change) -> changes.add(change))) {
+            Map<String, Task> earlierTasks = getTasksByKey();
+            resetIndexes();
+            loadTasks(earlierTasks);
+            return;
+        }
+
+        applyChanges(changes);
+        if (!today.equals(this.archivedOn)) {
+            archiveExpiredTasks(today);
+        }
+    }
+
+    /**
+     * Exchanges changes with replicas of the list of tasks syncing through the given directory.
+     * Only the changes made since the replicas last synced are exchanged.
+     *
+     * @param directory directory shared by the replicas, such as a synced folder.
+     * @return number of changes received.
+     * @throws IOException if the list of tasks cannot be synced or the changes cannot be exchanged.
+     */
+    public int syncWith(Path directory) throws IOException {
+        if (!(this.storage instanceof SyncedStorage)) {
+            throw new IOException("This list of tasks is not saved in a way that can be synced.");
+        }
+
+        getTasks();
+        List<JournalRecord> changes = new ArrayList<>();
+        ((SyncedStorage) this.storage).syncWith(directory, (change) -> changes.add(change));
+        applyChanges(changes);
+        return changes.size();
+    }
+
+    /**
+     * Waits until every change to the list of tasks has been saved.
+     */
+    public void flush() {
+        this.storage.flush();
+    }
+
+    /**
+     * Saves every change and releases the storage, once the list of tasks is no longer used.
+     */
+    public void close() {
+        this.storage.close();
+    }
+
+    /**
+     * Returns a rough estimate of the memory used by the loaded tasks.
+     *
+     * @return estimated bytes, or 0 if tasks have not been loaded.
+     */
+    public long getEstimatedMemory() {
+        return this.tasks == null ? 0 : (long) this.tasks.size() * estimatedTaskBytes;
+    }
+
     /**
      * Returns output depending on whether the list of tasks is empty.
      *
      * @return Output depending on whether the list of tasks is empty.
      */
     public String getSavedListMessage() {
-        if (this.tasks.isEmpty()) {
+        if (getSize() == 0) {
             return "There's...no tasks right now.";
         } else {
             return "Huh, seems like you already have a saved task list.";
@@ -181,29 +532,274 @@ public class TaskManager {
     }
 
     /**
-     * Gets the lists with matching due dates.
+     * Returns the loaded tasks by their keys, so that copies of them loaded later can be replaced by them.
      *
-     * @param deadlineFunction function to filter deadlines by.
-     * @param eventFunction function to filter events by.
-     * @return list of matching deadlines and list of matching events.
+     * @return tasks by key, or an empty map if tasks have not been loaded.
      */
-    private Pair<List<TaskWithDeadline>, List<TaskWithDeadline>> getFilteredLists(
-            Function<TaskWithDeadline, Boolean> deadlineFunction,
-            Function<TaskWithDeadline, Boolean> eventFunction) {
-        List<TaskWithDeadline> deadlineList = new ArrayList<>();
-        List<TaskWithDeadline> eventList = new ArrayList<>();
+    private Map<String, Task> getTasksByKey() {
+        Map<String, Task> tasksByKey = new HashMap<>();
+        if (this.tasks != null) {
+            this.tasks.forEach((t) -> tasksByKey.put(t.getKey(), t));
+        }
+
+        return tasksByKey;
+    }
+
+    /**
+     * Replaces every task with the given list and saves it, keeping the ids of tasks already in the list.
+     *
+     * @param tasks tasks in list order.
+     */
+    private void replaceTaskList(List<Task> tasks) {
+        this.tasks = new TaskList(keepTasks(tasks, getTasksByKey()));
+        resetIndexes();
+        this.storage.rewriteTaskList(this.tasks);
+    }
+
+    /**
+     * Returns the list of tasks, loading it from storage if it has not been loaded yet.
+     *
+     * @return list of tasks.
+     */
+    private TaskList getTasks() {
+        if (this.tasks == null) {
+            loadTasks(Collections.emptyMap());
+        }
+
+        return this.tasks;
+    }
+
+    /**
+     * Loads every task from storage, keeping the tasks that were loaded before so they keep their ids.
+     *
+     * @param earlierTasks tasks loaded before by their keys.
+     */
+    private void loadTasks(Map<String, Task> earlierTasks) {
+        List<Task> loadedTasks = new ArrayList<>();
+        this.storage.loadTasks((Task t) -> loadedTasks.add(t));
+        this.tasks = new TaskList(keepTasks(loadedTasks, earlierTasks));
+        archiveExpiredTasks(LocalDate.now());
+    }
 
-        for (Task task : this.tasks) {
-            if (task.isTaskType(todoShortFormat)) {
+    /**
+     * Replaces each task that has the same key as an earlier task by the earlier task, so that ids stay the
+     * same when tasks are loaded again. Tasks with the same key only differ in whether they are completed,
+     * so the earlier task is marked or unmarked to match.
+     *
+     * @param tasks tasks in list order.
+     * @param earlierTasks tasks they replace by their keys.
+     * @return tasks in list order, with earlier tasks in place of their copies.
+     */
+    private static List<Task> keepTasks(Collection<Task> tasks, Map<String, Task> earlierTasks) {
+        List<Task> keptTasks = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            Task earlierTask = earlierTasks.get(task.getKey());
+            if (earlierTask == null || earlierTask == task) {
+                keptTasks.add(task);
                 continue;
             }
 
-            TaskWithDeadline filteredTask = (TaskWithDeadline) task;
+            setCompletion(earlierTask, task.isCompleted());
+            keptTasks.add(earlierTask);
+        }
+
+        return keptTasks;
+    }
+
+    private static void setCompletion(Task task, boolean isCompleted) {
+        if (task.isCompleted() == isCompleted) {
+            return;
+        }
+
+        try {
+            if (isCompleted) {
+                task.markTask();
+            } else {
+                task.unmarkTask();
+            }
+        } catch (InvalidTaskOperationException e) {
+            assert false : "Completion status was checked before editing.";
+        }
+    }
+
+    /**
+     * Moves tasks completed long ago from the list to the archive, so they are no longer loaded,
+     * searched or saved with the list. Their removal from the list is saved with a single write.
+     *
+     * @param today current day.
+     */
+    private void archiveExpiredTasks(LocalDate today) {
+        if (this.archive == null) {
+            return;
+        }
+
+        this.archivedOn = today;
+        List<Task> expiredTasks = this.archive.archiveExpired(this.tasks, today);
+        if (expiredTasks.isEmpty()) {
+            return;
+        }
+
+        Set<Task> expired = Collections.newSetFromMap(new IdentityHashMap<>());
+        expired.addAll(expiredTasks);
+        this.tasks.removeIf(expired::contains);
+        resetIndexes();
+        this.storage.deleteTasks(expiredTasks);
+    }
+
+    /**
+     * Returns tasks due between two dates, both inclusive, from the earliest deadline.
+     * If tasks have been loaded, they are looked up in the deadline index. Otherwise, only the tasks the
+     * storage finds for those days are read.
+     *
+     * @param from start of range.
+     * @param to end of range.
+     * @return tasks due in the range.
+     */
+    private List<TaskWithDeadline> getTasksDueBetween(LocalDateTime from, LocalDateTime to) {
+        if (this.tasks != null) {
+            return getDeadlineIndex().getDueBetween(from, to);
+        }
+
+        List<Task> candidates = new ArrayList<>();
+        this.storage.loadTasksDueBetween(from.toLocalDate(), to.toLocalDate(), (Task t) -> candidates.add(t));
+        return new DeadlineIndex(candidates).getDueBetween(from, to);
+    }
+
+    /**
+     * Loads the tasks and builds every index that is otherwise built when first needed, so that later
+     * queries only read them.
+     */
+    void buildIndexes() {
+        getTasksByIdentity();
+        getDeadlineIndex();
+        getTokenIndex();
+    }
+
+    private Map<TaskIdentity, Task> getTasksByIdentity() {
+        List<Task> loadedTasks = getTasks();
+        if (this.tasksByIdentity == null) {
+            this.tasksByIdentity = new HashMap<>();
+            loadedTasks.forEach((t) -> this.tasksByIdentity.putIfAbsent(t.getIdentity(), t));
+        }
+
+        return this.tasksByIdentity;
+    }
+
+    private DeadlineIndex getDeadlineIndex() {
+        List<Task> loadedTasks = getTasks();
+        if (this.deadlineIndex == null) {
+            this.deadlineIndex = new DeadlineIndex(loadedTasks);
+        }
+
+        return this.deadlineIndex;
+    }
+
+    private TokenIndex getTokenIndex() {
+        List<Task> loadedTasks = getTasks();
+        if (this.tokenIndex == null) {
+            this.tokenIndex = new TokenIndex(loadedTasks);
+        }
+
+        return this.tokenIndex;
+    }
+
+    /**
+     * Checks that every index is in the list of tasks.
+     *
+     * @param indexes indexes to check.
+     * @return whether each task in the list is at one of the indexes.
+     * @throws InvalidTaskOperationException if any index is not in the list.
+     */
+    private boolean[] getSelection(List<Integer> indexes) throws InvalidTaskOperationException {
+        boolean[] isSelected = new boolean[getTasks().size()];
+        for (int index : indexes) {
+            if (index < 0 || index >= isSelected.length) {
+                throw new InvalidTaskOperationException("There is no task with that number.");
+            }
+            isSelected[index] = true;
+        }
+
+        return isSelected;
+    }
+
+    /**
+     * Removes a deleted task from the indexes and saves its deletion.
+     *
+     * @param task deleted task.
+     */
+    private void saveDeletion(Task task) {
+        removeFromIndexes(task);
+        this.storage.deleteTask(task);
+        if (this.archive != null && task.isCompleted()) {
+            this.archive.clearCompletion(task);
+        }
+    }
+
+    /**
+     * Removes a deleted task from the indexes that have been built.
+     *
+     * @param task deleted task.
+     */
+    private void removeFromIndexes(Task task) {
+        if (this.tasksByIdentity != null) {
+            this.tasksByIdentity.remove(task.getIdentity(), task);
+        }
+        if (this.deadlineIndex != null) {
+            this.deadlineIndex.remove(task);
+        }
+        if (this.tokenIndex != null) {
+            this.tokenIndex.remove(task);
+        }
+    }
+
+    /**
+     * Drops the indexes of the loaded tasks, once the list has been replaced.
+     */
+    private void resetIndexes() {
+        this.tasksByIdentity = null;
+        this.deadlineIndex = null;
+        this.tokenIndex = null;
+    }
+
+    /**
+     * Applies changes saved elsewhere to the loaded tasks, keeping them in list order.
+     *
+     * @param changes changes in the order they were made.
+     */
+    private void applyChanges(List<JournalRecord> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        Map<String, Task> earlierTasks = getTasksByKey();
+        Map<String, Task> tasksByKey = new LinkedHashMap<>();
+        this.tasks.forEach((t) -> tasksByKey.put(t.getKey(), t));
+        for (JournalRecord change : changes) {
+            try {
+                change.applyTo(tasksByKey);
+            } catch (IllegalArgumentException e) {
+                System.err.println("There was a problem loading the change: " + e.getMessage());
+            }
+        }
+        this.tasks = new TaskList(keepTasks(tasksByKey.values(), earlierTasks));
+        resetIndexes();
+    }
+
+    /**
+     * Splits due tasks into Deadlines and Events.
+     *
+     * @param tasks due tasks.
+     * @return list of due deadlines and list of due events.
+     */
+    private Pair<List<TaskWithDeadline>, List<TaskWithDeadline>> getFilteredLists(List<TaskWithDeadline> tasks) {
+        List<TaskWithDeadline> deadlineList = new ArrayList<>();
+        List<TaskWithDeadline> eventList = new ArrayList<>();
 
-            if (deadlineFunction.apply(filteredTask)) {
-                deadlineList.add(filteredTask);
-            } else if (eventFunction.apply(filteredTask)) {
-                eventList.add(filteredTask);
+        for (TaskWithDeadline task : tasks) {
+            if (task.isTaskType(deadlineShortFormat)) {
+                deadlineList.add(task);
+            } else if (task.isTaskType(eventShortFormat)) {
+                eventList.add(task);
             }
         }
 
@@ -241,16 +837,14 @@ public class TaskManager {
     }
 
     /**
-     * Checks if task already exists in the list of tasks.
+     * Checks if task already exists in the list of tasks, looking up its identity in the hash index.
      *
      * @param task task to check.
      * @throws InvalidTaskOperationException if task already exists.
      */
     private void checkForExistingTasks(Task task) throws InvalidTaskOperationException {
-        for (Task t : tasks) {
-            if (t.toString().substring(2).equals(task.toString().substring(2))) {
-                throw new InvalidTaskOperationException("Sorry, that task already exists.");
-            }
+        if (getTasksByIdentity().containsKey(task.getIdentity())) {
+            throw new InvalidTaskOperationException("Sorry, that task already exists.");
         }
     }
 }
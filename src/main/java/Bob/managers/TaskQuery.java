@@ -0,0 +1,152 @@
+package bob.managers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import bob.tasks.Task;
+
+/**
+ * Query matching tasks by strings in their names, combined with AND, OR and NOT.
+ *
+ * A query is a list of clauses joined by OR, and a clause is a list of terms joined by AND, each of which
+ * may start with NOT. AND binds tighter than OR, so {@code a AND b OR NOT c} matches tasks containing both
+ * a and b, or not containing c. Words between keywords form one term, so a query without keywords matches
+ * tasks containing the whole query, as find always has.
+ */
+public class TaskQuery {
+    private static final String andKeyword = "AND";
+    private static final String orKeyword = "OR";
+    private static final String notKeyword = "NOT";
+
+    private final List<Clause> clauses;
+
+    /**
+     * Terms that a matching task must all contain, and terms it must not contain.
+     */
+    static class Clause {
+        private final List<String> includedTerms = new ArrayList<>();
+        private final List<String> excludedTerms = new ArrayList<>();
+
+        List<String> getIncludedTerms() {
+            return this.includedTerms;
+        }
+
+        List<String> getExcludedTerms() {
+            return this.excludedTerms;
+        }
+
+        /**
+         * Returns whether a task name satisfies every term of this clause.
+         *
+         * @param taskName name of task.
+         * @return if the name contains every included term and no excluded term.
+         */
+        boolean matches(String taskName) {
+            for (String term : this.includedTerms) {
+                if (!taskName.contains(term)) {
+                    return false;
+                }
+            }
+            for (String term : this.excludedTerms) {
+                if (taskName.contains(term)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    private TaskQuery(List<Clause> clauses) {
+        this.clauses = clauses;
+    }
+
+    /**
+     * Returns a query matching tasks containing the given string.
+     *
+     * @param str string to check for.
+     * @return query for the string.
+     */
+    public static TaskQuery of(String str) {
+        Clause clause = new Clause();
+        clause.includedTerms.add(str);
+        return new TaskQuery(Collections.singletonList(clause));
+    }
+
+    /**
+     * Parses a query from the words of a find command.
+     *
+     * @param words words of the query, without the command.
+     * @return parsed query.
+     * @throws IllegalArgumentException if a keyword is missing a term.
+     */
+    public static TaskQuery parse(List<String> words) throws IllegalArgumentException {
+        List<Clause> clauses = new ArrayList<>();
+        Clause clause = new Clause();
+        StringBuffer term = new StringBuffer();
+        boolean isNegated = false;
+
+        for (String word : words) {
+            if (word.equals(andKeyword) || word.equals(orKeyword)) {
+                addTerm(clause, term, isNegated, word);
+                term.setLength(0);
+                isNegated = false;
+                if (word.equals(orKeyword)) {
+                    clauses.add(clause);
+                    clause = new Clause();
+                }
+            } else if (word.equals(notKeyword) && term.length() == 0 && !isNegated) {
+                isNegated = true;
+            } else {
+                term.append(term.length() == 0 ? "" : " ").append(word);
+            }
+        }
+
+        addTerm(clause, term, isNegated, "the end");
+        clauses.add(clause);
+        return new TaskQuery(clauses);
+    }
+
+    private static void addTerm(Clause clause, StringBuffer term, boolean isNegated, String position) {
+        if (term.length() == 0) {
+            throw new IllegalArgumentException("There's nothing to find before " + position + ".");
+        }
+
+        (isNegated ? clause.excludedTerms : clause.includedTerms).add(term.toString());
+    }
+
+    List<Clause> getClauses() {
+        return this.clauses;
+    }
+
+    /**
+     * Returns the only string to check for, if this query has no keywords.
+     *
+     * @return string to check for, or null if the query combines several terms.
+     */
+    String getSingleTerm() {
+        if (this.clauses.size() != 1 || !this.clauses.get(0).excludedTerms.isEmpty()
+                || this.clauses.get(0).includedTerms.size() != 1) {
+            return null;
+        }
+
+        return this.clauses.get(0).includedTerms.get(0);
+    }
+
+    /**
+     * Returns whether a task matches this query.
+     *
+     * @param task task to check.
+     * @return if any clause matches the name of the task.
+     */
+    public boolean matches(Task task) {
+        for (Clause clause : this.clauses) {
+            if (clause.matches(task.getTaskName())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
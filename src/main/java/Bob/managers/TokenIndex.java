@@ -0,0 +1,285 @@
+package bob.managers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import bob.tasks.Task;
+
+/**
+ * Inverted index from the trigrams of task names to sorted posting lists of task ids, so find only checks
+ * the tasks containing every trigram of its terms.
+ *
+ * Tasks get increasing ids in list order, so posting lists stay sorted by appending, and results come out
+ * in list order. The posting lists of a clause are intersected from the shortest, galloping through the
+ * longer ones, and the few tasks left are checked against the terms themselves. Trigrams keep the
+ * substring matching of find, and terms shorter than a trigram fall back to checking every task.
+ *
+ * Removing a task only leaves a tombstone in place of it, so its ids stay in the posting lists and are
+ * skipped by searches. Once most ids are tombstones, the tasks left are given new ids in list order and
+ * every posting list is renumbered in one pass, so removing a task costs O(1) amortised.
+ */
+class TokenIndex {
+    private static final int gramLength = 3;
+
+    private final Map<String, PostingList> postingsByGram = new HashMap<>();
+    private final PostingList allIds = new PostingList();
+    private List<Task> tasksById = new ArrayList<>();
+    private final Map<Task, Integer> idsByTask = new IdentityHashMap<>();
+    private int removedCount;
+
+    /**
+     * Sorted list of task ids.
+     */
+    static class PostingList {
+        private int[] ids = new int[4];
+        private int size;
+
+        PostingList() {
+        }
+
+        private PostingList(int[] ids, int size) {
+            this.ids = ids;
+            this.size = size;
+        }
+
+        /**
+         * Adds an id greater than every id in the list.
+         *
+         * @param id id to add.
+         */
+        void add(int id) {
+            if (this.size == this.ids.length) {
+                this.ids = Arrays.copyOf(this.ids, this.size * 2);
+            }
+            this.ids[this.size++] = id;
+        }
+
+        /**
+         * Replaces every id with its new id, dropping ids that have none.
+         * New ids must be in the same order as the ids they replace.
+         *
+         * @param newIds new id of each id, or -1 if it is dropped.
+         */
+        void renumber(int[] newIds) {
+            int count = 0;
+            for (int i = 0; i < this.size; i++) {
+                int newId = newIds[this.ids[i]];
+                if (newId >= 0) {
+                    this.ids[count++] = newId;
+                }
+            }
+
+            this.size = count;
+            if (this.ids.length > 4 * Math.max(this.size, 4)) {
+                this.ids = Arrays.copyOf(this.ids, Math.max(this.size * 2, 4));
+            }
+        }
+
+        int size() {
+            return this.size;
+        }
+
+        int get(int index) {
+            return this.ids[index];
+        }
+
+        /**
+         * Returns the ids in both lists, galloping through this list for each id of the other.
+         *
+         * @param other shorter list.
+         * @return ids in both lists.
+         */
+        PostingList intersect(PostingList other) {
+            int[] result = new int[Math.min(this.size, other.size)];
+            int count = 0;
+            int position = 0;
+            for (int i = 0; i < other.size && position < this.size; i++) {
+                position = gallop(other.ids[i], position);
+                if (position < this.size && this.ids[position] == other.ids[i]) {
+                    result[count++] = other.ids[i];
+                }
+            }
+
+            return new PostingList(result, count);
+        }
+
+        /**
+         * Returns the index of the first id not less than the target, searching from the given index with
+         * steps that double until they pass the target.
+         */
+        private int gallop(int target, int from) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < this.size && this.ids[high] < target) {
+                low = high + 1;
+                high = from + step;
+                step *= 2;
+            }
+
+            int index = Arrays.binarySearch(this.ids, low, Math.min(high, this.size - 1) + 1, target);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+
+    /**
+     * Primary constructor of TokenIndex.
+     *
+     * @param tasks tasks to index, in list order.
+     */
+    TokenIndex(List<Task> tasks) {
+        tasks.forEach(this::add);
+    }
+
+    /**
+     * Adds a task after every task in the index.
+     *
+     * @param task task to add.
+     */
+    void add(Task task) {
+        int id = this.tasksById.size();
+        this.tasksById.add(task);
+        this.idsByTask.put(task, id);
+        this.allIds.add(id);
+
+        for (String gram : getGrams(task.getTaskName())) {
+            PostingList postings = this.postingsByGram.computeIfAbsent(gram, (g) -> new PostingList());
+            if (postings.size() == 0 || postings.get(postings.size() - 1) != id) { // Skips repeated trigrams
+                postings.add(id);
+            }
+        }
+    }
+
+    /**
+     * Removes a task from the index, leaving a tombstone in place of it.
+     *
+     * @param task task to remove.
+     */
+    void remove(Task task) {
+        Integer id = this.idsByTask.remove(task);
+        if (id == null) {
+            return;
+        }
+
+        this.tasksById.set(id, null);
+        this.removedCount++;
+        if (this.removedCount * 2 > this.tasksById.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Returns the number of ids given out, including those of removed tasks that have not been compacted.
+     *
+     * @return number of ids.
+     */
+    int getIdCount() {
+        return this.tasksById.size();
+    }
+
+    /**
+     * Returns the tasks matching a query, in list order.
+     *
+     * @param query query to match.
+     * @return matching tasks.
+     */
+    List<Task> search(TaskQuery query) {
+        List<TaskQuery.Clause> clauses = query.getClauses();
+        boolean[] isMatched = clauses.size() > 1 ? new boolean[this.tasksById.size()] : null;
+        List<Task> matchingTasks = new ArrayList<>();
+
+        for (TaskQuery.Clause clause : clauses) {
+            PostingList candidates = getCandidates(clause.getIncludedTerms());
+            for (int i = 0; i < candidates.size(); i++) {
+                int id = candidates.get(i);
+                Task task = this.tasksById.get(id);
+                if (task == null || !clause.matches(task.getTaskName())) { // Skips tombstones
+                    continue;
+                }
+
+                if (isMatched == null) {
+                    matchingTasks.add(task);
+                } else {
+                    isMatched[id] = true;
+                }
+            }
+        }
+
+        if (isMatched != null) { // Clauses may match the same tasks, so results are gathered in id order
+            for (int id = 0; id < isMatched.length; id++) {
+                if (isMatched[id]) {
+                    matchingTasks.add(this.tasksById.get(id));
+                }
+            }
+        }
+
+        return matchingTasks;
+    }
+
+    /**
+     * Returns the ids of tasks containing every trigram of the given terms.
+     *
+     * @param terms terms every match contains.
+     * @return candidate ids, which still have to be checked against the terms.
+     */
+    private PostingList getCandidates(List<String> terms) {
+        List<PostingList> postings = new ArrayList<>();
+        for (String term : terms) {
+            for (String gram : getGrams(term)) {
+                PostingList gramPostings = this.postingsByGram.get(gram);
+                if (gramPostings == null) {
+                    return new PostingList();
+                }
+                postings.add(gramPostings);
+            }
+        }
+        if (postings.isEmpty()) {
+            return this.allIds;
+        }
+
+        postings.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        PostingList candidates = postings.get(0);
+        for (int i = 1; i < postings.size() && candidates.size() > 0; i++) {
+            candidates = postings.get(i).intersect(candidates);
+        }
+
+        return candidates;
+    }
+
+    /**
+     * Gives the tasks left new ids in list order, and drops the ids of removed tasks from every posting list.
+     */
+    private void compact() {
+        int[] newIds = new int[this.tasksById.size()];
+        List<Task> tasksLeft = new ArrayList<>();
+        for (int id = 0; id < newIds.length; id++) {
+            Task task = this.tasksById.get(id);
+            newIds[id] = task == null ? -1 : tasksLeft.size();
+            if (task != null) {
+                this.idsByTask.put(task, tasksLeft.size());
+                tasksLeft.add(task);
+            }
+        }
+
+        this.tasksById = tasksLeft;
+        this.allIds.renumber(newIds);
+        this.postingsByGram.values().removeIf((postings) -> {
+            postings.renumber(newIds);
+            return postings.size() == 0;
+        });
+        this.removedCount = 0;
+    }
+
+    private static List<String> getGrams(String str) {
+        List<String> grams = new ArrayList<>();
+        for (int i = 0; i + gramLength <= str.length(); i++) {
+            grams.add(str.substring(i, i + gramLength));
+        }
+
+        return grams;
+    }
+}
@@ -9,9 +9,24 @@ import bob.parser.Parser;
  * Manages all functions related to the UI.
  */
 public class UiManager {
-    // File path to save in hard disk
-    private static final String FILE_PATH = Paths.get("data", "bob.txt").toString();
-    private final Parser parser = new Parser(FILE_PATH);
+    // Directory to save workspaces in hard disk, with the default workspace in bob.txt
+    private static final String DIRECTORY_PATH = Paths.get("data").toString();
+    // Number of tasks with unsaved changes before commands wait for the disk
+    private static final int WRITE_BEHIND_CAPACITY = 4096;
+    // Estimated bytes of loaded tasks before idle workspaces are closed
+    private static final long WORKSPACE_MEMORY_BUDGET = 64L << 20;
+    // Minutes between backups of changed workspaces
+    private static final long BACKUP_INTERVAL_MINUTES = 30;
+    private final WorkspaceManager workspaceManager =
+            new WorkspaceManager(DIRECTORY_PATH, WRITE_BEHIND_CAPACITY, WORKSPACE_MEMORY_BUDGET);
+    private final Parser parser = new Parser(this.workspaceManager);
+
+    /**
+     * Primary constructor of UiManager, which starts backing up changed workspaces in the background.
+     */
+    public UiManager() {
+        this.workspaceManager.getBackupManager().scheduleBackups(BACKUP_INTERVAL_MINUTES);
+    }
 
     /**
      * Propogates displayIncomingDeadlines to parser.
@@ -38,6 +53,13 @@ public class UiManager {
         }
     }
 
+    /**
+     * Waits until every change has been saved, so that no changes are lost on exit.
+     */
+    public void flush() {
+        this.parser.flush();
+    }
+
     /**
      * Propogates getSavedListMessage to parser.
      *
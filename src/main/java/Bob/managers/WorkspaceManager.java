@@ -0,0 +1,240 @@
+package bob.managers;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import bob.exceptions.InvalidCommandException;
+import bob.storage.SyncedStorage;
+import bob.storage.TaskArchive;
+import bob.storage.WriteBehindStorage;
+
+/**
+ * Manages named workspaces, each with its own list of tasks saved in its own file.
+ *
+ * A workspace's tasks are only loaded when they are first needed. Loaded workspaces are kept in least
+ * recently used order, and idle ones are closed once the estimated memory of all loaded workspaces
+ * exceeds the memory budget. The current workspace is never closed.
+ */
+public class WorkspaceManager {
+    public static final String DEFAULT_WORKSPACE = "bob";
+
+    private static final String fileSuffix = ".txt";
+    private static final String validNamePattern = "[A-Za-z0-9_-]+";
+
+    private final Function<String, TaskManager> loader;
+    private final File directory;
+    private final long memoryBudget;
+    private final Map<String, TaskManager> loaded = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<String> openedNames = new TreeSet<>();
+
+    private String current;
+    private BackupManager backupManager;
+
+    /**
+     * Primary constructor of WorkspaceManager, saving each workspace to a file in the given directory.
+     *
+     * @param directoryPath path of directory holding the workspace files.
+     * @param writeBehindCapacity number of tasks with unsaved changes before commands wait for the disk.
+     * @param memoryBudget estimated bytes that loaded workspaces may use before idle ones are closed.
+     */
+    public WorkspaceManager(String directoryPath, int writeBehindCapacity, long memoryBudget) {
+        this((name) -> {
+            String filePath = Paths.get(directoryPath, name + fileSuffix).toString();
+            return new TaskManager(new SyncedStorage(new WriteBehindStorage(filePath, writeBehindCapacity), filePath),
+                    new TaskArchive(filePath));
+        }, new File(directoryPath), memoryBudget);
+        this.backupManager = new BackupManager(directoryPath, fileSuffix);
+    }
+
+    /**
+     * Constructor for WorkspaceManager with only the given list of tasks as its default workspace.
+     *
+     * @param taskManager the list of tasks and their operations.
+     */
+    public WorkspaceManager(TaskManager taskManager) {
+        this((name) -> name.equals(DEFAULT_WORKSPACE) ? taskManager : null, null, Long.MAX_VALUE);
+    }
+
+    /**
+     * Constructor for WorkspaceManager that loads workspaces with the given function.
+     *
+     * @param loader function returning the list of tasks of a workspace, or null if it cannot be opened.
+     * @param directory directory to look for saved workspaces in, or null if they are not saved to files.
+     * @param memoryBudget estimated bytes that loaded workspaces may use before idle ones are closed.
+     */
+    WorkspaceManager(Function<String, TaskManager> loader, File directory, long memoryBudget) {
+        this.loader = loader;
+        this.directory = directory;
+        this.memoryBudget = memoryBudget;
+        this.current = DEFAULT_WORKSPACE;
+    }
+
+    /**
+     * Returns the list of tasks of the current workspace, loading it if needed.
+     *
+     * @return the list of tasks and their operations.
+     */
+    public TaskManager getCurrent() {
+        TaskManager taskManager = this.loaded.get(this.current);
+        if (taskManager == null) {
+            taskManager = this.loader.apply(this.current);
+            assert taskManager != null : "Current workspace should always be openable.";
+            addLoaded(this.current, taskManager);
+        }
+
+        return taskManager;
+    }
+
+    /**
+     * Returns the backups of the workspace files.
+     *
+     * @return manager of backups, or null if workspaces are not saved to files.
+     */
+    public BackupManager getBackupManager() {
+        return this.backupManager;
+    }
+
+    /**
+     * Returns name of the current workspace.
+     *
+     * @return name of workspace.
+     */
+    public String getCurrentName() {
+        return this.current;
+    }
+
+    /**
+     * Makes the given workspace the current one, creating it if it does not exist.
+     *
+     * @param name name of workspace.
+     * @throws InvalidCommandException if the name is invalid or the workspace cannot be opened.
+     */
+    public void switchTo(String name) throws InvalidCommandException {
+        checkName(name);
+
+        if (!this.loaded.containsKey(name)) {
+            TaskManager taskManager = this.loader.apply(name);
+            if (taskManager == null) {
+                throw new InvalidCommandException("I can't open the workspace " + name + ".");
+            }
+            addLoaded(name, taskManager);
+        }
+
+        this.current = name;
+        this.loaded.get(name); // Marks as most recently used
+        evictIdle();
+    }
+
+    /**
+     * Returns names of all saved workspaces and workspaces opened since starting.
+     *
+     * @return workspace names in alphabetical order.
+     */
+    public List<String> listWorkspaces() {
+        TreeSet<String> names = new TreeSet<>(this.openedNames);
+        names.add(this.current);
+
+        File[] files = this.directory == null ? null : this.directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                String fileName = file.getName();
+                String name = fileName.substring(0, Math.max(0, fileName.length() - fileSuffix.length()));
+                if (fileName.endsWith(fileSuffix) && name.matches(validNamePattern)) {
+                    names.add(name);
+                }
+            }
+        }
+
+        return List.copyOf(names);
+    }
+
+    /**
+     * Returns whether the tasks of a workspace are currently loaded.
+     *
+     * @param name name of workspace.
+     * @return if workspace is loaded.
+     */
+    public boolean isLoaded(String name) {
+        return this.loaded.containsKey(name);
+    }
+
+    /**
+     * Saves and unloads a workspace. Its tasks are loaded again if it is switched to.
+     *
+     * @param name name of workspace.
+     * @return if the workspace was loaded.
+     * @throws InvalidCommandException if the workspace is the current one.
+     */
+    public boolean close(String name) throws InvalidCommandException {
+        if (name.equals(this.current)) {
+            throw new InvalidCommandException(
+                    "I can't close the workspace you're using. Switch to another one first.");
+        }
+
+        TaskManager taskManager = this.loaded.remove(name);
+        if (taskManager == null) {
+            return false;
+        }
+
+        unload(name, taskManager);
+        return true;
+    }
+
+    /**
+     * Closes least recently used workspaces until loaded workspaces fit in the memory budget.
+     */
+    public void evictIdle() {
+        long memory = 0;
+        for (TaskManager taskManager : this.loaded.values()) {
+            memory += taskManager.getEstimatedMemory();
+        }
+
+        Iterator<Map.Entry<String, TaskManager>> iterator = this.loaded.entrySet().iterator();
+        while (memory > this.memoryBudget && iterator.hasNext()) {
+            Map.Entry<String, TaskManager> entry = iterator.next();
+            if (entry.getKey().equals(this.current)) {
+                continue;
+            }
+
+            memory -= entry.getValue().getEstimatedMemory();
+            unload(entry.getKey(), entry.getValue());
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Waits until every change in every loaded workspace has been saved.
+     */
+    public void flush() {
+        this.loaded.values().forEach(TaskManager::flush);
+    }
+
+    private void addLoaded(String name, TaskManager taskManager) {
+        this.loaded.put(name, taskManager);
+        this.openedNames.add(name);
+        if (this.backupManager != null) {
+            this.backupManager.addLoadedList(name, taskManager);
+        }
+    }
+
+    private void unload(String name, TaskManager taskManager) {
+        if (this.backupManager != null) {
+            this.backupManager.removeLoadedList(name);
+        }
+        taskManager.close();
+    }
+
+    private static void checkName(String name) throws InvalidCommandException {
+        if (!name.matches(validNamePattern)) {
+            throw new InvalidCommandException(
+                    "Workspace names can only have letters, numbers, dashes and underscores.");
+        }
+    }
+}
@@ -2,6 +2,7 @@ package bob.parser;
 
 import java.util.HashMap;
 
+import bob.commands.BackupCommand;
 import bob.commands.CreateCommand;
 import bob.commands.DeleteCommand;
 import bob.commands.FindCommand;
@@ -9,16 +10,21 @@ import bob.commands.GetDueDateCommand;
 import bob.commands.HelpCommand;
 import bob.commands.ListCommand;
 import bob.commands.MarkCommand;
+import bob.commands.StatsCommand;
+import bob.commands.SyncCommand;
+import bob.commands.WorkspaceCommand;
 import bob.exceptions.InvalidCommandException;
 import bob.managers.TaskManager;
+import bob.managers.WorkspaceManager;
 
 /**
  * Deals with making sense of the user command.
  */
 public class Parser {
-    private TaskManager taskManager;
+    private WorkspaceManager workspaceManager;
     protected enum Actions {
-        TODO, DEADLINE, EVENT, DELETE, LIST, GETDUEDATE, FIND, MARK, UNMARK, HELP
+        TODO, DEADLINE, EVENT, DELETE, LIST, GETDUEDATE, FIND, MARK, UNMARK, HELP, WORKSPACE, SYNC, BACKUP,
+        STATS
     }
 
     /**
@@ -27,7 +33,25 @@ public class Parser {
      * @param filePath path of file to save to.
      */
     public Parser(String filePath) {
-        this.taskManager = new TaskManager(filePath);
+        this(new TaskManager(filePath));
+    }
+
+    /**
+     * Constructor for Parser that executes commands on the given task list.
+     *
+     * @param taskManager the list of tasks and their operations.
+     */
+    public Parser(TaskManager taskManager) {
+        this(new WorkspaceManager(taskManager));
+    }
+
+    /**
+     * Constructor for Parser that executes commands on the current workspace.
+     *
+     * @param workspaceManager the workspaces and their lists of tasks.
+     */
+    public Parser(WorkspaceManager workspaceManager) {
+        this.workspaceManager = workspaceManager;
     }
 
     /**
@@ -39,42 +63,73 @@ public class Parser {
     public String parseCommand(String[] input) throws InvalidCommandException {
         Actions command = this.convertToActions(input[0]);
 
+        try {
+            TaskManager taskManager = this.workspaceManager.getCurrent();
+            taskManager.refresh(); // Picks up changes saved by other processes
+            return execCommand(command, input, taskManager);
+        } finally {
+            this.workspaceManager.evictIdle();
+        }
+    }
+
+    /**
+     * Creates and executes the given user command on a list of tasks.
+     *
+     * @param command user command.
+     * @param input user commanded separated by spaces.
+     * @param taskManager the list of tasks of the current workspace.
+     * @throws InvalidCommandException when an invalid command has been inputted.
+     */
+    private String execCommand(Actions command, String[] input, TaskManager taskManager)
+            throws InvalidCommandException {
         switch (command) {
         case TODO:
             CreateCommand todoCommand = new CreateCommand(input, "T",
                 "Please give a name to the ToDo task.");
-            return todoCommand.exec(this.taskManager);
+            return todoCommand.exec(taskManager);
         case DEADLINE:
             CreateCommand deadlineCommand = new CreateCommand(input, "D",
                     "You did not provide a date or time.\n"
                     + "    Please format your input as: deadline <task name> /by <date>.");
-            return deadlineCommand.exec(this.taskManager);
+            return deadlineCommand.exec(taskManager);
         case EVENT:
             CreateCommand eventCommand = new CreateCommand(input, "E",
                     "You did not provide either a start date or an end date.\n"
                     + "    Please format your input as: event <task name> /from <date> /to <date>.");
-            return eventCommand.exec(this.taskManager);
+            return eventCommand.exec(taskManager);
         case DELETE:
             DeleteCommand deleteCommand = new DeleteCommand(input);
-            return deleteCommand.exec(this.taskManager);
+            return deleteCommand.exec(taskManager);
         case LIST:
             ListCommand listCommand = new ListCommand(input);
-            return listCommand.exec(this.taskManager);
+            return listCommand.exec(taskManager);
         case GETDUEDATE:
             GetDueDateCommand getDueDateCommand = new GetDueDateCommand(input);
-            return getDueDateCommand.exec(this.taskManager);
+            return getDueDateCommand.exec(taskManager);
         case FIND:
             FindCommand findCommand = new FindCommand(input);
-            return findCommand.exec(this.taskManager);
+            return findCommand.exec(taskManager);
         case MARK:
             MarkCommand markCommand = new MarkCommand(input, true);
-            return markCommand.exec(this.taskManager);
+            return markCommand.exec(taskManager);
         case UNMARK:
             MarkCommand unmarkCommand = new MarkCommand(input, false);
-            return unmarkCommand.exec(this.taskManager);
+            return unmarkCommand.exec(taskManager);
         case HELP:
             HelpCommand helpCommand = new HelpCommand(input);
             return helpCommand.exec(taskManager);
+        case WORKSPACE:
+            WorkspaceCommand workspaceCommand = new WorkspaceCommand(input, this.workspaceManager);
+            return workspaceCommand.exec(taskManager);
+        case SYNC:
+            SyncCommand syncCommand = new SyncCommand(input);
+            return syncCommand.exec(taskManager);
+        case BACKUP:
+            BackupCommand backupCommand = new BackupCommand(input, this.workspaceManager);
+            return backupCommand.exec(taskManager);
+        case STATS:
+            StatsCommand statsCommand = new StatsCommand(input);
+            return statsCommand.exec(taskManager);
         default:
             return "";
         }
@@ -86,7 +141,7 @@ public class Parser {
      * @return output from taskManager's displayIncomingDeadlines.
      */
     public String displayIncomingDeadlines() {
-        return this.taskManager.displayIncomingDeadlines();
+        return this.workspaceManager.getCurrent().displayIncomingDeadlines();
     }
 
     /**
@@ -95,7 +150,14 @@ public class Parser {
      * @return output from taskManager's getSavedListMessage.
      */
     public String getSavedListMessage() {
-        return this.taskManager.getSavedListMessage();
+        return this.workspaceManager.getCurrent().getSavedListMessage();
+    }
+
+    /**
+     * Propogates flush to every loaded workspace.
+     */
+    public void flush() {
+        this.workspaceManager.flush();
     }
 
     /**
@@ -117,8 +179,12 @@ public class Parser {
         actionMap.put("mark", Actions.MARK);
         actionMap.put("unmark", Actions.UNMARK);
         actionMap.put("help", Actions.HELP);
+        actionMap.put("workspace", Actions.WORKSPACE);
+        actionMap.put("sync", Actions.SYNC);
+        actionMap.put("backup", Actions.BACKUP);
+        actionMap.put("stats", Actions.STATS);
 
-        assert actionMap.size() == 10 : "There should be only 10 valid actions.";
+        assert actionMap.size() == 14 : "There should be only 14 valid actions.";
 
         if (actionMap.containsKey(str)) {
             return actionMap.get(str);
@@ -0,0 +1,594 @@
+package bob.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
+import java.util.zip.CRC32C;
+
+/**
+ * Persistent B+tree of long keys to long values, kept in fixed-size pages of a file.
+ *
+ * Each entry is a key and value pair, and entries are ordered by key, then value, so a key may have many
+ * values. Leaves hold the entries and are linked in order, so a range of keys is found with one descent
+ * and a walk along the leaves. Only the pages on the way are read, which the operating system keeps
+ * cached. Page 0 holds the header, including a generation and tag the owner of the tree uses to check it
+ * is up to date.
+ *
+ * Once complete, a tree is sealed with a checksum of its pages, and its next change unseals it. Opening a
+ * sealed tree checks the checksum over a memory mapping of the file, which is then kept for reading and
+ * writing pages, so a tree that was left half written or was damaged is never trusted.
+ */
+class BPlusTree implements AutoCloseable {
+    static final byte[] magic = {'B', 'O', 'B', 'I'};
+    static final short version = 2;
+    static final int pageSize = 4096;
+
+    private static final byte leafType = 1;
+    private static final byte internalType = 2;
+    private static final int nodeHeaderSize = 1 + Short.BYTES + Long.BYTES;
+    private static final int leafEntrySize = 2 * Long.BYTES;
+    private static final int internalEntrySize = 3 * Long.BYTES;
+    private static final int leafCapacity = (pageSize - nodeHeaderSize) / leafEntrySize;
+    private static final int internalCapacity = (pageSize - nodeHeaderSize) / internalEntrySize;
+    private static final long noPage = -1;
+
+    private final Path path;
+    private FileChannel channel;
+    private long rootPage;
+    private long pageCount;
+    private long entryCount;
+    private long tag;
+    private long generation;
+    private long checksum;
+    private boolean isSealed;
+    private MappedByteBuffer mappedPages;
+
+    /**
+     * Node of the tree as read from its page.
+     * Leaves hold entries and the next leaf. Internal nodes hold separators, each the smallest entry of the
+     * child after it, and one more child than separators.
+     */
+    private static class Node {
+        private final boolean isLeaf;
+        private long[] keys;
+        private long[] values;
+        private long[] children;
+        private int count;
+        private long next = noPage;
+
+        private Node(boolean isLeaf, int capacity) {
+            this.isLeaf = isLeaf;
+            this.keys = new long[capacity + 1]; // Room for one entry before splitting
+            this.values = new long[capacity + 1];
+            this.children = isLeaf ? null : new long[capacity + 2];
+        }
+
+        private void insert(int index, long key, long value) {
+            System.arraycopy(this.keys, index, this.keys, index + 1, this.count - index);
+            System.arraycopy(this.values, index, this.values, index + 1, this.count - index);
+            this.keys[index] = key;
+            this.values[index] = value;
+            this.count++;
+        }
+    }
+
+    /**
+     * Separator and new page to add to the parent of a node that was split.
+     */
+    private static class Split {
+        private final long key;
+        private final long value;
+        private final long page;
+
+        private Split(long key, long value, long page) {
+            this.key = key;
+            this.value = value;
+            this.page = page;
+        }
+    }
+
+    /**
+     * Lets through sorted entries unless they equal the entry before, as entries are unique.
+     */
+    private static class DistinctEntries implements Predicate<long[]> {
+        private long[] previous;
+
+        @Override
+        public boolean test(long[] entry) {
+            boolean isDistinct = this.previous == null || !Arrays.equals(this.previous, entry);
+            this.previous = entry;
+            return isDistinct;
+        }
+    }
+
+    /**
+     * Primary constructor of BPlusTree, opening the tree in the given file or creating an empty one.
+     * A file that is not a valid tree is replaced by an empty tree with tag -1, and a sealed tree whose
+     * checksum does not match is opened unsealed.
+     *
+     * @param path path of index file.
+     * @throws IOException if the file cannot be opened.
+     */
+    BPlusTree(Path path) throws IOException {
+        this.path = path;
+        path.toAbsolutePath().getParent().toFile().mkdirs(); // Ensures parent directory exists
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+
+        if (!readHeader()) {
+            clear(-1);
+        } else if (this.isSealed) {
+            if (this.pageCount * pageSize <= Integer.MAX_VALUE) {
+                this.mappedPages = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, this.pageCount * pageSize);
+            }
+            this.isSealed = getPagesChecksum() == this.checksum;
+        }
+    }
+
+    /**
+     * Returns whether the tree was closed cleanly and is unchanged since.
+     *
+     * @return if the tree is sealed and its checksum matches.
+     */
+    boolean isSealed() {
+        return this.isSealed;
+    }
+
+    /**
+     * Returns the generation last stored with the tree.
+     *
+     * @return generation of tree.
+     */
+    long getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * Returns the tag last stored with the tree.
+     *
+     * @return tag of tree.
+     */
+    long getTag() {
+        return this.tag;
+    }
+
+    /**
+     * Stores a generation and tag with the tree, such as the version and size of the indexed data.
+     *
+     * @param generation generation of tree.
+     * @param tag tag of tree.
+     * @throws IOException if writing fails.
+     */
+    void setStamp(long generation, long tag) throws IOException {
+        this.generation = generation;
+        this.tag = tag;
+        this.isSealed = false;
+        writeHeader();
+    }
+
+    /**
+     * Stores a checksum of every page, marking the tree as complete until its next change.
+     *
+     * @throws IOException if writing fails.
+     */
+    void seal() throws IOException {
+        if (this.isSealed) {
+            return;
+        }
+
+        this.checksum = getPagesChecksum();
+        this.isSealed = true;
+        writeHeader();
+        if (this.mappedPages != null) {
+            this.mappedPages.force();
+        }
+        this.channel.force(false);
+    }
+
+    /**
+     * Returns the number of entries in the tree.
+     *
+     * @return number of entries.
+     */
+    long size() {
+        return this.entryCount;
+    }
+
+    /**
+     * Adds an entry, unless the tree already has it.
+     *
+     * @param key key of entry.
+     * @param value value of entry.
+     * @throws IOException if the tree cannot be read or written.
+     */
+    void insert(long key, long value) throws IOException {
+        unseal();
+        Split split = insert(this.rootPage, key, value);
+        if (split != null) {
+            Node root = new Node(false, internalCapacity);
+            root.children[0] = this.rootPage;
+            root.keys[0] = split.key;
+            root.values[0] = split.value;
+            root.children[1] = split.page;
+            root.count = 1;
+            this.rootPage = allocatePage();
+            writeNode(this.rootPage, root);
+        }
+
+        writeHeader();
+    }
+
+    /**
+     * Passes on the values of every entry with a key in the given range, ordered by key, then value.
+     *
+     * @param from first key, inclusive.
+     * @param to last key, inclusive.
+     * @param readValue function to pass each value to.
+     * @throws IOException if the tree cannot be read.
+     */
+    void search(long from, long to, LongConsumer readValue) throws IOException {
+        long page = this.rootPage;
+        Node node = readNode(page);
+        while (!node.isLeaf) {
+            page = node.children[upperBound(node, from, Long.MIN_VALUE)];
+            node = readNode(page);
+        }
+
+        int index = lowerBound(node, from, Long.MIN_VALUE);
+        while (true) {
+            for (; index < node.count; index++) {
+                if (node.keys[index] > to) {
+                    return;
+                }
+                readValue.accept(node.values[index]);
+            }
+
+            if (node.next == noPage) {
+                return;
+            }
+            node = readNode(node.next);
+            index = 0;
+        }
+    }
+
+    /**
+     * Replaces every entry in the tree, building it from the bottom up with full pages.
+     *
+     * @param entries key and value of each entry, in any order.
+     * @param generation generation to store with the tree.
+     * @param tag tag to store with the tree.
+     * @throws IOException if writing fails.
+     */
+    void rebuild(List<long[]> entries, long generation, long tag) throws IOException {
+        long[][] sortedEntries = entries.stream()
+                .sorted(Comparator.<long[]>comparingLong((e) -> e[0]).thenComparingLong((e) -> e[1]))
+                .filter(new DistinctEntries())
+                .toArray(long[][]::new);
+
+        clear(-1); // Tree is invalid until it is complete
+        if (sortedEntries.length == 0) {
+            setStamp(generation, tag);
+            return;
+        }
+
+        List<long[]> level = new ArrayList<>(); // Smallest key, value and page of each node in the level
+        Node previousLeaf = null;
+        long previousPage = noPage;
+        for (int start = 0; start < sortedEntries.length; start += leafCapacity) {
+            Node leaf = new Node(true, leafCapacity);
+            for (int i = start; i < Math.min(start + leafCapacity, sortedEntries.length); i++) {
+                leaf.insert(leaf.count, sortedEntries[i][0], sortedEntries[i][1]);
+            }
+
+            long page = start == 0 ? this.rootPage : allocatePage();
+            if (previousLeaf != null) {
+                previousLeaf.next = page;
+                writeNode(previousPage, previousLeaf);
+            }
+            level.add(new long[] {leaf.keys[0], leaf.values[0], page});
+            this.entryCount += leaf.count;
+            previousLeaf = leaf;
+            previousPage = page;
+        }
+        writeNode(previousPage, previousLeaf);
+
+        while (level.size() > 1) {
+            List<long[]> parents = new ArrayList<>();
+            for (int start = 0; start < level.size(); start += internalCapacity + 1) {
+                Node node = new Node(false, internalCapacity);
+                int end = Math.min(start + internalCapacity + 1, level.size());
+                node.children[0] = level.get(start)[2];
+                for (int i = start + 1; i < end; i++) {
+                    node.insert(node.count, level.get(i)[0], level.get(i)[1]);
+                    node.children[node.count] = level.get(i)[2];
+                }
+
+                long page = allocatePage();
+                writeNode(page, node);
+                parents.add(new long[] {level.get(start)[0], level.get(start)[1], page});
+            }
+            level = parents;
+        }
+
+        this.rootPage = level.get(0)[2];
+        setStamp(generation, tag);
+    }
+
+    /**
+     * Releases the index file.
+     */
+    @Override
+    public void close() {
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            System.err.println("There was a problem closing the index: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Adds an entry below the given page.
+     *
+     * @return separator and new page if the node at the page was split, or null otherwise.
+     */
+    private Split insert(long page, long key, long value) throws IOException {
+        Node node = readNode(page);
+
+        if (node.isLeaf) {
+            int index = lowerBound(node, key, value);
+            if (index < node.count && node.keys[index] == key && node.values[index] == value) {
+                return null;
+            }
+
+            node.insert(index, key, value);
+            this.entryCount++;
+            if (node.count <= leafCapacity) {
+                writeNode(page, node);
+                return null;
+            }
+
+            Node right = new Node(true, leafCapacity);
+            int middle = node.count / 2;
+            for (int i = middle; i < node.count; i++) {
+                right.insert(right.count, node.keys[i], node.values[i]);
+            }
+            node.count = middle;
+            long rightPage = allocatePage();
+            right.next = node.next;
+            node.next = rightPage;
+            writeNode(rightPage, right);
+            writeNode(page, node);
+            return new Split(right.keys[0], right.values[0], rightPage);
+        }
+
+        int childIndex = upperBound(node, key, value);
+        Split split = insert(node.children[childIndex], key, value);
+        if (split == null) {
+            return null;
+        }
+
+        System.arraycopy(node.children, childIndex + 1, node.children, childIndex + 2, node.count - childIndex);
+        node.insert(childIndex, split.key, split.value);
+        node.children[childIndex + 1] = split.page;
+        if (node.count <= internalCapacity) {
+            writeNode(page, node);
+            return null;
+        }
+
+        Node right = new Node(false, internalCapacity);
+        int middle = node.count / 2;
+        right.children[0] = node.children[middle + 1];
+        for (int i = middle + 1; i < node.count; i++) {
+            right.insert(right.count, node.keys[i], node.values[i]);
+            right.children[right.count] = node.children[i + 1];
+        }
+        Split promoted = new Split(node.keys[middle], node.values[middle], allocatePage());
+        node.count = middle;
+        writeNode(promoted.page, right);
+        writeNode(page, node);
+        return promoted;
+    }
+
+    /**
+     * Returns the index of the first entry of a node not smaller than the given entry.
+     */
+    private static int lowerBound(Node node, long key, long value) {
+        int low = 0;
+        int high = node.count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(node.keys[middle], node.values[middle], key, value) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    /**
+     * Returns the index of the first entry of a node larger than the given entry, which is also the index
+     * of the child of an internal node the entry belongs under.
+     */
+    private static int upperBound(Node node, long key, long value) {
+        int low = 0;
+        int high = node.count;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (compare(node.keys[middle], node.values[middle], key, value) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private static int compare(long key, long value, long otherKey, long otherValue) {
+        int result = Long.compare(key, otherKey);
+        return result != 0 ? result : Long.compare(value, otherValue);
+    }
+
+    /**
+     * Empties the tree, leaving one empty leaf as its root.
+     */
+    private void clear(long tag) throws IOException {
+        this.mappedPages = null; // Pages are no longer valid once the file is truncated
+        this.isSealed = false;
+        this.channel.truncate(0);
+        this.pageCount = 1;
+        this.entryCount = 0;
+        this.tag = tag;
+        this.rootPage = allocatePage();
+        writeNode(this.rootPage, new Node(true, leafCapacity));
+        writeHeader();
+    }
+
+    private void unseal() throws IOException {
+        if (this.isSealed) {
+            this.isSealed = false;
+            writeHeader();
+        }
+    }
+
+    /**
+     * Returns the CRC32C of every page after the header.
+     */
+    private long getPagesChecksum() throws IOException {
+        CRC32C crc = new CRC32C();
+        for (long page = 1; page < this.pageCount; page++) {
+            crc.update(readPage(page));
+        }
+
+        return crc.getValue();
+    }
+
+    private long allocatePage() {
+        return this.pageCount++;
+    }
+
+    private boolean readHeader() throws IOException {
+        if (this.channel.size() < pageSize) {
+            return false;
+        }
+
+        ByteBuffer header = readPage(0);
+        byte[] fileMagic = new byte[magic.length];
+        header.get(fileMagic);
+        if (!Arrays.equals(magic, fileMagic) || header.getShort() != version) {
+            return false;
+        }
+
+        this.rootPage = header.getLong();
+        this.pageCount = header.getLong();
+        this.entryCount = header.getLong();
+        this.tag = header.getLong();
+        this.generation = header.getLong();
+        this.checksum = header.getLong();
+        this.isSealed = header.get() == 1;
+        return this.rootPage > 0 && this.rootPage < this.pageCount
+                && this.channel.size() >= this.pageCount * pageSize;
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(pageSize);
+        header.put(magic).putShort(version).putLong(this.rootPage).putLong(this.pageCount)
+                .putLong(this.entryCount).putLong(this.tag).putLong(this.generation).putLong(this.checksum)
+                .put((byte) (this.isSealed ? 1 : 0));
+        writePage(0, header.clear());
+    }
+
+    private Node readNode(long page) throws IOException {
+        ByteBuffer bytes = readPage(page);
+        byte type = bytes.get();
+        if (type != leafType && type != internalType) {
+            throw new IOException("Index page " + page + " is corrupted: " + this.path);
+        }
+
+        boolean isLeaf = type == leafType;
+        Node node = new Node(isLeaf, isLeaf ? leafCapacity : internalCapacity);
+        int count = bytes.getShort();
+        if (count < 0 || count > (isLeaf ? leafCapacity : internalCapacity)) {
+            throw new IOException("Index page " + page + " is corrupted: " + this.path);
+        }
+
+        if (isLeaf) {
+            node.next = bytes.getLong();
+            for (int i = 0; i < count; i++) {
+                node.insert(i, bytes.getLong(), bytes.getLong());
+            }
+        } else {
+            node.children[0] = bytes.getLong();
+            for (int i = 0; i < count; i++) {
+                node.insert(i, bytes.getLong(), bytes.getLong());
+                node.children[i + 1] = bytes.getLong();
+            }
+        }
+
+        return node;
+    }
+
+    private void writeNode(long page, Node node) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(pageSize);
+        bytes.put(node.isLeaf ? leafType : internalType).putShort((short) node.count);
+        if (node.isLeaf) {
+            bytes.putLong(node.next);
+            for (int i = 0; i < node.count; i++) {
+                bytes.putLong(node.keys[i]).putLong(node.values[i]);
+            }
+        } else {
+            bytes.putLong(node.children[0]);
+            for (int i = 0; i < node.count; i++) {
+                bytes.putLong(node.keys[i]).putLong(node.values[i]).putLong(node.children[i + 1]);
+            }
+        }
+
+        writePage(page, bytes.clear());
+    }
+
+    private ByteBuffer readPage(long page) throws IOException {
+        if (isMapped(page)) {
+            return this.mappedPages.duplicate().position((int) (page * pageSize)).limit((int) ((page + 1) * pageSize))
+                    .slice();
+        }
+
+        ByteBuffer bytes = ByteBuffer.allocate(pageSize);
+        while (bytes.hasRemaining()) {
+            if (this.channel.read(bytes, page * pageSize + bytes.position()) < 0) {
+                throw new IOException("Index ends in the middle of page " + page + ": " + this.path);
+            }
+        }
+
+        return bytes.flip();
+    }
+
+    private void writePage(long page, ByteBuffer bytes) throws IOException {
+        if (isMapped(page)) {
+            this.mappedPages.duplicate().position((int) (page * pageSize)).put(bytes);
+            return;
+        }
+
+        while (bytes.hasRemaining()) {
+            this.channel.write(bytes, page * pageSize + bytes.position());
+        }
+    }
+
+    /**
+     * Returns whether a page is read and written through the memory mapping, which covers the pages the
+     * tree had when it was opened.
+     */
+    private boolean isMapped(long page) {
+        return this.mappedPages != null && (page + 1) * pageSize <= this.mappedPages.capacity();
+    }
+}
@@ -0,0 +1,350 @@
+package bob.storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Keeps incremental backups of save files in a directory, storing each distinct piece of content once.
+ *
+ * Files are split into chunks where a rolling hash of the last 64 bytes matches a pattern, so chunk
+ * boundaries depend only on nearby content. Inserting or changing a task then only changes the chunks
+ * around it, and the rest are found in the store by their SHA-256 and not written again. Each snapshot
+ * is a manifest listing the chunks of every file it backed up, from which any snapshot can be restored.
+ */
+public class BackupStore {
+    static final int minChunkSize = 2 << 10;
+    static final int maxChunkSize = 64 << 10;
+
+    private static final String manifestHeader = "BOBBACKUP 1";
+    private static final String manifestSuffix = ".manifest";
+    private static final String tempSuffix = ".tmp";
+    private static final String lockSuffix = ".lock";
+    // Top bits of the hash, which depend on the last 64 bytes, so chunks average 8 KB past the minimum
+    private static final long boundaryMask = ((1L << 13) - 1) << (Long.SIZE - 13);
+    private static final long[] gear = new long[256];
+    private static final DateTimeFormatter idFormat = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x626f62); // Fixed, so boundaries never move
+        for (int i = 0; i < gear.length; i++) {
+            gear[i] = random.nextLong();
+        }
+    }
+
+    private final Path chunkDirectory;
+    private final Path snapshotDirectory;
+
+    /**
+     * Sizes of a backup, to show how much of it had to be stored.
+     */
+    public static class Result {
+        private final String id;
+        private final int chunkCount;
+        private final int newChunkCount;
+        private final long size;
+        private final long newSize;
+
+        private Result(String id, int chunkCount, int newChunkCount, long size, long newSize) {
+            this.id = id;
+            this.chunkCount = chunkCount;
+            this.newChunkCount = newChunkCount;
+            this.size = size;
+            this.newSize = newSize;
+        }
+
+        public String getId() {
+            return this.id;
+        }
+
+        public int getChunkCount() {
+            return this.chunkCount;
+        }
+
+        public int getNewChunkCount() {
+            return this.newChunkCount;
+        }
+
+        public long getSize() {
+            return this.size;
+        }
+
+        public long getNewSize() {
+            return this.newSize;
+        }
+    }
+
+    /**
+     * Receives each chunk of a file.
+     */
+    interface ChunkReader {
+        void read(byte[] bytes, int length) throws IOException;
+    }
+
+    /**
+     * Primary constructor of BackupStore.
+     *
+     * @param directoryPath path of directory to keep backups in.
+     */
+    public BackupStore(String directoryPath) {
+        this.chunkDirectory = Paths.get(directoryPath, "chunks");
+        this.snapshotDirectory = Paths.get(directoryPath, "snapshots");
+    }
+
+    /**
+     * Backs up the given files as a new snapshot of the named list, skipping files that do not exist.
+     * Every file is read under a shared process lock on the first file, the lock a Storage saving to it
+     * takes to change the files, so no change or compaction is half backed up.
+     *
+     * @param name name of list the files belong to.
+     * @param filePaths paths of the save file and any files next to it to back up.
+     * @return sizes of the snapshot.
+     * @throws IOException if a file cannot be read or the backup cannot be written.
+     */
+    public synchronized Result backup(String name, List<String> filePaths) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(manifestHeader);
+        int[] chunkCounts = {0, 0};
+        long[] sizes = {0, 0};
+
+        Path lockPath = Paths.get(filePaths.get(0) + lockSuffix);
+        ProcessLock lock = ProcessLock.forPath(lockPath);
+        lock.lock(true);
+        try {
+            for (String filePath : filePaths) {
+                Path path = Paths.get(filePath);
+                List<String> chunkLines = new ArrayList<>();
+                long[] fileSize = {0};
+
+                try (InputStream in = Files.newInputStream(path)) {
+                    split(in, (bytes, length) -> {
+                        String hash = getHash(bytes, length);
+                        chunkLines.add(hash + " " + length);
+                        fileSize[0] += length;
+                        if (storeChunk(hash, bytes, length)) {
+                            chunkCounts[1]++;
+                            sizes[1] += length;
+                        }
+                    });
+                } catch (NoSuchFileException e) {
+                    continue; // Optional files such as a journal
+                }
+
+                lines.add("F " + chunkLines.size() + " " + fileSize[0] + " " + path.getFileName());
+                lines.addAll(chunkLines);
+                chunkCounts[0] += chunkLines.size();
+                sizes[0] += fileSize[0];
+            }
+        } finally {
+            lock.unlock();
+            lock.release();
+        }
+
+        Path directory = this.snapshotDirectory.resolve(name);
+        Files.createDirectories(directory);
+        String id = LocalDateTime.now().format(idFormat);
+        while (Files.exists(directory.resolve(id + manifestSuffix))) {
+            id = id + "-1"; // Several backups within a millisecond
+        }
+        writeAtomically(directory.resolve(id + manifestSuffix), String.join("\n", lines).getBytes(
+                StandardCharsets.UTF_8));
+
+        return new Result(id, chunkCounts[0], chunkCounts[1], sizes[0], sizes[1]);
+    }
+
+    /**
+     * Returns the ids of every snapshot of the named list, oldest first.
+     *
+     * @param name name of list.
+     * @return ids of snapshots.
+     * @throws IOException if the snapshots cannot be listed.
+     */
+    public synchronized List<String> listSnapshots(String name) throws IOException {
+        List<String> ids = new ArrayList<>();
+        Path directory = this.snapshotDirectory.resolve(name);
+        if (!Files.isDirectory(directory)) {
+            return ids;
+        }
+
+        try (DirectoryStream<Path> manifests = Files.newDirectoryStream(directory, "*" + manifestSuffix)) {
+            for (Path manifest : manifests) {
+                String fileName = manifest.getFileName().toString();
+                ids.add(fileName.substring(0, fileName.length() - manifestSuffix.length()));
+            }
+        }
+
+        ids.sort(null); // Ids start with the time of the backup
+        return ids;
+    }
+
+    /**
+     * Rebuilds every file of a snapshot in the given directory, checking each chunk against its hash.
+     *
+     * @param name name of list.
+     * @param id id of snapshot.
+     * @param directory directory to write the files to.
+     * @return paths of the rebuilt files.
+     * @throws IOException if the snapshot does not exist, is damaged, or cannot be written.
+     */
+    public synchronized List<Path> restore(String name, String id, Path directory) throws IOException {
+        Path manifest = this.snapshotDirectory.resolve(name).resolve(id + manifestSuffix);
+        if (id.contains("/") || id.contains("\\") || !Files.exists(manifest)) {
+            throw new IOException("There is no backup " + id + ".");
+        }
+
+        List<Path> paths = new ArrayList<>();
+        Files.createDirectories(directory);
+        try (BufferedReader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8)) {
+            if (!manifestHeader.equals(reader.readLine())) {
+                throw new IOException("Backup " + id + " is not a valid snapshot.");
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] file = line.split(" ", 4);
+                if (file.length != 4 || !file[0].equals("F")) {
+                    throw new IOException("Backup " + id + " is damaged.");
+                }
+
+                Path path = directory.resolve(Paths.get(file[3]).getFileName());
+                try (OutputStream out = Files.newOutputStream(path)) {
+                    for (int i = Integer.parseInt(file[1]); i > 0; i--) {
+                        out.write(readChunk(reader.readLine()));
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IOException("Backup " + id + " is damaged.");
+                }
+                paths.add(path);
+            }
+        }
+
+        return paths;
+    }
+
+    /**
+     * Splits content into chunks at boundaries chosen by a rolling hash of the content.
+     * Chunks are between the minimum and maximum chunk sizes, except for the last one.
+     *
+     * @param in content to split.
+     * @param reader function to pass each chunk to, with a buffer that is reused afterwards.
+     * @throws IOException if reading fails or the reader throws.
+     */
+    static void split(InputStream in, ChunkReader reader) throws IOException {
+        byte[] buffer = new byte[maxChunkSize];
+        int length = 0;
+        boolean isEnd = false;
+
+        while (true) {
+            while (!isEnd && length < buffer.length) {
+                int read = in.read(buffer, length, buffer.length - length);
+                if (read < 0) {
+                    isEnd = true;
+                } else {
+                    length += read;
+                }
+            }
+            if (length == 0) {
+                return;
+            }
+
+            int boundary = findBoundary(buffer, length);
+            reader.read(buffer, boundary);
+            System.arraycopy(buffer, boundary, buffer, 0, length - boundary);
+            length -= boundary;
+        }
+    }
+
+    /**
+     * Returns the length of the first chunk of the given bytes.
+     */
+    private static int findBoundary(byte[] bytes, int length) {
+        if (length <= minChunkSize) {
+            return length;
+        }
+
+        long hash = 0;
+        for (int i = minChunkSize - Long.SIZE; i < length; i++) { // Hash covers a full window at the minimum
+            hash = (hash << 1) + gear[bytes[i] & 0xff];
+            if (i >= minChunkSize && (hash & boundaryMask) == 0) {
+                return i + 1;
+            }
+        }
+
+        return length;
+    }
+
+    /**
+     * Stores a chunk unless the store already has it.
+     *
+     * @return if the chunk was new.
+     */
+    private boolean storeChunk(String hash, byte[] bytes, int length) throws IOException {
+        Path path = getChunkPath(hash);
+        if (Files.exists(path)) {
+            return false;
+        }
+
+        Files.createDirectories(path.getParent());
+        byte[] chunk = new byte[length];
+        System.arraycopy(bytes, 0, chunk, 0, length);
+        writeAtomically(path, chunk);
+        return true;
+    }
+
+    private byte[] readChunk(String line) throws IOException {
+        String[] chunk = line == null ? new String[0] : line.split(" ");
+        if (chunk.length != 2 || !chunk[0].matches("[0-9a-f]{64}")) {
+            throw new IOException("Backup manifest is damaged.");
+        }
+
+        Path path = getChunkPath(chunk[0]);
+        if (!Files.exists(path)) {
+            throw new IOException("Backup chunk " + chunk[0] + " is missing.");
+        }
+        byte[] bytes = Files.readAllBytes(path);
+        if (!String.valueOf(bytes.length).equals(chunk[1]) || !getHash(bytes, bytes.length).equals(chunk[0])) {
+            throw new IOException("Backup chunk " + chunk[0] + " is damaged.");
+        }
+
+        return bytes;
+    }
+
+    private Path getChunkPath(String hash) {
+        return this.chunkDirectory.resolve(hash.substring(0, 2)).resolve(hash);
+    }
+
+    private static void writeAtomically(Path path, byte[] bytes) throws IOException {
+        Path tempPath = Paths.get(path + tempSuffix);
+        Files.write(tempPath, bytes);
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static String getHash(byte[] bytes, int length) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(bytes, 0, length);
+            StringBuffer buffer = new StringBuffer();
+            for (byte b : digest.digest()) {
+                buffer.append(String.format("%02x", b));
+            }
+            return buffer.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 should always be available.", e);
+        }
+    }
+}
@@ -0,0 +1,414 @@
+package bob.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import bob.tasks.Deadline;
+import bob.tasks.Event;
+import bob.tasks.Task;
+import bob.tasks.TaskWithDeadline;
+import bob.tasks.ToDo;
+
+/**
+ * Reads and writes tasks in the compact binary save format.
+ *
+ * A binary save file starts with a 4 byte magic number and a 2 byte version. Each task is then stored as
+ * a one byte task type, a one byte flags field, a length-prefixed UTF-8 name and, for Deadlines and
+ * Events, one or two dates. Dates in either standard format are stored as 4 byte epoch minutes, with the
+ * format recorded in the flags so the original string is restored exactly. Any other date is stored as a
+ * length-prefixed string.
+ */
+public class BinaryTaskCodec {
+    static final byte[] magic = {'B', 'O', 'B', 'T'};
+    static final short version = 1;
+
+    private static final int completedFlag = 1;
+    private static final int firstDateShift = 1;
+    private static final int secondDateShift = 3;
+    private static final int dateKindMask = 3;
+
+    private static final int shortDateKind = 0;
+    private static final int longDateKind = 1;
+    private static final int rawDateKind = 2;
+
+    private static final int shortDateLength = "dd/MM/yyyy HH:mm".length();
+    private static final DateTimeFormatter shortDateFormat = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final DateTimeFormatter longDateFormat = DateTimeFormatter.ofPattern("dd MMMM yyyy HH:mm");
+
+    /**
+     * Returns whether a file is in the binary save format.
+     *
+     * @param path path of file.
+     * @return if file starts with the binary header.
+     */
+    public static boolean isBinary(Path path) {
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+
+        try (InputStream input = new FileInputStream(path.toFile())) {
+            return Arrays.equals(magic, input.readNBytes(magic.length));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes the binary header.
+     *
+     * @param output stream to write to.
+     * @throws IOException if writing fails.
+     */
+    public static void writeHeader(DataOutputStream output) throws IOException {
+        output.write(magic);
+        output.writeShort(version);
+    }
+
+    /**
+     * Reads and checks the binary header.
+     *
+     * @param input stream to read from.
+     * @throws IOException if reading fails or the header is not a supported binary header.
+     */
+    public static void readHeader(DataInputStream input) throws IOException {
+        byte[] header = input.readNBytes(magic.length);
+        if (!Arrays.equals(magic, header)) {
+            throw new IOException("Not a binary save file.");
+        }
+
+        short fileVersion = input.readShort();
+        if (fileVersion != version) {
+            throw new IOException("Unsupported binary save file version: " + fileVersion);
+        }
+    }
+
+    /**
+     * Writes one task.
+     *
+     * @param output stream to write to.
+     * @param task task to write.
+     * @throws IOException if writing fails.
+     */
+    public static void writeTask(DataOutputStream output, Task task) throws IOException {
+        int flags = task.isCompleted() ? completedFlag : 0;
+        String[] dates = getDates(task);
+        int[] kinds = new int[dates.length];
+        LocalDateTime[] dateTimes = new LocalDateTime[dates.length];
+        for (int i = 0; i < dates.length; i++) {
+            kinds[i] = getDateKind(dates[i]);
+            dateTimes[i] = parseExactly(dates[i], kinds[i]);
+            if (dateTimes[i] == null) {
+                kinds[i] = rawDateKind;
+            }
+            flags |= kinds[i] << (i == 0 ? firstDateShift : secondDateShift);
+        }
+
+        output.writeByte(task.getTaskType().charAt(0));
+        output.writeByte(flags);
+        writeString(output, task.getTaskName());
+        for (int i = 0; i < dates.length; i++) {
+            writeDate(output, dates[i], dateTimes[i], kinds[i]);
+        }
+    }
+
+    /**
+     * Reads one task.
+     *
+     * @param input stream to read from.
+     * @return task read, or null at the end of the stream.
+     * @throws IOException if reading fails or the task is corrupted.
+     */
+    public static Task readTask(DataInputStream input) throws IOException {
+        int type = input.read();
+        if (type < 0) {
+            return null;
+        }
+
+        int flags = input.readUnsignedByte();
+        boolean isCompleted = (flags & completedFlag) != 0;
+        String taskName = readString(input);
+
+        switch (type) {
+        case 'T':
+            return new ToDo(taskName, isCompleted);
+        case 'D':
+            String by = readDate(input, (flags >> firstDateShift) & dateKindMask);
+            return new Deadline(taskName, by, isCompleted);
+        case 'E':
+            String start = readDate(input, (flags >> firstDateShift) & dateKindMask);
+            String end = readDate(input, (flags >> secondDateShift) & dateKindMask);
+            return new Event(taskName, start, end, isCompleted);
+        default:
+            throw new IOException("Invalid task type: " + (char) type);
+        }
+    }
+
+    /**
+     * Writes tasks to a new binary save file.
+     *
+     * @param path path of file.
+     * @param tasks tasks to write.
+     * @throws IOException if writing fails.
+     */
+    public static void save(Path path, Collection<Task> tasks) throws IOException {
+        try (DataOutputStream output = openOutput(path, false)) {
+            writeHeader(output);
+            for (Task task : tasks) {
+                writeTask(output, task);
+            }
+        }
+    }
+
+    /**
+     * Appends a task to an existing binary save file.
+     *
+     * @param path path of file.
+     * @param task task to append.
+     * @throws IOException if writing fails.
+     */
+    public static void append(Path path, Task task) throws IOException {
+        try (DataOutputStream output = openOutput(path, true)) {
+            writeTask(output, task);
+        }
+    }
+
+    /**
+     * Reads every task in a binary save file.
+     *
+     * @param path path of file.
+     * @param saveToTaskList function to pass each task to.
+     * @throws IOException if reading fails or the file is corrupted.
+     *     Tasks before the corruption have already been passed on.
+     */
+    public static void load(Path path, Consumer<Task> saveToTaskList) throws IOException {
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(path.toFile()), 1 << 16))) {
+            readHeader(input);
+
+            Task task;
+            while ((task = readTask(input)) != null) {
+                saveToTaskList.accept(task);
+            }
+        } catch (EOFException e) {
+            throw new IOException("Binary save file ends in the middle of a task.", e);
+        }
+    }
+
+    /**
+     * Converts a text save file into a binary save file.
+     * Corrupted lines are skipped.
+     *
+     * @param textPath path of text save file.
+     * @param binaryPath path of binary save file to create.
+     * @return number of tasks converted.
+     * @throws IOException if either file cannot be accessed.
+     */
+    public static int convertFromText(Path textPath, Path binaryPath) throws IOException {
+        List<Task> tasks = new SnapshotLoader().load(textPath).getTasks();
+        save(binaryPath, tasks);
+        return tasks.size();
+    }
+
+    /**
+     * Converts a binary save file into a text save file.
+     *
+     * @param binaryPath path of binary save file.
+     * @param textPath path of text save file to create.
+     * @return number of tasks converted.
+     * @throws IOException if either file cannot be accessed.
+     */
+    public static int convertToText(Path binaryPath, Path textPath) throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        load(binaryPath, tasks::add);
+
+        try (BufferedWriter writer = Files.newBufferedWriter(textPath, StandardCharsets.UTF_8)) {
+            for (Task task : tasks) {
+                writer.write(task.toString());
+                writer.newLine();
+            }
+        }
+
+        return tasks.size();
+    }
+
+    /**
+     * Returns the dates stored with a task.
+     *
+     * @param task task to check.
+     * @return deadline for Deadlines, start and end dates for Events, nothing for ToDos.
+     */
+    private static String[] getDates(Task task) {
+        if (task instanceof Event) {
+            Event event = (Event) task;
+            return new String[] {event.getDeadline(), event.getEnd()};
+        } else if (task instanceof TaskWithDeadline) {
+            return new String[] {((TaskWithDeadline) task).getDeadline()};
+        } else {
+            return new String[0];
+        }
+    }
+
+    /**
+     * Returns the standard format a date looks like, so that only that format has to be parsed.
+     * A failed parse throws, which costs far more than parsing, so the other format is not tried.
+     *
+     * @param date date to store.
+     * @return kind of the format the date may be in.
+     */
+    private static int getDateKind(String date) {
+        boolean isShortDate = date.length() == shortDateLength && date.charAt(2) == '/';
+        return isShortDate ? shortDateKind : longDateKind;
+    }
+
+    /**
+     * Parses a date in the given format, if formatting it again gives the same string.
+     *
+     * @param date date to parse.
+     * @param kind kind of format to parse it in.
+     * @return parsed date, or null if the date has to be stored as a string.
+     */
+    private static LocalDateTime parseExactly(String date, int kind) {
+        if (kind == shortDateKind) {
+            return parseShortDate(date);
+        }
+
+        try {
+            LocalDateTime dateTime = LocalDateTime.parse(date, longDateFormat);
+            return dateTime.format(longDateFormat).equals(date) ? dateTime : null;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses a date in the short format by reading its digits, which is several times faster than a
+     * DateTimeFormatter. Every field has a fixed width, so a valid date formats back to the same string.
+     *
+     * @param date date of the short format's length.
+     * @return parsed date, or null if the date is not a valid date in the short format.
+     */
+    private static LocalDateTime parseShortDate(String date) {
+        if (date.charAt(2) != '/' || date.charAt(5) != '/' || date.charAt(10) != ' ' || date.charAt(13) != ':') {
+            return null;
+        }
+
+        int day = parseDigits(date, 0, 2);
+        int month = parseDigits(date, 3, 5);
+        int year = parseDigits(date, 6, 10);
+        int hour = parseDigits(date, 11, 13);
+        int minute = parseDigits(date, 14, 16);
+        if (day < 0 || month < 0 || year < 1 || hour < 0 || minute < 0) {
+            return null; // Year 0 is formatted as year 1 BC
+        }
+
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static int parseDigits(String str, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = str.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+
+        return value;
+    }
+
+    private static void writeDate(DataOutputStream output, String date, LocalDateTime dateTime, int kind)
+            throws IOException {
+        if (kind == rawDateKind) {
+            writeString(output, date);
+            return;
+        }
+
+        long epochMinute = dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+        output.writeInt(Math.toIntExact(epochMinute));
+    }
+
+    private static String readDate(DataInputStream input, int kind) throws IOException {
+        switch (kind) {
+        case shortDateKind:
+            return LocalDateTime.ofEpochSecond(input.readInt() * 60L, 0, ZoneOffset.UTC).format(shortDateFormat);
+        case longDateKind:
+            return LocalDateTime.ofEpochSecond(input.readInt() * 60L, 0, ZoneOffset.UTC).format(longDateFormat);
+        case rawDateKind:
+            return readString(input);
+        default:
+            throw new IOException("Invalid date kind: " + kind);
+        }
+    }
+
+    /**
+     * Writes a string as a variable-length byte count followed by its UTF-8 bytes.
+     */
+    private static void writeString(DataOutputStream output, String str) throws IOException {
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(output, bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        int length = readVarInt(input);
+        byte[] bytes = input.readNBytes(length);
+        if (bytes.length != length) {
+            throw new EOFException();
+        }
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarInt(DataOutputStream output, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream input) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = input.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("Invalid length in binary save file.");
+    }
+
+    private static DataOutputStream openOutput(Path path, boolean isAppend) throws IOException {
+        OutputStream output = new FileOutputStream(path.toFile(), isAppend);
+        return new DataOutputStream(new BufferedOutputStream(output, 1 << 16));
+    }
+}
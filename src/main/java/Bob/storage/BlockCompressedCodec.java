@@ -0,0 +1,322 @@
+package bob.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import bob.tasks.SaveFormatDecoder;
+import bob.tasks.Task;
+
+/**
+ * Reads and writes tasks in the block-compressed save format.
+ *
+ * A compressed save file starts with a 4 byte magic number and a 2 byte version, followed by blocks.
+ * Each block holds the text save format of up to about 64 KB of tasks, compressed with deflate, and
+ * starts with a header of its uncompressed length, compressed length and number of tasks. The headers
+ * form an index of the file, so blocks are compressed and decompressed in parallel, and appending tasks
+ * adds a block without touching the blocks before it.
+ */
+public class BlockCompressedCodec {
+    static final byte[] magic = {'B', 'O', 'B', 'Z'};
+    static final short version = 1;
+
+    private static final int fileHeaderSize = magic.length + Short.BYTES;
+    private static final int blockHeaderSize = 3 * Integer.BYTES;
+    private static final int blockSize = 64 << 10;
+
+    /**
+     * Position and size of one compressed block.
+     */
+    static class Block {
+        private final long offset;
+        private final int uncompressedLength;
+        private final int compressedLength;
+        private final int taskCount;
+
+        Block(long offset, int uncompressedLength, int compressedLength, int taskCount) {
+            this.offset = offset;
+            this.uncompressedLength = uncompressedLength;
+            this.compressedLength = compressedLength;
+            this.taskCount = taskCount;
+        }
+    }
+
+    /**
+     * Returns whether a file is in the compressed save format.
+     *
+     * @param path path of file.
+     * @return if file starts with the compressed header.
+     */
+    public static boolean isCompressed(Path path) {
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(magic.length);
+            channel.read(header, 0);
+            return Arrays.equals(magic, header.array());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes tasks to a new compressed save file.
+     *
+     * @param path path of file.
+     * @param tasks tasks to write.
+     * @throws IOException if writing fails.
+     */
+    public static void save(Path path, Collection<Task> tasks) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(channel, ByteBuffer.allocate(fileHeaderSize).put(magic).putShort(version).flip());
+            writeBlocks(channel, tasks);
+        }
+    }
+
+    /**
+     * Appends tasks to a compressed save file as new blocks, creating the file if needed.
+     * Existing blocks are left as they are.
+     *
+     * @param path path of file.
+     * @param tasks tasks to append.
+     * @throws IOException if writing fails.
+     */
+    public static void append(Path path, Collection<Task> tasks) throws IOException {
+        if (!Files.exists(path) || Files.size(path) == 0) {
+            save(path, tasks);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            writeBlocks(channel, tasks);
+        }
+    }
+
+    /**
+     * Reads every task in a compressed save file, decompressing blocks in parallel.
+     *
+     * @param path path of file.
+     * @param saveToTaskList function to pass each task to, in their original order.
+     * @throws IOException if reading fails or the file is corrupted.
+     */
+    public static void load(Path path, Consumer<Task> saveToTaskList) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            List<Block> blocks = readIndex(channel);
+
+            List<List<Task>> blockTasks;
+            try {
+                blockTasks = blocks.parallelStream()
+                        .map((block) -> readBlock(channel, block))
+                        .collect(Collectors.toList());
+            } catch (CompletionException e) {
+                Throwable cause = e;
+                while (cause instanceof CompletionException && cause.getCause() != null) {
+                    cause = cause.getCause(); // Fork-join pool may wrap the exception again
+                }
+                throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+            }
+
+            blockTasks.forEach((tasks) -> tasks.forEach(saveToTaskList));
+        }
+    }
+
+    /**
+     * Converts a text save file into a compressed save file.
+     * Corrupted lines are skipped.
+     *
+     * @param textPath path of text save file.
+     * @param compressedPath path of compressed save file to create.
+     * @return number of tasks converted.
+     * @throws IOException if either file cannot be accessed.
+     */
+    public static int convertFromText(Path textPath, Path compressedPath) throws IOException {
+        List<Task> tasks = new SnapshotLoader().load(textPath).getTasks();
+        save(compressedPath, tasks);
+        return tasks.size();
+    }
+
+    /**
+     * Reads the header of every block in the file.
+     *
+     * @param channel open compressed save file.
+     * @return blocks in file order.
+     * @throws IOException if reading fails or the file is corrupted.
+     */
+    static List<Block> readIndex(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(fileHeaderSize);
+        readFully(channel, header, 0);
+        byte[] fileMagic = new byte[magic.length];
+        header.get(fileMagic);
+        if (!Arrays.equals(magic, fileMagic)) {
+            throw new IOException("Not a compressed save file.");
+        }
+        if (header.getShort() != version) {
+            throw new IOException("Unsupported compressed save file version.");
+        }
+
+        List<Block> blocks = new ArrayList<>();
+        long offset = fileHeaderSize;
+        long size = channel.size();
+        while (offset < size) {
+            ByteBuffer blockHeader = ByteBuffer.allocate(blockHeaderSize);
+            readFully(channel, blockHeader, offset);
+            Block block = new Block(offset, blockHeader.getInt(), blockHeader.getInt(), blockHeader.getInt());
+            if (block.uncompressedLength < 0 || block.compressedLength < 0
+                    || offset + blockHeaderSize + block.compressedLength > size) {
+                throw new IOException("Compressed save file ends in the middle of a block.");
+            }
+
+            blocks.add(block);
+            offset += blockHeaderSize + block.compressedLength;
+        }
+
+        return blocks;
+    }
+
+    /**
+     * Splits tasks into blocks, compresses them in parallel and writes them in order.
+     *
+     * @param channel file to write to, positioned at the end.
+     * @param tasks tasks to write.
+     * @throws IOException if writing fails.
+     */
+    private static void writeBlocks(FileChannel channel, Collection<Task> tasks) throws IOException {
+        List<List<Task>> groups = new ArrayList<>();
+        List<Task> group = new ArrayList<>();
+        int groupLength = 0;
+        for (Task task : tasks) {
+            group.add(task);
+            groupLength += task.toString().length() + 1;
+            if (groupLength >= blockSize) {
+                groups.add(group);
+                group = new ArrayList<>();
+                groupLength = 0;
+            }
+        }
+        if (!group.isEmpty()) {
+            groups.add(group);
+        }
+
+        List<ByteBuffer> blocks = groups.parallelStream()
+                .map(BlockCompressedCodec::compressBlock)
+                .collect(Collectors.toList());
+        for (ByteBuffer block : blocks) {
+            writeFully(channel, block);
+        }
+    }
+
+    /**
+     * Compresses the text save format of a group of tasks into a block with its header.
+     *
+     * @param tasks tasks in block.
+     * @return block ready to write.
+     */
+    private static ByteBuffer compressBlock(List<Task> tasks) {
+        StringBuilder text = new StringBuilder();
+        for (Task task : tasks) {
+            text.append(task.toString()).append('\n');
+        }
+        byte[] uncompressed = text.toString().getBytes(StandardCharsets.UTF_8);
+
+        Deflater deflater = new Deflater();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(uncompressed.length / 4 + 64);
+        try {
+            deflater.setInput(uncompressed);
+            deflater.finish();
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                compressed.write(buffer, 0, deflater.deflate(buffer));
+            }
+        } finally {
+            deflater.end();
+        }
+
+        ByteBuffer block = ByteBuffer.allocate(blockHeaderSize + compressed.size());
+        block.putInt(uncompressed.length).putInt(compressed.size()).putInt(tasks.size());
+        block.put(compressed.toByteArray());
+        return block.flip();
+    }
+
+    /**
+     * Decompresses a block and decodes its tasks.
+     *
+     * @param channel open compressed save file.
+     * @param block block to read.
+     * @return tasks in block.
+     * @throws CompletionException wrapping an IOException if the block cannot be read.
+     */
+    private static List<Task> readBlock(FileChannel channel, Block block) {
+        Inflater inflater = new Inflater();
+        try {
+            ByteBuffer compressed = ByteBuffer.allocate(block.compressedLength);
+            readFully(channel, compressed, block.offset + blockHeaderSize);
+
+            byte[] uncompressed = new byte[block.uncompressedLength + 1]; // Room to detect overlong blocks
+            inflater.setInput(compressed.array());
+            int length = 0;
+            while (!inflater.finished() && length < uncompressed.length) {
+                int inflated = inflater.inflate(uncompressed, length, uncompressed.length - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += inflated;
+            }
+            if (!inflater.finished() || length != block.uncompressedLength) {
+                throw new IOException("Compressed block at " + block.offset + " has the wrong length.");
+            }
+
+            return decodeLines(ByteBuffer.wrap(uncompressed, 0, length), block.taskCount);
+        } catch (IOException | DataFormatException | IllegalArgumentException e) {
+            throw new CompletionException(e instanceof IOException ? e
+                    : new IOException("Compressed block at " + block.offset + " is corrupted.", e));
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static List<Task> decodeLines(ByteBuffer bytes, int taskCount) {
+        List<Task> tasks = new ArrayList<>(taskCount);
+        int lineStart = 0;
+        for (int i = 0; i < bytes.limit(); i++) {
+            if (bytes.get(i) == '\n') {
+                tasks.add(SaveFormatDecoder.decode(bytes, lineStart, i));
+                lineStart = i + 1;
+            }
+        }
+
+        return tasks;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Compressed save file ends in the middle of a block.");
+            }
+        }
+        buffer.flip();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package bob.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Appends lines to a file durably, committing concurrent appends together.
+ *
+ * Each caller blocks until its line has been forced to disk. Lines appended while a batch is being
+ * forced are gathered into the next batch, which is written with a single channel write and made
+ * durable with a single force.
+ *
+ * A log can write each batch while holding the ProcessLock of the file it appends to. If another process
+ * has replaced the file since the last batch, as counted by the generation in the lock file, the file is
+ * opened again first, so committed lines are never written to a file that is no longer the journal.
+ */
+public class GroupCommitLog {
+    private static final StorageMetrics metrics = StorageMetrics.forProcess();
+
+    private final Path path;
+    private final ProcessLock processLock;
+    private final BiConsumer<Long, Long> onAppended;
+    private FileChannel channel;
+    private long generation;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition committed = this.lock.newCondition();
+
+    private Batch openBatch = new Batch();
+    private boolean isFlushing;
+    private boolean isClosed;
+
+    private long batchCount;
+    private long recordCount;
+    private long forceCount;
+    private long maxBatchSize;
+    private long totalLatencyNanos;
+    private long maxLatencyNanos;
+
+    /**
+     * Lines waiting to be committed together.
+     */
+    private static class Batch {
+        private final List<byte[]> lines = new ArrayList<>();
+        private boolean isDone;
+        private IOException error;
+    }
+
+    /**
+     * Constructor for GroupCommitLog that appends to a file no other process writes to.
+     *
+     * @param path path of file to append to.
+     * @throws IOException if the file cannot be opened.
+     */
+    public GroupCommitLog(Path path) throws IOException {
+        this(path, null, null);
+    }
+
+    /**
+     * Primary constructor of GroupCommitLog.
+     *
+     * @param path path of file to append to.
+     * @param processLock lock to hold while writing each batch, or null if no other process writes to the file.
+     * @param onAppended function given the size of the file before and after each batch, called while
+     *     holding the lock, or null.
+     * @throws IOException if the file cannot be opened.
+     */
+    GroupCommitLog(Path path, ProcessLock processLock, BiConsumer<Long, Long> onAppended) throws IOException {
+        this.path = path;
+        this.processLock = processLock;
+        this.onAppended = onAppended;
+
+        if (processLock == null) {
+            this.channel = open(path);
+            return;
+        }
+
+        processLock.lock(false);
+        try {
+            this.generation = processLock.readGeneration();
+            this.channel = open(path);
+        } finally {
+            processLock.unlock();
+        }
+    }
+
+    /**
+     * Appends a line and waits until it is durable.
+     *
+     * @param line line to append, without a line separator.
+     * @return false if the log has been closed and the line was not appended.
+     * @throws IOException if the batch containing the line could not be written or forced.
+     */
+    public boolean append(String line) throws IOException {
+        long start = System.nanoTime();
+        byte[] bytes = (line + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+
+        this.lock.lock();
+        try {
+            if (this.isClosed) {
+                return false;
+            }
+
+            Batch batch = this.openBatch;
+            batch.lines.add(bytes);
+
+            while (!batch.isDone) {
+                if (this.isFlushing) {
+                    this.committed.awaitUninterruptibly();
+                } else {
+                    commitOpenBatch();
+                }
+            }
+
+            long latency = System.nanoTime() - start;
+            this.totalLatencyNanos += latency;
+            this.maxLatencyNanos = Math.max(this.maxLatencyNanos, latency);
+
+            if (batch.error != null) {
+                throw batch.error;
+            }
+
+            return true;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Waits for pending lines to be committed, then closes the file.
+     * Later appends are rejected.
+     */
+    public void close() {
+        this.lock.lock();
+        try {
+            this.isClosed = true;
+            while (this.isFlushing || !this.openBatch.lines.isEmpty()) {
+                if (this.isFlushing) {
+                    this.committed.awaitUninterruptibly();
+                } else {
+                    commitOpenBatch();
+                }
+            }
+        } finally {
+            this.lock.unlock();
+        }
+
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            System.err.println("There was a problem closing the file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns commit statistics gathered so far.
+     *
+     * @return snapshot of commit statistics.
+     */
+    public GroupCommitStats getStats() {
+        this.lock.lock();
+        try {
+            return new GroupCommitStats(this.batchCount, this.recordCount, this.forceCount,
+                    this.maxBatchSize, this.totalLatencyNanos, this.maxLatencyNanos);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Writes and forces the open batch, releasing the lock while doing I/O.
+     * Must be called with the lock held and no other batch being flushed.
+     */
+    private void commitOpenBatch() {
+        Batch batch = this.openBatch;
+        this.openBatch = new Batch();
+        this.isFlushing = true;
+        this.lock.unlock();
+
+        IOException error = null;
+        try {
+            writeAndForce(batch.lines);
+        } catch (IOException e) {
+            error = e;
+        } finally {
+            this.lock.lock();
+        }
+
+        this.isFlushing = false;
+        batch.isDone = true;
+        batch.error = error;
+        this.batchCount++;
+        this.recordCount += batch.lines.size();
+        this.maxBatchSize = Math.max(this.maxBatchSize, batch.lines.size());
+        if (error == null) {
+            this.forceCount++;
+        }
+        this.committed.signalAll();
+    }
+
+    /**
+     * Writes all lines with one channel write and forces them to disk, holding the process lock if there is
+     * one and opening the file again if another process has replaced it.
+     *
+     * @param lines encoded lines.
+     * @throws IOException if writing or forcing fails.
+     */
+    private void writeAndForce(List<byte[]> lines) throws IOException {
+        if (this.processLock == null) {
+            write(lines);
+            return;
+        }
+
+        this.processLock.lock(false);
+        try {
+            long currentGeneration = this.processLock.readGeneration();
+            if (currentGeneration != this.generation) {
+                this.channel.close();
+                this.channel = open(this.path);
+                this.generation = currentGeneration;
+            }
+
+            long sizeBefore = this.channel.size();
+            write(lines);
+            if (this.onAppended != null) {
+                this.onAppended.accept(sizeBefore, this.channel.size());
+            }
+        } finally {
+            this.processLock.unlock();
+        }
+    }
+
+    /**
+     * Writes all lines with one channel write and forces them to disk.
+     *
+     * @param lines encoded lines.
+     * @throws IOException if writing or forcing fails.
+     */
+    private void write(List<byte[]> lines) throws IOException {
+        int size = 0;
+        for (byte[] line : lines) {
+            size += line.length;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (byte[] line : lines) {
+            buffer.put(line);
+        }
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            this.channel.write(buffer);
+        }
+        metrics.recordWritten(size);
+
+        long forceStart = System.nanoTime();
+        this.channel.force(false);
+        metrics.record(StorageStats.Operation.FSYNC, lines.size(), forceStart);
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+}
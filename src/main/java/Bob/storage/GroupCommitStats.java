@@ -0,0 +1,97 @@
+package bob.storage;
+
+/**
+ * Snapshot of how a GroupCommitLog has been batching commits, used to tune durable storage.
+ */
+public class GroupCommitStats {
+    private final long batchCount;
+    private final long recordCount;
+    private final long forceCount;
+    private final long maxBatchSize;
+    private final long totalLatencyNanos;
+    private final long maxLatencyNanos;
+
+    /**
+     * Primary constructor of GroupCommitStats.
+     *
+     * @param batchCount number of batches committed.
+     * @param recordCount number of records committed.
+     * @param forceCount number of successful forces to disk.
+     * @param maxBatchSize largest number of records committed in one batch.
+     * @param totalLatencyNanos total time callers spent waiting for commits.
+     * @param maxLatencyNanos longest time a caller spent waiting for a commit.
+     */
+    public GroupCommitStats(long batchCount, long recordCount, long forceCount, long maxBatchSize,
+            long totalLatencyNanos, long maxLatencyNanos) {
+        this.batchCount = batchCount;
+        this.recordCount = recordCount;
+        this.forceCount = forceCount;
+        this.maxBatchSize = maxBatchSize;
+        this.totalLatencyNanos = totalLatencyNanos;
+        this.maxLatencyNanos = maxLatencyNanos;
+    }
+
+    public long getBatchCount() {
+        return this.batchCount;
+    }
+
+    public long getRecordCount() {
+        return this.recordCount;
+    }
+
+    public long getForceCount() {
+        return this.forceCount;
+    }
+
+    public long getMaxBatchSize() {
+        return this.maxBatchSize;
+    }
+
+    /**
+     * Returns the average number of records committed per batch.
+     *
+     * @return average batch size, or 0 if nothing has been committed.
+     */
+    public double getAverageBatchSize() {
+        return this.batchCount == 0 ? 0 : (double) this.recordCount / this.batchCount;
+    }
+
+    /**
+     * Returns the average time a caller waited for its record to become durable.
+     *
+     * @return average commit latency in milliseconds, or 0 if nothing has been committed.
+     */
+    public double getAverageLatencyMillis() {
+        return this.recordCount == 0 ? 0 : this.totalLatencyNanos / 1e6 / this.recordCount;
+    }
+
+    /**
+     * Returns the longest time a caller waited for its record to become durable.
+     *
+     * @return maximum commit latency in milliseconds.
+     */
+    public double getMaxLatencyMillis() {
+        return this.maxLatencyNanos / 1e6;
+    }
+
+    /**
+     * Combines these statistics with statistics gathered separately.
+     *
+     * @param other other statistics.
+     * @return combined statistics.
+     */
+    public GroupCommitStats plus(GroupCommitStats other) {
+        return new GroupCommitStats(this.batchCount + other.batchCount, this.recordCount + other.recordCount,
+                this.forceCount + other.forceCount, Math.max(this.maxBatchSize, other.maxBatchSize),
+                this.totalLatencyNanos + other.totalLatencyNanos,
+                Math.max(this.maxLatencyNanos, other.maxLatencyNanos));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d records in %d batches (avg %.1f, max %d), %d fsyncs, "
+                + "commit latency avg %.2fms max %.2fms",
+                this.recordCount, this.batchCount, getAverageBatchSize(), this.maxBatchSize, this.forceCount,
+                getAverageLatencyMillis(), getMaxLatencyMillis());
+    }
+}
@@ -0,0 +1,53 @@
+package bob.storage;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import bob.tasks.Task;
+
+/**
+ * Keeps tasks in memory only, for tests and for benchmarking without disk I/O.
+ * Tasks are kept in their save format, so loading gives new Task objects just like a file would.
+ */
+public class InMemoryStorage implements TaskStorage {
+    private final Map<String, String> savedTasks = new LinkedHashMap<>();
+
+    @Override
+    public synchronized void loadTasks(Consumer<Task> saveToTaskList) {
+        for (String line : this.savedTasks.values()) {
+            saveToTaskList.accept(Task.getFromSaveFormat(line));
+        }
+    }
+
+    @Override
+    public synchronized void saveTask(Task newTask) {
+        this.savedTasks.put(newTask.getKey(), newTask.toString());
+    }
+
+    @Override
+    public synchronized void updateTask(Task task) {
+        this.savedTasks.replace(task.getKey(), task.toString());
+    }
+
+    @Override
+    public synchronized void deleteTask(Task task) {
+        this.savedTasks.remove(task.getKey());
+    }
+
+    @Override
+    public synchronized void rewriteTaskList(List<Task> tasks) {
+        this.savedTasks.clear();
+        tasks.forEach(this::saveTask);
+    }
+
+    /**
+     * Returns the number of saved tasks.
+     *
+     * @return number of saved tasks.
+     */
+    public synchronized int getSize() {
+        return this.savedTasks.size();
+    }
+}
@@ -0,0 +1,186 @@
+package bob.storage;
+
+import java.util.Map;
+
+import bob.exceptions.InvalidTaskOperationException;
+import bob.tasks.Task;
+
+/**
+ * Represents a single mutation of the task list appended to the journal.
+ * Add records hold the full save format of the task, while the other records only hold the task key.
+ */
+public class JournalRecord {
+    /**
+     * Mutations that can be recorded in the journal.
+     */
+    public enum Operation {
+        ADD('A'), MARK('M'), UNMARK('U'), DELETE('D');
+
+        private final char code;
+
+        Operation(char code) {
+            this.code = code;
+        }
+
+        /**
+         * Returns the operation with the given code.
+         *
+         * @param code code of operation.
+         * @return matching operation.
+         * @throws IllegalArgumentException if no operation has the given code.
+         */
+        static Operation fromCode(char code) throws IllegalArgumentException {
+            for (Operation operation : values()) {
+                if (operation.code == code) {
+                    return operation;
+                }
+            }
+
+            throw new IllegalArgumentException("Invalid journal operation: " + code);
+        }
+    }
+
+    private final Operation operation;
+    private final String payload;
+
+    /**
+     * Primary constructor of JournalRecord.
+     *
+     * @param operation mutation recorded.
+     * @param payload save format of task for additions, key of task otherwise.
+     */
+    public JournalRecord(Operation operation, String payload) {
+        this.operation = operation;
+        this.payload = payload;
+    }
+
+    /**
+     * Creates a record of a task being added.
+     *
+     * @param task added task.
+     * @return add record.
+     */
+    public static JournalRecord ofAdd(Task task) {
+        return new JournalRecord(Operation.ADD, task.toString());
+    }
+
+    /**
+     * Creates a record of a task being marked or unmarked, depending on its current completion status.
+     *
+     * @param task edited task.
+     * @return mark or unmark record.
+     */
+    public static JournalRecord ofUpdate(Task task) {
+        return new JournalRecord(task.isCompleted() ? Operation.MARK : Operation.UNMARK, task.getKey());
+    }
+
+    /**
+     * Creates a record of a task being deleted.
+     *
+     * @param task deleted task.
+     * @return delete record.
+     */
+    public static JournalRecord ofDelete(Task task) {
+        return new JournalRecord(Operation.DELETE, task.getKey());
+    }
+
+    /**
+     * Converts a line from the journal to a JournalRecord.
+     *
+     * @param line line from journal.
+     * @return saved record.
+     * @throws IllegalArgumentException when journal format is invalid.
+     */
+    public static JournalRecord fromLine(String line) throws IllegalArgumentException {
+        if (line.length() < 3 || line.charAt(1) != ' ') {
+            throw new IllegalArgumentException("Invalid journal format: " + line);
+        }
+
+        return new JournalRecord(Operation.fromCode(line.charAt(0)), line.substring(2));
+    }
+
+    public Operation getOperation() {
+        return this.operation;
+    }
+
+    /**
+     * Returns the key of the task this record applies to.
+     *
+     * @return key of task.
+     */
+    public String getKey() {
+        return this.operation == Operation.ADD ? this.payload.substring(6) : this.payload;
+    }
+
+    /**
+     * Returns the task this record applies to, as it is after the change.
+     * Deleted tasks are returned with the completion status they were last saved with, if known.
+     *
+     * @return changed task.
+     * @throws IllegalArgumentException when the task is in an invalid save format.
+     */
+    public Task toTask() throws IllegalArgumentException {
+        switch (this.operation) {
+        case ADD:
+            return Task.getFromSaveFormat(this.payload);
+        case MARK:
+            return Task.getFromSaveFormat("[X] | " + this.payload);
+        default:
+            return Task.getFromSaveFormat("[ ] | " + this.payload);
+        }
+    }
+
+    /**
+     * Applies this record to tasks replayed so far, keyed by task key in list order.
+     * Records are idempotent, so replaying a record twice leaves the tasks unchanged.
+     *
+     * @param tasks tasks replayed so far.
+     * @throws IllegalArgumentException when an added task is in an invalid save format.
+     */
+    public void applyTo(Map<String, Task> tasks) throws IllegalArgumentException {
+        switch (this.operation) {
+        case ADD:
+            Task task = Task.getFromSaveFormat(this.payload);
+            tasks.putIfAbsent(task.getKey(), task);
+            break;
+        case MARK:
+            setCompletion(tasks.get(this.payload), true);
+            break;
+        case UNMARK:
+            setCompletion(tasks.get(this.payload), false);
+            break;
+        case DELETE:
+            tasks.remove(this.payload);
+            break;
+        default:
+            break;
+        }
+    }
+
+    /**
+     * Sets the completion status of a replayed task, ignoring tasks that no longer exist.
+     *
+     * @param task replayed task.
+     * @param isCompleted completion status to set.
+     */
+    private static void setCompletion(Task task, boolean isCompleted) {
+        if (task == null || task.isCompleted() == isCompleted) {
+            return;
+        }
+
+        try {
+            if (isCompleted) {
+                task.markTask();
+            } else {
+                task.unmarkTask();
+            }
+        } catch (InvalidTaskOperationException e) {
+            assert false : "Completion status was checked before editing.";
+        }
+    }
+
+    @Override
+    public String toString() {
+        return this.operation.code + " " + this.payload;
+    }
+}
@@ -0,0 +1,36 @@
+package bob.storage;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import bob.tasks.Task;
+
+/**
+ * Discards every change and loads no tasks, for measuring TaskManager on its own.
+ */
+public class NoOpStorage implements TaskStorage {
+    @Override
+    public void loadTasks(Consumer<Task> saveToTaskList) {
+        // Nothing is ever saved
+    }
+
+    @Override
+    public void saveTask(Task newTask) {
+        // Changes are discarded
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        // Changes are discarded
+    }
+
+    @Override
+    public void deleteTask(Task task) {
+        // Changes are discarded
+    }
+
+    @Override
+    public void rewriteTaskList(List<Task> tasks) {
+        // Changes are discarded
+    }
+}
@@ -0,0 +1,164 @@
+package bob.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coordinates access to a save file between threads and between processes.
+ *
+ * Threads in one JVM take turns through a reentrant lock, and the thread holding it also locks a lock file
+ * next to the save file, shared for reads and exclusive for writes, so other processes wait for it. The
+ * lock file also holds a generation number, which is increased whenever the save file is replaced rather
+ * than appended to. Locking is best effort: if the lock file cannot be opened, only threads are coordinated.
+ * The lock file is kept when the last user releases the lock, as other processes may still be waiting on it.
+ */
+class ProcessLock {
+    private static final Map<Path, ProcessLock> locks = new ConcurrentHashMap<>();
+
+    private final Path lockPath;
+    private final ReentrantLock threadLock = new ReentrantLock();
+    private int userCount;
+    private FileChannel channel;
+    private FileLock fileLock;
+
+    private ProcessLock(Path lockPath) {
+        this.lockPath = lockPath;
+    }
+
+    /**
+     * Returns the lock shared by every Storage in this JVM using the given lock file.
+     * Each call must be matched by a call to release once the lock is no longer needed.
+     *
+     * @param lockPath path of lock file.
+     * @return lock for the file.
+     */
+    static ProcessLock forPath(Path lockPath) {
+        return locks.compute(lockPath.toAbsolutePath().normalize(), (path, lock) -> {
+            ProcessLock sharedLock = lock == null ? new ProcessLock(path) : lock;
+            sharedLock.userCount++;
+            return sharedLock;
+        });
+    }
+
+    /**
+     * Stops using the lock, forgetting it once no Storage in this JVM uses its lock file.
+     */
+    void release() {
+        locks.computeIfPresent(this.lockPath, (path, lock) -> {
+            assert lock == this && lock.userCount > 0 : "Lock should be in use.";
+            lock.userCount--;
+            return lock.userCount == 0 ? null : lock;
+        });
+    }
+
+    /**
+     * Returns whether the lock is shared by some Storage in this JVM.
+     *
+     * @param lockPath path of lock file.
+     * @return whether the lock is in use.
+     */
+    static boolean isInUse(Path lockPath) {
+        return locks.containsKey(lockPath.toAbsolutePath().normalize());
+    }
+
+    /**
+     * Waits until this thread holds the lock. Nested calls by the holding thread keep the outermost lock.
+     *
+     * @param isShared whether other processes may read at the same time.
+     */
+    void lock(boolean isShared) {
+        assert this.userCount > 0 : "Lock should not be used after it is released.";
+        this.threadLock.lock();
+        if (this.threadLock.getHoldCount() > 1) {
+            return;
+        }
+
+        try {
+            this.lockPath.toAbsolutePath().getParent().toFile().mkdirs();
+            this.channel = FileChannel.open(this.lockPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.fileLock = this.channel.lock(0, Long.MAX_VALUE, isShared);
+        } catch (IOException e) {
+            closeChannel(); // Coordinate threads only
+        }
+    }
+
+    /**
+     * Releases one hold of the lock, unlocking the lock file when the outermost hold is released.
+     */
+    void unlock() {
+        assert this.threadLock.isHeldByCurrentThread() : "Lock should be held by this thread.";
+        if (this.threadLock.getHoldCount() == 1) {
+            closeChannel();
+        }
+        this.threadLock.unlock();
+    }
+
+    /**
+     * Returns the generation of the save file. Must be called while holding the lock.
+     *
+     * @return generation, or 0 if the lock file is empty or could not be opened.
+     */
+    long readGeneration() {
+        if (this.channel == null) {
+            return 0;
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+            while (buffer.hasRemaining()) {
+                if (this.channel.read(buffer, buffer.position()) < 0) {
+                    return 0;
+                }
+            }
+            return buffer.flip().getLong();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Increases the generation of the save file. Must be called while holding the lock exclusively.
+     *
+     * @return new generation.
+     */
+    long increaseGeneration() {
+        long generation = readGeneration() + 1;
+        if (this.channel == null) {
+            return generation;
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES).putLong(generation).flip();
+            while (buffer.hasRemaining()) {
+                this.channel.write(buffer, buffer.position());
+            }
+        } catch (IOException e) {
+            System.err.println("There was a problem updating the lock file: " + e.getMessage());
+        }
+        return generation;
+    }
+
+    private void closeChannel() {
+        try {
+            if (this.fileLock != null) {
+                this.fileLock.release();
+            }
+            if (this.channel != null) {
+                this.channel.close();
+            }
+        } catch (IOException e) {
+            // Lock is released when the channel is closed anyway
+        }
+
+        this.fileLock = null;
+        this.channel = null;
+    }
+}
@@ -0,0 +1,144 @@
+package bob.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32C;
+
+/**
+ * Adds and checks per-record CRC32C checksums in the text save format.
+ *
+ * A checksummed record is the CRC32C of the UTF-8 save format as 8 lowercase hex digits, a space, then
+ * the save format itself. Plain records always start with "[", so both kinds of record can be told apart
+ * from their first byte and may be mixed in one file. Checks work on raw bytes, so corrupted records are
+ * found without decoding any text or building any tasks.
+ */
+public class RecordChecksum {
+    static final int prefixLength = 9;
+
+    private static final char[] hexDigits = "0123456789abcdef".toCharArray();
+
+    private final CRC32C crc = new CRC32C();
+
+    /**
+     * Returns a record with its checksum added.
+     *
+     * @param line save format of a task.
+     * @return checksummed record.
+     */
+    public static String addTo(String line) {
+        CRC32C crc = new CRC32C();
+        crc.update(line.getBytes(StandardCharsets.UTF_8));
+        long value = crc.getValue();
+
+        char[] prefix = new char[prefixLength];
+        for (int i = 7; i >= 0; i--) {
+            prefix[i] = hexDigits[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+        prefix[8] = ' ';
+        return new String(prefix) + line;
+    }
+
+    /**
+     * Returns the save format in a record, checking its checksum if it has one.
+     *
+     * @param record checksummed or plain record.
+     * @return save format of the task.
+     * @throws IllegalArgumentException if the checksum does not match.
+     */
+    public static String removeFrom(String record) throws IllegalArgumentException {
+        byte[] prefix = record.substring(0, Math.min(prefixLength, record.length()))
+                .getBytes(StandardCharsets.UTF_8);
+        if (!hasChecksum(ByteBuffer.wrap(prefix), 0, prefix.length)) {
+            return record;
+        }
+
+        String line = record.substring(prefixLength);
+        if (!addTo(line).equals(record)) {
+            throw new IllegalArgumentException("Checksum mismatch: " + line);
+        }
+        return line;
+    }
+
+    /**
+     * Returns whether a file starts with a checksummed record.
+     *
+     * @param path path of file.
+     * @return if the first record has a checksum.
+     */
+    public static boolean isChecksummed(Path path) {
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+
+        try (InputStream input = Files.newInputStream(path)) {
+            byte[] prefix = input.readNBytes(prefixLength);
+            return prefix.length == prefixLength && hasChecksum(ByteBuffer.wrap(prefix), 0, prefixLength);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Returns whether a record has a checksum prefix.
+     *
+     * @param bytes bytes holding the record.
+     * @param start index of first byte of the record.
+     * @param end index after last byte of the record.
+     * @return if record starts with 8 hex digits and a space.
+     */
+    public static boolean hasChecksum(ByteBuffer bytes, int start, int end) {
+        if (end - start < prefixLength || bytes.get(start + prefixLength - 1) != ' ') {
+            return false;
+        }
+
+        for (int i = start; i < start + prefixLength - 1; i++) {
+            if (hexValue(bytes.get(i)) < 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns whether the checksum of a checksummed record matches its contents.
+     *
+     * @param bytes bytes holding the record.
+     * @param start index of first byte of the record, where its checksum starts.
+     * @param end index after last byte of the record.
+     * @return if the checksum matches.
+     */
+    public boolean isValid(ByteBuffer bytes, int start, int end) {
+        long expected = 0;
+        for (int i = start; i < start + prefixLength - 1; i++) {
+            expected = (expected << 4) | hexValue(bytes.get(i));
+        }
+
+        this.crc.reset();
+        int contentStart = start + prefixLength;
+        if (bytes.hasArray()) {
+            this.crc.update(bytes.array(), bytes.arrayOffset() + contentStart, end - contentStart);
+        } else {
+            ByteBuffer content = bytes.duplicate();
+            content.limit(end).position(contentStart);
+            this.crc.update(content);
+        }
+
+        return this.crc.getValue() == expected;
+    }
+
+    private static int hexValue(byte b) {
+        if (b >= '0' && b <= '9') {
+            return b - '0';
+        } else if (b >= 'a' && b <= 'f') {
+            return b - 'a' + 10;
+        } else {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package bob.storage;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+import bob.managers.DateManager;
+import bob.tasks.Task;
+import bob.tasks.TaskWithDeadline;
+
+/**
+ * Stores tasks in a directory of shards, one per month that Deadlines are due and Events start in.
+ *
+ * ToDos, and any task whose date is not in a standardised format, are kept in a separate todo shard.
+ * A manifest lists every shard with its number of tasks. Each record is prefixed with a sequence number,
+ * so the original list order is restored when shards are merged. Date-bounded loads only open the todo
+ * shard and the shards of the months asked for, and changing a task only rewrites its own shard.
+ */
+public class ShardedStorage implements TaskStorage {
+    private static final String manifestName = "manifest.txt";
+    private static final String nextSequenceHeader = "next";
+    private static final String todoShard = "todo";
+    private static final String shardSuffix = ".txt";
+    private static final DateTimeFormatter monthFormat = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final Path directory;
+    private final TreeMap<String, Integer> shardSizes = new TreeMap<>();
+    private long nextSequence;
+
+    /**
+     * A saved task along with its position in the list.
+     */
+    private static class Record {
+        private final long sequence;
+        private final String line;
+
+        private Record(long sequence, String line) {
+            this.sequence = sequence;
+            this.line = line;
+        }
+
+        private static Record fromLine(String line) throws IllegalArgumentException {
+            int separator = line.indexOf(' ');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid shard record: " + line);
+            }
+
+            return new Record(Long.parseLong(line.substring(0, separator)), line.substring(separator + 1));
+        }
+
+        private String getKey() {
+            return this.line.substring(6);
+        }
+
+        @Override
+        public String toString() {
+            return this.sequence + " " + this.line;
+        }
+    }
+
+    /**
+     * Primary constructor of ShardedStorage.
+     *
+     * @param directoryPath path of directory holding the manifest and shards.
+     */
+    public ShardedStorage(String directoryPath) {
+        this.directory = Paths.get(directoryPath);
+        readManifest();
+    }
+
+    @Override
+    public synchronized void loadTasks(Consumer<Task> saveToTaskList) {
+        loadShards(new ArrayList<>(this.shardSizes.keySet()), saveToTaskList);
+    }
+
+    @Override
+    public synchronized void loadTasksDueBetween(LocalDate from, LocalDate to, Consumer<Task> saveToTaskList) {
+        List<String> shards = new ArrayList<>();
+        if (this.shardSizes.containsKey(todoShard)) {
+            shards.add(todoShard);
+        }
+
+        String firstShard = YearMonth.from(from).format(monthFormat);
+        String lastShard = YearMonth.from(to).format(monthFormat);
+        for (String shard : this.shardSizes.subMap(firstShard, true, lastShard, true).keySet()) {
+            if (!shard.equals(todoShard)) {
+                shards.add(shard);
+            }
+        }
+
+        loadShards(shards, saveToTaskList);
+    }
+
+    @Override
+    public synchronized int countTasks() {
+        return this.shardSizes.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    @Override
+    public synchronized void saveTask(Task newTask) {
+        String shard = getShard(newTask);
+        Record record = new Record(this.nextSequence, newTask.toString());
+
+        try {
+            Files.createDirectories(this.directory);
+            Files.write(getShardPath(shard), (record + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("There was a problem saving the task: " + e.getMessage());
+            return;
+        }
+
+        this.nextSequence++;
+        this.shardSizes.merge(shard, 1, Integer::sum);
+        writeManifest();
+    }
+
+    @Override
+    public synchronized void updateTask(Task task) {
+        String shard = getShard(task);
+        List<Record> records = readShard(shard, (e) -> { });
+        for (int i = 0; i < records.size(); i++) {
+            if (records.get(i).getKey().equals(task.getKey())) {
+                records.set(i, new Record(records.get(i).sequence, task.toString()));
+            }
+        }
+
+        writeShard(shard, records);
+    }
+
+    @Override
+    public synchronized void deleteTask(Task task) {
+        String shard = getShard(task);
+        List<Record> records = readShard(shard, (e) -> { });
+        records.removeIf((r) -> r.getKey().equals(task.getKey()));
+
+        writeShard(shard, records);
+        writeManifest();
+    }
+
+    @Override
+    public synchronized void rewriteTaskList(List<Task> tasks) {
+        Map<String, List<Record>> shards = new HashMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            shards.computeIfAbsent(getShard(tasks.get(i)), (s) -> new ArrayList<>())
+                    .add(new Record(i, tasks.get(i).toString()));
+        }
+
+        for (String shard : new ArrayList<>(this.shardSizes.keySet())) {
+            if (!shards.containsKey(shard)) {
+                writeShard(shard, List.of());
+            }
+        }
+        shards.forEach(this::writeShard);
+
+        this.nextSequence = tasks.size();
+        writeManifest();
+    }
+
+    /**
+     * Returns the names of the shards that exist.
+     *
+     * @return shard names, with month shards in date order.
+     */
+    public synchronized List<String> getShards() {
+        return new ArrayList<>(this.shardSizes.keySet());
+    }
+
+    /**
+     * Returns the shard a task is kept in.
+     *
+     * @param task task to check.
+     * @return month the task is due or starts in, or the todo shard.
+     */
+    static String getShard(Task task) {
+        if (!(task instanceof TaskWithDeadline)) {
+            return todoShard;
+        }
+
+        LocalDateTime deadline = DateManager.parseDeadline(((TaskWithDeadline) task).getDeadline());
+        return deadline == null ? todoShard : YearMonth.from(deadline).format(monthFormat);
+    }
+
+    /**
+     * Loads the tasks in the given shards, merged back into list order.
+     *
+     * @param shards names of shards to load.
+     * @param saveToTaskList function to pass each task to.
+     */
+    private void loadShards(List<String> shards, Consumer<Task> saveToTaskList) {
+        List<Record> records = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        for (String shard : shards) {
+            records.addAll(readShard(shard, errors::add));
+        }
+        records.sort(Comparator.comparingLong((Record r) -> r.sequence));
+
+        for (Record record : records) {
+            try {
+                saveToTaskList.accept(Task.getFromSaveFormat(record.line));
+            } catch (IllegalArgumentException e) { // Handle corrupted task
+                errors.add(e.getMessage());
+            }
+        }
+
+        if (!errors.isEmpty()) {
+            System.err.println("There was a problem loading " + errors.size()
+                    + " task(s), which were skipped. First problem: " + errors.get(0));
+        }
+    }
+
+    /**
+     * Reads every record in a shard.
+     *
+     * @param shard name of shard.
+     * @param reportError function to pass error messages of corrupted records to.
+     * @return records in the shard, in list order.
+     */
+    private List<Record> readShard(String shard, Consumer<String> reportError) {
+        List<Record> records = new ArrayList<>();
+        Path path = getShardPath(shard);
+        if (!Files.exists(path)) {
+            return records;
+        }
+
+        try {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                try {
+                    records.add(Record.fromLine(line));
+                } catch (IllegalArgumentException e) { // Handle corrupted record
+                    reportError.accept(e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("There was a problem loading the file: " + e.getMessage());
+        }
+
+        return records;
+    }
+
+    /**
+     * Replaces the records in a shard, deleting the shard if it is empty.
+     *
+     * @param shard name of shard.
+     * @param records records to write, in list order.
+     */
+    private void writeShard(String shard, List<Record> records) {
+        Path path = getShardPath(shard);
+
+        try {
+            if (records.isEmpty()) {
+                Files.deleteIfExists(path);
+                this.shardSizes.remove(shard);
+                return;
+            }
+
+            Files.createDirectories(this.directory);
+            Path tempPath = Paths.get(path + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+                for (Record record : records) {
+                    writer.write(record.toString());
+                    writer.newLine();
+                }
+            }
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            this.shardSizes.put(shard, records.size());
+        } catch (IOException e) {
+            System.err.println("There was a problem saving the task: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the manifest, if there is one.
+     */
+    private void readManifest() {
+        Path path = this.directory.resolve(manifestName);
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        try {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                String[] parts = line.split(" ");
+                if (parts.length != 2) {
+                    continue;
+                }
+
+                if (parts[0].equals(nextSequenceHeader)) {
+                    this.nextSequence = Long.parseLong(parts[1]);
+                } else {
+                    this.shardSizes.put(parts[0], Integer.parseInt(parts[1]));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("There was a problem loading the manifest: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the manifest, listing the next sequence number and the size of every shard.
+     */
+    private void writeManifest() {
+        Path path = this.directory.resolve(manifestName);
+        Path tempPath = this.directory.resolve(manifestName + ".tmp");
+
+        try {
+            Files.createDirectories(this.directory);
+            try (BufferedWriter writer = Files.newBufferedWriter(tempPath, StandardCharsets.UTF_8)) {
+                writer.write(nextSequenceHeader + " " + this.nextSequence);
+                writer.newLine();
+                for (Map.Entry<String, Integer> entry : this.shardSizes.entrySet()) {
+                    writer.write(entry.getKey() + " " + entry.getValue());
+                    writer.newLine();
+                }
+            }
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("There was a problem saving the manifest: " + e.getMessage());
+        }
+    }
+
+    private Path getShardPath(String shard) {
+        return this.directory.resolve(shard + shardSuffix);
+    }
+}
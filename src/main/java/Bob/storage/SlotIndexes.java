@@ -0,0 +1,324 @@
+package bob.storage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import bob.managers.DateManager;
+import bob.tasks.Task;
+import bob.tasks.TaskWithDeadline;
+
+/**
+ * Deadline and name indexes of a SlottedStorage, kept in two BPlusTree files next to its data file.
+ *
+ * The deadline index maps the epoch minute of each deadline to the slot of its task, and the name index
+ * maps each trigram of each lowercased task name to the slot of its task. Both are stamped with the
+ * generation of the data file, which changes whenever its slots are rewritten, and the number of slots
+ * they cover. Indexes are only used if they are sealed and their stamps match the data file. Otherwise
+ * they are rebuilt under temporary names and moved into place, so a rebuild never disturbs indexes in use.
+ */
+class SlotIndexes {
+    private static final String dueIndexSuffix = ".due.idx";
+    private static final String nameIndexSuffix = ".name.idx";
+    private static final String tempSuffix = ".tmp";
+    private static final int trigramLength = 3;
+    private static final int fewCandidates = 32;
+
+    private final Path duePath;
+    private final Path namePath;
+    private BPlusTree dueTree;
+    private BPlusTree nameTree;
+
+    /**
+     * Index entries collected from the slots of a data file.
+     */
+    static class Entries {
+        private final List<long[]> dueEntries = new ArrayList<>();
+        private final List<long[]> nameEntries = new ArrayList<>();
+
+        /**
+         * Adds the entries of a task in the given slot.
+         *
+         * @param task task to index.
+         * @param index index of first slot of task.
+         */
+        void add(Task task, int index) {
+            if (task instanceof TaskWithDeadline) {
+                LocalDateTime deadline = DateManager.parseDeadline(((TaskWithDeadline) task).getDeadline());
+                if (deadline != null) {
+                    this.dueEntries.add(new long[] {getEpochMinute(deadline), index});
+                }
+            }
+
+            for (long trigram : getTrigrams(task.getTaskName())) {
+                this.nameEntries.add(new long[] {trigram, index});
+            }
+        }
+    }
+
+    /**
+     * Primary constructor of SlotIndexes, for the index files of the given data file.
+     * No index is opened until it is known to be up to date.
+     *
+     * @param dataPath path of data file.
+     */
+    SlotIndexes(Path dataPath) {
+        this(Paths.get(dataPath + dueIndexSuffix), Paths.get(dataPath + nameIndexSuffix));
+    }
+
+    private SlotIndexes(Path duePath, Path namePath) {
+        this.duePath = duePath;
+        this.namePath = namePath;
+    }
+
+    /**
+     * Builds complete indexes for the given entries under temporary names, leaving them open.
+     *
+     * @param dataPath path of data file.
+     * @param entries entries of every task in the data file.
+     * @param generation generation of data file.
+     * @param slotCount number of slots covered by the entries.
+     * @return indexes to add any later entries to before they replace the indexes in use.
+     * @throws IOException if the indexes cannot be written.
+     */
+    static SlotIndexes build(Path dataPath, Entries entries, long generation, long slotCount) throws IOException {
+        SlotIndexes built = new SlotIndexes(Paths.get(dataPath + dueIndexSuffix + tempSuffix),
+                Paths.get(dataPath + nameIndexSuffix + tempSuffix));
+        built.dueTree = new BPlusTree(built.duePath);
+        built.nameTree = new BPlusTree(built.namePath);
+
+        try {
+            built.dueTree.rebuild(entries.dueEntries, generation, slotCount);
+            built.nameTree.rebuild(entries.nameEntries, generation, slotCount);
+        } catch (IOException e) {
+            built.discard();
+            throw e;
+        }
+
+        return built;
+    }
+
+    /**
+     * Opens the indexes if they are sealed and stamped with the given generation and number of slots.
+     *
+     * @param generation generation of data file.
+     * @param slotCount number of slots in data file.
+     * @return if the indexes are open and up to date.
+     * @throws IOException if the index files cannot be opened.
+     */
+    boolean open(long generation, long slotCount) throws IOException {
+        if (isOpen()) {
+            return true;
+        }
+
+        if (!Files.exists(this.duePath) || !Files.exists(this.namePath)) {
+            return false;
+        }
+
+        BPlusTree due = new BPlusTree(this.duePath);
+        BPlusTree name = new BPlusTree(this.namePath);
+        if (isCurrent(due, generation, slotCount) && isCurrent(name, generation, slotCount)) {
+            this.dueTree = due;
+            this.nameTree = name;
+            return true;
+        }
+
+        due.close();
+        name.close();
+        return false;
+    }
+
+    /**
+     * Returns whether the indexes are open and can be used.
+     *
+     * @return if indexes are open.
+     */
+    boolean isOpen() {
+        return this.dueTree != null;
+    }
+
+    /**
+     * Adds the entries of a new task, keeping the indexes stamped with the data file.
+     *
+     * @param task new task.
+     * @param index index of first slot of task.
+     * @param generation generation of data file.
+     * @param slotCount number of slots in data file, including the new task.
+     * @throws IOException if the indexes cannot be written.
+     */
+    void add(Task task, int index, long generation, long slotCount) throws IOException {
+        Entries entries = new Entries();
+        entries.add(task, index);
+        addAll(entries, generation, slotCount);
+    }
+
+    /**
+     * Adds the entries of new tasks, keeping the indexes stamped with the data file.
+     *
+     * @param entries entries of new tasks.
+     * @param generation generation of data file.
+     * @param slotCount number of slots in data file, including the new tasks.
+     * @throws IOException if the indexes cannot be written.
+     */
+    void addAll(Entries entries, long generation, long slotCount) throws IOException {
+        for (long[] entry : entries.dueEntries) {
+            this.dueTree.insert(entry[0], entry[1]);
+        }
+        for (long[] entry : entries.nameEntries) {
+            this.nameTree.insert(entry[0], entry[1]);
+        }
+
+        this.dueTree.setStamp(generation, slotCount);
+        this.nameTree.setStamp(generation, slotCount);
+    }
+
+    /**
+     * Returns the slots of tasks due between two dates.
+     *
+     * @param from first date, inclusive.
+     * @param to last date, inclusive.
+     * @return index of first slot of each task, in list order.
+     * @throws IOException if the index cannot be read.
+     */
+    List<Long> searchDue(LocalDate from, LocalDate to) throws IOException {
+        List<Long> indices = new ArrayList<>();
+        this.dueTree.search(getEpochMinute(from.atStartOfDay()),
+                getEpochMinute(to.plusDays(1).atStartOfDay()) - 1, indices::add);
+        indices.sort(null); // Restores list order
+        return indices;
+    }
+
+    /**
+     * Returns the slots of tasks whose names may contain the given string, having every trigram of it.
+     *
+     * @param str string to check for.
+     * @return index of first slot of each task in list order, or null if the string is too short to search.
+     * @throws IOException if the index cannot be read.
+     */
+    List<Long> searchName(String str) throws IOException {
+        Set<Long> trigrams = getTrigrams(str);
+        if (trigrams.isEmpty()) {
+            return null;
+        }
+
+        List<Long> indices = null;
+        for (long trigram : trigrams) {
+            List<Long> trigramIndices = new ArrayList<>();
+            this.nameTree.search(trigram, trigram, trigramIndices::add);
+            indices = indices == null ? trigramIndices : intersect(indices, trigramIndices);
+            if (indices.size() <= fewCandidates) {
+                break; // Reading a few slots is cheaper than searching more trigrams
+            }
+        }
+
+        return indices;
+    }
+
+    /**
+     * Replaces the index files with indexes built under temporary names, and opens them.
+     *
+     * @param built complete indexes from build.
+     * @throws IOException if the indexes cannot be moved or opened.
+     */
+    void replaceWith(SlotIndexes built) throws IOException {
+        discard();
+        built.close();
+        Files.move(built.duePath, this.duePath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.move(built.namePath, this.namePath, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+
+        this.dueTree = new BPlusTree(this.duePath);
+        this.nameTree = new BPlusTree(this.namePath);
+    }
+
+    /**
+     * Seals and closes the indexes, so they can be used straight away when next opened.
+     */
+    void close() {
+        try {
+            if (isOpen()) {
+                this.dueTree.seal();
+                this.nameTree.seal();
+            }
+        } catch (IOException e) {
+            System.err.println("There was a problem saving the index: " + e.getMessage());
+        }
+
+        discard();
+    }
+
+    /**
+     * Closes the indexes without sealing them, so they are rebuilt before being used again.
+     */
+    void discard() {
+        if (this.dueTree != null) {
+            this.dueTree.close();
+        }
+        if (this.nameTree != null) {
+            this.nameTree.close();
+        }
+
+        this.dueTree = null;
+        this.nameTree = null;
+    }
+
+    private static boolean isCurrent(BPlusTree tree, long generation, long slotCount) {
+        return tree.isSealed() && tree.getGeneration() == generation && tree.getTag() == slotCount;
+    }
+
+    /**
+     * Returns the values in both sorted lists.
+     */
+    private static List<Long> intersect(List<Long> first, List<Long> second) {
+        List<Long> both = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < first.size() && j < second.size()) {
+            int comparison = Long.compare(first.get(i), second.get(j));
+            if (comparison == 0) {
+                both.add(first.get(i));
+                i++;
+                j++;
+            } else if (comparison < 0) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+
+        return both;
+    }
+
+    /**
+     * Returns every trigram of a string with each character lowercased, packed into a long.
+     * Characters are lowercased one by one, so a string containing another still has all its trigrams.
+     *
+     * @param str string to split.
+     * @return distinct trigrams, empty if the string is too short.
+     */
+    static Set<Long> getTrigrams(String str) {
+        Set<Long> trigrams = new LinkedHashSet<>();
+        for (int i = 0; i + trigramLength <= str.length(); i++) {
+            long trigram = 0;
+            for (int j = i; j < i + trigramLength; j++) {
+                trigram = (trigram << Character.SIZE) | Character.toLowerCase(str.charAt(j));
+            }
+            trigrams.add(trigram);
+        }
+
+        return trigrams;
+    }
+
+    private static long getEpochMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+}
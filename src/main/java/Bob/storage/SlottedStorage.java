@@ -0,0 +1,725 @@
+package bob.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import bob.tasks.SaveFormatDecoder;
+import bob.tasks.Task;
+
+/**
+ * Stores tasks in a file of fixed-size slots, so a task can be changed in place.
+ *
+ * The file starts with a 4 byte magic number, a 2 byte version, the slot size and the generation of the
+ * file, which changes whenever the slots are rewritten. Each task takes one or
+ * more consecutive slots, starting with a one byte state and the length of its UTF-8 save format. Marking
+ * or unmarking a task writes the single byte of its completion status, and deleting a task writes a
+ * tombstone into its state, so neither moves any other task. Once enough slots are tombstoned, they are
+ * reclaimed in the background by copying the live tasks, in list order, into a fresh file.
+ *
+ * Two BPlusTree index files next to the data file map the epoch minute of each deadline, and each
+ * trigram of each lowercased task name, to the slot of the task. Date and name queries then descend the
+ * indexes and read only the slots they point to. Deleted tasks are left in the indexes and skipped when
+ * read. Indexes are updated as tasks are added and sealed when the storage is closed, stamped with the
+ * generation and number of slots of the file. Indexes that are unsealed or stamped for another file are
+ * rebuilt in the background, and queries read every slot until they are ready, so opening never waits.
+ */
+public class SlottedStorage implements TaskStorage {
+    static final byte[] magic = {'B', 'O', 'B', 'S'};
+    static final short version = 2;
+    static final int defaultSlotSize = 128;
+
+    private static final byte liveState = 1;
+    private static final byte deletedState = 2;
+    private static final int fileHeaderSize = magic.length + Short.BYTES + Integer.BYTES + Long.BYTES;
+    private static final int recordHeaderSize = 1 + Integer.BYTES;
+    private static final int completionOffset = recordHeaderSize + 1; // Inside the "[X]" of the save format
+    private static final int minDeletedSlotsToCompact = 64;
+    private static final String tempSuffix = ".tmp";
+
+    private final Path path;
+    private int slotSize;
+    private long generation;
+    private FileChannel channel;
+    private Future<?> compaction = CompletableFuture.completedFuture(null);
+    private Future<?> indexBuild = CompletableFuture.completedFuture(null);
+
+    // Slots of every live task by task key, built on first use
+    private Map<String, Slot> slots;
+    private int slotCount;
+    private int deletedSlotCount;
+
+    // Indexes of slots by deadline and by name, opened on first use once up to date
+    private final SlotIndexes indexes;
+
+    /**
+     * Position of a task in the file.
+     */
+    private static class Slot {
+        private final int index;
+        private final int count;
+
+        private Slot(int index, int count) {
+            this.index = index;
+            this.count = count;
+        }
+    }
+
+    /**
+     * Primary constructor of SlottedStorage.
+     *
+     * @param filePath path of file to save to.
+     */
+    public SlottedStorage(String filePath) {
+        this(filePath, defaultSlotSize);
+    }
+
+    /**
+     * Constructor for SlottedStorage with the given slot size for a new file.
+     * An existing file keeps the slot size it was created with.
+     *
+     * @param filePath path of file to save to.
+     * @param slotSize bytes in each slot, including the header of the record starting in it.
+     */
+    public SlottedStorage(String filePath, int slotSize) {
+        assert slotSize > completionOffset : "Slot should fit the start of a record.";
+        this.path = Paths.get(filePath);
+        this.slotSize = slotSize;
+        this.indexes = new SlotIndexes(this.path);
+    }
+
+    /**
+     * Returns whether a file is in the slotted save format.
+     *
+     * @param path path of file.
+     * @return if file starts with the slotted header.
+     */
+    public static boolean isSlotted(Path path) {
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(magic.length);
+            channel.read(header, 0);
+            return Arrays.equals(magic, header.array());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized void loadTasks(Consumer<Task> saveToTaskList) {
+        try {
+            readSlots(saveToTaskList);
+        } catch (IOException e) {
+            System.err.println("There was a problem loading the file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the tasks due between two dates, reading only the slots the deadline index points to.
+     * Every task is loaded instead while the index is being rebuilt.
+     *
+     * @param from first date, inclusive.
+     * @param to last date, inclusive.
+     * @param saveToTaskList function to pass each task to.
+     */
+    @Override
+    public synchronized void loadTasksDueBetween(LocalDate from, LocalDate to, Consumer<Task> saveToTaskList) {
+        try {
+            if (openIndexes()) {
+                loadSlots(this.indexes.searchDue(from, to), saveToTaskList);
+                return;
+            }
+        } catch (IOException e) {
+            System.err.println("There was a problem reading the index: " + e.getMessage());
+            this.indexes.discard();
+        }
+
+        loadTasks(saveToTaskList);
+    }
+
+    /**
+     * Loads the tasks whose names may contain the given string, reading only the slots that have every
+     * trigram of the string in the name index. Strings too short for a trigram load every task, as does
+     * any query while the index is being rebuilt.
+     *
+     * @param str string to check for.
+     * @param saveToTaskList function to pass each task to.
+     */
+    @Override
+    public synchronized void loadTasksMatching(String str, Consumer<Task> saveToTaskList) {
+        try {
+            List<Long> indices = SlotIndexes.getTrigrams(str).isEmpty() || !openIndexes() ? null
+                    : this.indexes.searchName(str);
+            if (indices != null) {
+                loadSlots(indices, saveToTaskList);
+                return;
+            }
+        } catch (IOException e) {
+            System.err.println("There was a problem reading the index: " + e.getMessage());
+            this.indexes.discard();
+        }
+
+        loadTasks(saveToTaskList);
+    }
+
+    @Override
+    public synchronized int countTasks() {
+        return getSlots().size();
+    }
+
+    @Override
+    public synchronized void saveTask(Task newTask) {
+        try {
+            Map<String, Slot> slots = getSlots();
+            int index = this.slotCount;
+            Slot slot = writeRecord(getChannel(), index, newTask.toString());
+            slots.put(newTask.getKey(), slot);
+            this.slotCount += slot.count;
+        } catch (IOException e) {
+            System.err.println("There was a problem saving the task: " + e.getMessage());
+            return;
+        }
+
+        try {
+            if (openIndexes()) {
+                this.indexes.add(newTask, this.slots.get(newTask.getKey()).index, this.generation, this.slotCount);
+            } // Otherwise the rebuild picks up the task
+        } catch (IOException e) {
+            System.err.println("There was a problem updating the index: " + e.getMessage());
+            this.indexes.discard(); // Unsealed indexes are rebuilt when next opened
+        }
+    }
+
+    @Override
+    public synchronized void updateTask(Task task) {
+        Slot slot = getSlots().get(task.getKey());
+        if (slot == null) {
+            System.err.println("There was a problem saving the change: task is not saved.");
+            return;
+        }
+
+        byte status = (byte) (task.isCompleted() ? 'X' : ' ');
+        try {
+            writeFully(getChannel(), ByteBuffer.wrap(new byte[] {status}), getOffset(slot.index) + completionOffset);
+        } catch (IOException e) {
+            System.err.println("There was a problem saving the change: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void deleteTask(Task task) {
+        Slot slot = getSlots().get(task.getKey());
+        if (slot == null) {
+            return; // Already gone
+        }
+
+        try {
+            writeFully(getChannel(), ByteBuffer.wrap(new byte[] {deletedState}), getOffset(slot.index));
+        } catch (IOException e) {
+            System.err.println("There was a problem saving the change: " + e.getMessage());
+            return;
+        }
+
+        this.slots.remove(task.getKey());
+        this.deletedSlotCount += slot.count;
+        if (this.deletedSlotCount >= Math.max(minDeletedSlotsToCompact, this.slotCount / 2)) {
+            compact();
+        }
+    }
+
+    @Override
+    public synchronized void rewriteTaskList(List<Task> tasks) {
+        List<String> lines = new ArrayList<>();
+        tasks.forEach((t) -> lines.add(t.toString()));
+
+        try {
+            replaceFile(lines);
+        } catch (IOException e) {
+            System.err.println("There was a problem saving the task: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reclaims tombstoned slots in the background, keeping tasks in list order.
+     * Changes made while compacting wait until it has finished.
+     *
+     * @return compaction in progress.
+     */
+    public synchronized Future<?> compact() {
+        if (this.compaction.isDone()) {
+            this.compaction = Storage.compactor.submit(this::compactSlots);
+        }
+
+        return this.compaction;
+    }
+
+    /**
+     * Returns the number of slots in the file, including tombstoned ones.
+     *
+     * @return number of slots.
+     */
+    public synchronized int getSlotCount() {
+        getSlots();
+        return this.slotCount;
+    }
+
+    /**
+     * Waits until the indexes are up to date, so queries can use them straight away.
+     * Queries do not need to wait, as they read every slot until then.
+     *
+     * @return if the indexes could be opened or rebuilt.
+     */
+    public boolean awaitIndexes() {
+        try {
+            getCompaction().get();
+            getIndexBuild().get();
+        } catch (Exception e) {
+            System.err.println("There was a problem building the index: " + e.getMessage());
+        }
+
+        synchronized (this) {
+            try {
+                return openIndexes();
+            } catch (IOException e) {
+                System.err.println("There was a problem reading the index: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Waits for any compaction and index rebuild to finish, then seals the indexes and releases the file.
+     */
+    @Override
+    public void close() {
+        try {
+            getCompaction().get();
+            getIndexBuild().get(); // Compaction may have started a rebuild
+        } catch (Exception e) {
+            System.err.println("There was a problem compacting the file: " + e.getMessage());
+        }
+
+        synchronized (this) {
+            closeChannel();
+            this.indexes.close();
+        }
+    }
+
+    private synchronized Future<?> getCompaction() {
+        return this.compaction;
+    }
+
+    private synchronized Future<?> getIndexBuild() {
+        return this.indexBuild;
+    }
+
+    /**
+     * Copies the live tasks into a fresh file without tombstones.
+     */
+    private synchronized void compactSlots() {
+        try {
+            List<String> lines = new ArrayList<>();
+            readLines(lines::add);
+            replaceFile(lines);
+        } catch (IOException e) {
+            System.err.println("There was a problem compacting the file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the slots of every live task, reading them from the file if needed.
+     *
+     * @return slots by task key.
+     */
+    private Map<String, Slot> getSlots() {
+        if (this.slots == null) {
+            try {
+                readSlots(null);
+            } catch (IOException e) {
+                System.err.println("There was a problem loading the file: " + e.getMessage());
+                this.slots = new HashMap<>();
+            }
+        }
+
+        return this.slots;
+    }
+
+    /**
+     * Reads every slot, rebuilding the slots of live tasks.
+     *
+     * @param saveToTaskList function to pass each live task to, or null if tasks are not needed.
+     * @throws IOException if the file cannot be read.
+     */
+    private void readSlots(Consumer<Task> saveToTaskList) throws IOException {
+        Map<String, Slot> slots = new HashMap<>();
+        this.slotCount = 0;
+        this.deletedSlotCount = 0;
+        this.slots = slots;
+
+        FileChannel channel = getChannel();
+        readRecords(channel, 0, getFileSlotCount(channel), (index, count, line) -> {
+            this.slotCount = index + count;
+            if (line == null) {
+                this.deletedSlotCount += count;
+                return;
+            }
+
+            try {
+                Task task = SaveFormatDecoder.decode(line);
+                slots.put(task.getKey(), new Slot(index, count));
+                if (saveToTaskList != null) {
+                    saveToTaskList.accept(task);
+                }
+            } catch (IllegalArgumentException e) { // Handle corrupted record
+                this.deletedSlotCount += count;
+                System.err.println("There was a problem loading the task: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Reads the save format of every live task in list order.
+     *
+     * @param readLine function to pass each save format to.
+     * @throws IOException if the file cannot be read.
+     */
+    private void readLines(Consumer<String> readLine) throws IOException {
+        FileChannel channel = getChannel();
+        readRecords(channel, 0, getFileSlotCount(channel), (index, count, line) -> {
+            if (line != null) {
+                readLine.accept(line);
+            }
+        });
+    }
+
+    /**
+     * Receives each record read from the file.
+     */
+    private interface RecordReader {
+        void read(int index, int count, String line);
+    }
+
+    /**
+     * Reads a range of slots in one pass and walks their records.
+     * A record cut short by an interrupted write ends the range.
+     *
+     * @param channel file to read from.
+     * @param firstIndex index of first slot, where a record starts.
+     * @param endIndex index of slot after the last one.
+     * @param reader function to pass each record to, with a null save format for tombstones.
+     * @throws IOException if the file cannot be read.
+     */
+    private void readRecords(FileChannel channel, int firstIndex, int endIndex, RecordReader reader)
+            throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(Math.multiplyExact(endIndex - firstIndex, this.slotSize));
+        readFully(channel, bytes, getOffset(firstIndex));
+
+        int index = firstIndex;
+        while (index < endIndex) {
+            int offset = (index - firstIndex) * this.slotSize;
+            byte state = bytes.get(offset);
+            int length = bytes.getInt(offset + 1);
+            if ((state != liveState && state != deletedState) || length < 0
+                    || (long) recordHeaderSize + length > (long) (endIndex - index) * this.slotSize) {
+                System.err.println("There was a problem loading the file: record at slot " + index
+                        + " is incomplete.");
+                break;
+            }
+
+            int count = getSlotsNeeded(length);
+            String line = state == deletedState ? null
+                    : new String(bytes.array(), offset + recordHeaderSize, length, StandardCharsets.UTF_8);
+            reader.read(index, count, line);
+            index += count;
+        }
+    }
+
+    /**
+     * Writes the given save formats to a temporary file, then moves it over the file in one step.
+     *
+     * @param lines save formats of tasks in list order.
+     * @throws IOException if the file cannot be written.
+     */
+    private void replaceFile(List<String> lines) throws IOException {
+        Path tempPath = Paths.get(this.path + tempSuffix);
+        Map<String, Slot> slots = new HashMap<>();
+        getChannel(); // Reads the generation to follow
+        long generation = this.generation + 1; // Tells indexes of the old slots apart
+        int index = 0;
+
+        try (FileChannel tempChannel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeHeader(tempChannel, generation);
+            for (String line : lines) {
+                Slot slot = writeRecord(tempChannel, index, line);
+                slots.put(line.substring(6), slot);
+                index += slot.count;
+            }
+        }
+
+        closeChannel();
+        this.indexes.discard();
+        Files.move(tempPath, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        this.generation = generation;
+        this.slots = slots;
+        this.slotCount = index;
+        this.deletedSlotCount = 0;
+        openIndexes(); // Starts a rebuild for the new generation
+    }
+
+    /**
+     * Opens the indexes if they are sealed and stamped for the file, or else starts rebuilding them.
+     *
+     * @return if the indexes can be used now.
+     * @throws IOException if the file or indexes cannot be read.
+     */
+    private boolean openIndexes() throws IOException {
+        if (this.indexes.isOpen()) {
+            return true;
+        } else if (!this.indexBuild.isDone()) {
+            return false;
+        }
+
+        // Slots are only read if the indexes have to be rebuilt
+        int slotCount = getFileSlotCount(getChannel());
+        if (this.indexes.open(this.generation, slotCount)) {
+            return true;
+        }
+
+        this.indexBuild = Storage.compactor.submit(this::buildIndexes);
+        return false;
+    }
+
+    /**
+     * Rebuilds the indexes from the file, reading its slots without holding up other changes.
+     * Tasks added meanwhile are indexed before the new indexes replace the old ones, and the rebuild
+     * starts over if the slots were rewritten meanwhile.
+     */
+    private void buildIndexes() {
+        try {
+            while (true) {
+                long generation;
+                int slotCount;
+                synchronized (this) {
+                    generation = this.generation;
+                    slotCount = getFileSlotCount(getChannel());
+                }
+
+                SlotIndexes.Entries entries = new SlotIndexes.Entries();
+                try (FileChannel channel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+                    readRecords(channel, 0, slotCount, (index, count, line) -> addIndexEntries(entries, index, line));
+                }
+                SlotIndexes built = SlotIndexes.build(this.path, entries, generation, slotCount);
+
+                synchronized (this) {
+                    if (this.generation != generation) {
+                        built.discard();
+                        continue;
+                    }
+
+                    FileChannel channel = getChannel();
+                    int newSlotCount = getFileSlotCount(channel);
+                    SlotIndexes.Entries newEntries = new SlotIndexes.Entries();
+                    readRecords(channel, slotCount, newSlotCount,
+                            (index, count, line) -> addIndexEntries(newEntries, index, line));
+                    built.addAll(newEntries, generation, newSlotCount);
+                    this.indexes.replaceWith(built);
+                    return;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("There was a problem building the index: " + e.getMessage());
+        }
+    }
+
+    private static void addIndexEntries(SlotIndexes.Entries entries, int index, String line) {
+        if (line == null) {
+            return;
+        }
+
+        try {
+            entries.add(SaveFormatDecoder.decode(line), index);
+        } catch (IllegalArgumentException e) {
+            // Corrupted records are skipped when loading too
+        }
+    }
+
+    /**
+     * Loads the live tasks in the given slots.
+     *
+     * @param indices index of first slot of each task, in list order.
+     * @param saveToTaskList function to pass each task to.
+     * @throws IOException if the file cannot be read.
+     */
+    private void loadSlots(List<Long> indices, Consumer<Task> saveToTaskList) throws IOException {
+        long previousIndex = -1;
+        for (long index : indices) {
+            if (index == previousIndex) {
+                continue; // Tasks with several matching entries
+            }
+            previousIndex = index;
+
+            String line = readRecord(index);
+            if (line == null) {
+                continue;
+            }
+
+            try {
+                saveToTaskList.accept(SaveFormatDecoder.decode(line));
+            } catch (IllegalArgumentException e) { // Handle corrupted record
+                System.err.println("There was a problem loading the task: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reads the record starting at the given slot.
+     *
+     * @param index index of slot.
+     * @return save format of task, or null if it was deleted.
+     * @throws IOException if the file cannot be read or the record is corrupted.
+     */
+    private String readRecord(long index) throws IOException {
+        FileChannel channel = getChannel();
+        long offset = getOffset(Math.toIntExact(index));
+
+        ByteBuffer header = ByteBuffer.allocate(recordHeaderSize);
+        readFully(channel, header, offset);
+        byte state = header.get();
+        int length = header.getInt();
+        if (state == deletedState) {
+            return null;
+        } else if (state != liveState || length < 0 || offset + recordHeaderSize + length > channel.size()) {
+            throw new IOException("Record at slot " + index + " is corrupted.");
+        }
+
+        ByteBuffer content = ByteBuffer.allocate(length);
+        readFully(channel, content, offset + recordHeaderSize);
+        return new String(content.array(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes a record into the slots starting at the given index.
+     *
+     * @param channel file to write to.
+     * @param index index of first slot.
+     * @param line save format of task.
+     * @return slots taken by the record.
+     * @throws IOException if writing fails.
+     */
+    private Slot writeRecord(FileChannel channel, int index, String line) throws IOException {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        int count = getSlotsNeeded(bytes.length);
+
+        ByteBuffer record = ByteBuffer.allocate(count * this.slotSize);
+        record.put(liveState).putInt(bytes.length).put(bytes);
+        record.clear(); // Padding is written too, so every slot is whole
+        writeFully(channel, record, getOffset(index));
+        return new Slot(index, count);
+    }
+
+    private void writeHeader(FileChannel channel, long generation) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(fileHeaderSize).put(magic).putShort(version).putInt(this.slotSize)
+                .putLong(generation);
+        writeFully(channel, header.flip(), 0);
+    }
+
+    /**
+     * Returns the open file, creating it or reading its slot size and generation if needed.
+     *
+     * @return open file.
+     * @throws IOException if the file cannot be opened or is not in the slotted format.
+     */
+    private FileChannel getChannel() throws IOException {
+        if (this.channel != null) {
+            return this.channel;
+        }
+
+        this.path.toAbsolutePath().getParent().toFile().mkdirs(); // Ensures parent directory exists
+        FileChannel channel = FileChannel.open(this.path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                writeHeader(channel, 0);
+                this.generation = 0;
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(fileHeaderSize);
+                while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                    // Keep reading until the header is full
+                }
+                byte[] fileMagic = new byte[magic.length];
+                header.flip().get(fileMagic);
+                if (header.limit() < fileHeaderSize || !Arrays.equals(magic, fileMagic)
+                        || header.getShort() != version) {
+                    throw new IOException("Not a slotted save file: " + this.path);
+                }
+                this.slotSize = header.getInt();
+                this.generation = header.getLong();
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        this.channel = channel;
+        return channel;
+    }
+
+    private void closeChannel() {
+        if (this.channel == null) {
+            return;
+        }
+
+        try {
+            this.channel.close();
+        } catch (IOException e) {
+            System.err.println("There was a problem closing the file: " + e.getMessage());
+        }
+        this.channel = null;
+    }
+
+    private int getFileSlotCount(FileChannel channel) throws IOException {
+        return Math.toIntExact((channel.size() - fileHeaderSize) / this.slotSize);
+    }
+
+    private int getSlotsNeeded(int length) {
+        return Math.max(1, (recordHeaderSize + length + this.slotSize - 1) / this.slotSize);
+    }
+
+    private long getOffset(int index) {
+        return fileHeaderSize + (long) index * this.slotSize;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Slotted save file ends in the middle of a record.");
+            }
+        }
+        buffer.flip();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package bob.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+import bob.tasks.SaveFormatDecoder;
+import bob.tasks.Task;
+
+/**
+ * Loads a snapshot file on all cores.
+ *
+ * The file is split into chunks at line boundaries, each chunk is memory-mapped and parsed on a
+ * fork-join pool straight from its bytes, and the parsed tasks are returned in their original order.
+ * Corrupted lines are counted rather than reported one by one. Records with a RecordChecksum are checked
+ * before decoding, so damaged records are skipped without throwing.
+ */
+public class SnapshotLoader {
+    private static final int defaultChunkSize = 4 << 20;
+    private static final int mapThreshold = 1 << 20;
+    private static final int boundaryScanSize = 4096;
+
+    private final int chunkSize;
+
+    /**
+     * Tasks loaded from a snapshot, along with any lines that could not be loaded.
+     */
+    public static class Result {
+        private final List<Task> tasks;
+        private final int corruptedCount;
+        private final String firstError;
+
+        private Result(List<Task> tasks, int corruptedCount, String firstError) {
+            this.tasks = tasks;
+            this.corruptedCount = corruptedCount;
+            this.firstError = firstError;
+        }
+
+        public List<Task> getTasks() {
+            return this.tasks;
+        }
+
+        public int getCorruptedCount() {
+            return this.corruptedCount;
+        }
+
+        /**
+         * Returns the error message of the first corrupted line.
+         *
+         * @return first error message, or null if no lines were corrupted.
+         */
+        public String getFirstError() {
+            return this.firstError;
+        }
+    }
+
+    /**
+     * Primary constructor of SnapshotLoader.
+     */
+    public SnapshotLoader() {
+        this(defaultChunkSize);
+    }
+
+    /**
+     * Constructor for SnapshotLoader with a custom chunk size.
+     *
+     * @param chunkSize approximate number of bytes parsed by each fork-join task.
+     */
+    public SnapshotLoader(int chunkSize) {
+        assert chunkSize > 0 : "Chunk size should be positive.";
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Loads every task in the snapshot.
+     *
+     * @param path path of snapshot file.
+     * @return loaded tasks in file order and count of corrupted lines.
+     * @throws IOException if the file cannot be read.
+     */
+    public Result load(Path path) throws IOException {
+        return load(path, false);
+    }
+
+    /**
+     * Loads every task in the snapshot, skipping records whose checksum does not match.
+     *
+     * @param path path of snapshot file.
+     * @param isChecksumRequired whether records without a checksum should be skipped as corrupted.
+     * @return loaded tasks in file order and count of corrupted lines.
+     * @throws IOException if the file cannot be read.
+     */
+    public Result load(Path path, boolean isChecksumRequired) throws IOException {
+        return processChunks(path, (channel, start, end) -> parseChunk(channel, start, end, isChecksumRequired),
+                SnapshotLoader::merge);
+    }
+
+    /**
+     * Checks the checksum of every record in the snapshot, without decoding any of them.
+     *
+     * @param path path of snapshot file.
+     * @return offsets of records that have no checksum or whose checksum does not match, in file order.
+     * @throws IOException if the file cannot be read.
+     */
+    public List<Long> verify(Path path) throws IOException {
+        return processChunks(path, SnapshotLoader::verifyChunk, (left, right) -> {
+            List<Long> offsets = new ArrayList<>(left);
+            offsets.addAll(right);
+            return offsets;
+        });
+    }
+
+    /**
+     * Processes every chunk of the file on the fork-join pool and merges the results in file order.
+     *
+     * @param path path of snapshot file.
+     * @param processor function processing one chunk.
+     * @param merge function merging results of consecutive chunks.
+     * @return merged result.
+     * @throws IOException if the file cannot be read.
+     */
+    private <T> T processChunks(Path path, ChunkProcessor<T> processor, BinaryOperator<T> merge)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] boundaries = findChunkBoundaries(channel);
+            return ForkJoinPool.commonPool().invoke(
+                    new ChunkRange<>(channel, boundaries, 0, boundaries.length - 1, processor, merge));
+        }
+    }
+
+    /**
+     * Splits the file into chunks of roughly chunkSize bytes, each ending just after a newline.
+     *
+     * @param channel open snapshot file.
+     * @return offsets of chunk boundaries, starting with 0 and ending with the file size.
+     * @throws IOException if the file cannot be read.
+     */
+    private long[] findChunkBoundaries(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+
+        long position = this.chunkSize;
+        ByteBuffer buffer = ByteBuffer.allocate(boundaryScanSize);
+        while (position < size) {
+            long newline = findNextNewline(channel, position, buffer);
+            if (newline < 0 || newline + 1 >= size) {
+                break;
+            }
+
+            boundaries.add(newline + 1);
+            position = newline + 1 + this.chunkSize;
+        }
+
+        boundaries.add(size);
+        return boundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Returns the offset of the first newline at or after position.
+     *
+     * @param channel open snapshot file.
+     * @param position offset to start scanning from.
+     * @param buffer buffer to read into.
+     * @return offset of newline, or -1 if there is none.
+     * @throws IOException if the file cannot be read.
+     */
+    private static long findNextNewline(FileChannel channel, long position, ByteBuffer buffer) throws IOException {
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                return -1;
+            }
+
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i;
+                }
+            }
+
+            position += read;
+        }
+    }
+
+    /**
+     * Processes one chunk of the file.
+     */
+    private interface ChunkProcessor<T> {
+        T process(FileChannel channel, long start, long end);
+    }
+
+    /**
+     * Processes a range of chunks, splitting the range across the pool until one chunk remains.
+     */
+    private static class ChunkRange<T> extends RecursiveTask<T> {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long[] boundaries;
+        private final int from;
+        private final int to;
+        private final ChunkProcessor<T> processor;
+        private final BinaryOperator<T> merge;
+
+        ChunkRange(FileChannel channel, long[] boundaries, int from, int to, ChunkProcessor<T> processor,
+                BinaryOperator<T> merge) {
+            this.channel = channel;
+            this.boundaries = boundaries;
+            this.from = from;
+            this.to = to;
+            this.processor = processor;
+            this.merge = merge;
+        }
+
+        @Override
+        protected T compute() {
+            if (this.to - this.from == 1) {
+                return this.processor.process(this.channel, this.boundaries[this.from], this.boundaries[this.to]);
+            }
+
+            int middle = (this.from + this.to) >>> 1;
+            ChunkRange<T> left = new ChunkRange<>(this.channel, this.boundaries, this.from, middle,
+                    this.processor, this.merge);
+            ChunkRange<T> right = new ChunkRange<>(this.channel, this.boundaries, middle, this.to,
+                    this.processor, this.merge);
+            left.fork();
+            T rightResult = right.compute();
+            T leftResult = left.join();
+            return this.merge.apply(leftResult, rightResult);
+        }
+    }
+
+    /**
+     * Combines the results of two consecutive ranges of chunks.
+     *
+     * @param left result of earlier chunks.
+     * @param right result of later chunks.
+     * @return combined result.
+     */
+    private static Result merge(Result left, Result right) {
+        List<Task> tasks = new ArrayList<>(left.tasks.size() + right.tasks.size());
+        tasks.addAll(left.tasks);
+        tasks.addAll(right.tasks);
+        return new Result(tasks, left.corruptedCount + right.corruptedCount,
+                left.firstError != null ? left.firstError : right.firstError);
+    }
+
+    /**
+     * Parses every line in a chunk of the file.
+     * Small chunks are read onto the heap, while larger chunks are memory-mapped.
+     *
+     * @param channel open snapshot file.
+     * @param start offset of first byte in chunk.
+     * @param end offset after last byte in chunk.
+     * @param isChecksumRequired whether records without a checksum should be skipped as corrupted.
+     * @return tasks in chunk and count of corrupted lines.
+     */
+    private static Result parseChunk(FileChannel channel, long start, long end, boolean isChecksumRequired) {
+        List<Task> tasks = new ArrayList<>();
+        int corruptedCount = 0;
+        String firstError = null;
+
+        ByteBuffer bytes;
+        try {
+            bytes = readChunk(channel, start, end);
+        } catch (IOException e) {
+            return new Result(tasks, 1, "Could not read bytes " + start + " to " + end + ": " + e.getMessage());
+        }
+
+        RecordChecksum checksum = new RecordChecksum();
+        int lineStart = 0;
+        int length = bytes.limit();
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && bytes.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+
+            int contentEnd = lineEnd > lineStart && bytes.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            int recordStart = lineStart;
+            boolean hasChecksum = RecordChecksum.hasChecksum(bytes, lineStart, contentEnd);
+            if (hasChecksum ? !checksum.isValid(bytes, lineStart, contentEnd) : isChecksumRequired) {
+                corruptedCount++;
+                if (firstError == null) {
+                    firstError = (hasChecksum ? "Checksum mismatch" : "Missing checksum")
+                            + " at byte " + (start + lineStart);
+                }
+                lineStart = lineEnd + 1;
+                continue;
+            } else if (hasChecksum) {
+                recordStart += RecordChecksum.prefixLength;
+            }
+
+            try {
+                tasks.add(SaveFormatDecoder.decode(bytes, recordStart, contentEnd));
+            } catch (Exception e) { // Handle corrupted task
+                corruptedCount++;
+                if (firstError == null) {
+                    firstError = e.getMessage();
+                }
+            }
+
+            lineStart = lineEnd + 1;
+        }
+
+        return new Result(tasks, corruptedCount, firstError);
+    }
+
+    /**
+     * Checks the checksum of every line in a chunk of the file.
+     *
+     * @param channel open snapshot file.
+     * @param start offset of first byte in chunk.
+     * @param end offset after last byte in chunk.
+     * @return offsets of records that have no checksum or whose checksum does not match.
+     */
+    private static List<Long> verifyChunk(FileChannel channel, long start, long end) {
+        List<Long> badOffsets = new ArrayList<>();
+
+        ByteBuffer bytes;
+        try {
+            bytes = readChunk(channel, start, end);
+        } catch (IOException e) {
+            badOffsets.add(start);
+            return badOffsets;
+        }
+
+        RecordChecksum checksum = new RecordChecksum();
+        int lineStart = 0;
+        int length = bytes.limit();
+        while (lineStart < length) {
+            int lineEnd = lineStart;
+            while (lineEnd < length && bytes.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+
+            int contentEnd = lineEnd > lineStart && bytes.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            if (!RecordChecksum.hasChecksum(bytes, lineStart, contentEnd)
+                    || !checksum.isValid(bytes, lineStart, contentEnd)) {
+                badOffsets.add(start + lineStart);
+            }
+
+            lineStart = lineEnd + 1;
+        }
+
+        return badOffsets;
+    }
+
+    /**
+     * Reads the bytes of a chunk.
+     *
+     * @param channel open snapshot file.
+     * @param start offset of first byte in chunk.
+     * @param end offset after last byte in chunk.
+     * @return buffer holding the chunk.
+     * @throws IOException if the file cannot be read.
+     */
+    private static ByteBuffer readChunk(FileChannel channel, long start, long end) throws IOException {
+        long length = end - start;
+        if (length >= mapThreshold) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+}
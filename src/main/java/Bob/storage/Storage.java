@@ -3,20 +3,95 @@ package bob.storage;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.Consumer;
 
 import bob.tasks.Task;
 
 /**
- * Handles storing and loading of tasks into hard disk.
+ * Handles storing and loading of tasks into hard disk, as a text file.
+ *
+ * Tasks are kept in a snapshot file, which is loaded in parallel by a SnapshotLoader. Marking, unmarking
+ * and deleting tasks append a small record to a journal next to the snapshot instead of rewriting it, and
+ * the journal is folded back into the snapshot in the background once it grows long enough.
+ *
+ * The snapshot may also be in the compact binary format written by BinaryTaskCodec, which is detected
+ * from its header and kept when the snapshot is rewritten.
+ *
+ * A snapshot in the block-compressed format written by BlockCompressedCodec is also detected and kept.
+ * New tasks are then journalled too, and a journal that only adds tasks is compacted by appending one
+ * compressed block, so the existing blocks are never recompressed.
+ *
+ * Text snapshots can have a RecordChecksum on every record, which is detected from the first record and kept
+ * when the snapshot is rewritten. Records whose checksum does not match are skipped when loading.
+ *
+ * In durable mode every change, including new tasks, goes through a GroupCommitLog, so callers return
+ * only once their change has been forced to disk.
+ *
+ * Several processes may share the same file. Changes are made while holding a ProcessLock on the file, and
+ * the lock file counts how often the snapshot has been replaced. A process that has already loaded the tasks
+ * can then catch up by reading only the records appended since, unless the snapshot was replaced.
+ *
+ * The bytes read and written, and the number and latency of loads, saves, changes, rewrites and fsyncs, are
+ * recorded in StorageMetrics shared by every Storage of the process.
  */
-public class Storage {
+public class Storage implements TaskStorage {
+    private static final String journalSuffix = ".journal";
+    private static final String compactingSuffix = ".compacting";
+    private static final String tempSuffix = ".tmp";
+    private static final String lockSuffix = ".lock";
+    private static final int compactionThreshold = 1024;
+
+    // Shared with the other storages that compact in the background
+    static final ExecutorService compactor = Executors.newSingleThreadExecutor((r) -> {
+        Thread thread = new Thread(r, "bob-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final SnapshotLoader snapshotLoader = new SnapshotLoader();
+    private static final StorageMetrics metrics = StorageMetrics.forProcess();
+
     private String filePath;
+    private File journalFile;
+    private File compactingFile;
+    private int journalSize;
+    private Future<?> compaction;
+
+    private boolean isBinary;
+    private boolean isCompressed;
+    private boolean isChecksummed;
+    private boolean isDurable;
+    private GroupCommitLog commitLog;
+    private GroupCommitStats closedLogStats = new GroupCommitStats(0, 0, 0, 0, 0, 0);
+    private boolean isClosed;
+
+    // State of the files when the loaded tasks last matched them, guarded by the process lock
+    private final ProcessLock processLock;
+    private long knownGeneration = -1;
+    private long knownSnapshotSize;
+    private long knownJournalSize;
 
     /**
      * Primary constructor of Storage.
@@ -24,7 +99,40 @@ public class Storage {
      * @param filePath path of file to save to.
      */
     public Storage(String filePath) {
+        this(filePath, false);
+    }
+
+    /**
+     * Constructor for Storage that can make every change durable before returning.
+     *
+     * @param filePath path of file to save to.
+     * @param isDurable whether changes should be group committed and forced to disk.
+     */
+    public Storage(String filePath, boolean isDurable) {
+        this(filePath, isDurable, false);
+    }
+
+    /**
+     * Constructor for Storage that can add a checksum to every record in a text snapshot.
+     *
+     * @param filePath path of file to save to.
+     * @param isDurable whether changes should be group committed and forced to disk.
+     * @param isChecksummed whether records should be checksummed, even if the snapshot has no checksums yet.
+     */
+    public Storage(String filePath, boolean isDurable, boolean isChecksummed) {
         this.filePath = filePath;
+        this.isDurable = isDurable;
+        this.isChecksummed = isChecksummed || RecordChecksum.isChecksummed(Paths.get(filePath));
+        this.isBinary = BinaryTaskCodec.isBinary(Paths.get(filePath));
+        this.isCompressed = BlockCompressedCodec.isCompressed(Paths.get(filePath));
+        this.journalFile = new File(filePath + journalSuffix);
+        this.compactingFile = new File(filePath + compactingSuffix);
+        this.processLock = ProcessLock.forPath(Paths.get(filePath + lockSuffix));
+        this.compaction = CompletableFuture.completedFuture(null);
+
+        discardOrphanedJournal();
+        this.journalSize = countRecords(this.journalFile);
+        metrics.recordOpen();
     }
 
     /**
@@ -32,57 +140,798 @@ public class Storage {
      *
      * @param newTask task to save.
      */
+    @Override
     public void saveTask(Task newTask) {
-        File file = new File(this.filePath);
-        file.getParentFile().mkdirs(); // Ensures parent directory exists
+        long start = System.nanoTime();
+        if (this.isDurable) {
+            commitRecord(JournalRecord.ofAdd(newTask));
+            metrics.record(StorageStats.Operation.SAVE, 1, start);
+            return;
+        }
 
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, true))) {
-            writer.write(newTask.toString());
+        synchronized (this) {
+            if (hasPendingJournal() || this.isCompressed) {
+                appendRecord(JournalRecord.ofAdd(newTask));
+                metrics.record(StorageStats.Operation.SAVE, 1, start);
+                return;
+            }
+
+            File file = new File(this.filePath);
+            file.getParentFile().mkdirs(); // Ensures parent directory exists
+
+            this.processLock.lock(false);
+            try {
+                long sizeBefore = file.length();
+                appendToSnapshot(file, newTask);
+                metrics.recordWritten(file.length() - sizeBefore);
+                if (sizeBefore == this.knownSnapshotSize) {
+                    this.knownSnapshotSize = file.length();
+                }
+            } finally {
+                this.processLock.unlock();
+            }
+        }
+        metrics.record(StorageStats.Operation.SAVE, 1, start);
+    }
+
+    /**
+     * Appends a task to the end of the snapshot.
+     *
+     * @param file snapshot file.
+     * @param newTask task to save.
+     */
+    private void appendToSnapshot(File file, Task newTask) {
+        if (this.isBinary) {
+            try {
+                BinaryTaskCodec.append(file.toPath(), newTask);
+            } catch (IOException e) {
+                System.err.println("There was a problem saving the task: " + e.getMessage());
+            }
+            return;
+        }
+
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, StandardCharsets.UTF_8, true))) {
+            writer.write(toRecord(newTask));
             writer.newLine();
         } catch (IOException e) {
             System.err.println("There was a problem saving the task: " + e.getMessage());
         }
     }
 
+    /**
+     * Records the current completion status of a task.
+     *
+     * @param task marked or unmarked task.
+     */
+    @Override
+    public void updateTask(Task task) {
+        long start = System.nanoTime();
+        if (this.isDurable) {
+            commitRecord(JournalRecord.ofUpdate(task));
+        } else {
+            appendRecord(JournalRecord.ofUpdate(task));
+        }
+        metrics.record(StorageStats.Operation.CHANGE, 1, start);
+    }
+
+    /**
+     * Records the current completion status of several tasks with a single write to the journal.
+     *
+     * @param tasks marked or unmarked tasks.
+     */
+    @Override
+    public void updateTasks(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<JournalRecord> records = new ArrayList<>();
+        tasks.forEach((t) -> records.add(JournalRecord.ofUpdate(t)));
+        saveRecords(records);
+        metrics.record(StorageStats.Operation.CHANGE, tasks.size(), start);
+    }
+
+    /**
+     * Records the deletion of a task.
+     *
+     * @param task deleted task.
+     */
+    @Override
+    public void deleteTask(Task task) {
+        long start = System.nanoTime();
+        if (this.isDurable) {
+            commitRecord(JournalRecord.ofDelete(task));
+        } else {
+            appendRecord(JournalRecord.ofDelete(task));
+        }
+        metrics.record(StorageStats.Operation.CHANGE, 1, start);
+    }
+
+    /**
+     * Records the deletion of several tasks with a single write to the journal.
+     *
+     * @param tasks deleted tasks.
+     */
+    @Override
+    public void deleteTasks(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        List<JournalRecord> records = new ArrayList<>();
+        tasks.forEach((t) -> records.add(JournalRecord.ofDelete(t)));
+        saveRecords(records);
+        metrics.record(StorageStats.Operation.CHANGE, tasks.size(), start);
+    }
+
     /**
      * Loads tasks from data file into task list.
+     * Any journalled changes are replayed on top of the saved tasks.
      *
      * @param saveToTaskList task adding function in TaskManager.
      */
-    public void loadTasks(Consumer<Task> saveToTaskList) {
+    @Override
+    public synchronized void loadTasks(Consumer<Task> saveToTaskList) {
+        long start = System.nanoTime();
         File file = new File(this.filePath);
+        awaitCompaction(); // Compactor holds the process lock while it runs
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
+        long[] taskCount = {0};
+        Consumer<Task> countingSaveToTaskList = (t) -> {
+            taskCount[0]++;
+            saveToTaskList.accept(t);
+        };
+
+        this.processLock.lock(true);
+        try {
+            // Another process may have replaced the snapshot in another format
+            this.isBinary = BinaryTaskCodec.isBinary(file.toPath());
+            this.isCompressed = BlockCompressedCodec.isCompressed(file.toPath());
+            recordFileState();
+
+            if (!hasPendingJournal()) {
+                readSnapshot(file, countingSaveToTaskList);
+                return;
+            }
+
+            replay().values().forEach(countingSaveToTaskList);
+        } finally {
+            this.processLock.unlock();
+            metrics.record(StorageStats.Operation.LOAD, taskCount[0], start);
+        }
+    }
+
+    /**
+     * Passes on the changes other processes have made since tasks were last loaded or refreshed.
+     * New tasks in a text snapshot are passed on as add records. Records from this storage may be passed on
+     * again, so changes should be applied idempotently.
+     *
+     * @param applyChange function to pass each change to, in the order they were made.
+     * @return false if the snapshot was replaced, so tasks have to be loaded again instead.
+     */
+    @Override
+    public synchronized boolean loadExternalChanges(Consumer<JournalRecord> applyChange) {
+        File file = new File(this.filePath);
+
+        this.processLock.lock(true);
+        try {
+            if (this.knownGeneration != this.processLock.readGeneration()
+                    || file.length() < this.knownSnapshotSize
+                    || this.journalFile.length() < this.knownJournalSize
+                    || (this.isBinary || this.isCompressed) && file.length() != this.knownSnapshotSize) {
+                return false;
+            }
+
+            this.knownSnapshotSize = readAppendedLines(file, this.knownSnapshotSize, (line) -> {
                 try {
-                    saveToTaskList.accept(Task.getFromSaveFormat(line));
-                } catch (Exception e) { // Handle corrupted task
+                    applyChange.accept(new JournalRecord(JournalRecord.Operation.ADD,
+                            RecordChecksum.removeFrom(line)));
+                } catch (IllegalArgumentException e) { // Handle corrupted record
                     System.err.println("There was a problem loading the task: " + e.getMessage());
                 }
-            }
-        } catch (FileNotFoundException e) {
-            System.err.println("There was a problem locating the file: " + e.getMessage());
+            });
+            this.knownJournalSize = readAppendedLines(this.journalFile, this.knownJournalSize, (line) -> {
+                try {
+                    applyChange.accept(JournalRecord.fromLine(line));
+                } catch (IllegalArgumentException e) { // Handle corrupted record
+                    System.err.println("There was a problem loading the change: " + e.getMessage());
+                }
+            });
+            return true;
         } catch (IOException e) {
             System.err.println("There was a problem loading the file: " + e.getMessage());
+            return false;
+        } finally {
+            this.processLock.unlock();
         }
     }
 
     /**
      * Rewrites the task list to the data file.
+     * Any journalled changes are discarded, as the task list already contains them.
      *
      * @param tasks list of tasks.
      */
-    public void rewriteTaskList(List<Task> tasks) {
+    @Override
+    public synchronized void rewriteTaskList(List<Task> tasks) {
+        awaitCompaction();
+        closeCommitLog();
+
+        this.processLock.lock(false);
+        try {
+            writeSnapshot(tasks);
+            this.journalFile.delete();
+            this.compactingFile.delete();
+            this.journalSize = 0;
+
+            // Saved tasks now match the given list, whatever other processes had saved
+            this.processLock.increaseGeneration();
+            recordFileState();
+        } catch (IOException e) {
+            System.err.println("There was a problem saving the task: " + e.getMessage());
+        } finally {
+            this.processLock.unlock();
+        }
+    }
+
+    /**
+     * Folds the journal into a fresh snapshot in the background.
+     * Changes made while compacting are journalled as usual.
+     *
+     * @return compaction in progress.
+     */
+    public synchronized Future<?> compactJournal() {
+        closeCommitLog();
+
+        if (!this.compaction.isDone() || !this.journalFile.exists()) {
+            return this.compaction;
+        }
+
+        this.processLock.lock(false);
+        try {
+            boolean isUpToDate = isFileStateKnown();
+            if (this.compactingFile.exists()) { // Left over from an interrupted compaction
+                Files.write(this.compactingFile.toPath(), Files.readAllBytes(this.journalFile.toPath()),
+                        StandardOpenOption.APPEND);
+                Files.delete(this.journalFile.toPath());
+            } else {
+                Files.move(this.journalFile.toPath(), this.compactingFile.toPath(),
+                        StandardCopyOption.ATOMIC_MOVE);
+            }
+            updateFileState(isUpToDate);
+        } catch (IOException e) {
+            System.err.println("There was a problem compacting the journal: " + e.getMessage());
+            return this.compaction;
+        } finally {
+            this.processLock.unlock();
+        }
+
+        this.journalSize = 0;
+        this.compaction = compactor.submit(this::writeCompactedSnapshot);
+        return this.compaction;
+    }
+
+    /**
+     * Replaces the snapshot with the snapshot and compacting journal combined, holding the process lock.
+     */
+    private void writeCompactedSnapshot() {
+        this.processLock.lock(false);
+        try {
+            boolean isUpToDate = isFileStateKnown();
+            foldCompactingJournal();
+            updateFileState(isUpToDate);
+        } finally {
+            this.processLock.unlock();
+        }
+    }
+
+    /**
+     * Folds the compacting journal into the snapshot.
+     */
+    private void foldCompactingJournal() {
+        if (this.isCompressed) {
+            Map<String, Task> addedTasks = readAddedTasks(this.compactingFile);
+            if (addedTasks != null) {
+                try {
+                    long sizeBefore = new File(this.filePath).length();
+                    BlockCompressedCodec.append(Paths.get(this.filePath), addedTasks.values());
+                    metrics.recordWritten(new File(this.filePath).length() - sizeBefore);
+                    Files.delete(this.compactingFile.toPath());
+                } catch (IOException e) {
+                    System.err.println("There was a problem compacting the journal: " + e.getMessage());
+                }
+                return;
+            }
+        }
+
+        Map<String, Task> tasks = new LinkedHashMap<>();
+        readSnapshot(new File(this.filePath), (t) -> tasks.put(t.getKey(), t));
+        readJournal(this.compactingFile, tasks);
+
+        try {
+            writeSnapshot(tasks.values());
+            Files.delete(this.compactingFile.toPath());
+        } catch (IOException e) {
+            System.err.println("There was a problem compacting the journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Waits for durable changes to be committed, then releases the commit log and the process lock.
+     * The storage must not be used once closed.
+     */
+    @Override
+    public void close() {
+        closeCommitLog();
+        synchronized (this) {
+            if (this.isClosed) {
+                return;
+            }
+            this.isClosed = true;
+        }
+
+        this.processLock.release();
+        metrics.recordClose();
+    }
+
+    /**
+     * Returns statistics on how durable changes have been committed.
+     *
+     * @return snapshot of commit statistics, empty if not in durable mode.
+     */
+    public synchronized GroupCommitStats getCommitStats() {
+        if (this.commitLog == null) {
+            return this.closedLogStats;
+        }
+
+        return this.closedLogStats.plus(this.commitLog.getStats());
+    }
+
+    /**
+     * Returns statistics on the I/O done by every Storage of this process.
+     *
+     * @return snapshot of storage statistics.
+     */
+    public static StorageStats getStorageStats() {
+        return metrics.snapshot();
+    }
+
+    /**
+     * Writes tasks to a temporary file, then moves it over the snapshot in one step.
+     * In durable mode, the temporary file is forced to disk before it is moved.
+     * Both rewrites and compactions write snapshots, so each is recorded as a rewrite.
+     *
+     * @param tasks tasks to write.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    private void writeSnapshot(Collection<Task> tasks) throws IOException {
+        long start = System.nanoTime();
         File file = new File(this.filePath);
+        File tempFile = new File(this.filePath + tempSuffix);
+        file.getAbsoluteFile().getParentFile().mkdirs(); // Ensures parent directory exists
+
+        if (this.isBinary) {
+            BinaryTaskCodec.save(tempFile.toPath(), tasks);
+        } else if (this.isCompressed) {
+            BlockCompressedCodec.save(tempFile.toPath(), tasks);
+        } else {
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(tempFile, StandardCharsets.UTF_8))) {
+                for (Task task : tasks) {
+                    writer.write(toRecord(task));
+                    writer.newLine();
+                }
+            }
+        }
+
+        if (this.isDurable) {
+            long forceStart = System.nanoTime();
+            try (FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            metrics.record(StorageStats.Operation.FSYNC, 1, forceStart);
+        }
+
+        metrics.recordWritten(tempFile.length());
+        Files.move(tempFile.toPath(), file.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        metrics.record(StorageStats.Operation.REWRITE, tasks.size(), start);
+    }
+
+    /**
+     * Returns the text snapshot record of a task.
+     *
+     * @param task task to save.
+     * @return save format of task, with a checksum if records are checksummed.
+     */
+    private String toRecord(Task task) {
+        return this.isChecksummed ? RecordChecksum.addTo(task.toString()) : task.toString();
+    }
+
+    /**
+     * Remembers the current state of the files, once the loaded tasks match them.
+     * Must be called while holding the process lock.
+     */
+    private void recordFileState() {
+        this.knownGeneration = this.processLock.readGeneration();
+        this.knownSnapshotSize = new File(this.filePath).length();
+        this.knownJournalSize = this.journalFile.length();
+    }
+
+    /**
+     * Returns whether the files are as they were when the loaded tasks last matched them.
+     * Must be called while holding the process lock.
+     *
+     * @return if no other process has changed the files since.
+     */
+    private boolean isFileStateKnown() {
+        return this.knownGeneration == this.processLock.readGeneration()
+                && this.knownSnapshotSize == new File(this.filePath).length()
+                && this.knownJournalSize == this.journalFile.length();
+    }
 
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-            for (Task task : tasks) {
-                writer.write(task.toString());
-                writer.newLine();
+    /**
+     * Tells other processes that the snapshot or journal has been replaced.
+     * Must be called while holding the process lock exclusively.
+     *
+     * @param wasUpToDate whether the files were in their known state before being replaced.
+     */
+    private void updateFileState(boolean wasUpToDate) {
+        this.processLock.increaseGeneration();
+        if (wasUpToDate) {
+            recordFileState();
+        }
+    }
+
+    /**
+     * Reads the complete lines appended to a file since the given offset.
+     *
+     * @param file file to read.
+     * @param offset offset to read from.
+     * @param readLine function to pass each non-empty line to.
+     * @return offset after the last complete line.
+     * @throws IOException if the file cannot be read.
+     */
+    private static long readAppendedLines(File file, long offset, Consumer<String> readLine) throws IOException {
+        if (file.length() <= offset) {
+            return offset;
+        }
+
+        ByteBuffer bytes;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            bytes = ByteBuffer.allocate(Math.toIntExact(channel.size() - offset));
+            while (bytes.hasRemaining() && channel.read(bytes, offset + bytes.position()) >= 0) {
+                // Keep reading until the buffer is full
+            }
+        }
+
+        int end = bytes.position();
+        metrics.recordRead(end);
+        while (end > 0 && bytes.get(end - 1) != '\n') {
+            end--; // Leave any partially written line for next time
+        }
+
+        String text = new String(bytes.array(), 0, end, StandardCharsets.UTF_8);
+        for (String line : text.split("\\R")) {
+            if (!line.isEmpty()) {
+                readLine.accept(line);
+            }
+        }
+
+        return offset + end;
+    }
+
+    /**
+     * Waits for any compaction in progress to finish.
+     */
+    private void awaitCompaction() {
+        try {
+            this.compaction.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("There was a problem compacting the journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replays the snapshot and all journals.
+     *
+     * @return replayed tasks keyed by task key in list order.
+     */
+    private Map<String, Task> replay() {
+        awaitCompaction();
+        Map<String, Task> tasks = new LinkedHashMap<>();
+        readSnapshot(new File(this.filePath), (t) -> tasks.put(t.getKey(), t));
+        readJournal(this.compactingFile, tasks);
+        readJournal(this.journalFile, tasks);
+        return tasks;
+    }
+
+    /**
+     * Reads every task in the snapshot.
+     *
+     * @param file snapshot file.
+     * @param saveToTaskList function to pass each task to.
+     */
+    private void readSnapshot(File file, Consumer<Task> saveToTaskList) {
+        if (!file.exists()) {
+            System.err.println("There was a problem locating the file: " + file.getPath());
+            return;
+        }
+        metrics.recordRead(file.length());
+
+        if (this.isBinary) {
+            try {
+                BinaryTaskCodec.load(file.toPath(), saveToTaskList);
+            } catch (IOException e) {
+                System.err.println("There was a problem loading the file: " + e.getMessage());
+            }
+            return;
+        }
+
+        if (this.isCompressed) {
+            try {
+                BlockCompressedCodec.load(file.toPath(), saveToTaskList);
+            } catch (IOException e) {
+                System.err.println("There was a problem loading the file: " + e.getMessage());
+            }
+            return;
+        }
+
+        try {
+            // Plain records are only corrupted if the snapshot was checksummed from the start
+            SnapshotLoader.Result result = snapshotLoader.load(file.toPath(),
+                    RecordChecksum.isChecksummed(file.toPath()));
+            result.getTasks().forEach(saveToTaskList);
+
+            if (result.getCorruptedCount() > 0) {
+                System.err.println("There was a problem loading " + result.getCorruptedCount()
+                        + " task(s), which were skipped. First problem: " + result.getFirstError());
             }
         } catch (IOException e) {
-            System.err.println("There was a problem saving the task: " + e.getMessage());
+            System.err.println("There was a problem loading the file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Applies every record in a journal to the replayed tasks.
+     *
+     * @param journal journal file.
+     * @param tasks tasks replayed so far.
+     */
+    private void readJournal(File journal, Map<String, Task> tasks) {
+        if (!journal.exists()) {
+            return;
+        }
+        metrics.recordRead(journal.length());
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(journal, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    JournalRecord.fromLine(line).applyTo(tasks);
+                } catch (Exception e) { // Handle corrupted or partially written record
+                    System.err.println("There was a problem loading the change: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("There was a problem loading the file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the tasks added by a journal, if adding tasks is all it does.
+     *
+     * @param journal journal file.
+     * @return added tasks keyed by task key in list order, or null if the journal changes saved tasks.
+     */
+    private static Map<String, Task> readAddedTasks(File journal) {
+        Map<String, Task> tasks = new LinkedHashMap<>();
+        metrics.recordRead(journal.length());
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(journal, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    JournalRecord record = JournalRecord.fromLine(line);
+                    if (record.getOperation() != JournalRecord.Operation.ADD) {
+                        return null;
+                    }
+                    record.applyTo(tasks);
+                } catch (Exception e) { // Handle corrupted or partially written record
+                    System.err.println("There was a problem loading the change: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("There was a problem loading the file: " + e.getMessage());
+            return null;
+        }
+
+        return tasks;
+    }
+
+    /**
+     * Appends records to the journal in one write, or commits them as one batch if changes are durable.
+     *
+     * @param records records to save, in the order the changes were made.
+     */
+    private void saveRecords(List<JournalRecord> records) {
+        if (this.isDurable) {
+            commitRecords(records);
+        } else {
+            appendRecords(records);
+        }
+    }
+
+    /**
+     * Appends a record to the journal, starting a compaction if the journal is long enough.
+     *
+     * @param record record to append.
+     */
+    private void appendRecord(JournalRecord record) {
+        appendRecords(Collections.singletonList(record));
+    }
+
+    /**
+     * Appends records to the journal in one write, starting a compaction if the journal is long enough.
+     *
+     * @param records records to append.
+     */
+    private synchronized void appendRecords(List<JournalRecord> records) {
+        this.processLock.lock(false);
+        try {
+            createSnapshotIfMissing();
+            long sizeBefore = this.journalFile.length();
+
+            try (BufferedWriter writer = new BufferedWriter(
+                    new FileWriter(this.journalFile, StandardCharsets.UTF_8, true))) {
+                for (JournalRecord record : records) {
+                    writer.write(record.toString());
+                    writer.newLine();
+                }
+            }
+
+            metrics.recordWritten(this.journalFile.length() - sizeBefore);
+            if (sizeBefore == this.knownJournalSize) {
+                this.knownJournalSize = this.journalFile.length();
+            }
+            recordAppended(records.size());
+        } catch (IOException e) {
+            System.err.println("There was a problem saving the change: " + e.getMessage());
+        } finally {
+            this.processLock.unlock();
+        }
+    }
+
+    /**
+     * Appends a record to the journal and waits until it is durable.
+     * Records appended by other threads in the meantime are committed in the same batch.
+     *
+     * @param record record to append.
+     */
+    private void commitRecord(JournalRecord record) {
+        commitRecords(Collections.singletonList(record));
+    }
+
+    /**
+     * Appends records to the journal as one entry of the commit log, waiting until they are durable.
+     *
+     * @param records records to append.
+     */
+    private void commitRecords(List<JournalRecord> records) {
+        StringJoiner lines = new StringJoiner(System.lineSeparator());
+        records.forEach((r) -> lines.add(r.toString()));
+        try {
+            while (!getCommitLog().append(lines.toString())) {
+                // Log was closed by a compaction, so retry with the new log
+            }
+        } catch (IOException e) {
+            System.err.println("There was a problem saving the change: " + e.getMessage());
+            return;
+        }
+
+        recordAppended(records.size());
+    }
+
+    /**
+     * Remembers the new size of the journal after a batch was committed, unless another process had appended
+     * to it unseen. Called by the commit log while it holds the process lock.
+     *
+     * @param sizeBefore size of the journal before the batch.
+     * @param sizeAfter size of the journal after the batch.
+     */
+    private void recordCommitted(long sizeBefore, long sizeAfter) {
+        if (sizeBefore == this.knownJournalSize) {
+            this.knownJournalSize = sizeAfter;
+        }
+    }
+
+    /**
+     * Counts appended records, starting a compaction if the journal is long enough.
+     *
+     * @param count number of records appended.
+     */
+    private synchronized void recordAppended(int count) {
+        this.journalSize += count;
+        if (this.journalSize >= compactionThreshold) {
+            compactJournal();
+        }
+    }
+
+    /**
+     * Returns the log durable changes are committed to, opening it if needed.
+     *
+     * @return open commit log.
+     * @throws IOException if the log cannot be opened.
+     */
+    private synchronized GroupCommitLog getCommitLog() throws IOException {
+        if (this.commitLog == null) {
+            createSnapshotIfMissing();
+            this.commitLog = new GroupCommitLog(this.journalFile.toPath(), this.processLock, this::recordCommitted);
+        }
+
+        return this.commitLog;
+    }
+
+    /**
+     * Waits for changes in the commit log to become durable, then closes it.
+     */
+    private synchronized void closeCommitLog() {
+        if (this.commitLog != null) {
+            this.commitLog.close();
+            this.closedLogStats = this.closedLogStats.plus(this.commitLog.getStats());
+            this.commitLog = null;
+        }
+    }
+
+    /**
+     * Creates an empty snapshot if there is none, as a journal is only valid alongside its snapshot.
+     *
+     * @throws IOException if the snapshot cannot be created.
+     */
+    private void createSnapshotIfMissing() throws IOException {
+        File file = new File(this.filePath);
+        file.getAbsoluteFile().getParentFile().mkdirs(); // Ensures parent directory exists
+        file.createNewFile();
+    }
+
+    /**
+     * Returns whether changes are waiting in a journal to be folded into the snapshot.
+     *
+     * @return if a journal exists.
+     */
+    private boolean hasPendingJournal() {
+        return this.journalFile.exists() || this.compactingFile.exists();
+    }
+
+    /**
+     * Deletes journals left behind by a snapshot that no longer exists.
+     */
+    private void discardOrphanedJournal() {
+        if (!new File(this.filePath).exists()) {
+            this.journalFile.delete();
+            this.compactingFile.delete();
+        }
+    }
+
+    /**
+     * Counts the records in a journal.
+     *
+     * @param journal journal file.
+     * @return number of records.
+     */
+    private static int countRecords(File journal) {
+        if (!journal.exists()) {
+            return 0;
+        }
+        metrics.recordRead(journal.length());
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(journal, StandardCharsets.UTF_8))) {
+            return (int) reader.lines().count();
+        } catch (IOException e) {
+            return 0;
         }
     }
 }
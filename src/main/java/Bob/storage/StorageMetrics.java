@@ -0,0 +1,85 @@
+package bob.storage;
+
+/**
+ * Counts the I/O done by the storages of this process, from which StorageStats snapshots are taken.
+ * Every storage records into the same instance, as hardware is sized for the process as a whole.
+ */
+class StorageMetrics {
+    private static final StorageMetrics processMetrics = new StorageMetrics();
+
+    private final int operationCount = StorageStats.Operation.values().length;
+    private long openCount;
+    private long closeCount;
+    private long bytesRead;
+    private long bytesWritten;
+    private final long[] counts = new long[this.operationCount];
+    private final long[] recordCounts = new long[this.operationCount];
+    private final long[] maxLatencyNanos = new long[this.operationCount];
+    private final long[][] latencyBuckets = new long[this.operationCount][StorageStats.bucketCount];
+
+    /**
+     * Returns the metrics shared by every storage of this process.
+     *
+     * @return metrics of this process.
+     */
+    static StorageMetrics forProcess() {
+        return processMetrics;
+    }
+
+    synchronized void recordOpen() {
+        this.openCount++;
+    }
+
+    synchronized void recordClose() {
+        this.closeCount++;
+    }
+
+    synchronized void recordRead(long bytes) {
+        this.bytesRead += bytes;
+    }
+
+    synchronized void recordWritten(long bytes) {
+        this.bytesWritten += bytes;
+    }
+
+    /**
+     * Records one run of an operation.
+     *
+     * @param operation operation that ran.
+     * @param records number of tasks or records it handled.
+     * @param startNanos System.nanoTime() when it started.
+     */
+    void record(StorageStats.Operation operation, long records, long startNanos) {
+        recordLatency(operation, records, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Records one run of an operation that took the given time.
+     *
+     * @param operation operation that ran.
+     * @param records number of tasks or records it handled.
+     * @param latency nanoseconds it took.
+     */
+    synchronized void recordLatency(StorageStats.Operation operation, long records, long latency) {
+        int index = operation.ordinal();
+        this.counts[index]++;
+        this.recordCounts[index] += records;
+        this.maxLatencyNanos[index] = Math.max(this.maxLatencyNanos[index], latency);
+        this.latencyBuckets[index][StorageStats.getBucket(latency)]++;
+    }
+
+    /**
+     * Returns the metrics recorded so far.
+     *
+     * @return snapshot of metrics.
+     */
+    synchronized StorageStats snapshot() {
+        long[][] buckets = new long[this.operationCount][];
+        for (int i = 0; i < this.operationCount; i++) {
+            buckets[i] = this.latencyBuckets[i].clone();
+        }
+
+        return new StorageStats(this.openCount, this.closeCount, this.bytesRead, this.bytesWritten,
+                this.counts.clone(), this.recordCounts.clone(), this.maxLatencyNanos.clone(), buckets);
+    }
+}
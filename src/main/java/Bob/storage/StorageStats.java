@@ -0,0 +1,170 @@
+package bob.storage;
+
+/**
+ * Snapshot of the I/O done by the storages of this process, used to size hardware and spot write
+ * amplification as lists grow.
+ *
+ * Latencies are kept in histograms with one bucket per power of two microseconds, so percentiles are
+ * reported as the upper bound of the bucket they fall in.
+ */
+public class StorageStats {
+    /**
+     * Kinds of storage operations that are timed.
+     */
+    public enum Operation {
+        LOAD("Loads"),
+        SAVE("Saves"),
+        CHANGE("Changes"),
+        REWRITE("Rewrites"),
+        FSYNC("Fsyncs");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+    }
+
+    static final int bucketCount = 32;
+
+    private final long openCount;
+    private final long closeCount;
+    private final long bytesRead;
+    private final long bytesWritten;
+    private final long[] counts;
+    private final long[] recordCounts;
+    private final long[] maxLatencyNanos;
+    private final long[][] latencyBuckets;
+
+    /**
+     * Primary constructor of StorageStats.
+     *
+     * @param openCount number of storages opened.
+     * @param closeCount number of storages closed.
+     * @param bytesRead bytes read from save files.
+     * @param bytesWritten bytes written to save files.
+     * @param counts number of each operation, by operation ordinal.
+     * @param recordCounts number of tasks or records handled by each operation, by operation ordinal.
+     * @param maxLatencyNanos longest time taken by each operation, by operation ordinal.
+     * @param latencyBuckets latency histogram of each operation, by operation ordinal.
+     */
+    StorageStats(long openCount, long closeCount, long bytesRead, long bytesWritten, long[] counts,
+            long[] recordCounts, long[] maxLatencyNanos, long[][] latencyBuckets) {
+        this.openCount = openCount;
+        this.closeCount = closeCount;
+        this.bytesRead = bytesRead;
+        this.bytesWritten = bytesWritten;
+        this.counts = counts;
+        this.recordCounts = recordCounts;
+        this.maxLatencyNanos = maxLatencyNanos;
+        this.latencyBuckets = latencyBuckets;
+    }
+
+    public long getOpenCount() {
+        return this.openCount;
+    }
+
+    public long getCloseCount() {
+        return this.closeCount;
+    }
+
+    public long getBytesRead() {
+        return this.bytesRead;
+    }
+
+    public long getBytesWritten() {
+        return this.bytesWritten;
+    }
+
+    public long getCount(Operation operation) {
+        return this.counts[operation.ordinal()];
+    }
+
+    public long getRecordCount(Operation operation) {
+        return this.recordCounts[operation.ordinal()];
+    }
+
+    /**
+     * Returns the average number of tasks or records handled by each run of an operation.
+     *
+     * @param operation operation to check.
+     * @return average records per operation, or 0 if the operation has not run.
+     */
+    public double getAverageRecordCount(Operation operation) {
+        long count = getCount(operation);
+        return count == 0 ? 0 : (double) getRecordCount(operation) / count;
+    }
+
+    /**
+     * Returns the bytes written for each task saved or changed, which grows with the list if rewrites
+     * dominate.
+     *
+     * @return bytes written per saved or changed task, or 0 if none were.
+     */
+    public double getBytesWrittenPerChange() {
+        long changeCount = getRecordCount(Operation.SAVE) + getRecordCount(Operation.CHANGE);
+        return changeCount == 0 ? 0 : (double) this.bytesWritten / changeCount;
+    }
+
+    /**
+     * Returns the time within which the given fraction of runs of an operation finished.
+     *
+     * @param operation operation to check.
+     * @param percentile fraction of runs, between 0 and 1.
+     * @return upper bound of the latency in milliseconds, or 0 if the operation has not run.
+     */
+    public double getLatencyPercentileMillis(Operation operation, double percentile) {
+        long[] buckets = this.latencyBuckets[operation.ordinal()];
+        long target = (long) Math.ceil(getCount(operation) * percentile);
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= target && seen > 0) {
+                return Math.min((1L << (i + 1)) / 1e3, getMaxLatencyMillis(operation));
+            }
+        }
+
+        return getMaxLatencyMillis(operation);
+    }
+
+    public double getMaxLatencyMillis(Operation operation) {
+        return this.maxLatencyNanos[operation.ordinal()] / 1e6;
+    }
+
+    /**
+     * Returns the histogram bucket a latency falls in.
+     *
+     * @param nanos latency in nanoseconds.
+     * @return index of bucket.
+     */
+    static int getBucket(long nanos) {
+        long micros = Math.max(1, nanos / 1000);
+        return Math.min(bucketCount - 1, Long.SIZE - 1 - Long.numberOfLeadingZeros(micros));
+    }
+
+    @Override
+    public String toString() {
+        StringBuffer buffer = new StringBuffer();
+        buffer.append(String.format("%d storages opened, %d closed\n", this.openCount, this.closeCount));
+        buffer.append(String.format("%s read, %s written (%.1f bytes per saved or changed task)\n",
+                formatBytes(this.bytesRead), formatBytes(this.bytesWritten), getBytesWrittenPerChange()));
+        for (Operation operation : Operation.values()) {
+            buffer.append(String.format("%s: %d (avg %.1f records), latency p50 %.2fms p99 %.2fms max %.2fms\n",
+                    operation.label, getCount(operation), getAverageRecordCount(operation),
+                    getLatencyPercentileMillis(operation, 0.5), getLatencyPercentileMillis(operation, 0.99),
+                    getMaxLatencyMillis(operation)));
+        }
+
+        return buffer.toString();
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        } else if (bytes < 1024 * 1024) {
+            return String.format("%.1f KB", bytes / 1024.0);
+        } else {
+            return String.format("%.1f MB", bytes / 1024.0 / 1024.0);
+        }
+    }
+}
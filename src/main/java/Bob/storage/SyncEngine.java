@@ -0,0 +1,473 @@
+package bob.storage;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import bob.tasks.Task;
+
+/**
+ * Keeps the sync state of a list of tasks, so it can exchange changes with replicas of the list elsewhere.
+ *
+ * Every task ever synced has an entry holding whether it still exists, whether it is completed and the
+ * VersionVector of its last change. Entries are numbered in the order this replica changed them, so the
+ * entries changed since a peer last synced are read off the end of that numbering, and a sync costs as
+ * much as the changes it exchanges. Entries and sync points are appended to a sync file next to the save
+ * file, which is rewritten once most of its lines are outdated.
+ *
+ * A change seen by one replica after another wins. Concurrent changes to the same task are merged the same
+ * way on every replica: a deletion wins over any change, and marking wins over unmarking.
+ */
+public class SyncEngine {
+    static final String syncSuffix = ".sync";
+    static final String deltaSuffix = ".delta";
+
+    private static final String deltaMagic = "BOBSYNC";
+    private static final int deltaVersion = 1;
+    private static final String endLine = "END";
+    private static final String tempSuffix = ".tmp";
+    private static final int minLinesToCompact = 256;
+    private static final int presentFlag = 1;
+    private static final int completedFlag = 2;
+
+    private final Path path;
+    private String replicaId;
+    private long sequence;
+    private int lineCount;
+
+    // Latest entry of every task by task key, and the same keys in the order they were last changed
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final TreeMap<Long, String> keysBySequence = new TreeMap<>();
+    private final Map<String, Peer> peers = new TreeMap<>();
+
+    /**
+     * Sync state of one task.
+     */
+    private static class Entry {
+        private final boolean isPresent;
+        private final boolean isCompleted;
+        private final VersionVector version;
+        private final long sequence;
+
+        private Entry(boolean isPresent, boolean isCompleted, VersionVector version, long sequence) {
+            this.isPresent = isPresent;
+            this.isCompleted = isCompleted;
+            this.version = version;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * Sync points with another replica.
+     */
+    private static class Peer {
+        // Last sequence of the peer merged here, and last sequence of this replica merged by the peer
+        private long receivedSequence;
+        private long acknowledgedSequence;
+    }
+
+    /**
+     * Primary constructor of SyncEngine, loading the sync state of the given save file.
+     * A list that was never synced gets a new replica id.
+     *
+     * @param filePath path of save file.
+     */
+    public SyncEngine(String filePath) {
+        this.path = Paths.get(filePath + syncSuffix);
+        try {
+            if (Files.exists(this.path)) {
+                load();
+            }
+        } catch (IOException e) {
+            System.err.println("There was a problem loading the sync state: " + e.getMessage());
+        }
+
+        if (this.replicaId == null) {
+            this.replicaId = UUID.randomUUID().toString();
+            this.lineCount = 0;
+            writeLines(List.of("R " + this.replicaId), true);
+        }
+    }
+
+    /**
+     * Returns whether a save file has been synced before, so its changes should be recorded.
+     *
+     * @param filePath path of save file.
+     * @return if the save file has a sync file.
+     */
+    public static boolean isEnabled(String filePath) {
+        return Files.exists(Paths.get(filePath + syncSuffix));
+    }
+
+    public synchronized String getReplicaId() {
+        return this.replicaId;
+    }
+
+    /**
+     * Records a change made to the list of tasks of this replica.
+     *
+     * @param change change made.
+     */
+    public synchronized void recordChange(JournalRecord change) {
+        Entry entry = this.entries.get(change.getKey());
+        boolean isCompleted = entry != null && entry.isCompleted;
+
+        switch (change.getOperation()) {
+        case ADD:
+            recordLocal(change.getKey(), true, change.toTask().isCompleted());
+            break;
+        case MARK:
+            recordLocal(change.getKey(), true, true);
+            break;
+        case UNMARK:
+            recordLocal(change.getKey(), true, false);
+            break;
+        case DELETE:
+            recordLocal(change.getKey(), false, isCompleted);
+            break;
+        default:
+            break;
+        }
+    }
+
+    /**
+     * Records the differences between the recorded entries and the given tasks as changes of this replica.
+     * Catches up with changes made while they were not recorded, such as before the first sync.
+     *
+     * @param tasks every task of this replica.
+     */
+    public synchronized void reconcile(List<Task> tasks) {
+        Set<String> keys = new HashSet<>();
+        for (Task task : tasks) {
+            keys.add(task.getKey());
+            Entry entry = this.entries.get(task.getKey());
+            if (entry == null || !entry.isPresent || entry.isCompleted != task.isCompleted()) {
+                recordLocal(task.getKey(), true, task.isCompleted());
+            }
+        }
+
+        List<String> deletedKeys = new ArrayList<>();
+        this.entries.forEach((key, entry) -> {
+            if (entry.isPresent && !keys.contains(key)) {
+                deletedKeys.add(key);
+            }
+        });
+        deletedKeys.forEach((key) -> recordLocal(key, false, this.entries.get(key).isCompleted));
+    }
+
+    /**
+     * Exchanges changes with every replica syncing through the given directory.
+     * Each replica publishes the changes its peers have not merged yet in a delta file of its own, and merges
+     * the delta files of the others. A replica new to the directory gets every change on its next sync.
+     *
+     * @param directory directory shared by the replicas.
+     * @param applyChange function to pass each change to the tasks of this replica to, in order.
+     * @throws IOException if a delta file cannot be read or written.
+     */
+    public synchronized void syncWith(Path directory, Consumer<JournalRecord> applyChange) throws IOException {
+        Files.createDirectories(directory);
+        Path ownDelta = directory.resolve(this.replicaId + deltaSuffix);
+
+        try (DirectoryStream<Path> deltas = Files.newDirectoryStream(directory, "*" + deltaSuffix)) {
+            for (Path delta : deltas) {
+                if (!delta.equals(ownDelta)) {
+                    try (InputStream in = Files.newInputStream(delta)) {
+                        readDelta(in, applyChange);
+                    }
+                }
+            }
+        }
+
+        Path tempDelta = directory.resolve(this.replicaId + deltaSuffix + tempSuffix);
+        try (OutputStream out = Files.newOutputStream(tempDelta)) {
+            writeDelta(out, getAcknowledgedSequence());
+        }
+        Files.move(tempDelta, ownDelta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Writes the entries changed after the given sequence, with the sync points of this replica, such as
+     * to a pipe to another replica.
+     *
+     * @param out stream to write to, left open.
+     * @param sinceSequence last sequence of this replica the receiver has merged.
+     * @throws IOException if writing fails.
+     */
+    public synchronized void writeDelta(OutputStream out, long sinceSequence) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(deltaMagic + " " + deltaVersion + " " + this.replicaId + " " + this.sequence);
+        writer.newLine();
+        for (Map.Entry<String, Peer> peer : this.peers.entrySet()) {
+            writer.write("A " + peer.getKey() + " " + peer.getValue().receivedSequence);
+            writer.newLine();
+        }
+
+        for (String key : this.keysBySequence.tailMap(sinceSequence, false).values()) {
+            Entry entry = this.entries.get(key);
+            writer.write("E " + getFlags(entry) + " " + entry.version + " " + key);
+            writer.newLine();
+        }
+
+        writer.write(endLine);
+        writer.newLine();
+        writer.flush();
+    }
+
+    /**
+     * Merges the entries written by another replica with writeDelta.
+     * Nothing is merged from a delta that was cut short, or that was already merged.
+     *
+     * @param in stream to read from, left open.
+     * @param applyChange function to pass each change to the tasks of this replica to, in order.
+     * @throws IOException if reading fails or the delta is invalid.
+     */
+    public synchronized void readDelta(InputStream in, Consumer<JournalRecord> applyChange) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String[] header = readLine(reader).split(" ");
+        if (header.length != 4 || !header[0].equals(deltaMagic) || !header[1].equals(String.valueOf(deltaVersion))) {
+            throw new IOException("Not a sync delta.");
+        }
+
+        String peerId = header[2];
+        long peerSequence = parseSequence(header[3]);
+        if (peerId.equals(this.replicaId)) {
+            return; // Changes of this replica
+        }
+        Peer peer = this.peers.computeIfAbsent(peerId, (id) -> new Peer());
+
+        List<String[]> deltaEntries = new ArrayList<>();
+        String line = readLine(reader);
+        while (!line.equals(endLine)) {
+            if (line.startsWith("A ")) {
+                String[] acknowledgement = line.split(" ");
+                if (acknowledgement.length == 3 && acknowledgement[1].equals(this.replicaId)) {
+                    peer.acknowledgedSequence = Math.max(peer.acknowledgedSequence,
+                            parseSequence(acknowledgement[2]));
+                }
+            } else if (peerSequence > peer.receivedSequence) {
+                String[] entry = line.split(" ", 4);
+                if (entry.length != 4 || !entry[0].equals("E")) {
+                    throw new IOException("Invalid sync delta entry: " + line);
+                }
+                deltaEntries.add(entry);
+            } else {
+                break; // Entries were already merged
+            }
+            line = readLine(reader);
+        }
+
+        List<String> lines = new ArrayList<>();
+        for (String[] entry : deltaEntries) {
+            try {
+                int flags = Integer.parseInt(entry[1]);
+                JournalRecord change = merge(entry[3], (flags & presentFlag) != 0, (flags & completedFlag) != 0,
+                        VersionVector.parse(entry[2]), lines);
+                if (change != null) {
+                    applyChange.accept(change);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid sync delta entry: " + String.join(" ", entry));
+            }
+        }
+
+        peer.receivedSequence = Math.max(peer.receivedSequence, peerSequence);
+        lines.add(toPeerLine(peerId, peer));
+        writeLines(lines, false);
+    }
+
+    /**
+     * Returns the last sequence of this replica merged by every known peer.
+     *
+     * @return sequence to write a delta since.
+     */
+    public synchronized long getAcknowledgedSequence() {
+        return this.peers.values().stream().mapToLong((p) -> p.acknowledgedSequence).min().orElse(0);
+    }
+
+    /**
+     * Merges an entry from another replica into the entry of the same task.
+     *
+     * @param key key of task.
+     * @param isPresent whether the task exists on the other replica.
+     * @param isCompleted whether the task is completed on the other replica.
+     * @param version version of the entry on the other replica.
+     * @param lines lines to append to the sync file.
+     * @return change to the tasks of this replica, or null if they are unchanged.
+     */
+    private JournalRecord merge(String key, boolean isPresent, boolean isCompleted, VersionVector version,
+            List<String> lines) {
+        Entry entry = this.entries.get(key);
+        VersionVector.Order order = entry == null ? VersionVector.Order.AFTER : version.compareTo(entry.version);
+        if (order == VersionVector.Order.EQUAL || order == VersionVector.Order.BEFORE) {
+            return null; // Already seen
+        }
+
+        boolean wasPresent = entry != null && entry.isPresent;
+        boolean wasCompleted = entry != null && entry.isCompleted;
+        if (order == VersionVector.Order.CONCURRENT) {
+            isPresent &= entry.isPresent; // Deletions win
+            isCompleted |= entry.isCompleted; // Marks win
+            version = version.merge(entry.version);
+        }
+        lines.add(putEntry(key, new Entry(isPresent, isCompleted, version, ++this.sequence)));
+
+        String saveFormat = (isCompleted ? "[X] | " : "[ ] | ") + key;
+        if (isPresent && !wasPresent) {
+            return new JournalRecord(JournalRecord.Operation.ADD, saveFormat);
+        } else if (!isPresent && wasPresent) {
+            return new JournalRecord(JournalRecord.Operation.DELETE, key);
+        } else if (isPresent && isCompleted != wasCompleted) {
+            return new JournalRecord(isCompleted ? JournalRecord.Operation.MARK : JournalRecord.Operation.UNMARK,
+                    key);
+        } else {
+            return null;
+        }
+    }
+
+    private void recordLocal(String key, boolean isPresent, boolean isCompleted) {
+        Entry entry = this.entries.get(key);
+        VersionVector version = (entry == null ? VersionVector.empty() : entry.version).increment(this.replicaId);
+        writeLines(List.of(putEntry(key, new Entry(isPresent, isCompleted, version, ++this.sequence))), false);
+    }
+
+    /**
+     * Replaces the entry of a task.
+     *
+     * @return line recording the entry in the sync file.
+     */
+    private String putEntry(String key, Entry entry) {
+        Entry oldEntry = this.entries.put(key, entry);
+        if (oldEntry != null) {
+            this.keysBySequence.remove(oldEntry.sequence);
+        }
+        this.keysBySequence.put(entry.sequence, key);
+        this.sequence = Math.max(this.sequence, entry.sequence);
+
+        return "E " + entry.sequence + " " + getFlags(entry) + " " + entry.version + " " + key;
+    }
+
+    /**
+     * Reads the sync file, keeping the last line for each task and peer.
+     *
+     * @throws IOException if the file cannot be read.
+     */
+    private void load() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(this.path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                this.lineCount++;
+                try {
+                    loadLine(line);
+                } catch (IllegalArgumentException e) { // Handle corrupted line
+                    System.err.println("There was a problem loading the sync state: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void loadLine(String line) throws IllegalArgumentException {
+        String[] parts = line.split(" ", 5);
+        if (parts[0].equals("R") && parts.length == 2) {
+            this.replicaId = parts[1];
+        } else if (parts[0].equals("E") && parts.length == 5) {
+            int flags = Integer.parseInt(parts[2]);
+            putEntry(parts[4], new Entry((flags & presentFlag) != 0, (flags & completedFlag) != 0,
+                    VersionVector.parse(parts[3]), Long.parseLong(parts[1])));
+        } else if (parts[0].equals("P") && parts.length == 4) {
+            Peer peer = this.peers.computeIfAbsent(parts[1], (id) -> new Peer());
+            peer.receivedSequence = Long.parseLong(parts[2]);
+            peer.acknowledgedSequence = Long.parseLong(parts[3]);
+        } else {
+            throw new IllegalArgumentException("Invalid sync line: " + line);
+        }
+    }
+
+    /**
+     * Appends lines to the sync file, or rewrites it with only the latest lines once it has grown.
+     *
+     * @param lines lines to append.
+     * @param isNew whether the sync file should be started over with only the given lines.
+     */
+    private void writeLines(List<String> lines, boolean isNew) {
+        this.lineCount += lines.size();
+        if (!isNew && this.lineCount > Math.max(minLinesToCompact, 2 * (this.entries.size() + this.peers.size()))) {
+            rewrite();
+            return;
+        }
+
+        try {
+            this.path.toAbsolutePath().getParent().toFile().mkdirs(); // Ensures parent directory exists
+            Files.write(this.path, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    isNew ? StandardOpenOption.TRUNCATE_EXISTING : StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("There was a problem saving the sync state: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rewrites the sync file with the latest line for each task and peer, then moves it over the old one.
+     */
+    private void rewrite() {
+        List<String> lines = new ArrayList<>();
+        lines.add("R " + this.replicaId);
+        for (Map.Entry<Long, String> key : this.keysBySequence.entrySet()) {
+            Entry entry = this.entries.get(key.getValue());
+            lines.add("E " + key.getKey() + " " + getFlags(entry) + " " + entry.version + " " + key.getValue());
+        }
+        this.peers.forEach((peerId, peer) -> lines.add(toPeerLine(peerId, peer)));
+
+        Path tempPath = Paths.get(this.path + tempSuffix);
+        try {
+            Files.write(tempPath, lines, StandardCharsets.UTF_8);
+            Files.move(tempPath, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            this.lineCount = lines.size();
+        } catch (IOException e) {
+            System.err.println("There was a problem saving the sync state: " + e.getMessage());
+        }
+    }
+
+    private static String toPeerLine(String peerId, Peer peer) {
+        return "P " + peerId + " " + peer.receivedSequence + " " + peer.acknowledgedSequence;
+    }
+
+    private static int getFlags(Entry entry) {
+        return (entry.isPresent ? presentFlag : 0) | (entry.isCompleted ? completedFlag : 0);
+    }
+
+    private static String readLine(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            throw new IOException("Sync delta ends before it is complete.");
+        }
+
+        return line;
+    }
+
+    private static long parseSequence(String str) throws IOException {
+        try {
+            return Long.parseLong(str);
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid sync sequence: " + str);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package bob.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import bob.tasks.Task;
+
+/**
+ * Storage that records every change in a SyncEngine before saving it to another storage, so the list of
+ * tasks can be synced with its replicas elsewhere.
+ *
+ * Nothing is recorded until the list is first synced, so lists that are never synced pay nothing. From then
+ * on, each change appends one line to the sync file, and each full load catches the sync state up with
+ * changes made while it was not recorded.
+ */
+public class SyncedStorage implements TaskStorage {
+    private final TaskStorage storage;
+    private final String filePath;
+    private SyncEngine engine;
+
+    /**
+     * Constructor for SyncedStorage that saves to a text file.
+     *
+     * @param filePath path of file to save to.
+     */
+    public SyncedStorage(String filePath) {
+        this(new Storage(filePath), filePath);
+    }
+
+    /**
+     * Primary constructor of SyncedStorage.
+     *
+     * @param storage storage changes are saved to.
+     * @param filePath path of file the storage saves to, which the sync file is kept next to.
+     */
+    public SyncedStorage(TaskStorage storage, String filePath) {
+        this.storage = storage;
+        this.filePath = filePath;
+        if (SyncEngine.isEnabled(filePath)) {
+            this.engine = new SyncEngine(filePath);
+        }
+    }
+
+    @Override
+    public synchronized void loadTasks(Consumer<Task> saveToTaskList) {
+        if (this.engine == null) {
+            this.storage.loadTasks(saveToTaskList);
+            return;
+        }
+
+        List<Task> tasks = new ArrayList<>();
+        this.storage.loadTasks(tasks::add);
+        this.engine.reconcile(tasks);
+        tasks.forEach(saveToTaskList);
+    }
+
+    @Override
+    public void loadTasksDueBetween(LocalDate from, LocalDate to, Consumer<Task> saveToTaskList) {
+        this.storage.loadTasksDueBetween(from, to, saveToTaskList);
+    }
+
+    @Override
+    public void loadTasksMatching(String str, Consumer<Task> saveToTaskList) {
+        this.storage.loadTasksMatching(str, saveToTaskList);
+    }
+
+    @Override
+    public int countTasks() {
+        return this.storage.countTasks();
+    }
+
+    @Override
+    public boolean loadExternalChanges(Consumer<JournalRecord> applyChange) {
+        return this.storage.loadExternalChanges(applyChange);
+    }
+
+    @Override
+    public synchronized void saveTask(Task newTask) {
+        this.storage.saveTask(newTask);
+        record(JournalRecord.ofAdd(newTask));
+    }
+
+    @Override
+    public synchronized void updateTask(Task task) {
+        this.storage.updateTask(task);
+        record(JournalRecord.ofUpdate(task));
+    }
+
+    @Override
+    public synchronized void deleteTask(Task task) {
+        this.storage.deleteTask(task);
+        record(JournalRecord.ofDelete(task));
+    }
+
+    @Override
+    public synchronized void updateTasks(List<Task> tasks) {
+        this.storage.updateTasks(tasks);
+        tasks.forEach((t) -> record(JournalRecord.ofUpdate(t)));
+    }
+
+    @Override
+    public synchronized void deleteTasks(List<Task> tasks) {
+        this.storage.deleteTasks(tasks);
+        tasks.forEach((t) -> record(JournalRecord.ofDelete(t)));
+    }
+
+    @Override
+    public synchronized void rewriteTaskList(List<Task> tasks) {
+        this.storage.rewriteTaskList(tasks);
+        if (this.engine != null) {
+            this.engine.reconcile(tasks);
+        }
+    }
+
+    /**
+     * Exchanges changes with the replicas syncing through the given directory, saving the changes received.
+     * The first sync starts recording changes, with every saved task as a change of this replica.
+     *
+     * @param directory directory shared by the replicas.
+     * @param applyChange function to pass each change received to, in order.
+     * @throws IOException if the changes cannot be exchanged.
+     */
+    public synchronized void syncWith(Path directory, Consumer<JournalRecord> applyChange) throws IOException {
+        if (this.engine == null) {
+            this.engine = new SyncEngine(this.filePath);
+            List<Task> tasks = new ArrayList<>();
+            this.storage.loadTasks(tasks::add);
+            this.engine.reconcile(tasks);
+        }
+
+        this.engine.syncWith(directory, (change) -> {
+            save(change);
+            applyChange.accept(change);
+        });
+    }
+
+    @Override
+    public void flush() {
+        this.storage.flush();
+    }
+
+    @Override
+    public void close() {
+        this.storage.close();
+    }
+
+    private void record(JournalRecord change) {
+        if (this.engine != null) {
+            this.engine.recordChange(change);
+        }
+    }
+
+    /**
+     * Saves a change received from another replica, without recording it as a change of this replica.
+     *
+     * @param change change received.
+     */
+    private void save(JournalRecord change) {
+        Task task = change.toTask();
+        switch (change.getOperation()) {
+        case ADD:
+            this.storage.saveTask(task);
+            break;
+        case MARK:
+        case UNMARK:
+            this.storage.updateTask(task);
+            break;
+        case DELETE:
+            this.storage.deleteTask(task);
+            break;
+        default:
+            break;
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package bob.storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import bob.tasks.Task;
+
+/**
+ * Keeps completed tasks that are no longer in use out of the list of tasks, in an archive file next to
+ * the save file.
+ *
+ * The day each task was completed is appended to a completion file, and tasks completed more than a set
+ * number of days ago are moved to the archive. The archive is only ever appended to, and is read through
+ * a read-only memory map, so archived tasks cost nothing until they are asked for and are never written
+ * out again by the list of tasks.
+ */
+public class TaskArchive {
+    static final String archiveSuffix = ".archive";
+    static final String completedSuffix = ".completed";
+
+    private static final int defaultArchiveAfterDays = 14;
+    private static final String clearedDay = "-";
+    private static final String tempSuffix = ".tmp";
+
+    private final Path archivePath;
+    private final Path completedPath;
+    private final int archiveAfterDays;
+    // Day each completed task was completed by task key, loaded when first needed
+    private Map<String, LocalDate> completionDays;
+    private MappedByteBuffer mappedArchive;
+
+    /**
+     * Constructor for TaskArchive that archives tasks completed more than 14 days ago.
+     *
+     * @param filePath path of save file the archive is kept next to.
+     */
+    public TaskArchive(String filePath) {
+        this(filePath, defaultArchiveAfterDays);
+    }
+
+    /**
+     * Primary constructor of TaskArchive.
+     *
+     * @param filePath path of save file the archive is kept next to.
+     * @param archiveAfterDays days after being completed that a task is archived.
+     */
+    public TaskArchive(String filePath, int archiveAfterDays) {
+        this.archivePath = Paths.get(filePath + archiveSuffix);
+        this.completedPath = Paths.get(filePath + completedSuffix);
+        this.archiveAfterDays = archiveAfterDays;
+    }
+
+    /**
+     * Records the day a task was completed.
+     *
+     * @param task completed task.
+     * @param day day it was completed.
+     */
+    public void recordCompletion(Task task, LocalDate day) {
+        recordCompletions(Collections.singletonList(task), day);
+    }
+
+    /**
+     * Records the day several tasks were completed, with a single write.
+     *
+     * @param tasks completed tasks.
+     * @param day day they were completed.
+     */
+    public synchronized void recordCompletions(List<Task> tasks, LocalDate day) {
+        StringBuffer lines = new StringBuffer();
+        for (Task task : tasks) {
+            getCompletionDays().put(task.getKey(), day);
+            lines.append(day + " " + task.getKey() + "\n");
+        }
+        appendCompletions(lines.toString());
+    }
+
+    /**
+     * Forgets the day a task was completed, once it is unmarked or deleted.
+     *
+     * @param task task that is no longer completed.
+     */
+    public void clearCompletion(Task task) {
+        clearCompletions(Collections.singletonList(task));
+    }
+
+    /**
+     * Forgets the days several tasks were completed, with a single write.
+     *
+     * @param tasks tasks that are no longer completed.
+     */
+    public synchronized void clearCompletions(List<Task> tasks) {
+        StringBuffer lines = new StringBuffer();
+        for (Task task : tasks) {
+            if (getCompletionDays().remove(task.getKey()) != null) {
+                lines.append(clearedDay + " " + task.getKey() + "\n");
+            }
+        }
+        appendCompletions(lines.toString());
+    }
+
+    /**
+     * Moves the completed tasks of a list that were completed more than the set number of days ago to the
+     * archive. Completed tasks without a recorded day, such as those completed by other processes, are
+     * recorded as completed on the given day, with a single write.
+     *
+     * @param tasks tasks in the list.
+     * @param today current day.
+     * @return tasks archived, which should be removed from the list.
+     */
+    public synchronized List<Task> archiveExpired(List<Task> tasks, LocalDate today) {
+        LocalDate cutoff = today.minusDays(this.archiveAfterDays);
+        Map<String, LocalDate> days = getCompletionDays();
+        List<Task> expiredTasks = new ArrayList<>();
+        List<Task> unrecordedTasks = new ArrayList<>();
+
+        for (Task task : tasks) {
+            if (!task.isCompleted()) {
+                continue;
+            }
+
+            LocalDate day = days.get(task.getKey());
+            if (day == null) {
+                unrecordedTasks.add(task);
+            } else if (day.isBefore(cutoff)) {
+                expiredTasks.add(task);
+            }
+        }
+        recordCompletions(unrecordedTasks, today);
+        if (expiredTasks.isEmpty()) {
+            return expiredTasks;
+        }
+
+        if (!appendToArchive(expiredTasks)) {
+            return new ArrayList<>();
+        }
+
+        expiredTasks.forEach((t) -> days.remove(t.getKey()));
+        rewriteCompletions();
+        return expiredTasks;
+    }
+
+    /**
+     * Restores the completion days and archived tasks of a backup, once the list has been restored from it.
+     * Completed tasks of the list take the day they were completed in the backup, or the day already
+     * recorded if the backup has none. Tasks archived in the backup but not in this archive are archived
+     * again, and tasks archived since the backup stay archived, as the archive is only ever appended to.
+     *
+     * @param backup archive restored from the backup.
+     * @param tasks tasks in the restored list.
+     */
+    public synchronized void restoreFrom(TaskArchive backup, List<Task> tasks) {
+        Map<String, LocalDate> backupDays = backup.getCompletionDays();
+        Map<String, LocalDate> days = new HashMap<>();
+        for (Task task : tasks) {
+            LocalDate day = backupDays.getOrDefault(task.getKey(), getCompletionDays().get(task.getKey()));
+            if (task.isCompleted() && day != null) {
+                days.put(task.getKey(), day);
+            }
+        }
+        this.completionDays = days;
+        rewriteCompletions();
+
+        Map<String, Task> archivedTasks = new HashMap<>();
+        loadTasks((t) -> archivedTasks.put(t.getKey(), t));
+        List<Task> missingTasks = new ArrayList<>();
+        backup.loadTasks((t) -> {
+            if (!archivedTasks.containsKey(t.getKey())) {
+                missingTasks.add(t);
+            }
+        });
+        appendToArchive(missingTasks);
+    }
+
+    /**
+     * Loads every archived task, oldest first.
+     *
+     * @param saveToTaskList function to save each task to.
+     */
+    public void loadTasks(Consumer<Task> saveToTaskList) {
+        loadTasksMatching("", saveToTaskList);
+    }
+
+    /**
+     * Loads the archived tasks whose names contain the given string, oldest first.
+     * Only records containing the string are decoded.
+     *
+     * @param str string to check for.
+     * @param saveToTaskList function to save each matching task to.
+     */
+    public void loadTasksMatching(String str, Consumer<Task> saveToTaskList) {
+        ByteBuffer archive = getMappedArchive();
+        if (archive == null) {
+            return;
+        }
+
+        // A task archived again after a crash between archiving it and removing it from the list
+        // appears twice, so only its last record is kept
+        Map<String, Task> tasksByKey = new LinkedHashMap<>();
+        RecordChecksum checksum = new RecordChecksum();
+        int start = 0;
+        for (int i = 0; i < archive.limit(); i++) {
+            if (archive.get(i) != '\n') {
+                continue;
+            }
+
+            if (!RecordChecksum.hasChecksum(archive, start, i) || !checksum.isValid(archive, start, i)) {
+                System.err.println("There was a problem loading the archive: damaged record at byte " + start);
+            } else {
+                String line = decode(archive, start + RecordChecksum.prefixLength, i);
+                if (line.contains(str)) {
+                    addArchivedTask(line, str, tasksByKey);
+                }
+            }
+            start = i + 1;
+        }
+
+        tasksByKey.values().forEach(saveToTaskList);
+    }
+
+    private void addArchivedTask(String line, String str, Map<String, Task> tasksByKey) {
+        try {
+            Task task = Task.getFromSaveFormat(line);
+            if (task.contains(str)) {
+                tasksByKey.remove(task.getKey());
+                tasksByKey.put(task.getKey(), task);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("There was a problem loading the task: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the archive mapped into memory, mapping it again if it has grown since it was last mapped.
+     *
+     * @return mapped archive, or null if nothing has been archived.
+     */
+    private synchronized ByteBuffer getMappedArchive() {
+        try (FileChannel channel = FileChannel.open(this.archivePath, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (this.mappedArchive == null || this.mappedArchive.capacity() != size) {
+                this.mappedArchive = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            return this.mappedArchive.duplicate();
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            System.err.println("There was a problem loading the archive: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Appends tasks to the archive and forces them to disk.
+     *
+     * @param tasks tasks to archive.
+     * @return whether the tasks were archived.
+     */
+    private boolean appendToArchive(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return true;
+        }
+
+        StringBuffer buffer = new StringBuffer();
+        for (Task task : tasks) {
+            buffer.append(RecordChecksum.addTo(task.toString())).append('\n');
+        }
+        try (FileChannel channel = FileChannel.open(this.archivePath, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(buffer.toString().getBytes(StandardCharsets.UTF_8)));
+            channel.force(false); // Archived tasks are only removed from the list once they are safe here
+            return true;
+        } catch (IOException e) {
+            System.err.println("There was a problem archiving tasks: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private Map<String, LocalDate> getCompletionDays() {
+        if (this.completionDays != null) {
+            return this.completionDays;
+        }
+
+        this.completionDays = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(this.completedPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] completion = line.split(" ", 2);
+                if (completion.length != 2) {
+                    continue; // Line torn by a crash
+                }
+
+                if (completion[0].equals(clearedDay)) {
+                    this.completionDays.remove(completion[1]);
+                } else {
+                    this.completionDays.put(completion[1], LocalDate.parse(completion[0]));
+                }
+            }
+        } catch (NoSuchFileException e) {
+            // Nothing has been completed yet
+        } catch (IOException | DateTimeParseException e) {
+            System.err.println("There was a problem loading the completed tasks: " + e.getMessage());
+        }
+
+        return this.completionDays;
+    }
+
+    private void appendCompletions(String lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+
+        try {
+            Files.write(this.completedPath, lines.getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("There was a problem saving the completed task: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rewrites the completion file with only the tasks still completed, so it stays as small as the
+     * completed part of the list.
+     */
+    private void rewriteCompletions() {
+        List<String> lines = new ArrayList<>();
+        this.completionDays.forEach((key, day) -> lines.add(day + " " + key));
+
+        Path tempPath = Paths.get(this.completedPath + tempSuffix);
+        try {
+            Files.write(tempPath, lines, StandardCharsets.UTF_8);
+            Files.move(tempPath, this.completedPath, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("There was a problem saving the completed tasks: " + e.getMessage());
+        }
+    }
+
+    private static String decode(ByteBuffer bytes, int start, int end) {
+        byte[] line = new byte[end - start];
+        ByteBuffer content = bytes.duplicate();
+        content.position(start);
+        content.get(line);
+        return new String(line, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,129 @@
+package bob.storage;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import bob.tasks.Task;
+
+/**
+ * Persists the list of tasks for a TaskManager.
+ * Implementations decide where and how tasks are kept, so TaskManager can run on any of them.
+ */
+public interface TaskStorage {
+    /**
+     * Loads saved tasks in list order.
+     *
+     * @param saveToTaskList task adding function in TaskManager.
+     */
+    void loadTasks(Consumer<Task> saveToTaskList);
+
+    /**
+     * Loads saved tasks that may be due between two dates, in list order.
+     * Every Deadline and Event starting between the dates is loaded, but other tasks may be loaded too,
+     * so callers should still filter the tasks.
+     *
+     * @param from first date, inclusive.
+     * @param to last date, inclusive.
+     * @param saveToTaskList function to pass each task to.
+     */
+    default void loadTasksDueBetween(LocalDate from, LocalDate to, Consumer<Task> saveToTaskList) {
+        loadTasks(saveToTaskList);
+    }
+
+    /**
+     * Loads saved tasks whose names may contain the given string, in list order.
+     * Every task whose name contains the string is loaded, but other tasks may be loaded too,
+     * so callers should still filter the tasks.
+     *
+     * @param str string to check for.
+     * @param saveToTaskList function to pass each task to.
+     */
+    default void loadTasksMatching(String str, Consumer<Task> saveToTaskList) {
+        loadTasks(saveToTaskList);
+    }
+
+    /**
+     * Returns the number of saved tasks.
+     *
+     * @return number of saved tasks.
+     */
+    default int countTasks() {
+        int[] count = {0};
+        loadTasks((t) -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Passes on the changes made by other processes since tasks were last loaded or refreshed.
+     * Changes this storage made itself may be passed on again, so they should be applied idempotently.
+     *
+     * @param applyChange function to pass each change to, in the order they were made.
+     * @return false if the changes cannot be read on their own, so tasks have to be loaded again instead.
+     */
+    default boolean loadExternalChanges(Consumer<JournalRecord> applyChange) {
+        return true; // Only this process changes the saved tasks
+    }
+
+    /**
+     * Saves a task added to the end of the list.
+     *
+     * @param newTask task to save.
+     */
+    void saveTask(Task newTask);
+
+    /**
+     * Saves the current completion status of a task.
+     *
+     * @param task marked or unmarked task.
+     */
+    void updateTask(Task task);
+
+    /**
+     * Removes a task from the saved list.
+     *
+     * @param task deleted task.
+     */
+    void deleteTask(Task task);
+
+    /**
+     * Saves the current completion status of several tasks at once.
+     * By default, each task is saved on its own.
+     *
+     * @param tasks marked or unmarked tasks.
+     */
+    default void updateTasks(List<Task> tasks) {
+        tasks.forEach(this::updateTask);
+    }
+
+    /**
+     * Removes several tasks from the saved list at once.
+     * By default, each task is removed on its own.
+     *
+     * @param tasks deleted tasks.
+     */
+    default void deleteTasks(List<Task> tasks) {
+        tasks.forEach(this::deleteTask);
+    }
+
+    /**
+     * Replaces every saved task with the given list.
+     *
+     * @param tasks list of tasks.
+     */
+    void rewriteTaskList(List<Task> tasks);
+
+    /**
+     * Waits until every change has been saved.
+     */
+    default void flush() {
+        // Changes are saved synchronously
+    }
+
+    /**
+     * Saves every change and releases anything held open, once the storage is no longer used.
+     */
+    default void close() {
+        flush();
+    }
+}
@@ -0,0 +1,139 @@
+package bob.storage;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Counts the changes each replica has made to a task, so changes made on different replicas can be ordered.
+ * A version that counts at least as many changes from every replica as another has seen all of them.
+ * Versions are immutable.
+ */
+public class VersionVector {
+    private static final VersionVector empty = new VersionVector(new TreeMap<>());
+
+    private final TreeMap<String, Long> counters;
+
+    /**
+     * Result of comparing two versions.
+     */
+    public enum Order {
+        EQUAL, BEFORE, AFTER, CONCURRENT
+    }
+
+    private VersionVector(TreeMap<String, Long> counters) {
+        this.counters = counters;
+    }
+
+    /**
+     * Returns the version of a task no replica has changed.
+     *
+     * @return empty version.
+     */
+    public static VersionVector empty() {
+        return empty;
+    }
+
+    /**
+     * Converts the format from toString back to a version.
+     *
+     * @param str replica and counter pairs, or "-" for the empty version.
+     * @return parsed version.
+     * @throws IllegalArgumentException if the format is invalid.
+     */
+    public static VersionVector parse(String str) throws IllegalArgumentException {
+        if (str.equals("-")) {
+            return empty;
+        }
+
+        TreeMap<String, Long> counters = new TreeMap<>();
+        for (String pair : str.split(",")) {
+            int separator = pair.lastIndexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid version: " + str);
+            }
+            try {
+                counters.put(pair.substring(0, separator), Long.parseLong(pair.substring(separator + 1)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid version: " + str);
+            }
+        }
+
+        return new VersionVector(counters);
+    }
+
+    /**
+     * Returns the number of changes made by the given replica.
+     *
+     * @param replicaId id of replica.
+     * @return counter of replica, 0 if it has made no changes.
+     */
+    public long get(String replicaId) {
+        return this.counters.getOrDefault(replicaId, 0L);
+    }
+
+    /**
+     * Returns the version after one more change by the given replica.
+     *
+     * @param replicaId id of replica making the change.
+     * @return next version.
+     */
+    public VersionVector increment(String replicaId) {
+        TreeMap<String, Long> counters = new TreeMap<>(this.counters);
+        counters.merge(replicaId, 1L, Long::sum);
+        return new VersionVector(counters);
+    }
+
+    /**
+     * Returns the smallest version that has seen every change of both versions.
+     *
+     * @param other version to merge with.
+     * @return merged version.
+     */
+    public VersionVector merge(VersionVector other) {
+        TreeMap<String, Long> counters = new TreeMap<>(this.counters);
+        other.counters.forEach((replicaId, counter) -> counters.merge(replicaId, counter, Math::max));
+        return new VersionVector(counters);
+    }
+
+    /**
+     * Compares the changes seen by this version with those seen by another.
+     *
+     * @param other version to compare with.
+     * @return BEFORE if the other version has seen every change of this one and more, AFTER if the
+     *     reverse holds, EQUAL if both have seen the same changes, CONCURRENT otherwise.
+     */
+    public Order compareTo(VersionVector other) {
+        boolean hasMore = false;
+        boolean hasLess = false;
+        for (Map.Entry<String, Long> entry : this.counters.entrySet()) {
+            hasMore |= entry.getValue() > other.get(entry.getKey());
+        }
+        for (Map.Entry<String, Long> entry : other.counters.entrySet()) {
+            hasLess |= entry.getValue() > get(entry.getKey());
+        }
+
+        if (hasMore && hasLess) {
+            return Order.CONCURRENT;
+        } else if (hasMore) {
+            return Order.AFTER;
+        } else if (hasLess) {
+            return Order.BEFORE;
+        } else {
+            return Order.EQUAL;
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (this.counters.isEmpty()) {
+            return "-";
+        }
+
+        StringBuffer buffer = new StringBuffer();
+        this.counters.forEach((replicaId, counter) -> {
+            buffer.append(buffer.length() == 0 ? "" : ",");
+            buffer.append(replicaId).append(':').append(counter);
+        });
+        return buffer.toString();
+    }
+}
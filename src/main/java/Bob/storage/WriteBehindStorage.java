@@ -0,0 +1,363 @@
+package bob.storage;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import bob.tasks.Task;
+
+/**
+ * Storage that saves changes to another storage on a dedicated thread, so callers never wait for I/O.
+ *
+ * Changes are queued per task and merged while they wait, so a task that is added then deleted, or
+ * marked then unmarked, is never written at all. Callers block only when the queue is full. Queued
+ * changes are written before tasks are loaded, on flush, and when the JVM shuts down.
+ *
+ * Checking for changes made by other processes does not wait for queued changes, as they are not external.
+ * Saved changes to tasks with queued changes are skipped instead, as the queued changes are newer. While a
+ * batch is being written, the check is left for next time rather than waiting for the batch.
+ */
+public class WriteBehindStorage implements TaskStorage {
+    private final TaskStorage storage;
+    private final int capacity;
+    private final Object queueLock = new Object();
+    private final Map<String, PendingChange> pending = new LinkedHashMap<>();
+    private final Thread writer;
+    private final Thread shutdownHook;
+
+    private boolean isWriting;
+    private boolean isClosed;
+
+    /**
+     * Changes to one task that have not been written yet.
+     */
+    private static class PendingChange {
+        private Task task;
+        private boolean isDeleted;
+        private boolean isAdded;
+        private boolean isUpdated;
+        private boolean savedCompletion;
+    }
+
+    /**
+     * Constructor for WriteBehindStorage that saves to a text file.
+     *
+     * @param filePath path of file to save to.
+     * @param capacity maximum number of tasks with unwritten changes before callers have to wait.
+     */
+    public WriteBehindStorage(String filePath, int capacity) {
+        this(new Storage(filePath), capacity);
+    }
+
+    /**
+     * Primary constructor of WriteBehindStorage.
+     *
+     * @param storage storage changes are written to.
+     * @param capacity maximum number of tasks with unwritten changes before callers have to wait.
+     */
+    public WriteBehindStorage(TaskStorage storage, int capacity) {
+        assert capacity > 0 : "Capacity should be positive.";
+        this.storage = storage;
+        this.capacity = capacity;
+
+        this.writer = new Thread(this::writeChanges, "bob-storage-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+
+        this.shutdownHook = new Thread(this::flush, "bob-storage-flush");
+        Runtime.getRuntime().addShutdownHook(this.shutdownHook);
+    }
+
+    @Override
+    public void saveTask(Task newTask) {
+        enqueue(newTask, (change) -> {
+            change.isAdded = true;
+            change.isUpdated = false;
+            return true;
+        }, true);
+    }
+
+    @Override
+    public void updateTask(Task task) {
+        enqueue(task, (change) -> {
+            if (change.isAdded) {
+                return true; // Added task is written with its latest completion status
+            } else if (!change.isUpdated) {
+                change.isUpdated = true;
+                change.savedCompletion = !task.isCompleted();
+                return true;
+            } else {
+                return task.isCompleted() != change.savedCompletion; // Changed back to saved status
+            }
+        }, false);
+    }
+
+    @Override
+    public void deleteTask(Task task) {
+        enqueue(task, (change) -> {
+            boolean wasSaved = !change.isAdded || change.isDeleted;
+            change.isAdded = false;
+            change.isUpdated = false;
+            change.isDeleted = wasSaved;
+            return wasSaved; // Task added and deleted before being written is never saved
+        }, false);
+    }
+
+    @Override
+    public void loadTasks(Consumer<Task> saveToTaskList) {
+        flush();
+        this.storage.loadTasks(saveToTaskList);
+    }
+
+    @Override
+    public void loadTasksDueBetween(LocalDate from, LocalDate to, Consumer<Task> saveToTaskList) {
+        flush();
+        this.storage.loadTasksDueBetween(from, to, saveToTaskList);
+    }
+
+    @Override
+    public void loadTasksMatching(String str, Consumer<Task> saveToTaskList) {
+        flush();
+        this.storage.loadTasksMatching(str, saveToTaskList);
+    }
+
+    /**
+     * Returns the number of saved tasks, counting queued changes as saved.
+     * Only the batch being written is waited for, not the queued changes.
+     *
+     * @return number of saved tasks.
+     */
+    @Override
+    public int countTasks() {
+        synchronized (this.queueLock) {
+            while (this.isWriting) {
+                try {
+                    this.queueLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+
+            int count = this.storage.countTasks(); // Writer cannot take a batch while the queue is locked
+            for (PendingChange change : this.pending.values()) {
+                if (change.isAdded && !change.isDeleted) {
+                    count++;
+                } else if (change.isDeleted && !change.isAdded) {
+                    count--;
+                }
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Passes on the changes made by other processes without waiting for queued changes.
+     * Changes to tasks that are queued are skipped, as those tasks are already as they will be saved.
+     * If a batch is being written, nothing is passed on, and the changes are passed on by a later call.
+     *
+     * @param applyChange function to pass each change to, in the order they were made.
+     * @return false if tasks have to be loaded again instead.
+     */
+    @Override
+    public boolean loadExternalChanges(Consumer<JournalRecord> applyChange) {
+        List<JournalRecord> externalChanges = new ArrayList<>();
+        synchronized (this.queueLock) {
+            if (this.isWriting) {
+                return true; // Saved changes are only in order with queued ones between batches
+            }
+
+            // Writer cannot take a batch while the queue is locked
+            List<JournalRecord> changes = new ArrayList<>();
+            if (!this.storage.loadExternalChanges(changes::add)) {
+                return false;
+            }
+
+            for (JournalRecord change : changes) {
+                if (!this.pending.containsKey(change.getKey())) {
+                    externalChanges.add(change);
+                }
+            }
+        }
+
+        externalChanges.forEach(applyChange);
+        return true;
+    }
+
+    @Override
+    public void rewriteTaskList(List<Task> tasks) {
+        flush();
+        this.storage.rewriteTaskList(tasks);
+    }
+
+    /**
+     * Waits until every queued change has been written.
+     */
+    @Override
+    public void flush() {
+        synchronized (this.queueLock) {
+            while (!this.pending.isEmpty() || this.isWriting) {
+                try {
+                    this.queueLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        this.storage.flush();
+    }
+
+    /**
+     * Writes every queued change and stops the writer thread.
+     */
+    @Override
+    public void close() {
+        flush();
+        synchronized (this.queueLock) {
+            this.isClosed = true;
+            this.queueLock.notifyAll();
+        }
+
+        try {
+            Runtime.getRuntime().removeShutdownHook(this.shutdownHook);
+        } catch (IllegalStateException e) {
+            // JVM is already shutting down
+        }
+    }
+
+    /**
+     * Returns the number of tasks with changes waiting to be written.
+     *
+     * @return number of pending tasks.
+     */
+    public int getPendingCount() {
+        synchronized (this.queueLock) {
+            return this.pending.size();
+        }
+    }
+
+    /**
+     * Merges a change into the queue, waiting for space if the queue is full.
+     *
+     * @param task changed task.
+     * @param merge function that merges the change, returning false if the task no longer needs writing.
+     * @param isMovedToEnd whether the task should be written after every task already queued.
+     */
+    private void enqueue(Task task, Predicate<PendingChange> merge, boolean isMovedToEnd) {
+        String key = task.getKey();
+        List<PendingChange> closedBatch = null;
+
+        synchronized (this.queueLock) {
+            while (!this.pending.containsKey(key) && this.pending.size() >= this.capacity && !this.isClosed) {
+                try {
+                    this.queueLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+
+            PendingChange change = isMovedToEnd ? this.pending.remove(key) : this.pending.get(key);
+            if (change == null) {
+                change = new PendingChange();
+            }
+            change.task = task;
+
+            if (merge.test(change)) {
+                this.pending.put(key, change);
+            } else {
+                this.pending.remove(key);
+            }
+
+            if (this.isClosed) {
+                closedBatch = takeBatch(); // Writer has stopped, so write on this thread instead
+            }
+            this.queueLock.notifyAll();
+        }
+
+        if (closedBatch != null) {
+            writeBatch(closedBatch);
+        }
+    }
+
+    /**
+     * Writes queued changes until the storage is closed.
+     */
+    private void writeChanges() {
+        while (true) {
+            List<PendingChange> batch;
+            synchronized (this.queueLock) {
+                while (this.pending.isEmpty() && !this.isClosed) {
+                    try {
+                        this.queueLock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+
+                if (this.pending.isEmpty()) {
+                    return;
+                }
+
+                batch = takeBatch();
+            }
+
+            writeBatch(batch);
+        }
+    }
+
+    /**
+     * Removes every queued change, marking them as being written.
+     * Must be called while holding the queue lock.
+     *
+     * @return changes in the order they should be written.
+     */
+    private List<PendingChange> takeBatch() {
+        List<PendingChange> batch = new ArrayList<>(this.pending.values());
+        this.pending.clear();
+        this.isWriting = true;
+        this.queueLock.notifyAll();
+        return batch;
+    }
+
+    /**
+     * Writes changes to the underlying storage, then wakes anyone waiting for a flush.
+     * Deletions and completion changes are each written in one go, as every change in a batch is to a
+     * different task. Deletions come first, so a task deleted and added again is saved.
+     *
+     * @param batch changes to write.
+     */
+    private void writeBatch(List<PendingChange> batch) {
+        try {
+            List<Task> deletedTasks = new ArrayList<>();
+            List<Task> updatedTasks = new ArrayList<>();
+            for (PendingChange change : batch) {
+                if (change.isDeleted) {
+                    deletedTasks.add(change.task);
+                }
+                if (!change.isAdded && change.isUpdated) {
+                    updatedTasks.add(change.task);
+                }
+            }
+
+            this.storage.deleteTasks(deletedTasks);
+            for (PendingChange change : batch) {
+                if (change.isAdded) {
+                    this.storage.saveTask(change.task);
+                }
+            }
+            this.storage.updateTasks(updatedTasks);
+        } finally {
+            synchronized (this.queueLock) {
+                this.isWriting = false;
+                this.queueLock.notifyAll();
+            }
+        }
+    }
+}
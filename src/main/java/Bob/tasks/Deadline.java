@@ -27,7 +27,6 @@ public class Deadline extends TaskWithDeadline {
 
     @Override
     public String toString() {
-        String[] parts = super.toString().split(",");
-        return parts[0] + " | by: " + parts[1];
+        return getSaveFormatPrefix() + " | by: " + getDeadline();
     }
 }
@@ -31,9 +31,22 @@ public class Event extends TaskWithDeadline {
         this.end = end;
     }
 
+    /**
+     * Returns date event will end.
+     *
+     * @return end date.
+     */
+    public String getEnd() {
+        return this.end;
+    }
+
+    @Override
+    protected String[] getDates() {
+        return new String[] {getDeadline(), this.end};
+    }
+
     @Override
     public String toString() {
-        String[] parts = super.toString().split(",");
-        return parts[0] + " | from: " + parts[1] + " | to: " + this.end;
+        return getSaveFormatPrefix() + " | from: " + getDeadline() + " | to: " + this.end;
     }
 }
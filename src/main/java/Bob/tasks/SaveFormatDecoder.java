@@ -0,0 +1,246 @@
+package bob.tasks;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Decodes lines of the text save format in a single pass, without regular expressions.
+ *
+ * Fields are found by scanning for the " | " separator with index arithmetic, so the only strings
+ * created are the name and dates stored in the task. Lines can be read straight from a byte buffer,
+ * as every character the format depends on is a single byte in UTF-8. Decoding gives the same task
+ * as splitting the line on " | " and trimming each field.
+ */
+public final class SaveFormatDecoder {
+    private static final String separator = " | ";
+    private static final String completedStatus = "[X]";
+    private static final String byPrefix = "by: ";
+    private static final String fromPrefix = "from: ";
+    private static final String toPrefix = "to: ";
+
+    /**
+     * Characters of a line being decoded.
+     */
+    private interface Text {
+        char charAt(int index);
+
+        String substring(int from, int to);
+    }
+
+    private SaveFormatDecoder() {
+    }
+
+    /**
+     * Converts a line from save file to a Task object.
+     *
+     * @param line line from save file.
+     * @return saved Task object.
+     * @throws IllegalArgumentException when save format is invalid.
+     */
+    public static Task decode(CharSequence line) throws IllegalArgumentException {
+        return decode(line, 0, line.length());
+    }
+
+    /**
+     * Converts part of a character sequence holding a line from save file to a Task object.
+     *
+     * @param text characters holding the line.
+     * @param start index of first character of the line.
+     * @param end index after last character of the line, excluding the line separator.
+     * @return saved Task object.
+     * @throws IllegalArgumentException when save format is invalid.
+     */
+    public static Task decode(CharSequence text, int start, int end) throws IllegalArgumentException {
+        return decode(new Text() {
+            @Override
+            public char charAt(int index) {
+                return text.charAt(index);
+            }
+
+            @Override
+            public String substring(int from, int to) {
+                return text.subSequence(from, to).toString();
+            }
+        }, start, end);
+    }
+
+    /**
+     * Converts UTF-8 bytes of a line from save file to a Task object, without decoding the whole line.
+     *
+     * @param buffer bytes holding the line, which are read by absolute index.
+     * @param start index of first byte of the line.
+     * @param end index after last byte of the line, excluding the line separator.
+     * @return saved Task object.
+     * @throws IllegalArgumentException when save format is invalid.
+     */
+    public static Task decode(ByteBuffer buffer, int start, int end) throws IllegalArgumentException {
+        return decode(new Text() {
+            @Override
+            public char charAt(int index) {
+                return (char) (buffer.get(index) & 0xFF);
+            }
+
+            @Override
+            public String substring(int from, int to) {
+                if (buffer.hasArray()) {
+                    return new String(buffer.array(), buffer.arrayOffset() + from, to - from, StandardCharsets.UTF_8);
+                }
+
+                byte[] bytes = new byte[to - from];
+                buffer.get(from, bytes);
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        }, start, end);
+    }
+
+    /**
+     * Decodes a line, where field i starts after the separator at index separator{i}.
+     * A field only counts if it or a later field is not empty, matching how trailing empty fields
+     * are dropped when splitting.
+     */
+    private static Task decode(Text text, int start, int end) throws IllegalArgumentException {
+        int separator1 = findSeparator(text, start, end);
+        int separator2 = findNextSeparator(text, separator1, end);
+        int separator3 = findNextSeparator(text, separator2, end);
+        if (!hasField(text, separator2, end)) {
+            throw new IllegalArgumentException("Invalid save format: " + text.substring(start, end));
+        }
+
+        boolean isCompleted = isTrimmedEqual(text, start, separator1, completedStatus);
+        int typeStart = separator1 + separator.length();
+        int typeEnd = separator2;
+        int nameStart = separator2 + separator.length();
+        int nameEnd = separator3 < 0 ? end : separator3;
+
+        if (isTrimmedEqual(text, typeStart, typeEnd, "T")) {
+            return new ToDo(trimmedSubstring(text, nameStart, nameEnd), isCompleted);
+        } else if (isTrimmedEqual(text, typeStart, typeEnd, "D")) {
+            if (!hasField(text, separator3, end)) {
+                throw new IllegalArgumentException("Invalid save format: " + text.substring(start, end));
+            }
+
+            int separator4 = findNextSeparator(text, separator3, end);
+            String by = removeFirst(text, separator3 + separator.length(), separator4 < 0 ? end : separator4,
+                    byPrefix);
+            return new Deadline(trimmedSubstring(text, nameStart, nameEnd), by, isCompleted);
+        } else if (isTrimmedEqual(text, typeStart, typeEnd, "E")) {
+            int separator4 = findNextSeparator(text, separator3, end);
+            int separator5 = findNextSeparator(text, separator4, end);
+            if (!hasField(text, separator4, end)) {
+                throw new IllegalArgumentException("Invalid save format: " + text.substring(start, end));
+            }
+
+            String from = removeFirst(text, separator3 + separator.length(), separator4, fromPrefix);
+            String to = removeFirst(text, separator4 + separator.length(), separator5 < 0 ? end : separator5,
+                    toPrefix);
+            return new Event(trimmedSubstring(text, nameStart, nameEnd), from, to, isCompleted);
+        } else {
+            throw new IllegalArgumentException("Invalid task type: " + trimmedSubstring(text, typeStart, typeEnd));
+        }
+    }
+
+    /**
+     * Returns index of the first separator at or after the given index.
+     *
+     * @param text line being decoded.
+     * @param from index to start searching from.
+     * @param end index after last character of the line.
+     * @return index of separator, or -1 if there are no more separators.
+     */
+    private static int findSeparator(Text text, int from, int end) {
+        for (int i = from; i + separator.length() <= end; i++) {
+            if (isAt(text, i, separator)) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns index of the separator ending the field after a previous separator.
+     *
+     * @param text line being decoded.
+     * @param previous index of previous separator, or -1 if there was none.
+     * @param end index after last character of the line.
+     * @return index of separator, or -1 if there are no more separators.
+     */
+    private static int findNextSeparator(Text text, int previous, int end) {
+        return previous < 0 ? -1 : findSeparator(text, previous + separator.length(), end);
+    }
+
+    /**
+     * Returns whether the field after a separator exists, which is when any characters after it
+     * are not just further separators.
+     */
+    private static boolean hasField(Text text, int separatorIndex, int end) {
+        if (separatorIndex < 0) {
+            return false;
+        }
+
+        for (int i = separatorIndex + separator.length(); i < end; i += separator.length()) {
+            if (i + separator.length() > end || !isAt(text, i, separator)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isAt(Text text, int index, String expected) {
+        for (int i = 0; i < expected.length(); i++) {
+            if (text.charAt(index + i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isTrimmedEqual(Text text, int from, int to, String expected) {
+        int start = trimStart(text, from, to);
+        int end = trimEnd(text, start, to);
+        return end - start == expected.length() && isAt(text, start, expected);
+    }
+
+    private static String trimmedSubstring(Text text, int from, int to) {
+        int start = trimStart(text, from, to);
+        return text.substring(start, trimEnd(text, start, to));
+    }
+
+    /**
+     * Returns the trimmed field with the first occurrence of a prefix removed.
+     */
+    private static String removeFirst(Text text, int from, int to, String prefix) {
+        int start = trimStart(text, from, to);
+        int end = trimEnd(text, start, to);
+
+        for (int i = start; i + prefix.length() <= end; i++) {
+            if (isAt(text, i, prefix)) {
+                return i == start
+                        ? text.substring(i + prefix.length(), end)
+                        : text.substring(start, i) + text.substring(i + prefix.length(), end);
+            }
+        }
+
+        return text.substring(start, end);
+    }
+
+    private static int trimStart(Text text, int from, int to) {
+        int start = from;
+        while (start < to && text.charAt(start) <= ' ') {
+            start++;
+        }
+
+        return start;
+    }
+
+    private static int trimEnd(Text text, int from, int to) {
+        int end = to;
+        while (end > from && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        return end;
+    }
+}
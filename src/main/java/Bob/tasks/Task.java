@@ -1,14 +1,20 @@
 package bob.tasks;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import bob.exceptions.InvalidTaskOperationException;
 
 /**
  * Represents a task with a name and completion status.
  */
 public abstract class Task {
+    private static final AtomicInteger lastId = new AtomicInteger();
+
+    private final int id = lastId.incrementAndGet();
     private String taskName;
     private String taskType;
     private boolean isCompleted;
+    private TaskIdentity identity;
 
     /**
      * Constructor for newly added tasks.
@@ -69,28 +75,7 @@ public abstract class Task {
      * @throws IllegalArgumentException when save format is invalid.
      */
     public static Task getFromSaveFormat(String line) throws IllegalArgumentException {
-        String[] parts = line.split(" \\| ");
-        if (parts.length < 3) {
-            throw new IllegalArgumentException("Invalid save format: " + line);
-        }
-
-        boolean isCompleted = parts[0].trim().equals("[X]");
-        String taskType = parts[1].trim();
-        String taskName = parts[2].trim();
-
-        switch (taskType) {
-        case "T":
-            return new ToDo(taskName, isCompleted);
-        case "D":
-            String by = parts[3].trim().replaceFirst("by: ", "");
-            return new Deadline(taskName, by, isCompleted);
-        case "E":
-            String start = parts[3].trim().replaceFirst("from: ", "");
-            String end = parts[4].trim().replaceFirst("to: ", "");
-            return new Event(taskName, start, end, isCompleted);
-        default:
-            throw new IllegalArgumentException("Invalid task type: " + taskType);
-        }
+        return SaveFormatDecoder.decode(line);
     }
 
     /**
@@ -103,6 +88,66 @@ public abstract class Task {
         return this.taskType.equals(taskType);
     }
 
+    /**
+     * Returns the id of this task, which is unique within this run of Bob and never changes, unlike its
+     * position in the list.
+     *
+     * @return id of task.
+     */
+    public int getId() {
+        return this.id;
+    }
+
+    /**
+     * Returns name of task.
+     *
+     * @return name of task.
+     */
+    public String getTaskName() {
+        return this.taskName;
+    }
+
+    /**
+     * Returns short format of task type.
+     *
+     * @return type of task.
+     */
+    public String getTaskType() {
+        return this.taskType;
+    }
+
+    /**
+     * Returns completion status of task.
+     *
+     * @return if task has been completed.
+     */
+    public boolean isCompleted() {
+        return this.isCompleted;
+    }
+
+    /**
+     * Returns the key identifying this task in the save file.
+     * The key is the save format without the completion status, which is unique within a task list.
+     *
+     * @return key of task.
+     */
+    public String getKey() {
+        return this.toString().substring(6);
+    }
+
+    /**
+     * Returns the canonical identity of this task, which duplicates of it share.
+     *
+     * @return identity of task.
+     */
+    public TaskIdentity getIdentity() {
+        if (this.identity == null) {
+            this.identity = new TaskIdentity(this.taskType, this.taskName, getDates());
+        }
+
+        return this.identity;
+    }
+
     /**
      * Returns if inputted string is in task name.
      *
@@ -113,8 +158,26 @@ public abstract class Task {
         return this.taskName.contains(str);
     }
 
+    /**
+     * Returns the dates of this task, in the order its save format keeps them.
+     *
+     * @return dates of task.
+     */
+    protected String[] getDates() {
+        return new String[0];
+    }
+
+    /**
+     * Returns completion status, type and name in save format, which every task's save format starts with.
+     *
+     * @return start of save format.
+     */
+    protected String getSaveFormatPrefix() {
+        return "[" + ((isCompleted) ? "X" : " ") + "] | " + this.taskType + " | " + this.taskName;
+    }
+
     @Override
     public String toString() {
-        return "[" + ((isCompleted) ? "X" : " ") + "] | " + this.taskType + " | " + this.taskName;
+        return getSaveFormatPrefix();
     }
 }
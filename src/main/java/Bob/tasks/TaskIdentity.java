@@ -0,0 +1,67 @@
+package bob.tasks;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import bob.managers.DateManager;
+
+/**
+ * Canonical identity of a task, made of its type, name and dates but not its completion status.
+ * Two tasks with the same identity are duplicates, even if their dates were entered in different formats.
+ *
+ * Dates in either standardised format are compared by the date and time they stand for, and any other
+ * date, such as a day of the week, is compared as written.
+ */
+public final class TaskIdentity {
+    private final String taskType;
+    private final String taskName;
+    private final String[] dates;
+    private final int hash;
+
+    /**
+     * Primary constructor of TaskIdentity.
+     *
+     * @param taskType type of task.
+     * @param taskName name of task.
+     * @param dates dates of task, in the order the task type keeps them.
+     */
+    public TaskIdentity(String taskType, String taskName, String... dates) {
+        this.taskType = taskType;
+        this.taskName = taskName;
+        this.dates = new String[dates.length];
+        for (int i = 0; i < dates.length; i++) {
+            this.dates[i] = normaliseDate(dates[i]);
+        }
+        this.hash = 31 * (31 * taskType.hashCode() + taskName.hashCode()) + Arrays.hashCode(this.dates);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof TaskIdentity)) {
+            return false;
+        }
+
+        TaskIdentity other = (TaskIdentity) obj;
+        return this.hash == other.hash && this.taskType.equals(other.taskType)
+                && this.taskName.equals(other.taskName) && Arrays.equals(this.dates, other.dates);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+
+    @Override
+    public String toString() {
+        return this.taskType + " | " + this.taskName
+                + (this.dates.length == 0 ? "" : " | " + String.join(" | ", this.dates));
+    }
+
+    private static String normaliseDate(String date) {
+        LocalDateTime dateTime = DateManager.parseDeadline(date);
+        return dateTime == null ? date : dateTime.toString();
+    }
+}
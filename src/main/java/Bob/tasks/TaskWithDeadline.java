@@ -35,6 +35,15 @@ public abstract class TaskWithDeadline extends Task {
         this.deadline = deadline;
     }
 
+    /**
+     * Returns date to be completed by, or the start date for Events.
+     *
+     * @return deadline of task.
+     */
+    public String getDeadline() {
+        return this.deadline;
+    }
+
     /**
      * Propogates isSameDay to DateManager.
      *
@@ -46,6 +55,11 @@ public abstract class TaskWithDeadline extends Task {
         return DateManager.isSameDay(this.deadline, date, withTime);
     }
 
+    @Override
+    protected String[] getDates() {
+        return new String[] {this.deadline};
+    }
+
     @Override
     public String toString() {
         return super.toString() + "," + this.deadline;
@@ -0,0 +1,87 @@
+package bob.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import bob.exceptions.InvalidCommandException;
+import bob.managers.TaskManager;
+import bob.managers.WorkspaceManager;
+import bob.storage.TaskArchive;
+
+public class BackupCommandTest {
+    private static final Path directory = Paths.get("test_data", "test_backup_workspaces");
+
+    private WorkspaceManager workspaceManager;
+
+    @BeforeEach
+    public void setUp() {
+        this.workspaceManager = new WorkspaceManager(directory.toString(), 16, Long.MAX_VALUE);
+    }
+
+    @AfterEach
+    public void cleanUp() throws IOException {
+        this.workspaceManager.getCurrent().close();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach((p) -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    public void exec_backupThenRestore_listRestored() throws InvalidCommandException {
+        TaskManager taskManager = this.workspaceManager.getCurrent();
+        new CreateCommand(new String[]{"todo", "read"}, "T", "").exec(taskManager);
+
+        String backupOutput = exec("backup");
+        String id = backupOutput.substring("Okay, I've backed up bob as ".length(), backupOutput.indexOf(".\n"));
+        new CreateCommand(new String[]{"todo", "write"}, "T", "").exec(taskManager);
+        new MarkCommand(new String[]{"mark", "1"}, true).exec(taskManager);
+
+        String restoreOutput = exec("backup", "restore", id);
+        assertTrue(restoreOutput.startsWith("Alright, I've restored bob to the backup " + id + ".\n"));
+        assertEquals(1, taskManager.getSize());
+        assertEquals("[ ] | T | read", taskManager.getTask(0).toString());
+        assertTrue(exec("backup", "list").startsWith("Here are the backups of bob:\n1. " + id + "\n2. "));
+    }
+
+    @Test
+    public void exec_restoreTaskCompletedLongAgo_taskArchivedAgain() throws InvalidCommandException {
+        TaskManager taskManager = this.workspaceManager.getCurrent();
+        new CreateCommand(new String[]{"todo", "read"}, "T", "").exec(taskManager);
+        new CreateCommand(new String[]{"todo", "write"}, "T", "").exec(taskManager);
+        new MarkCommand(new String[]{"mark", "1"}, true).exec(taskManager);
+        new TaskArchive(directory.resolve("bob.txt").toString())
+                .recordCompletion(taskManager.getTask(0), LocalDate.now().minusDays(30));
+
+        String backupOutput = exec("backup");
+        String id = backupOutput.substring("Okay, I've backed up bob as ".length(), backupOutput.indexOf(".\n"));
+        exec("backup", "restore", id);
+
+        assertEquals(1, taskManager.getSize());
+        assertEquals("[ ] | T | write", taskManager.getTask(0).toString());
+        assertEquals("[X] | T | read", taskManager.getArchivedTasks().get(0).toString());
+    }
+
+    @Test
+    public void exec_invalidOperation_exceptionThrown() throws InvalidCommandException {
+        assertEquals("There are no backups of bob yet.\n", exec("backup", "list"));
+        assertThrows(InvalidCommandException.class, () -> exec("backup", "restore"));
+        assertThrows(InvalidCommandException.class, () -> exec("backup", "restore", "missing"));
+        assertThrows(InvalidCommandException.class, () -> exec("backup", "remove"));
+    }
+
+    private String exec(String... inputs) throws InvalidCommandException {
+        return new BackupCommand(inputs, this.workspaceManager).exec(this.workspaceManager.getCurrent());
+    }
+}
@@ -14,6 +14,7 @@ import org.junit.jupiter.api.Test;
 import bob.exceptions.InvalidCommandException;
 import bob.exceptions.InvalidTaskOperationException;
 import bob.managers.TaskManager;
+import bob.tasks.Task;
 
 public class DeleteCommandTest {
     private TaskManager taskManager;
@@ -50,6 +51,72 @@ public class DeleteCommandTest {
         }
     }
 
+    @Test
+    public void exec_taskIndexList_tasksRemovedTogether() {
+        try {
+            for (int i = 1; i <= 6; i++) {
+                taskManager.addTask("T", new String[] {"read " + i});
+            }
+            DeleteCommand cmd = new DeleteCommand(new String[] {"delete", "5,1-2"});
+            String actualOutput = cmd.exec(taskManager);
+
+            String expectedOutput = "Alright. I've removed these tasks:\n"
+                + "[ ] | T | read 1\n"
+                + "[ ] | T | read 2\n"
+                + "[ ] | T | read 5\n"
+                + "Now you have 3 tasks in the list.\n";
+
+            assertEquals(actualOutput, expectedOutput);
+            assertEquals(3, new TaskManager(Paths.get("test_data", "test_tasks.txt").toString()).getSize());
+        } catch (InvalidTaskOperationException e) {
+            fail("Exception should not have been thrown: " + e.getMessage());
+        } catch (InvalidCommandException e) {
+            fail("Exception should not have been thrown: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void exec_taskIndexListOutOfBounds_noTaskRemoved() throws InvalidTaskOperationException {
+        taskManager.addTask("T", new String[] {"read"});
+        taskManager.addTask("T", new String[] {"write"});
+        DeleteCommand cmd = new DeleteCommand(new String[] {"delete", "1,3"});
+
+        assertThrows(
+            InvalidCommandException.class,
+            () -> cmd.exec(taskManager),
+            "Exception should have been thrown."
+        );
+        assertEquals(2, taskManager.getSize());
+    }
+
+    @Test
+    public void exec_taskId_taskWithIdRemoved() {
+        try {
+            taskManager.addTask("T", new String[] {"read"});
+            Task task = taskManager.addTask("T", new String[] {"write"});
+            taskManager.addTask("T", new String[] {"cook"});
+            taskManager.deleteTask(0);
+            DeleteCommand cmd = new DeleteCommand(new String[] {"delete", "#" + task.getId()});
+            String actualOutput = cmd.exec(taskManager);
+
+            String expectedOutput = "Alright. I've removed this task:\n"
+                + "[ ] | T | write\n"
+                + "Now you have 1 task in the list.\n";
+
+            assertEquals(actualOutput, expectedOutput);
+            assertEquals("cook", taskManager.getTask(0).getTaskName());
+            assertThrows(
+                InvalidCommandException.class,
+                () -> cmd.exec(taskManager),
+                "Exception should have been thrown."
+            );
+        } catch (InvalidTaskOperationException e) {
+            fail("Exception should not have been thrown: " + e.getMessage());
+        } catch (InvalidCommandException e) {
+            fail("Exception should not have been thrown: " + e.getMessage());
+        }
+    }
+
     @Test
     public void exec_invalidTaskIndex_exceptionThrown() {
         DeleteCommand cmd = new DeleteCommand(new String[] {"delete", "a"});
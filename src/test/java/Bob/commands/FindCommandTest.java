@@ -70,6 +70,40 @@ public class FindCommandTest {
         }
     }
 
+    @Test
+    public void exec_booleanQuery_correctOutput() {
+        try {
+            taskManager.addTask("T", new String[] {"read essay"});
+            taskManager.addTask("T", new String[] {"read draft"});
+            taskManager.addTask("T", new String[] {"write essay"});
+            taskManager.addTask("T", new String[] {"cook"});
+
+            FindCommand cmd = new FindCommand(new String[] {"find", "read", "AND", "NOT", "draft", "OR", "cook"});
+            String actualOutput = cmd.exec(taskManager);
+
+            String expectedOutput = "Here are the matching tasks in your list:\n"
+                    + "1. [ ] | T | read essay\n"
+                    + "2. [ ] | T | cook\n";
+
+            assertEquals(actualOutput, expectedOutput);
+        } catch (InvalidTaskOperationException e) {
+            fail("Exception should not have been thrown: " + e.getMessage());
+        } catch (InvalidCommandException e) {
+            fail("Exception should not have been thrown: " + e.getMessage());
+        }
+    }
+
+    @Test
+    public void exec_keywordWithoutString_exceptionThrown() {
+        FindCommand cmd = new FindCommand(new String[] {"find", "read", "OR"});
+
+        assertThrows(
+            InvalidCommandException.class,
+            () -> cmd.exec(taskManager),
+            "Exception should have been thrown"
+        );
+    }
+
     @Test
     public void exec_noStringGiven_exceptionThrown() {
         FindCommand cmd = new FindCommand(new String[] {"find"});
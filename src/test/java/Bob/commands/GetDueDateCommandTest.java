@@ -127,4 +127,29 @@ public class GetDueDateCommandTest {
             fail("Exception should not have been thrown: " + e.getMessage());
         }
     }
+
+    @Test
+    public void exec_dateRange_tasksDueInRangeListed() throws InvalidTaskOperationException, InvalidCommandException {
+        taskManager.addTask("D", new String[] {"late deadline", "05/01/2025 09:00"});
+        taskManager.addTask("D", new String[] {"deadline", "01/01/2025 10:30"});
+        taskManager.addTask("E", new String[] {"event", "03/01/2025 10:30", "04/01/2025 11:30"});
+        taskManager.addTask("D", new String[] {"early deadline", "31/12/2024 23:59"});
+        taskManager.addTask("D", new String[] {"weekly deadline", "Monday"});
+
+        String actualOutput = new GetDueDateCommand(
+                new String[] {"getDueDate", "01/01/2025", "..", "05/01/2025", "09:00"}).exec(taskManager);
+        String expectedOutput = "Here's the tasks due between those dates:\n"
+                + "[ ] | D | deadline | by: 01/01/2025 10:30\n"
+                + "[ ] | D | late deadline | by: 05/01/2025 09:00\n"
+                + "[ ] | E | event | from: 03/01/2025 10:30 | to: 04/01/2025 11:30\n";
+        assertEquals(expectedOutput, actualOutput);
+
+        taskManager.deleteTask(1);
+        assertEquals("You...don't have any tasks due between those dates!", new GetDueDateCommand(
+                new String[] {"getDueDate", "01/01/2025", "..", "02/01/2025"}).exec(taskManager));
+        assertThrows(InvalidCommandException.class, () -> new GetDueDateCommand(
+                new String[] {"getDueDate", "02/01/2025", "..", "01/01/2025"}).exec(taskManager));
+        assertThrows(InvalidCommandException.class, () -> new GetDueDateCommand(
+                new String[] {"getDueDate", "02/01/2025", ".."}).exec(taskManager));
+    }
 }
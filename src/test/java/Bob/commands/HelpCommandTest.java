@@ -57,41 +57,81 @@ public class HelpCommandTest {
                     + "Creates an event task. An event task has a task name, a start date and an end date.\n"
                     + "\n"
                     + "Delete\n"
-                    + "___________________\n"
-                    + "delete <task index>\n"
-                    + "___________________\n"
-                    + "Deletes a task by its index.\n"
+                    + "________________________________________\n"
+                    + "delete <task index, #id, indexes or all>\n"
+                    + "________________________________________\n"
+                    + "Deletes a task by its index. Several tasks can be deleted at once with a list of indexes"
+                    + " and ranges, such as delete 3,7,9-12, or with all. A task can also be deleted by its id,"
+                    + " such as delete #12.\n"
                     + "\n"
                     + "Find\n"
-                    + "___________\n"
-                    + "find <name>\n"
-                    + "___________\n"
-                    + "Lists down all tasks containing <name>.\n"
+                    + "______________________________\n"
+                    + "find <nothing or --all> <name>\n"
+                    + "______________________________\n"
+                    + "Lists down all tasks containing <name>. Names can be combined with AND, OR and NOT, such as"
+                    + " find essay AND NOT draft. With --all, tasks archived after being completed"
+                    + " for 14 days are included.\n"
                     + "\n"
                     + "Get due date\n"
-                    + "_____________________\n"
-                    + "getDueDate <due date>\n"
-                    + "_____________________\n"
+                    + "__________________________________________________\n"
+                    + "getDueDate <due date> or getDueDate <from> .. <to>\n"
+                    + "__________________________________________________\n"
                     + "Lists down all tasks with the specified due date (if inputted due date does not have"
-                    + " time, time will not be accounted for when getting matching tasks).\n"
+                    + " time, time will not be accounted for when getting matching tasks)."
+                    + " With <from> .. <to>, lists down all tasks due between the two dates, including both.\n"
                     + "\n"
                     + "List\n"
-                    + "____\n"
-                    + "list\n"
-                    + "____\n"
-                    + "Lists all existing tasks.\n"
+                    + "___________________________________\n"
+                    + "list <nothing, --archived or --ids>\n"
+                    + "___________________________________\n"
+                    + "Lists all existing tasks, or with --archived, all tasks archived after being completed"
+                    + " for 14 days. With --ids, the id of each task is shown. Ids stay the same as other tasks are"
+                    + " deleted or the list is reloaded, but not after its workspace is closed or Bob restarts.\n"
                     + "\n"
                     + "Mark\n"
-                    + "_________________\n"
-                    + "mark <task index>\n"
-                    + "_________________\n"
-                    + "Marks a task at the given index as completed.\n"
+                    + "______________________________________\n"
+                    + "mark <task index, #id, indexes or all>\n"
+                    + "______________________________________\n"
+                    + "Marks a task at the given index as completed. Several tasks can be marked at once with a list"
+                    + " of indexes and ranges, such as mark 1-50, or with all. A task can also be marked by its id,"
+                    + " such as mark #12.\n"
                     + "\n"
                     + "Unmark\n"
-                    + "___________________\n"
-                    + "unmark <task index>\n"
-                    + "___________________\n"
-                    + "Marks a task at the given index as incomplete.\n"
+                    + "________________________________________\n"
+                    + "unmark <task index, #id, indexes or all>\n"
+                    + "________________________________________\n"
+                    + "Marks a task at the given index as incomplete. Several tasks can be unmarked at once with a"
+                    + " list of indexes and ranges, such as unmark 3,7, or with all. A task can also be unmarked by its"
+                    + " id, such as unmark #12.\n"
+                    + "\n"
+                    + "Workspace\n"
+                    + "_______________________________________________\n"
+                    + "workspace <list, switch <name> or close <name>>\n"
+                    + "_______________________________________________\n"
+                    + "Lists all workspaces, switches to a workspace (creating it if needed), or saves and closes"
+                    + " an idle workspace. Each workspace has its own list of tasks.\n"
+                    + "\n"
+                    + "Sync\n"
+                    + "________________\n"
+                    + "sync <directory>\n"
+                    + "________________\n"
+                    + "Swaps changes with copies of this list on other computers that sync through the same"
+                    + " directory, such as a shared folder. Only changes since the last sync are swapped.\n"
+                    + "\n"
+                    + "Backup\n"
+                    + "_____________________________________________\n"
+                    + "backup <nothing, list or restore <backup id>>\n"
+                    + "_____________________________________________\n"
+                    + "Backs up the list, lists its backups, or restores it to a backup. Only the parts of the list"
+                    + " that changed since earlier backups are stored. Changed lists are also backed up"
+                    + " every 30 minutes.\n"
+                    + "\n"
+                    + "Stats\n"
+                    + "_____________\n"
+                    + "stats storage\n"
+                    + "_____________\n"
+                    + "Shows how much saving and loading your lists has cost so far: bytes read and written, how often"
+                    + " each kind of save ran, and how long they took.\n"
                     + "\n";
 
             assertEquals(actualOutput, expectedOutput);
@@ -29,6 +29,8 @@ public class MarkCommandTest {
         if (file.exists()) {
             file.delete();
         }
+
+        new File(Paths.get("test_data", "test_tasks.txt.completed").toString()).delete();
     }
 
     @Test
@@ -74,6 +76,35 @@ public class MarkCommandTest {
         }
     }
 
+    @Test
+    public void exec_markAndUnmarkAll_onlyChangedTasksListed() {
+        try {
+            taskManager.addTask("T", new String[] {"read books"});
+            taskManager.addTask("T", new String[] {"write essay"});
+            taskManager.addTask("T", new String[] {"cook"});
+            taskManager.markTask(1, true);
+
+            MarkCommand markCommand = new MarkCommand(new String[] {"mark", "1-3"}, true);
+            String expectedOutput = "Nice! I've marked these tasks as done:\n"
+                    + "[X] | T | read books\n"
+                    + "[X] | T | cook\n";
+            assertEquals(markCommand.exec(taskManager), expectedOutput);
+
+            MarkCommand unmarkCommand = new MarkCommand(new String[] {"unmark", "all"}, false);
+            String actualOutput = unmarkCommand.exec(taskManager);
+
+            expectedOutput = "Oh, I guess these aren't done yet:\n"
+                    + "[ ] | T | read books\n"
+                    + "[ ] | T | write essay\n"
+                    + "[ ] | T | cook\n";
+            assertEquals(actualOutput, expectedOutput);
+        } catch (InvalidTaskOperationException e) {
+            fail("Exception should not have been thrown: " + e.getMessage());
+        } catch (InvalidCommandException e) {
+            fail("Exception should not have been thrown: " + e.getMessage());
+        }
+    }
+
     @Test
     public void exec_markCompletedTask_exceptionThrown() {
         try {
@@ -0,0 +1,71 @@
+package bob.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.File;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import bob.exceptions.InvalidCommandException;
+import bob.managers.WorkspaceManager;
+
+public class WorkspaceCommandTest {
+    private static final String directoryPath = Paths.get("test_data", "test_workspaces").toString();
+
+    private WorkspaceManager workspaceManager;
+
+    @BeforeEach
+    public void setUp() {
+        this.workspaceManager = new WorkspaceManager(directoryPath, 16, Long.MAX_VALUE);
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        this.workspaceManager.flush();
+        File[] files = new File(directoryPath).listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        new File(directoryPath).delete();
+    }
+
+    @Test
+    public void exec_switchThenList_correctOutput() throws InvalidCommandException {
+        new CreateCommand(new String[]{"todo", "read"}, "T", "")
+                .exec(this.workspaceManager.getCurrent());
+
+        String switchOutput = exec("workspace", "switch", "work");
+        String listOutput = exec("workspace", "list");
+
+        assertEquals("Okay, you're now in the workspace work.\n"
+                + "There's...no tasks right now.\n", switchOutput);
+        assertEquals("Here are your workspaces:\n"
+                + "  bob (open)\n"
+                + "* work (open)\n", listOutput);
+    }
+
+    @Test
+    public void exec_closeIdleWorkspace_closed() throws InvalidCommandException {
+        exec("workspace", "switch", "work");
+
+        assertEquals("Alright. I've saved and closed the workspace bob.\n", exec("workspace", "close", "bob"));
+        assertEquals("The workspace bob isn't open.\n", exec("workspace", "close", "bob"));
+    }
+
+    @Test
+    public void exec_missingOperation_exceptionThrown() {
+        assertThrows(InvalidCommandException.class, () -> exec("workspace"));
+        assertThrows(InvalidCommandException.class, () -> exec("workspace", "rename", "work"));
+        assertThrows(InvalidCommandException.class, () -> exec("workspace", "switch"));
+    }
+
+    private String exec(String... inputs) throws InvalidCommandException {
+        return new WorkspaceCommand(inputs, this.workspaceManager).exec(this.workspaceManager.getCurrent());
+    }
+}
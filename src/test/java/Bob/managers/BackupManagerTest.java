@@ -0,0 +1,61 @@
+package bob.managers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import bob.exceptions.InvalidTaskOperationException;
+import bob.storage.Storage;
+import bob.storage.WriteBehindStorage;
+import bob.tasks.Task;
+
+public class BackupManagerTest {
+    private static final Path directory = Paths.get("test_data", "test_backup_manager");
+
+    @AfterEach
+    public void cleanUp() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted((a, b) -> b.compareTo(a)).forEach((p) -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    public void backupChanged_changesNotWrittenYet_changesBackedUpOnce() throws InvalidTaskOperationException,
+            IOException {
+        BackupManager backupManager = new BackupManager(directory.toString(), ".txt");
+        Storage slowStorage = new Storage(directory.resolve("bob.txt").toString()) {
+            @Override
+            public void saveTask(Task newTask) {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.saveTask(newTask);
+            }
+        };
+        TaskManager taskManager = new TaskManager(new WriteBehindStorage(slowStorage, 16));
+        backupManager.addLoadedList("bob", taskManager);
+        taskManager.addTask("T", new String[]{"read"});
+
+        assertEquals(1, backupManager.backupChanged());
+        assertEquals(0, backupManager.backupChanged());
+
+        List<String> ids = backupManager.listBackups("bob");
+        taskManager.addTask("T", new String[]{"write"});
+        backupManager.restore("bob", ids.get(0), taskManager);
+        taskManager.close();
+
+        assertEquals(1, ids.size());
+        assertEquals(1, taskManager.getSize());
+        assertEquals("[ ] | T | read", taskManager.getTask(0).toString());
+    }
+}
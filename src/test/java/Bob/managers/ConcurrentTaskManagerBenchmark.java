@@ -0,0 +1,72 @@
+package bob.managers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import bob.exceptions.InvalidTaskOperationException;
+import bob.storage.NoOpStorage;
+
+/**
+ * Measures the throughput of a ConcurrentTaskManager shared by several threads, with every change discarded
+ * instead of saved. Each thread reads a task or finds tasks most of the time, and adds a task otherwise.
+ * Run with the number of tasks and threads as arguments, e.g. {@code ConcurrentTaskManagerBenchmark 10000 4}.
+ */
+public class ConcurrentTaskManagerBenchmark {
+    private static final int[] readPercentages = {50, 90, 99};
+    private static final long durationMillis = 2000;
+
+    public static void main(String[] args) throws InvalidTaskOperationException, InterruptedException {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int threadCount = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+
+        for (int readPercentage : readPercentages) {
+            ConcurrentTaskManager taskManager = new ConcurrentTaskManager(new NoOpStorage());
+            for (int i = 0; i < taskCount; i++) {
+                taskManager.addTask("T", new String[] {"read chapter " + i});
+            }
+
+            AtomicLong readCount = new AtomicLong();
+            AtomicLong writeCount = new AtomicLong();
+            long end = System.nanoTime() + durationMillis * 1_000_000;
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < threadCount; t++) {
+                int id = t;
+                threads.add(new Thread(() -> {
+                    Random random = new Random(id);
+                    int added = 0;
+                    while (System.nanoTime() < end) {
+                        int roll = random.nextInt(100);
+                        if (roll >= readPercentage) {
+                            try {
+                                taskManager.addTask("T", new String[] {"thread " + id + " task " + added++});
+                            } catch (InvalidTaskOperationException e) {
+                                throw new RuntimeException(e);
+                            }
+                            writeCount.incrementAndGet();
+                        } else if (roll % 2 == 0) {
+                            taskManager.getTask(random.nextInt(taskCount));
+                            readCount.incrementAndGet();
+                        } else {
+                            taskManager.getMatchingTasks("chapter " + random.nextInt(taskCount));
+                            readCount.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            report(readPercentage, threadCount, readCount.get(), writeCount.get());
+        }
+    }
+
+    private static void report(int readPercentage, int threadCount, long reads, long writes) {
+        double seconds = durationMillis / 1e3;
+        System.out.printf("%3d%% reads, %d threads: %10.0f reads/s %10.0f writes/s %10.0f ops/s%n",
+                readPercentage, threadCount, reads / seconds, writes / seconds, (reads + writes) / seconds);
+    }
+}
@@ -0,0 +1,130 @@
+package bob.managers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import bob.exceptions.InvalidTaskOperationException;
+import bob.storage.InMemoryStorage;
+
+public class ConcurrentTaskManagerTest {
+    private static void startAll(List<Thread> threads, Queue<Throwable> failures) {
+        threads.forEach((t) -> t.setUncaughtExceptionHandler((thread, e) -> failures.add(e)));
+        threads.forEach(Thread::start);
+    }
+
+    private static void joinAll(List<Thread> threads) throws InterruptedException {
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    @Test
+    public void addTask_concurrentWritersAndReaders_noTaskLost() throws InterruptedException {
+        InMemoryStorage storage = new InMemoryStorage();
+        ConcurrentTaskManager taskManager = new ConcurrentTaskManager(storage);
+        int writerCount = 4;
+        int tasksPerWriter = 250;
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+
+        List<Thread> writers = new ArrayList<>();
+        for (int w = 0; w < writerCount; w++) {
+            int id = w;
+            writers.add(new Thread(() -> {
+                for (int i = 0; i < tasksPerWriter; i++) {
+                    try {
+                        taskManager.addTask("D", new String[] {"writer " + id + " task " + i,
+                                String.format("%02d/10/2025 12:00", i % 28 + 1)});
+                    } catch (InvalidTaskOperationException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            }));
+        }
+
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            readers.add(new Thread(() -> {
+                while (isWriting.get()) {
+                    int size = taskManager.getSize();
+                    if (size > 0) {
+                        assertTrue(taskManager.getTask(size - 1).getTaskName().startsWith("writer "));
+                    }
+                    taskManager.getMatchingTasks(TaskQuery.parse(Arrays.asList("task 1", "OR", "writer 2")));
+                    taskManager.displayDeadlinesBetween(LocalDateTime.of(2025, 10, 1, 0, 0),
+                            LocalDateTime.of(2025, 10, 1, 23, 59));
+                }
+            }));
+        }
+
+        startAll(readers, failures);
+        startAll(writers, failures);
+        joinAll(writers);
+        isWriting.set(false);
+        joinAll(readers);
+
+        assertTrue(failures.isEmpty(), "Threads should not have failed: " + failures);
+        assertEquals(writerCount * tasksPerWriter, taskManager.getSize());
+        assertEquals(writerCount * tasksPerWriter, storage.getSize());
+        assertEquals(tasksPerWriter, taskManager.getMatchingTasks("writer 3 ").size());
+        assertEquals(writerCount, taskManager.getMatchingTasks("task 249").size());
+    }
+
+    @Test
+    public void getTask_whileTasksChanged_consistentTasksRead()
+            throws InterruptedException, InvalidTaskOperationException {
+        ConcurrentTaskManager taskManager = new ConcurrentTaskManager(new InMemoryStorage());
+        int stableCount = 200;
+        int[] stableIds = new int[stableCount];
+        for (int i = 0; i < stableCount; i++) {
+            stableIds[i] = taskManager.addTask("T", new String[] {"stable " + i}).getId();
+        }
+
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        Thread writer = new Thread(() -> {
+            try {
+                for (int round = 0; round < 500; round++) {
+                    taskManager.addTask("T", new String[] {"changing " + round});
+                    taskManager.markTask(stableCount, true);
+                    taskManager.deleteTask(taskManager.getSize() - 1);
+                }
+            } catch (InvalidTaskOperationException e) {
+                throw new RuntimeException(e);
+            } finally {
+                isWriting.set(false);
+            }
+        });
+
+        List<Thread> threads = new ArrayList<>();
+        threads.add(writer);
+        for (int r = 0; r < 4; r++) {
+            threads.add(new Thread(() -> {
+                int i = 0;
+                while (isWriting.get()) {
+                    int index = i++ % stableCount;
+                    assertEquals("stable " + index, taskManager.getTask(index).getTaskName());
+                    assertEquals(index, taskManager.getIndexById(stableIds[index]));
+                    assertEquals(1, taskManager.getMatchingTasks("stable " + (stableCount - 1)).size());
+                }
+            }));
+        }
+
+        startAll(threads, failures);
+        joinAll(threads);
+
+        assertTrue(failures.isEmpty(), "Threads should not have failed: " + failures);
+        assertEquals(stableCount, taskManager.getSize());
+        assertEquals(0, taskManager.getMatchingTasks("changing").size());
+    }
+}
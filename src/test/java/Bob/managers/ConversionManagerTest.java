@@ -2,7 +2,11 @@ package bob.managers;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
 
 import org.junit.jupiter.api.Test;
 
@@ -32,6 +36,35 @@ public class ConversionManagerTest {
         );
     }
 
+    @Test
+    public void convertInputToIndexes_listsAndRanges_returnsCorrectOutput() throws InvalidCommandException {
+        assertEquals(Arrays.asList(2, 6, 8, 9, 10, 11),
+                ConversionManager.convertInputToIndexes("3,7,9-12", 20, "Invalid input!"));
+        assertEquals(Arrays.asList(0, 1, 2), ConversionManager.convertInputToIndexes("all", 3, "Invalid input!"));
+        assertTrue(ConversionManager.isIndexList("1-50"));
+        assertTrue(ConversionManager.isIndexList("all"));
+        assertFalse(ConversionManager.isIndexList("-1"));
+    }
+
+    @Test
+    public void convertInputToIndexes_invalidInput_exceptionThrown() {
+        assertThrows(
+            InvalidCommandException.class,
+            () -> ConversionManager.convertInputToIndexes("1,a", 20, "Invalid input!"),
+            "Exception should have been thrown."
+        );
+        assertThrows(
+            InvalidCommandException.class,
+            () -> ConversionManager.convertInputToIndexes("5-3", 20, "Invalid input!"),
+            "Exception should have been thrown."
+        );
+        assertThrows(
+            InvalidCommandException.class,
+            () -> ConversionManager.convertInputToIndexes("1-2000000000", 20, "Invalid input!"),
+            "Exception should have been thrown."
+        );
+    }
+
     @Test
     public void convertToNumerics_validInput_returnsCorrectOutput() throws InvalidDateFormatException {
         String[] validInput = new String[] {"24", "10", "2025"};
@@ -0,0 +1,85 @@
+package bob.managers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import bob.tasks.Task;
+import bob.tasks.ToDo;
+
+public class TaskListTest {
+    private static List<Task> createTasks(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tasks.add(new ToDo("task " + i));
+        }
+
+        return tasks;
+    }
+
+    @Test
+    public void remove_byPositionAndId_positionsShifted() {
+        List<Task> tasks = createTasks(5);
+        TaskList taskList = new TaskList(tasks);
+
+        assertEquals(tasks.get(1), taskList.remove(1));
+        assertEquals(tasks.get(3), taskList.removeById(tasks.get(3).getId()));
+
+        assertEquals(Arrays.asList(tasks.get(0), tasks.get(2), tasks.get(4)), taskList);
+        assertEquals(tasks.get(4), taskList.get(2));
+        assertEquals(1, taskList.indexOfId(tasks.get(2).getId()));
+        assertEquals(-1, taskList.indexOfId(tasks.get(1).getId()));
+        assertNull(taskList.getById(tasks.get(3).getId()));
+        assertNull(taskList.removeById(tasks.get(3).getId()));
+        assertThrows(IndexOutOfBoundsException.class, () -> taskList.get(3));
+    }
+
+    @Test
+    public void add_manyAddsAndRemoves_sameAsArrayList() {
+        TaskList taskList = new TaskList();
+        List<Task> expected = new ArrayList<>();
+
+        for (Task task : createTasks(1000)) {
+            taskList.add(task);
+            expected.add(task);
+            if (expected.size() % 3 == 0) {
+                taskList.remove(0);
+                expected.remove(0);
+            }
+            if (expected.size() % 7 == 0) {
+                int middle = expected.size() / 2;
+                taskList.removeById(expected.remove(middle).getId());
+            }
+        }
+
+        assertEquals(expected, taskList);
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), taskList.get(i));
+            assertEquals(i, taskList.indexOfId(expected.get(i).getId()));
+        }
+    }
+
+    @Test
+    public void iterator_remove_tasksRemoved() {
+        List<Task> tasks = createTasks(6);
+        TaskList taskList = new TaskList(tasks);
+
+        Iterator<Task> iterator = taskList.iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getTaskName().compareTo("task 3") < 0) {
+                iterator.remove();
+            }
+        }
+
+        assertEquals(tasks.subList(3, 6), taskList);
+        assertEquals(0, taskList.indexOf(tasks.get(3)));
+        assertThrows(UnsupportedOperationException.class, () -> taskList.add(0, new ToDo("first")));
+    }
+}
@@ -0,0 +1,66 @@
+package bob.managers;
+
+import java.util.Arrays;
+
+import bob.exceptions.InvalidTaskOperationException;
+import bob.storage.NoOpStorage;
+
+/**
+ * Measures TaskManager operations on their own, with every change discarded instead of saved.
+ * Run with the number of tasks as the only argument, e.g. {@code TaskManagerBenchmark 10000}.
+ */
+public class TaskManagerBenchmark {
+    public static void main(String[] args) throws InvalidTaskOperationException {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        TaskManager taskManager = new TaskManager(new NoOpStorage());
+
+        long start = System.nanoTime();
+        for (int i = 0; i < taskCount; i++) {
+            String date = String.format("%02d/%02d/2025 %02d:%02d", i % 28 + 1, i % 12 + 1, i % 24, i % 60);
+            if (i % 2 == 0) {
+                taskManager.addTask("T", new String[] {"read chapter " + i});
+            } else {
+                taskManager.addTask("D", new String[] {"submit assignment " + i, date});
+            }
+        }
+        report("add", taskCount, start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < taskCount; i++) {
+            taskManager.markTask(i, true);
+        }
+        report("mark", taskCount, start);
+
+        int queries = 100;
+        start = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            taskManager.getMatchingTasks("chapter " + i);
+        }
+        report("find", queries, start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            taskManager.getMatchingTasks(TaskQuery.of("assignment " + i));
+        }
+        report("find (query)", queries, start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            taskManager.getMatchingTasks(TaskQuery.parse(Arrays.asList(
+                    "chapter " + i, "OR", "assignment " + i, "AND", "NOT", "9")));
+        }
+        report("find (boolean)", queries, start);
+
+        start = System.nanoTime();
+        for (int i = 0; i < taskCount; i++) {
+            taskManager.deleteTask(taskManager.getSize() - 1);
+        }
+        report("delete from end", taskCount, start);
+    }
+
+    private static void report(String name, int operations, long start) {
+        double millis = (System.nanoTime() - start) / 1e6;
+        System.out.printf("%-16s %8d ops %10.1f ms %10.2f us/op%n", name + ":", operations, millis,
+                millis * 1000 / operations);
+    }
+}
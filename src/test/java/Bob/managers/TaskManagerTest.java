@@ -5,9 +5,13 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.jupiter.api.AfterEach;
@@ -15,6 +19,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import bob.exceptions.InvalidTaskOperationException;
+import bob.storage.InMemoryStorage;
+import bob.storage.TaskArchive;
 import bob.tasks.Task;
 import javafx.util.Pair;
 
@@ -34,6 +40,12 @@ public class TaskManagerTest {
         if (file.exists()) {
             file.delete();
         }
+
+        new File(Paths.get("test_data", "test_tasks.txt.journal").toString()).delete();
+        new File(Paths.get("test_data", "test_tasks.txt.lock").toString()).delete();
+        new File(Paths.get("test_data", "test_tasks.txt.sync").toString()).delete();
+        new File(Paths.get("test_data", "test_tasks.txt.completed").toString()).delete();
+        new File(Paths.get("test_data", "test_tasks.txt.archive").toString()).delete();
     }
 
     @Test
@@ -373,4 +385,200 @@ public class TaskManagerTest {
     public void getSavedListMessage_noSavedTasks_correctOutput() {
         assertEquals(this.taskManager.getSavedListMessage(), "There's...no tasks right now.");
     }
+
+    @Test
+    public void taskManager_inMemoryStorage_changesSavedToStorage() {
+        InMemoryStorage storage = new InMemoryStorage();
+        this.taskManager = new TaskManager(storage);
+
+        try {
+            this.taskManager.addTask("T", new String[]{"todo"});
+            this.taskManager.addTask("D", new String[]{"deadline", "31/10/2025"});
+            this.taskManager.markTask(0, true);
+            this.taskManager.deleteTask(1);
+        } catch (InvalidTaskOperationException e) {
+            fail("Exception should not have been thrown: " + e.getMessage());
+        }
+
+        TaskManager reloadedTaskManager = new TaskManager(storage);
+        assertEquals(reloadedTaskManager.getSize(), 1);
+        assertEquals(reloadedTaskManager.getTask(0).toString(), "[X] | T | todo");
+        assertEquals(new File(Paths.get("test_data", "test_tasks.txt").toString()).exists(), false);
+    }
+
+    @Test
+    public void taskManager_loadDeferred_sameResultsAsLoaded() {
+        InMemoryStorage storage = new InMemoryStorage();
+        TaskManager loadedTaskManager = new TaskManager(storage);
+
+        try {
+            loadedTaskManager.addTask("T", new String[]{"todo"});
+            loadedTaskManager.addTask("D", new String[]{"deadline", "20/02/2025 10:30"});
+            loadedTaskManager.addTask("D", new String[]{"later deadline", "20/03/2025 10:30"});
+        } catch (InvalidTaskOperationException e) {
+            fail("Exception should not have been thrown: " + e.getMessage());
+        }
+
+        LocalDateTime date = LocalDateTime.parse("20/02/2025 00:00", DateTimeFormatter.ofPattern(shortDateFormat));
+        TaskManager deferredTaskManager = new TaskManager(storage, true);
+        assertEquals(deferredTaskManager.getSize(), 3);
+        assertEquals(deferredTaskManager.displaySameDeadlines(new Pair<>(date, false)),
+                loadedTaskManager.displaySameDeadlines(new Pair<>(date, false)));
+        assertEquals(deferredTaskManager.getTask(2).toString(), "[ ] | D | later deadline | by: 20/03/2025 10:30");
+    }
+
+    @Test
+    public void refresh_otherTaskManagerChanges_changesApplied() {
+        TaskManager otherTaskManager = new TaskManager(Paths.get("test_data", "test_tasks.txt").toString());
+
+        try {
+            this.taskManager.addTask("T", new String[]{"todo"});
+            otherTaskManager.refresh();
+            otherTaskManager.addTask("T", new String[]{"other todo"});
+            otherTaskManager.markTask(0, true);
+        } catch (InvalidTaskOperationException e) {
+            fail("Exception should not have been thrown: " + e.getMessage());
+        }
+
+        this.taskManager.refresh();
+        assertEquals(this.taskManager.getSize(), 2);
+        assertEquals(this.taskManager.getTask(0).toString(), "[X] | T | todo");
+        assertEquals(this.taskManager.getTask(1).toString(), "[ ] | T | other todo");
+
+        otherTaskManager.deleteTask(0);
+        this.taskManager.refresh();
+        assertEquals(this.taskManager.getSize(), 1);
+        assertEquals(this.taskManager.getTask(0).toString(), "[ ] | T | other todo");
+    }
+
+    @Test
+    public void refresh_listRewrittenElsewhere_taskIdsKept() throws InvalidTaskOperationException {
+        TaskManager otherTaskManager = new TaskManager(Paths.get("test_data", "test_tasks.txt").toString());
+        this.taskManager.addTask("T", new String[]{"todo"});
+        this.taskManager.addTask("T", new String[]{"other todo"});
+        int id = this.taskManager.getTask(1).getId();
+
+        otherTaskManager.refresh();
+        otherTaskManager.markTask(1, true);
+        otherTaskManager.replaceTasks(List.of(otherTaskManager.getTask(1), otherTaskManager.getTask(0)));
+        this.taskManager.refresh();
+
+        assertEquals("[X] | T | other todo", this.taskManager.getTask(0).toString());
+        assertEquals(0, this.taskManager.getIndexById(id));
+
+        this.taskManager.replaceTasks(List.of(Task.getFromSaveFormat("[ ] | T | other todo")));
+        assertEquals(0, this.taskManager.getIndexById(id));
+    }
+
+    @Test
+    public void syncWith_otherReplicaChanges_changesAppliedAndSaved() throws IOException {
+        String otherFilePath = Paths.get("test_data", "test_other_tasks.txt").toString();
+        Path directory = Paths.get("test_data", "test_sync");
+        TaskManager otherTaskManager = new TaskManager(otherFilePath);
+
+        try {
+            this.taskManager.addTask("T", new String[]{"todo"});
+            assertEquals(0, this.taskManager.syncWith(directory));
+            assertEquals(1, otherTaskManager.syncWith(directory));
+            otherTaskManager.markTask(0, true);
+            otherTaskManager.addTask("T", new String[]{"other todo"});
+            this.taskManager.addTask("T", new String[]{"new todo"}); // Recorded once synced before
+            otherTaskManager.syncWith(directory);
+
+            assertEquals(2, this.taskManager.syncWith(directory));
+            assertEquals(1, otherTaskManager.syncWith(directory));
+        } catch (InvalidTaskOperationException e) {
+            fail("Exception should not have been thrown: " + e.getMessage());
+        } finally {
+            otherTaskManager.close();
+            for (String suffix : new String[]{"", ".journal", ".lock", ".sync", ".completed"}) {
+                new File(otherFilePath + suffix).delete();
+            }
+            for (File file : directory.toFile().listFiles()) {
+                file.delete();
+            }
+            directory.toFile().delete();
+        }
+
+        assertEquals(3, this.taskManager.getSize());
+        assertEquals("[X] | T | todo", this.taskManager.getTask(0).toString());
+        assertEquals("[ ] | T | other todo", this.taskManager.getTask(2).toString());
+        assertEquals(3, new TaskManager(Paths.get("test_data", "test_tasks.txt").toString()).getSize());
+    }
+
+    @Test
+    public void constructor_taskCompletedLongAgo_taskArchived() throws InvalidTaskOperationException {
+        String filePath = Paths.get("test_data", "test_tasks.txt").toString();
+        this.taskManager.addTask("T", new String[]{"old todo"});
+        this.taskManager.addTask("T", new String[]{"new todo"});
+        this.taskManager.markTask(0, true);
+        this.taskManager.markTask(1, true);
+        new TaskArchive(filePath).recordCompletion(this.taskManager.getTask(0), LocalDate.now().minusDays(30));
+        this.taskManager.close();
+
+        this.taskManager = new TaskManager(filePath);
+        assertEquals(1, this.taskManager.getSize());
+        assertEquals("[X] | T | new todo", this.taskManager.getTask(0).toString());
+        assertEquals(1, this.taskManager.getArchivedTasks().size());
+        assertEquals("[X] | T | old todo", this.taskManager.getMatchingArchivedTasks("old").get(0).toString());
+        assertEquals(1, new TaskManager(filePath).getSize());
+    }
+
+    @Test
+    public void constructor_manyTasksCompletedLongAgo_removalSavedOnce() throws InvalidTaskOperationException {
+        String filePath = Paths.get("test_data", "test_tasks.txt").toString();
+        List<List<Task>> deletions = new ArrayList<>();
+        InMemoryStorage storage = new InMemoryStorage() {
+            @Override
+            public void deleteTasks(List<Task> tasks) {
+                deletions.add(tasks);
+                super.deleteTasks(tasks);
+            }
+        };
+        TaskManager oldTaskManager = new TaskManager(storage);
+        TaskArchive archive = new TaskArchive(filePath);
+        for (int i = 0; i < 5; i++) {
+            oldTaskManager.addTask("T", new String[]{"old todo " + i});
+            archive.recordCompletion(oldTaskManager.markTask(i, true), LocalDate.now().minusDays(30));
+        }
+
+        TaskManager archivingTaskManager = new TaskManager(storage, new TaskArchive(filePath));
+
+        assertEquals(0, archivingTaskManager.getSize());
+        assertEquals(1, deletions.size());
+        assertEquals(5, deletions.get(0).size());
+        assertEquals(0, storage.getSize());
+    }
+
+    @Test
+    public void refresh_taskExpiresWhileOpen_taskArchivedThatDay() throws InvalidTaskOperationException {
+        String filePath = Paths.get("test_data", "test_tasks.txt").toString();
+        InMemoryStorage storage = new InMemoryStorage();
+        TaskManager archivingTaskManager = new TaskManager(storage, new TaskArchive(filePath));
+        archivingTaskManager.addTask("T", new String[]{"todo"});
+        archivingTaskManager.markTask(0, true);
+
+        archivingTaskManager.refresh(LocalDate.now().plusDays(14));
+        assertEquals(1, archivingTaskManager.getSize());
+        archivingTaskManager.refresh(LocalDate.now().plusDays(15));
+        assertEquals(0, archivingTaskManager.getSize());
+        assertEquals(0, storage.getSize());
+        assertEquals(1, archivingTaskManager.getArchivedTasks().size());
+    }
+
+    @Test
+    public void addTask_sameTaskInOtherDateFormat_exceptionThrownUntilDeleted() throws InvalidTaskOperationException {
+        this.taskManager.addTask("D", new String[]{"submit", "31/10/2025 23:59"});
+        this.taskManager.markTask(0, true);
+
+        assertThrows(InvalidTaskOperationException.class, () ->
+                this.taskManager.addTask("D", new String[]{"submit", "31 October 2025 23:59"}));
+
+        this.taskManager.deleteTask(0);
+        this.taskManager.addTask("D", new String[]{"submit", "31 October 2025 23:59"});
+        this.taskManager.addTask("D", new String[]{"submit", "01/11/2025 23:59"});
+        assertEquals(2, this.taskManager.getSize());
+        assertThrows(InvalidTaskOperationException.class, () ->
+                this.taskManager.addTask("D", new String[]{"submit", "01/11/2025 23:59"}));
+    }
 }
@@ -0,0 +1,83 @@
+package bob.managers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import bob.tasks.Task;
+import bob.tasks.ToDo;
+
+public class TokenIndexTest {
+    private static List<Task> createTasks(String... names) {
+        List<Task> tasks = new ArrayList<>();
+        for (String name : names) {
+            tasks.add(new ToDo(name));
+        }
+
+        return tasks;
+    }
+
+    private static List<Task> search(TokenIndex index, String query) {
+        return index.search(TaskQuery.parse(Arrays.asList(query.split(" "))));
+    }
+
+    @Test
+    public void search_booleanQueries_matchingTasksInListOrder() {
+        List<Task> tasks = createTasks("read essay", "read draft", "write essay", "cook", "read essay draft");
+        TokenIndex index = new TokenIndex(tasks);
+
+        assertEquals(Arrays.asList(tasks.get(0), tasks.get(4)), search(index, "read AND essay"));
+        assertEquals(Arrays.asList(tasks.get(0)), search(index, "read AND NOT draft"));
+        assertEquals(Arrays.asList(tasks.get(2), tasks.get(3)), search(index, "write OR cook"));
+        assertEquals(Arrays.asList(tasks.get(0), tasks.get(3), tasks.get(4)),
+                search(index, "cook OR essay AND read"));
+        assertEquals(Arrays.asList(tasks.get(2), tasks.get(3)), search(index, "NOT ea"));
+        assertEquals(Arrays.asList(tasks.get(4)), search(index, "essay draft"));
+        assertEquals(new ArrayList<>(), search(index, "swim"));
+    }
+
+    @Test
+    public void search_afterAddAndRemove_indexUpdated() {
+        List<Task> tasks = createTasks("read essay", "read draft");
+        TokenIndex index = new TokenIndex(tasks);
+        Task added = new ToDo("read notes");
+
+        index.remove(tasks.get(0));
+        index.add(added);
+
+        assertEquals(Arrays.asList(tasks.get(1), added), search(index, "read"));
+        assertEquals(new ArrayList<>(), search(index, "essay"));
+        assertEquals(Arrays.asList(added), search(index, "no"));
+    }
+
+    @Test
+    public void remove_mostTasksRemoved_idsCompacted() {
+        List<Task> tasks = createTasks("read essay", "read draft", "write essay", "cook", "read essay draft");
+        tasks.addAll(createTasks("read notes", "write notes", "cook dinner"));
+        TokenIndex index = new TokenIndex(tasks);
+
+        for (int i = 0; i < 5; i++) {
+            index.remove(tasks.get(i));
+        }
+        Task added = new ToDo("read more notes");
+        index.add(added);
+
+        assertEquals(4, index.getIdCount());
+        assertEquals(Arrays.asList(tasks.get(5), added), search(index, "read"));
+        assertEquals(Arrays.asList(tasks.get(5), tasks.get(6), added), search(index, "notes"));
+        assertEquals(Arrays.asList(tasks.get(7), added), search(index, "cook OR more"));
+        assertEquals(new ArrayList<>(), search(index, "essay"));
+    }
+
+    @Test
+    public void parse_keywordWithoutTerm_exceptionThrown() {
+        assertThrows(IllegalArgumentException.class, () -> TaskQuery.parse(Arrays.asList("read", "AND")));
+        assertThrows(IllegalArgumentException.class, () -> TaskQuery.parse(Arrays.asList("OR", "read")));
+        assertThrows(IllegalArgumentException.class, () -> TaskQuery.parse(Arrays.asList("NOT")));
+    }
+}
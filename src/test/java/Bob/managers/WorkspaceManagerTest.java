@@ -0,0 +1,81 @@
+package bob.managers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import bob.exceptions.InvalidCommandException;
+import bob.exceptions.InvalidTaskOperationException;
+import bob.storage.InMemoryStorage;
+
+public class WorkspaceManagerTest {
+    private List<String> openedWorkspaces;
+    private WorkspaceManager workspaceManager;
+
+    @BeforeEach
+    public void setUp() {
+        this.openedWorkspaces = new ArrayList<>();
+        this.workspaceManager = new WorkspaceManager((name) -> {
+            this.openedWorkspaces.add(name);
+            return new TaskManager(new InMemoryStorage());
+        }, null, 1024);
+    }
+
+    @Test
+    public void getCurrent_firstUse_loadedOnce() {
+        assertTrue(this.openedWorkspaces.isEmpty());
+
+        TaskManager taskManager = this.workspaceManager.getCurrent();
+
+        assertSame(taskManager, this.workspaceManager.getCurrent());
+        assertEquals(List.of(WorkspaceManager.DEFAULT_WORKSPACE), this.openedWorkspaces);
+    }
+
+    @Test
+    public void switchTo_overMemoryBudget_leastRecentlyUsedClosed() throws InvalidCommandException {
+        addTasks(this.workspaceManager.getCurrent(), 3);
+        this.workspaceManager.switchTo("work");
+        addTasks(this.workspaceManager.getCurrent(), 3);
+        this.workspaceManager.switchTo("home");
+
+        assertFalse(this.workspaceManager.isLoaded(WorkspaceManager.DEFAULT_WORKSPACE));
+        assertTrue(this.workspaceManager.isLoaded("work"));
+        assertTrue(this.workspaceManager.isLoaded("home"));
+        assertEquals(List.of("bob", "home", "work"), this.workspaceManager.listWorkspaces());
+    }
+
+    @Test
+    public void close_currentWorkspace_exceptionThrown() throws InvalidCommandException {
+        this.workspaceManager.getCurrent();
+        this.workspaceManager.switchTo("work");
+
+        assertThrows(InvalidCommandException.class, () -> this.workspaceManager.close("work"));
+        assertTrue(this.workspaceManager.close(WorkspaceManager.DEFAULT_WORKSPACE));
+        assertFalse(this.workspaceManager.close(WorkspaceManager.DEFAULT_WORKSPACE));
+    }
+
+    @Test
+    public void switchTo_invalidName_exceptionThrown() {
+        assertThrows(InvalidCommandException.class, () -> this.workspaceManager.switchTo("../bob"));
+        assertEquals(WorkspaceManager.DEFAULT_WORKSPACE, this.workspaceManager.getCurrentName());
+    }
+
+    private void addTasks(TaskManager taskManager, int count) {
+        try {
+            for (int i = 0; i < count; i++) {
+                taskManager.addTask("T", new String[]{"task " + i});
+            }
+        } catch (InvalidTaskOperationException e) {
+            fail("Exception should not have been thrown: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package bob.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class BPlusTreeTest {
+    private static final Path path = Paths.get("test_data", "test_tree.idx");
+
+    @AfterEach
+    public void tearDown() {
+        new File(path.toString()).delete();
+    }
+
+    @Test
+    public void search_manyRandomInserts_sameAsSortedMap() throws IOException {
+        Random random = new Random(42);
+        TreeMap<Long, TreeSet<Long>> expected = new TreeMap<>();
+
+        try (BPlusTree tree = new BPlusTree(path)) {
+            for (int i = 0; i < 20000; i++) {
+                long key = random.nextInt(2000);
+                long value = random.nextInt(50);
+                tree.insert(key, value);
+                expected.computeIfAbsent(key, (k) -> new TreeSet<>()).add(value);
+            }
+
+            assertEquals(expected.values().stream().mapToLong(TreeSet::size).sum(), tree.size());
+            assertEquals(getValues(expected, 100, 300), search(tree, 100, 300));
+            assertEquals(getValues(expected, 1999, 5000), search(tree, 1999, 5000));
+        }
+
+        try (BPlusTree reopenedTree = new BPlusTree(path)) {
+            assertEquals(getValues(expected, -5, 10), search(reopenedTree, -5, 10));
+        }
+    }
+
+    @Test
+    public void rebuild_unsortedEntries_sameAsInserted() throws IOException {
+        Random random = new Random(7);
+        List<long[]> entries = new ArrayList<>();
+        TreeMap<Long, TreeSet<Long>> expected = new TreeMap<>();
+        for (int i = 0; i < 50000; i++) {
+            long key = random.nextInt(10000) - 5000;
+            long value = random.nextInt(1000);
+            entries.add(new long[] {key, value});
+            expected.computeIfAbsent(key, (k) -> new TreeSet<>()).add(value);
+        }
+
+        try (BPlusTree tree = new BPlusTree(path)) {
+            tree.rebuild(entries, 3, 12);
+            tree.insert(-4000, 5000);
+            expected.computeIfAbsent(-4000L, (k) -> new TreeSet<>()).add(5000L);
+
+            assertEquals(3, tree.getGeneration());
+            assertEquals(12, tree.getTag());
+            assertEquals(getValues(expected, -4500, -3500), search(tree, -4500, -3500));
+            assertEquals(getValues(expected, 0, 0), search(tree, 0, 0));
+        }
+    }
+
+    @Test
+    public void seal_reopenedTree_trustedUntilDamaged() throws IOException {
+        try (BPlusTree tree = new BPlusTree(path)) {
+            for (int i = 0; i < 2000; i++) {
+                tree.insert(i % 300, i);
+            }
+            tree.setStamp(4, 2000);
+            assertFalse(tree.isSealed());
+            tree.seal();
+        }
+
+        try (BPlusTree reopenedTree = new BPlusTree(path)) {
+            assertTrue(reopenedTree.isSealed());
+            assertEquals(4, reopenedTree.getGeneration());
+            assertEquals(List.of(7L, 307L, 607L, 907L, 1207L, 1507L, 1807L), search(reopenedTree, 7, 7));
+            reopenedTree.insert(7, 1);
+            assertFalse(reopenedTree.isSealed()); // Changes unseal until sealed again
+        }
+
+        try (BPlusTree unsealedTree = new BPlusTree(path)) {
+            assertFalse(unsealedTree.isSealed());
+            unsealedTree.seal();
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(file.length() - 1);
+            int lastByte = file.read();
+            file.seek(file.length() - 1);
+            file.write(lastByte ^ 1);
+        }
+        try (BPlusTree damagedTree = new BPlusTree(path)) {
+            assertFalse(damagedTree.isSealed());
+        }
+    }
+
+    private static List<Long> search(BPlusTree tree, long from, long to) throws IOException {
+        List<Long> values = new ArrayList<>();
+        tree.search(from, to, values::add);
+        return values;
+    }
+
+    private static List<Long> getValues(TreeMap<Long, TreeSet<Long>> entries, long from, long to) {
+        List<Long> values = new ArrayList<>();
+        for (Map.Entry<Long, TreeSet<Long>> entry : entries.subMap(from, true, to, true).entrySet()) {
+            values.addAll(entry.getValue());
+        }
+
+        return values;
+    }
+}
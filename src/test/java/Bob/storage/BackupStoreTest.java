@@ -0,0 +1,92 @@
+package bob.storage;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public class BackupStoreTest {
+    private static final Path directory = Paths.get("test_data", "test_backups");
+    private static final Path filePath = Paths.get("test_data", "test_backup_tasks.txt");
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (Files.exists(directory)) {
+            try (Stream<Path> paths = Files.walk(directory)) {
+                paths.sorted((a, b) -> b.compareTo(a)).forEach((p) -> p.toFile().delete());
+            }
+        }
+        new File(filePath.toString()).delete();
+    }
+
+    @Test
+    public void backup_mostlyUnchangedFile_onlyChangedChunksStored() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 50000; i++) {
+            lines.add("[ ] | D | task number " + i + " | by: " + (i % 28 + 1) + "/02/2025 10:30");
+        }
+        Files.write(filePath, lines);
+        byte[] firstBytes = Files.readAllBytes(filePath);
+
+        BackupStore store = new BackupStore(directory.toString());
+        BackupStore.Result first = store.backup("bob", List.of(filePath.toString(), filePath + ".journal"));
+        assertEquals(first.getChunkCount(), first.getNewChunkCount());
+
+        lines.add(100, "[ ] | T | inserted task");
+        lines.set(30000, "[X] | D | task number 29999 | by: 4/02/2025 10:30");
+        Files.write(filePath, lines);
+        BackupStore.Result second = store.backup("bob", List.of(filePath.toString()));
+        assertTrue(second.getNewSize() * 20 < second.getSize(), "New chunks should be a small part of the file");
+
+        assertEquals(List.of(first.getId(), second.getId()), store.listSnapshots("bob"));
+        Path restored = store.restore("bob", first.getId(), directory.resolve("restored")).get(0);
+        assertArrayEquals(firstBytes, Files.readAllBytes(restored));
+        store.restore("bob", second.getId(), directory.resolve("restored"));
+        assertArrayEquals(Files.readAllBytes(filePath), Files.readAllBytes(restored));
+    }
+
+    @Test
+    public void restore_damagedChunk_exceptionThrown() throws IOException {
+        Files.write(filePath, "[ ] | T | read book".getBytes(StandardCharsets.UTF_8));
+        BackupStore store = new BackupStore(directory.toString());
+        String id = store.backup("bob", List.of(filePath.toString())).getId();
+
+        try (Stream<Path> paths = Files.walk(directory.resolve("chunks"))) {
+            Path chunk = paths.filter(Files::isRegularFile).findFirst().get();
+            Files.write(chunk, "[X] | T | read book".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertThrows(IOException.class, () -> store.restore("bob", id, directory.resolve("restored")));
+        assertThrows(IOException.class, () -> store.restore("bob", "missing", directory.resolve("restored")));
+    }
+
+    @Test
+    public void split_randomBytes_chunksWithinBounds() throws IOException {
+        byte[] bytes = new byte[1 << 20];
+        new Random(3).nextBytes(bytes);
+        List<Integer> lengths = new ArrayList<>();
+
+        BackupStore.split(new ByteArrayInputStream(bytes), (chunk, length) -> lengths.add(length));
+
+        assertEquals(bytes.length, lengths.stream().mapToInt(Integer::intValue).sum());
+        for (int i = 0; i < lengths.size() - 1; i++) {
+            assertTrue(lengths.get(i) >= BackupStore.minChunkSize && lengths.get(i) <= BackupStore.maxChunkSize);
+        }
+        assertTrue(lengths.size() > 32, "Chunks should average a few KB");
+    }
+}
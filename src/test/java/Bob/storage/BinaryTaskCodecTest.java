@@ -0,0 +1,123 @@
+package bob.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import bob.tasks.Deadline;
+import bob.tasks.Event;
+import bob.tasks.Task;
+import bob.tasks.ToDo;
+
+public class BinaryTaskCodecTest {
+    private static final Path textPath = Paths.get("test_data", "test_tasks.txt");
+    private static final Path binaryPath = Paths.get("test_data", "test_tasks.bin");
+
+    @BeforeEach
+    public void setUp() {
+        new File("test_data").mkdirs();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        textPath.toFile().delete();
+        binaryPath.toFile().delete();
+    }
+
+    @Test
+    public void save_thenLoad_tasksRestoredExactly() throws IOException {
+        List<Task> tasks = List.of(
+                new ToDo("read book", true),
+                new Deadline("return book", "01/02/2024 10:00", false),
+                new Deadline("write essay", "31/10/2025", true),
+                new Event("caf\u00e9 trip", "01/02/2024 10:00", "02/02/2024 18:30", false));
+        BinaryTaskCodec.save(binaryPath, tasks);
+
+        List<Task> loadedTasks = new ArrayList<>();
+        BinaryTaskCodec.load(binaryPath, loadedTasks::add);
+
+        assertEquals(tasks.size(), loadedTasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).toString(), loadedTasks.get(i).toString());
+        }
+        assertTrue(BinaryTaskCodec.isBinary(binaryPath));
+    }
+
+    @Test
+    public void save_thenLoad_datesLikeStandardFormats_datesRestoredExactly() throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        for (String date : new String[]{"01 February 2024 10:00", "31/02/2025 10:00", "1a/02/2025 10:00",
+                "00/01/2025 10:00", "01/02/0000 10:00", "01/02/2025 24:00", "01-02-2025 10:00"}) {
+            tasks.add(new Deadline("return book", date, false));
+        }
+        BinaryTaskCodec.save(binaryPath, tasks);
+
+        List<Task> loadedTasks = new ArrayList<>();
+        BinaryTaskCodec.load(binaryPath, loadedTasks::add);
+
+        assertEquals(tasks.size(), loadedTasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).toString(), loadedTasks.get(i).toString());
+        }
+    }
+
+    @Test
+    public void append_existingFile_taskAddedAtEnd() throws IOException {
+        BinaryTaskCodec.save(binaryPath, List.of(new ToDo("first")));
+        BinaryTaskCodec.append(binaryPath, new ToDo("second"));
+
+        List<Task> loadedTasks = new ArrayList<>();
+        BinaryTaskCodec.load(binaryPath, loadedTasks::add);
+
+        assertEquals(2, loadedTasks.size());
+        assertEquals("[ ] | T | second", loadedTasks.get(1).toString());
+    }
+
+    @Test
+    public void convert_textToBinaryAndBack_sameContents() throws IOException {
+        String text = "[ ] | T | todo\n"
+                + "[X] | D | deadline | by: 20/02/2025 10:30\n"
+                + "[ ] | E | event | from: 20/02/2025 10:30 | to: 21/02/2025 09:30\n";
+        Files.write(textPath, text.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(3, BinaryTaskCodec.convertFromText(textPath, binaryPath));
+        assertTrue(Files.size(binaryPath) < Files.size(textPath));
+
+        textPath.toFile().delete();
+        assertEquals(3, BinaryTaskCodec.convertToText(binaryPath, textPath));
+
+        assertEquals(List.of(text.split("\n")), Files.readAllLines(textPath, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void load_truncatedFile_exceptionThrown() throws IOException {
+        BinaryTaskCodec.save(binaryPath, List.of(new Deadline("deadline", "01/02/2024 10:00")));
+        byte[] bytes = Files.readAllBytes(binaryPath);
+        Files.write(binaryPath, Arrays.copyOf(bytes, bytes.length - 2));
+
+        assertThrows(IOException.class, () -> BinaryTaskCodec.load(binaryPath, (t) -> { }));
+    }
+
+    @Test
+    public void isBinary_textFile_false() throws IOException {
+        Files.write(textPath, "[ ] | T | todo\n".getBytes(StandardCharsets.UTF_8));
+
+        assertFalse(BinaryTaskCodec.isBinary(textPath));
+        assertFalse(BinaryTaskCodec.isBinary(binaryPath));
+    }
+}
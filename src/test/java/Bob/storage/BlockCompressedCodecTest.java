@@ -0,0 +1,100 @@
+package bob.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import bob.tasks.Task;
+import bob.tasks.ToDo;
+
+public class BlockCompressedCodecTest {
+    private static final Path compressedPath = Paths.get("test_data", "test_tasks.bobz");
+
+    @BeforeEach
+    public void setUp() {
+        new File("test_data").mkdirs();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        compressedPath.toFile().delete();
+    }
+
+    @Test
+    public void save_manyBlocks_tasksRestoredInOrder() throws IOException {
+        List<Task> tasks = StorageBenchmark.generateTasks(5000);
+        BlockCompressedCodec.save(compressedPath, tasks);
+
+        try (FileChannel channel = FileChannel.open(compressedPath, StandardOpenOption.READ)) {
+            assertTrue(BlockCompressedCodec.readIndex(channel).size() > 1);
+        }
+
+        List<Task> loadedTasks = new ArrayList<>();
+        BlockCompressedCodec.load(compressedPath, loadedTasks::add);
+
+        assertEquals(tasks.size(), loadedTasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).toString(), loadedTasks.get(i).toString());
+        }
+        assertTrue(BlockCompressedCodec.isCompressed(compressedPath));
+    }
+
+    @Test
+    public void append_existingFile_earlierBlocksUnchanged() throws IOException {
+        BlockCompressedCodec.save(compressedPath, List.of(new ToDo("first")));
+        byte[] savedBytes = Files.readAllBytes(compressedPath);
+
+        BlockCompressedCodec.append(compressedPath, List.of(new ToDo("second")));
+
+        byte[] appendedBytes = Files.readAllBytes(compressedPath);
+        assertTrue(Arrays.equals(savedBytes, Arrays.copyOf(appendedBytes, savedBytes.length)));
+
+        List<Task> loadedTasks = new ArrayList<>();
+        BlockCompressedCodec.load(compressedPath, loadedTasks::add);
+        assertEquals(2, loadedTasks.size());
+        assertEquals("[ ] | T | second", loadedTasks.get(1).toString());
+    }
+
+    @Test
+    public void load_truncatedFile_exceptionThrown() throws IOException {
+        BlockCompressedCodec.save(compressedPath, StorageBenchmark.generateTasks(10));
+        byte[] bytes = Files.readAllBytes(compressedPath);
+        Files.write(compressedPath, Arrays.copyOf(bytes, bytes.length - 2));
+
+        assertThrows(IOException.class, () -> BlockCompressedCodec.load(compressedPath, (t) -> { }));
+    }
+
+    @Test
+    public void load_corruptedBlock_exceptionThrown() throws IOException {
+        BlockCompressedCodec.save(compressedPath, StorageBenchmark.generateTasks(10));
+        byte[] bytes = Files.readAllBytes(compressedPath);
+        bytes[bytes.length - 5] ^= 0x55;
+        Files.write(compressedPath, bytes);
+
+        assertThrows(IOException.class, () -> BlockCompressedCodec.load(compressedPath, (t) -> { }));
+    }
+
+    @Test
+    public void isCompressed_otherFormats_false() throws IOException {
+        BinaryTaskCodec.save(compressedPath, List.of(new ToDo("todo")));
+
+        assertFalse(BlockCompressedCodec.isCompressed(compressedPath));
+        assertFalse(BlockCompressedCodec.isCompressed(Paths.get("test_data", "missing.bobz")));
+    }
+}
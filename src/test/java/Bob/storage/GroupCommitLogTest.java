@@ -0,0 +1,91 @@
+package bob.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class GroupCommitLogTest {
+    private static final String filePath = Paths.get("test_data", "test_log.txt").toString();
+
+    @BeforeEach
+    public void setUp() {
+        new File("test_data").mkdirs();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        new File(filePath).delete();
+    }
+
+    @Test
+    public void append_singleThread_linesWrittenInOrder() throws IOException {
+        GroupCommitLog log = new GroupCommitLog(Paths.get(filePath));
+        assertTrue(log.append("first"));
+        assertTrue(log.append("second"));
+        log.close();
+
+        assertEquals(List.of("first", "second"), Files.readAllLines(Paths.get(filePath)));
+
+        GroupCommitStats stats = log.getStats();
+        assertEquals(2, stats.getRecordCount());
+        assertEquals(2, stats.getBatchCount());
+        assertEquals(2, stats.getForceCount());
+    }
+
+    @Test
+    public void append_concurrentThreads_everyLineDurableInFewerForces()
+            throws IOException, InterruptedException {
+        GroupCommitLog log = new GroupCommitLog(Paths.get(filePath));
+        int threadCount = 8;
+        int linesPerThread = 200;
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            int id = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < linesPerThread; i++) {
+                    try {
+                        log.append(id + ":" + i);
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        log.close();
+
+        Set<String> lines = new HashSet<>(Files.readAllLines(Paths.get(filePath)));
+        assertEquals(threadCount * linesPerThread, lines.size());
+
+        GroupCommitStats stats = log.getStats();
+        assertEquals(threadCount * linesPerThread, stats.getRecordCount());
+        assertEquals(stats.getBatchCount(), stats.getForceCount());
+        assertTrue(stats.getForceCount() <= stats.getRecordCount());
+    }
+
+    @Test
+    public void append_afterClose_rejected() throws IOException {
+        GroupCommitLog log = new GroupCommitLog(Paths.get(filePath));
+        log.close();
+
+        assertFalse(log.append("late"));
+    }
+}
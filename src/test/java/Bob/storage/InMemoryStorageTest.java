@@ -0,0 +1,62 @@
+package bob.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import bob.exceptions.InvalidTaskOperationException;
+import bob.tasks.Deadline;
+import bob.tasks.Task;
+import bob.tasks.ToDo;
+
+public class InMemoryStorageTest {
+    @Test
+    public void loadTasks_afterChanges_savedStateLoaded() throws InvalidTaskOperationException {
+        InMemoryStorage storage = new InMemoryStorage();
+        ToDo todo = new ToDo("Task A");
+        Deadline deadline = new Deadline("Task B", "01/02/2024 10:00");
+        storage.saveTask(todo);
+        storage.saveTask(deadline);
+        storage.saveTask(new ToDo("Task C"));
+
+        todo.markTask();
+        storage.updateTask(todo);
+        storage.deleteTask(deadline);
+
+        List<Task> loadedTasks = new ArrayList<>();
+        storage.loadTasks(loadedTasks::add);
+
+        assertEquals(2, storage.getSize());
+        assertEquals("[X] | T | Task A", loadedTasks.get(0).toString());
+        assertEquals("[ ] | T | Task C", loadedTasks.get(1).toString());
+    }
+
+    @Test
+    public void rewriteTaskList_existingTasks_replaced() {
+        InMemoryStorage storage = new InMemoryStorage();
+        storage.saveTask(new ToDo("Task A"));
+
+        storage.rewriteTaskList(List.of(new ToDo("Task B", true)));
+
+        List<Task> loadedTasks = new ArrayList<>();
+        storage.loadTasks(loadedTasks::add);
+
+        assertEquals(1, loadedTasks.size());
+        assertEquals("[X] | T | Task B", loadedTasks.get(0).toString());
+    }
+
+    @Test
+    public void loadTasks_noOpStorage_nothingLoaded() {
+        NoOpStorage storage = new NoOpStorage();
+        storage.saveTask(new ToDo("Task A"));
+
+        List<Task> loadedTasks = new ArrayList<>();
+        storage.loadTasks(loadedTasks::add);
+
+        assertTrue(loadedTasks.isEmpty());
+    }
+}
@@ -0,0 +1,56 @@
+package bob.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import bob.tasks.Deadline;
+import bob.tasks.Task;
+import bob.tasks.ToDo;
+
+public class JournalRecordTest {
+    @Test
+    public void fromLine_validRecords_roundTrips() {
+        Deadline deadline = new Deadline("deadline", "31/01/2025 10:00", true);
+
+        assertEquals("A [X] | D | deadline | by: 31/01/2025 10:00", JournalRecord.ofAdd(deadline).toString());
+        assertEquals("M D | deadline | by: 31/01/2025 10:00", JournalRecord.ofUpdate(deadline).toString());
+        assertEquals("D D | deadline | by: 31/01/2025 10:00", JournalRecord.ofDelete(deadline).toString());
+
+        JournalRecord record = JournalRecord.fromLine("U T | todo");
+        assertEquals(JournalRecord.Operation.UNMARK, record.getOperation());
+        assertEquals("T | todo", record.getKey());
+    }
+
+    @Test
+    public void fromLine_invalidRecord_exceptionThrown() {
+        assertThrows(IllegalArgumentException.class, () -> JournalRecord.fromLine("Q T | todo"));
+        assertThrows(IllegalArgumentException.class, () -> JournalRecord.fromLine("A"));
+    }
+
+    @Test
+    public void applyTo_replayedTwice_sameResult() {
+        Map<String, Task> tasks = new LinkedHashMap<>();
+        JournalRecord[] records = {
+            JournalRecord.fromLine("A [ ] | T | todo"),
+            JournalRecord.fromLine("A [ ] | T | other"),
+            JournalRecord.fromLine("M T | todo"),
+            JournalRecord.fromLine("D T | other")
+        };
+
+        for (int i = 0; i < 2; i++) {
+            for (JournalRecord record : records) {
+                record.applyTo(tasks);
+            }
+        }
+
+        assertEquals(1, tasks.size());
+        assertTrue(tasks.get("T | todo").isCompleted());
+        assertEquals(new ToDo("todo", true).toString(), tasks.get("T | todo").toString());
+    }
+}
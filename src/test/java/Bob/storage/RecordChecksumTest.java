@@ -0,0 +1,39 @@
+package bob.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+public class RecordChecksumTest {
+    @Test
+    public void addTo_knownLine_crc32cPrefixAdded() {
+        // CRC32C check value of "123456789" is e3069283
+        assertEquals("e3069283 123456789", RecordChecksum.addTo("123456789"));
+    }
+
+    @Test
+    public void isValid_heapAndDirectBuffers_sameResult() {
+        byte[] record = RecordChecksum.addTo("[ ] | T | caf\u00e9").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer directBuffer = ByteBuffer.allocateDirect(record.length).put(record);
+        RecordChecksum checksum = new RecordChecksum();
+
+        assertTrue(RecordChecksum.hasChecksum(ByteBuffer.wrap(record), 0, record.length));
+        assertTrue(checksum.isValid(ByteBuffer.wrap(record), 0, record.length));
+        assertTrue(checksum.isValid(directBuffer, 0, record.length));
+
+        record[record.length - 1] ^= 1;
+        assertFalse(checksum.isValid(ByteBuffer.wrap(record), 0, record.length));
+    }
+
+    @Test
+    public void hasChecksum_plainRecord_false() {
+        byte[] record = "[ ] | T | plain record".getBytes(StandardCharsets.UTF_8);
+
+        assertFalse(RecordChecksum.hasChecksum(ByteBuffer.wrap(record), 0, record.length));
+    }
+}
@@ -0,0 +1,118 @@
+package bob.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import bob.exceptions.InvalidTaskOperationException;
+import bob.tasks.Deadline;
+import bob.tasks.Event;
+import bob.tasks.Task;
+import bob.tasks.ToDo;
+
+public class ShardedStorageTest {
+    private static final String directoryPath = Paths.get("test_data", "test_shards").toString();
+
+    @AfterEach
+    public void tearDown() {
+        File[] files = new File(directoryPath).listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        new File(directoryPath).delete();
+    }
+
+    @Test
+    public void loadTasks_tasksInSeveralShards_originalOrderRestored() {
+        ShardedStorage storage = new ShardedStorage(directoryPath);
+        storage.saveTask(new Deadline("march", "20/03/2025 10:30"));
+        storage.saveTask(new ToDo("todo"));
+        storage.saveTask(new Event("february", "20/02/2025 10:30", "20/03/2025 10:30"));
+        storage.saveTask(new Deadline("undated", "next week"));
+
+        assertEquals(List.of("2025-02", "2025-03", "todo"), storage.getShards());
+
+        List<Task> loadedTasks = load(new ShardedStorage(directoryPath));
+        assertEquals(4, loadedTasks.size());
+        assertEquals("[ ] | D | march | by: 20/03/2025 10:30", loadedTasks.get(0).toString());
+        assertEquals("[ ] | T | todo", loadedTasks.get(1).toString());
+        assertEquals("[ ] | E | february | from: 20/02/2025 10:30 | to: 20/03/2025 10:30",
+                loadedTasks.get(2).toString());
+        assertEquals("[ ] | D | undated | by: next week", loadedTasks.get(3).toString());
+    }
+
+    @Test
+    public void loadTasksDueBetween_oneMonth_onlyThatMonthAndTodosLoaded() {
+        ShardedStorage storage = new ShardedStorage(directoryPath);
+        storage.saveTask(new Deadline("january", "20/01/2025 10:30"));
+        storage.saveTask(new Deadline("february", "20/02/2025"));
+        storage.saveTask(new ToDo("todo"));
+
+        List<Task> loadedTasks = new ArrayList<>();
+        storage.loadTasksDueBetween(LocalDate.of(2025, 2, 20), LocalDate.of(2025, 2, 20), loadedTasks::add);
+
+        assertEquals(2, loadedTasks.size());
+        assertEquals("[ ] | D | february | by: 20/02/2025", loadedTasks.get(0).toString());
+        assertEquals("[ ] | T | todo", loadedTasks.get(1).toString());
+    }
+
+    @Test
+    public void countTasks_afterReopening_readFromManifest() {
+        ShardedStorage storage = new ShardedStorage(directoryPath);
+        ToDo todo = new ToDo("todo");
+        storage.saveTask(todo);
+        storage.saveTask(new Deadline("deadline", "20/01/2025 10:30"));
+        storage.saveTask(new ToDo("other todo"));
+        storage.deleteTask(todo);
+
+        assertEquals(2, new ShardedStorage(directoryPath).countTasks());
+    }
+
+    @Test
+    public void updateTask_markedTask_onlyItsShardChanged() throws InvalidTaskOperationException {
+        ShardedStorage storage = new ShardedStorage(directoryPath);
+        Deadline deadline = new Deadline("deadline", "20/01/2025 10:30");
+        storage.saveTask(deadline);
+        storage.saveTask(new ToDo("todo"));
+        File todoShard = Paths.get(directoryPath, "todo.txt").toFile();
+        long todoShardModified = todoShard.lastModified();
+
+        deadline.markTask();
+        storage.updateTask(deadline);
+
+        assertEquals(todoShardModified, todoShard.lastModified());
+        assertEquals("[X] | D | deadline | by: 20/01/2025 10:30",
+                load(new ShardedStorage(directoryPath)).get(0).toString());
+    }
+
+    @Test
+    public void rewriteTaskList_emptiedShard_shardRemoved() {
+        ShardedStorage storage = new ShardedStorage(directoryPath);
+        storage.saveTask(new Deadline("deadline", "20/01/2025 10:30"));
+        storage.saveTask(new ToDo("todo"));
+
+        storage.rewriteTaskList(List.of(new ToDo("todo")));
+
+        assertEquals(List.of("todo"), storage.getShards());
+        assertFalse(Paths.get(directoryPath, "2025-01.txt").toFile().exists());
+        assertTrue(Paths.get(directoryPath, "manifest.txt").toFile().exists());
+        assertEquals(1, load(new ShardedStorage(directoryPath)).size());
+    }
+
+    private List<Task> load(ShardedStorage storage) {
+        List<Task> loadedTasks = new ArrayList<>();
+        storage.loadTasks(loadedTasks::add);
+        return loadedTasks;
+    }
+}
@@ -0,0 +1,196 @@
+package bob.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import bob.exceptions.InvalidTaskOperationException;
+import bob.managers.TaskManager;
+import bob.tasks.Deadline;
+import bob.tasks.Event;
+import bob.tasks.Task;
+import bob.tasks.ToDo;
+import javafx.util.Pair;
+
+public class SlottedStorageTest {
+    private static final String filePath = Paths.get("test_data", "test_slots.bin").toString();
+
+    @AfterEach
+    public void tearDown() {
+        new File(filePath).delete();
+        new File(filePath + ".due.idx").delete();
+        new File(filePath + ".name.idx").delete();
+        new File(filePath + ".due.idx.tmp").delete();
+        new File(filePath + ".name.idx.tmp").delete();
+    }
+
+    @Test
+    public void updateTask_markedTask_oneByteChangedInPlace() throws InvalidTaskOperationException, IOException {
+        SlottedStorage storage = new SlottedStorage(filePath);
+        ToDo todo = new ToDo("Task B");
+        storage.saveTask(new ToDo("Task A"));
+        storage.saveTask(todo);
+        storage.saveTask(new Deadline("Task C", "20/02/2025 10:30"));
+        byte[] savedBytes = Files.readAllBytes(Paths.get(filePath));
+
+        todo.markTask();
+        storage.updateTask(todo);
+        storage.close();
+
+        byte[] markedBytes = Files.readAllBytes(Paths.get(filePath));
+        assertEquals(savedBytes.length, markedBytes.length);
+        int changedBytes = 0;
+        for (int i = 0; i < savedBytes.length; i++) {
+            changedBytes += savedBytes[i] == markedBytes[i] ? 0 : 1;
+        }
+        assertEquals(1, changedBytes);
+
+        List<Task> loadedTasks = new ArrayList<>();
+        new SlottedStorage(filePath).loadTasks(loadedTasks::add);
+        assertEquals(3, loadedTasks.size());
+        assertEquals("[X] | T | Task B", loadedTasks.get(1).toString());
+    }
+
+    @Test
+    public void compact_deletedTasks_slotsReclaimedInOrder() throws InterruptedException, ExecutionException {
+        SlottedStorage storage = new SlottedStorage(filePath);
+        List<ToDo> todos = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            todos.add(new ToDo("Task " + i));
+            storage.saveTask(todos.get(i));
+        }
+
+        storage.deleteTask(todos.get(1));
+        storage.deleteTask(todos.get(3));
+        assertEquals(5, storage.getSlotCount());
+        assertEquals(3, storage.countTasks());
+
+        storage.compact().get();
+        assertEquals(3, storage.getSlotCount());
+        storage.saveTask(new ToDo("Task 5"));
+        storage.close();
+
+        List<Task> loadedTasks = new ArrayList<>();
+        new SlottedStorage(filePath).loadTasks(loadedTasks::add);
+        assertEquals(4, loadedTasks.size());
+        assertEquals("[ ] | T | Task 0", loadedTasks.get(0).toString());
+        assertEquals("[ ] | T | Task 2", loadedTasks.get(1).toString());
+        assertEquals("[ ] | T | Task 4", loadedTasks.get(2).toString());
+        assertEquals("[ ] | T | Task 5", loadedTasks.get(3).toString());
+    }
+
+    @Test
+    public void saveTask_taskLongerThanSlot_takesSeveralSlots() throws InvalidTaskOperationException {
+        SlottedStorage storage = new SlottedStorage(filePath, 16);
+        ToDo todo = new ToDo("A task with a name much longer than one slot");
+        storage.saveTask(todo);
+        storage.saveTask(new ToDo("Short"));
+        todo.markTask();
+        storage.updateTask(todo);
+        storage.close();
+
+        assertTrue(SlottedStorage.isSlotted(Paths.get(filePath)));
+        SlottedStorage reopenedStorage = new SlottedStorage(filePath);
+        List<Task> loadedTasks = new ArrayList<>();
+        reopenedStorage.loadTasks(loadedTasks::add);
+        assertEquals(2, loadedTasks.size());
+        assertEquals("[X] | T | A task with a name much longer than one slot", loadedTasks.get(0).toString());
+        assertTrue(reopenedStorage.getSlotCount() > 2);
+    }
+
+    @Test
+    public void loadTasksMatching_indexedNames_onlyCandidatesLoaded() {
+        SlottedStorage storage = new SlottedStorage(filePath);
+        storage.saveTask(new ToDo("Buy milk"));
+        storage.saveTask(new ToDo("Read book"));
+        storage.saveTask(new Deadline("Return library BOOK", "20/02/2025 10:30"));
+        ToDo deleted = new ToDo("Bookmark page");
+        storage.saveTask(deleted);
+        storage.deleteTask(deleted);
+        storage.close();
+
+        List<Task> candidates = new ArrayList<>();
+        new SlottedStorage(filePath).loadTasksMatching("book", candidates::add);
+        assertEquals(2, candidates.size());
+        assertEquals("[ ] | T | Read book", candidates.get(0).toString());
+
+        TaskManager taskManager = new TaskManager(new SlottedStorage(filePath), true);
+        assertEquals(1, taskManager.getMatchingTasks("ad bo").size());
+        assertEquals(0, taskManager.getMatchingTasks("Bookmark").size());
+        assertEquals(2, taskManager.getMatchingTasks("k").size()); // Short strings load every task
+    }
+
+    @Test
+    public void loadTasksDueBetween_indexedDeadlines_onlyDueTasksLoaded() throws InterruptedException,
+            ExecutionException {
+        SlottedStorage storage = new SlottedStorage(filePath);
+        List<ToDo> todos = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            todos.add(new ToDo("todo " + i));
+            storage.saveTask(todos.get(i));
+        }
+        storage.saveTask(new Deadline("due", "20/02/2025 23:59"));
+        storage.saveTask(new Event("event", "20 February 2025 00:00", "21/02/2025 10:00"));
+        storage.saveTask(new Deadline("later", "21/02/2025 00:00"));
+        for (int i = 0; i < 100; i++) {
+            storage.deleteTask(todos.get(i)); // Compaction moves every remaining task
+        }
+        storage.compact().get();
+        assertTrue(storage.awaitIndexes()); // Compaction rebuilds the indexes in the background
+
+        List<Task> candidates = new ArrayList<>();
+        storage.loadTasksDueBetween(LocalDate.of(2025, 2, 20), LocalDate.of(2025, 2, 20), candidates::add);
+        assertEquals(2, candidates.size());
+        assertEquals("[ ] | D | due | by: 20/02/2025 23:59", candidates.get(0).toString());
+
+        TaskManager taskManager = new TaskManager(new SlottedStorage(filePath), true);
+        String output = taskManager.displaySameDeadlines(new Pair<>(LocalDateTime.of(2025, 2, 21, 0, 0), false));
+        assertTrue(output.contains("later") && !output.contains("due |"));
+    }
+
+    @Test
+    public void loadTasksMatching_staleIndexes_allTasksLoadedUntilRebuilt() throws IOException {
+        SlottedStorage storage = new SlottedStorage(filePath);
+        storage.saveTask(new ToDo("Buy milk"));
+        storage.saveTask(new ToDo("Read book"));
+        storage.close();
+
+        SlottedStorage otherStorage = new SlottedStorage(filePath); // Adds a task behind the sealed indexes
+        otherStorage.saveTask(new ToDo("Return book"));
+        byte[] sealedIndex = Files.readAllBytes(Paths.get(filePath + ".name.idx"));
+        otherStorage.close();
+        Files.write(Paths.get(filePath + ".name.idx"), sealedIndex);
+
+        CountDownLatch release = new CountDownLatch(1);
+        Storage.compactor.submit(() -> { // Holds up the rebuild until the stale indexes have been used
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        });
+        SlottedStorage reopenedStorage = new SlottedStorage(filePath);
+        List<Task> candidates = new ArrayList<>();
+        reopenedStorage.loadTasksMatching("book", candidates::add);
+        assertEquals(3, candidates.size()); // Does not wait for the rebuild
+
+        release.countDown();
+        assertTrue(reopenedStorage.awaitIndexes());
+        candidates.clear();
+        reopenedStorage.loadTasksMatching("book", candidates::add);
+        assertEquals(2, candidates.size());
+        assertEquals("[ ] | T | Return book", candidates.get(1).toString());
+        reopenedStorage.close();
+    }
+}
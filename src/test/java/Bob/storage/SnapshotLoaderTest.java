@@ -0,0 +1,110 @@
+package bob.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class SnapshotLoaderTest {
+    private static final Path filePath = Paths.get("test_data", "test_snapshot.txt");
+
+    @BeforeEach
+    public void setUp() {
+        new File("test_data").mkdirs();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        filePath.toFile().delete();
+    }
+
+    @Test
+    public void load_manySmallChunks_tasksInFileOrder() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            builder.append("[ ] | T | task ").append(i).append(" caf\u00e9\n");
+        }
+        Files.write(filePath, builder.toString().getBytes(StandardCharsets.UTF_8));
+
+        SnapshotLoader.Result result = new SnapshotLoader(64).load(filePath);
+
+        assertEquals(1000, result.getTasks().size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("[ ] | T | task " + i + " caf\u00e9", result.getTasks().get(i).toString());
+        }
+        assertEquals(0, result.getCorruptedCount());
+        assertNull(result.getFirstError());
+    }
+
+    @Test
+    public void load_corruptedLines_countedAndSkipped() throws IOException {
+        Files.write(filePath, ("[ ] | T | first\r\n"
+                + "garbage\r\n"
+                + "[X] | D | second | by: 01/02/2024 10:00\r\n"
+                + "[ ] | Q | unknown\r\n"
+                + "[ ] | E | third | from: 01/02/2024 10:00 | to: 02/02/2024 10:00")
+                .getBytes(StandardCharsets.UTF_8));
+
+        SnapshotLoader.Result result = new SnapshotLoader(16).load(filePath);
+
+        assertEquals(3, result.getTasks().size());
+        assertEquals("[ ] | T | first", result.getTasks().get(0).toString());
+        assertEquals("[X] | D | second | by: 01/02/2024 10:00", result.getTasks().get(1).toString());
+        assertEquals("[ ] | E | third | from: 01/02/2024 10:00 | to: 02/02/2024 10:00",
+                result.getTasks().get(2).toString());
+        assertEquals(2, result.getCorruptedCount());
+        assertEquals("Invalid save format: garbage", result.getFirstError());
+    }
+
+    @Test
+    public void load_emptyFile_noTasks() throws IOException {
+        Files.write(filePath, new byte[0]);
+
+        SnapshotLoader.Result result = new SnapshotLoader().load(filePath);
+
+        assertEquals(0, result.getTasks().size());
+        assertEquals(0, result.getCorruptedCount());
+    }
+
+    @Test
+    public void load_damagedChecksummedRecord_skippedWithoutDecoding() throws IOException {
+        String damaged = RecordChecksum.addTo("[ ] | T | second").replace("second", "secand");
+        Files.write(filePath, (RecordChecksum.addTo("[ ] | T | first") + "\n"
+                + damaged + "\n"
+                + RecordChecksum.addTo("[X] | T | third") + "\n"
+                + "[ ] | T | plain\n")
+                .getBytes(StandardCharsets.UTF_8));
+
+        SnapshotLoader.Result result = new SnapshotLoader(16).load(filePath, true);
+
+        assertEquals(2, result.getTasks().size());
+        assertEquals("[X] | T | third", result.getTasks().get(1).toString());
+        assertEquals(2, result.getCorruptedCount());
+        assertEquals("Checksum mismatch at byte 25", result.getFirstError());
+    }
+
+    @Test
+    public void verify_damagedRecords_offsetsReported() throws IOException {
+        String first = RecordChecksum.addTo("[ ] | T | first");
+        String second = RecordChecksum.addTo("[ ] | T | second").replace("second", "secand");
+        String third = RecordChecksum.addTo("[ ] | D | third | by: 01/02/2024 10:00");
+        Files.write(filePath, (first + "\n" + second + "\n" + third + "\n" + "[ ] | T | plain\n")
+                .getBytes(StandardCharsets.UTF_8));
+
+        List<Long> badOffsets = new SnapshotLoader(16).verify(filePath);
+
+        long secondOffset = first.length() + 1;
+        long plainOffset = secondOffset + second.length() + 1 + third.length() + 1;
+        assertEquals(List.of(secondOffset, plainOffset), badOffsets);
+    }
+}
@@ -0,0 +1,159 @@
+package bob.storage;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import bob.tasks.Deadline;
+import bob.tasks.Event;
+import bob.tasks.Task;
+import bob.tasks.ToDo;
+
+/**
+ * Compares file size, load time and save time of the save formats on a generated task list.
+ * Run with the number of tasks as the only argument, e.g. {@code StorageBenchmark 1000000}.
+ */
+public class StorageBenchmark {
+    private static final int runs = 5;
+
+    public static void main(String[] args) throws IOException {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path directory = Files.createTempDirectory("bob-benchmark");
+        Path textPath = directory.resolve("bob.txt");
+        Path binaryPath = directory.resolve("bob.bin");
+        Path compressedPath = directory.resolve("bob.bobz");
+        Path checksummedPath = directory.resolve("bob.crc.txt");
+
+        List<Task> tasks = generateTasks(taskCount);
+        writeText(textPath, tasks);
+        BinaryTaskCodec.save(binaryPath, tasks);
+        BlockCompressedCodec.save(compressedPath, tasks);
+        Storage checksummedStorage = new Storage(checksummedPath.toString(), false, true);
+        checksummedStorage.rewriteTaskList(tasks);
+
+        System.out.printf("%d tasks%n", taskCount);
+        System.out.printf("text:   %,d bytes%n", Files.size(textPath));
+        System.out.printf("binary: %,d bytes (%.1f%% of text)%n", Files.size(binaryPath),
+                100.0 * Files.size(binaryPath) / Files.size(textPath));
+        System.out.printf("compressed: %,d bytes (%.1f%% of text)%n", Files.size(compressedPath),
+                100.0 * Files.size(compressedPath) / Files.size(textPath));
+
+        time("text load (SnapshotLoader)", () -> new SnapshotLoader().load(textPath).getTasks().size());
+        time("binary load (BinaryTaskCodec)", () -> {
+            List<Task> loaded = new ArrayList<>();
+            BinaryTaskCodec.load(binaryPath, loaded::add);
+            return loaded.size();
+        });
+        time("checksummed text load", () -> new SnapshotLoader().load(checksummedPath, true).getTasks().size());
+        time("checksum verify", () -> new SnapshotLoader().verify(checksummedPath).size());
+        time("compressed load (BlockCompressed)", () -> {
+            List<Task> loaded = new ArrayList<>();
+            BlockCompressedCodec.load(compressedPath, loaded::add);
+            return loaded.size();
+        });
+
+        time("text save", () -> {
+            writeText(textPath, tasks);
+            return tasks.size();
+        });
+        time("binary save", () -> {
+            BinaryTaskCodec.save(binaryPath, tasks);
+            return tasks.size();
+        });
+        time("compressed save", () -> {
+            BlockCompressedCodec.save(compressedPath, tasks);
+            return tasks.size();
+        });
+        time("checksummed save", () -> {
+            checksummedStorage.rewriteTaskList(tasks);
+            return tasks.size();
+        });
+        checksummedStorage.close();
+
+        deleteDirectory(directory);
+    }
+
+    /**
+     * Deletes a directory and every file in it, including files the storages create next to save files.
+     *
+     * @param directory directory to delete.
+     * @throws IOException if a file cannot be deleted.
+     */
+    static void deleteDirectory(Path directory) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * Generates a repetitive mix of ToDos, Deadlines and Events, similar to a real task list.
+     *
+     * @param taskCount number of tasks.
+     * @return generated tasks.
+     */
+    static List<Task> generateTasks(int taskCount) {
+        List<Task> tasks = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            String date = String.format("%02d/%02d/2025 %02d:%02d", i % 28 + 1, i % 12 + 1, i % 24, i % 60);
+            String endDate = String.format("%02d/%02d/2026 %02d:%02d", i % 28 + 1, i % 12 + 1, i % 24, i % 60);
+            switch (i % 3) {
+            case 0:
+                tasks.add(new ToDo("read chapter " + i, i % 2 == 0));
+                break;
+            case 1:
+                tasks.add(new Deadline("submit assignment " + i, date, i % 2 == 0));
+                break;
+            default:
+                tasks.add(new Event("project meeting " + i, date, endDate, i % 2 == 0));
+                break;
+            }
+        }
+
+        return tasks;
+    }
+
+    static void writeText(Path path, List<Task> tasks) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (Task task : tasks) {
+                writer.write(task.toString());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Operation being timed, returning a value so the work is not optimised away.
+     */
+    interface Measured {
+        int run() throws IOException;
+    }
+
+    /**
+     * Prints the best time of several runs, after one warm up run.
+     *
+     * @param name name of operation.
+     * @param measured operation to time.
+     * @throws IOException if the operation fails.
+     */
+    static void time(String name, Measured measured) throws IOException {
+        measured.run();
+        long best = Long.MAX_VALUE;
+        int result = 0;
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            result += measured.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        System.out.printf("%-36s %8.1f ms (%d)%n", name + ":", best / 1e6, result / runs);
+    }
+}
@@ -0,0 +1,33 @@
+package bob.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class StorageStatsTest {
+    @Test
+    public void getLatencyPercentileMillis_recordedLatencies_bucketUpperBoundsReturned() {
+        StorageMetrics metrics = new StorageMetrics();
+        for (int i = 0; i < 99; i++) {
+            metrics.recordLatency(StorageStats.Operation.SAVE, 1, 100_000);
+        }
+        metrics.recordLatency(StorageStats.Operation.SAVE, 3, 50_000_000);
+        StorageStats stats = metrics.snapshot();
+
+        assertEquals(100, stats.getCount(StorageStats.Operation.SAVE));
+        assertEquals(1.02, stats.getAverageRecordCount(StorageStats.Operation.SAVE), 1e-9);
+        assertEquals(0.128, stats.getLatencyPercentileMillis(StorageStats.Operation.SAVE, 0.5), 1e-9);
+        assertEquals(0.128, stats.getLatencyPercentileMillis(StorageStats.Operation.SAVE, 0.99), 1e-9);
+        assertEquals(50, stats.getLatencyPercentileMillis(StorageStats.Operation.SAVE, 1), 1e-9);
+        assertEquals(0, stats.getLatencyPercentileMillis(StorageStats.Operation.FSYNC, 0.5), 1e-9);
+    }
+
+    @Test
+    public void getBucket_latencies_powerOfTwoMicrosecondBuckets() {
+        assertEquals(0, StorageStats.getBucket(0));
+        assertEquals(0, StorageStats.getBucket(1_999));
+        assertEquals(1, StorageStats.getBucket(2_000));
+        assertEquals(10, StorageStats.getBucket(1_024_000));
+        assertEquals(StorageStats.bucketCount - 1, StorageStats.getBucket(Long.MAX_VALUE));
+    }
+}
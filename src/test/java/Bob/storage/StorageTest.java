@@ -1,7 +1,9 @@
 package bob.storage;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.BufferedReader;
@@ -10,14 +12,20 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import bob.exceptions.InvalidTaskOperationException;
 import bob.tasks.Task;
 import bob.tasks.ToDo;
 
@@ -35,6 +43,9 @@ public class StorageTest {
         if (file.exists()) {
             file.delete();
         }
+
+        new File(Paths.get("test_data", "test_tasks.txt.journal").toString()).delete();
+        new File(Paths.get("test_data", "test_tasks.txt.lock").toString()).delete();
     }
 
     @Test
@@ -105,4 +116,262 @@ public class StorageTest {
 
         assertDoesNotThrow(() -> faultyStorage.saveTask(todo));
     }
+
+    @Test
+    public void updateTask_markedTask_changeJournalledAndReplayed() throws InvalidTaskOperationException {
+        ToDo todo = new ToDo("Task A");
+        this.storage.saveTask(todo);
+        this.storage.saveTask(new ToDo("Task B"));
+
+        todo.markTask();
+        this.storage.updateTask(todo);
+
+        assertTrue(new File("test_data/test_tasks.txt.journal").exists());
+
+        List<Task> loadedTasks = new ArrayList<>();
+        new Storage("test_data/test_tasks.txt").loadTasks(loadedTasks::add);
+
+        assertEquals(2, loadedTasks.size());
+        assertEquals("[X] | T | Task A", loadedTasks.get(0).toString());
+        assertEquals("[ ] | T | Task B", loadedTasks.get(1).toString());
+    }
+
+    @Test
+    public void deleteTask_thenSaveTask_orderReplayed() {
+        ToDo todo = new ToDo("Task A");
+        this.storage.saveTask(todo);
+        this.storage.saveTask(new ToDo("Task B"));
+
+        this.storage.deleteTask(todo);
+        this.storage.saveTask(new ToDo("Task A"));
+
+        List<Task> loadedTasks = new ArrayList<>();
+        new Storage("test_data/test_tasks.txt").loadTasks(loadedTasks::add);
+
+        assertEquals(2, loadedTasks.size());
+        assertEquals("[ ] | T | Task B", loadedTasks.get(0).toString());
+        assertEquals("[ ] | T | Task A", loadedTasks.get(1).toString());
+    }
+
+    @Test
+    public void compactJournal_pendingChanges_foldedIntoSnapshot()
+            throws InvalidTaskOperationException, InterruptedException, ExecutionException, IOException {
+        ToDo todo = new ToDo("Task A");
+        this.storage.saveTask(todo);
+        this.storage.saveTask(new ToDo("Task B"));
+        todo.markTask();
+        this.storage.updateTask(todo);
+
+        this.storage.compactJournal().get();
+
+        assertTrue(!new File("test_data/test_tasks.txt.journal").exists());
+        assertTrue(!new File("test_data/test_tasks.txt.compacting").exists());
+
+        try (BufferedReader reader = new BufferedReader(new FileReader("test_data/test_tasks.txt"))) {
+            assertEquals("[X] | T | Task A", reader.readLine());
+            assertEquals("[ ] | T | Task B", reader.readLine());
+        }
+    }
+
+    @Test
+    public void loadTasks_journalWithoutSnapshot_journalDiscarded() throws IOException {
+        new File("test_data").mkdirs();
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter("test_data/test_tasks.txt.journal"))) {
+            writer.write("A [ ] | T | Stale Task");
+            writer.newLine();
+        }
+
+        List<Task> loadedTasks = new ArrayList<>();
+        new Storage("test_data/test_tasks.txt").loadTasks(loadedTasks::add);
+
+        assertTrue(loadedTasks.isEmpty());
+    }
+
+    @Test
+    public void saveTask_durableMode_changesCommittedAndReplayed() throws InvalidTaskOperationException {
+        Storage durableStorage = new Storage("test_data/test_tasks.txt", true);
+        ToDo todo = new ToDo("Task A");
+        durableStorage.saveTask(todo);
+        durableStorage.saveTask(new ToDo("Task B"));
+        todo.markTask();
+        durableStorage.updateTask(todo);
+
+        GroupCommitStats stats = durableStorage.getCommitStats();
+        assertEquals(3, stats.getRecordCount());
+        assertEquals(3, stats.getForceCount());
+
+        List<Task> loadedTasks = new ArrayList<>();
+        new Storage("test_data/test_tasks.txt").loadTasks(loadedTasks::add);
+
+        assertEquals(2, loadedTasks.size());
+        assertEquals("[X] | T | Task A", loadedTasks.get(0).toString());
+        assertEquals("[ ] | T | Task B", loadedTasks.get(1).toString());
+    }
+
+    @Test
+    public void updateTask_durableModeAfterOtherStorageRewrites_changeKept() throws InvalidTaskOperationException {
+        Storage durableStorage = new Storage("test_data/test_tasks.txt", true);
+        durableStorage.saveTask(new ToDo("Task A"));
+
+        ToDo todo = new ToDo("Task B");
+        new Storage("test_data/test_tasks.txt").rewriteTaskList(List.of(todo));
+        todo.markTask();
+        durableStorage.updateTask(todo);
+        durableStorage.close();
+
+        List<Task> loadedTasks = new ArrayList<>();
+        new Storage("test_data/test_tasks.txt").loadTasks(loadedTasks::add);
+
+        assertEquals(1, loadedTasks.size());
+        assertEquals("[X] | T | Task B", loadedTasks.get(0).toString());
+    }
+
+    @Test
+    public void loadExternalChanges_durableModeOwnChanges_nothingPassed() throws InvalidTaskOperationException {
+        Storage durableStorage = new Storage("test_data/test_tasks.txt", true);
+        durableStorage.rewriteTaskList(List.of(new ToDo("Task A")));
+        durableStorage.loadTasks((t) -> { });
+
+        ToDo todo = new ToDo("Task B");
+        durableStorage.saveTask(todo);
+        todo.markTask();
+        durableStorage.updateTasks(List.of(todo));
+
+        List<String> changes = new ArrayList<>();
+        assertTrue(durableStorage.loadExternalChanges((c) -> changes.add(c.toString())));
+        assertTrue(changes.isEmpty());
+        durableStorage.close();
+    }
+
+    @Test
+    public void close_lastStorageOfFile_processLockReleased() {
+        Path lockPath = Paths.get("test_data", "test_closed_tasks.txt.lock");
+        Storage firstStorage = new Storage("test_data/test_closed_tasks.txt");
+        Storage secondStorage = new Storage("test_data/test_closed_tasks.txt");
+
+        firstStorage.close();
+        firstStorage.close();
+        assertTrue(ProcessLock.isInUse(lockPath));
+        secondStorage.close();
+        assertFalse(ProcessLock.isInUse(lockPath));
+        new File(lockPath.toString()).delete();
+    }
+
+    @Test
+    public void getStorageStats_savesChangesAndRewrite_operationsAndBytesCounted()
+            throws InvalidTaskOperationException {
+        StorageStats before = Storage.getStorageStats();
+        ToDo todo = new ToDo("Task A");
+        this.storage.saveTask(todo);
+        this.storage.saveTask(new ToDo("Task B"));
+        todo.markTask();
+        this.storage.updateTask(todo);
+        this.storage.rewriteTaskList(List.of(todo));
+        this.storage.loadTasks((t) -> { });
+        StorageStats after = Storage.getStorageStats();
+
+        assertEquals(2, after.getCount(StorageStats.Operation.SAVE) - before.getCount(StorageStats.Operation.SAVE));
+        assertEquals(1, after.getCount(StorageStats.Operation.CHANGE)
+                - before.getCount(StorageStats.Operation.CHANGE));
+        assertEquals(1, after.getRecordCount(StorageStats.Operation.LOAD)
+                - before.getRecordCount(StorageStats.Operation.LOAD));
+        assertTrue(after.getCount(StorageStats.Operation.REWRITE) > before.getCount(StorageStats.Operation.REWRITE));
+        // Two appended tasks, one journal record and a rewritten one-task snapshot
+        long minBytesWritten = 2 * "[ ] | T | Task A\n".length() + JournalRecord.ofUpdate(todo).toString().length()
+                + "[X] | T | Task A\n".length();
+        assertTrue(after.getBytesWritten() - before.getBytesWritten() >= minBytesWritten);
+        assertTrue(after.getBytesRead() - before.getBytesRead() >= "[X] | T | Task A\n".length());
+        assertTrue(after.getLatencyPercentileMillis(StorageStats.Operation.SAVE, 0.99)
+                <= after.getMaxLatencyMillis(StorageStats.Operation.SAVE));
+    }
+
+    @Test
+    public void saveTask_binarySnapshot_formatKept() throws InvalidTaskOperationException, IOException {
+        new File("test_data").mkdirs();
+        BinaryTaskCodec.save(Paths.get("test_data", "test_tasks.txt"), List.of(new ToDo("Task A")));
+
+        Storage binaryStorage = new Storage("test_data/test_tasks.txt");
+        binaryStorage.saveTask(new ToDo("Task B"));
+        binaryStorage.rewriteTaskList(List.of(new ToDo("Task A", true), new ToDo("Task B")));
+
+        assertTrue(BinaryTaskCodec.isBinary(Paths.get("test_data", "test_tasks.txt")));
+
+        List<Task> loadedTasks = new ArrayList<>();
+        new Storage("test_data/test_tasks.txt").loadTasks(loadedTasks::add);
+
+        assertEquals(2, loadedTasks.size());
+        assertEquals("[X] | T | Task A", loadedTasks.get(0).toString());
+        assertEquals("[ ] | T | Task B", loadedTasks.get(1).toString());
+    }
+
+    @Test
+    public void compactJournal_compressedSnapshotOnlyAdded_blockAppended()
+            throws IOException, InterruptedException, ExecutionException {
+        new File("test_data").mkdirs();
+        BlockCompressedCodec.save(Paths.get("test_data", "test_tasks.txt"), List.of(new ToDo("Task A")));
+        byte[] savedBytes = Files.readAllBytes(Paths.get("test_data", "test_tasks.txt"));
+
+        Storage compressedStorage = new Storage("test_data/test_tasks.txt");
+        compressedStorage.saveTask(new ToDo("Task B"));
+        compressedStorage.saveTask(new ToDo("Task C"));
+        compressedStorage.compactJournal().get();
+
+        byte[] compactedBytes = Files.readAllBytes(Paths.get("test_data", "test_tasks.txt"));
+        assertArrayEquals(savedBytes, Arrays.copyOf(compactedBytes, savedBytes.length));
+
+        List<Task> loadedTasks = new ArrayList<>();
+        new Storage("test_data/test_tasks.txt").loadTasks(loadedTasks::add);
+
+        assertEquals(3, loadedTasks.size());
+        assertEquals("[ ] | T | Task C", loadedTasks.get(2).toString());
+    }
+
+    @Test
+    public void loadTasks_checksummedSnapshot_damagedRecordSkipped() throws IOException {
+        Storage checksummedStorage = new Storage("test_data/test_tasks.txt", false, true);
+        checksummedStorage.rewriteTaskList(List.of(new ToDo("Task A"), new ToDo("Task B")));
+        checksummedStorage.saveTask(new ToDo("Task C"));
+
+        Path path = Paths.get("test_data", "test_tasks.txt");
+        assertTrue(RecordChecksum.isChecksummed(path));
+        String contents = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        Files.write(path, contents.replace("Task B", "Task X").getBytes(StandardCharsets.UTF_8));
+
+        List<Task> loadedTasks = new ArrayList<>();
+        new Storage("test_data/test_tasks.txt").loadTasks(loadedTasks::add);
+
+        assertEquals(2, loadedTasks.size());
+        assertEquals("[ ] | T | Task C", loadedTasks.get(1).toString());
+    }
+
+    @Test
+    public void loadExternalChanges_otherStorageAppends_onlyNewChangesPassed()
+            throws InvalidTaskOperationException {
+        this.storage.rewriteTaskList(List.of(new ToDo("Task A")));
+        this.storage.loadTasks((t) -> { });
+
+        Storage otherStorage = new Storage("test_data/test_tasks.txt");
+        ToDo todo = new ToDo("Task B");
+        otherStorage.saveTask(todo);
+        todo.markTask();
+        otherStorage.updateTask(todo);
+
+        List<String> changes = new ArrayList<>();
+        assertTrue(this.storage.loadExternalChanges((c) -> changes.add(c.toString())));
+        assertEquals(List.of("A [ ] | T | Task B", "M T | Task B"), changes);
+
+        changes.clear();
+        assertTrue(this.storage.loadExternalChanges((c) -> changes.add(c.toString())));
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    public void loadExternalChanges_otherStorageRewrites_reloadNeeded() {
+        this.storage.rewriteTaskList(List.of(new ToDo("Task A")));
+        this.storage.loadTasks((t) -> { });
+
+        new Storage("test_data/test_tasks.txt").rewriteTaskList(List.of(new ToDo("Task B")));
+
+        assertFalse(this.storage.loadExternalChanges((c) -> { }));
+    }
 }
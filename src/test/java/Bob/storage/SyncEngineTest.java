@@ -0,0 +1,117 @@
+package bob.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import bob.tasks.Task;
+import bob.tasks.ToDo;
+
+public class SyncEngineTest {
+    private static final String laptopPath = Paths.get("test_data", "test_laptop.txt").toString();
+    private static final String workstationPath = Paths.get("test_data", "test_workstation.txt").toString();
+    private static final Path directory = Paths.get("test_data", "test_sync");
+
+    @AfterEach
+    public void tearDown() {
+        new File(laptopPath + ".sync").delete();
+        new File(workstationPath + ".sync").delete();
+        File[] files = directory.toFile().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.toFile().delete();
+    }
+
+    @Test
+    public void syncWith_copiedList_concurrentChangesMerged() throws IOException {
+        SyncEngine laptop = new SyncEngine(laptopPath);
+        SyncEngine workstation = new SyncEngine(workstationPath);
+        List<Task> copiedTasks = List.of(new ToDo("read"), new ToDo("write"), new ToDo("cook"));
+        laptop.reconcile(copiedTasks);
+        workstation.reconcile(copiedTasks);
+
+        laptop.recordChange(JournalRecord.fromLine("M T | read"));
+        laptop.recordChange(JournalRecord.fromLine("M T | write"));
+        laptop.recordChange(JournalRecord.fromLine("A [ ] | T | swim"));
+        workstation.recordChange(JournalRecord.fromLine("D T | write")); // Deletion wins over marking
+        workstation.recordChange(JournalRecord.fromLine("M T | cook"));
+
+        List<String> laptopChanges = new ArrayList<>();
+        List<String> workstationChanges = new ArrayList<>();
+        laptop.syncWith(directory, (change) -> laptopChanges.add(change.toString()));
+        workstation.syncWith(directory, (change) -> workstationChanges.add(change.toString()));
+        laptop.syncWith(directory, (change) -> laptopChanges.add(change.toString()));
+
+        assertEquals(2, laptopChanges.size());
+        assertTrue(laptopChanges.containsAll(List.of("D T | write", "M T | cook")));
+        assertEquals(2, workstationChanges.size());
+        assertTrue(workstationChanges.containsAll(List.of("M T | read", "A [ ] | T | swim")));
+
+        workstationChanges.clear();
+        workstation.syncWith(directory, (change) -> workstationChanges.add(change.toString()));
+        assertEquals(List.of(), workstationChanges); // Merged changes are not sent back
+    }
+
+    @Test
+    public void writeDelta_afterSync_onlyNewChangesSent() throws IOException {
+        SyncEngine laptop = new SyncEngine(laptopPath);
+        SyncEngine workstation = new SyncEngine(workstationPath);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            tasks.add(new ToDo("task " + i));
+        }
+        laptop.reconcile(tasks);
+
+        laptop.syncWith(directory, (change) -> { });
+        workstation.syncWith(directory, (change) -> { });
+        laptop.syncWith(directory, (change) -> { }); // Learns that the workstation has every task
+        laptop.recordChange(JournalRecord.fromLine("M T | task 500"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        laptop.writeDelta(out, laptop.getAcknowledgedSequence());
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(4, lines.length); // Header, sync point with workstation, one entry, end
+
+        List<String> changes = new ArrayList<>();
+        workstation.readDelta(new ByteArrayInputStream(out.toByteArray()), (change) -> changes.add(change.toString()));
+        assertEquals(List.of("M T | task 500"), changes);
+
+        SyncEngine reopenedWorkstation = new SyncEngine(workstationPath);
+        assertEquals(workstation.getReplicaId(), reopenedWorkstation.getReplicaId());
+        changes.clear();
+        reopenedWorkstation.readDelta(new ByteArrayInputStream(out.toByteArray()),
+                (change) -> changes.add(change.toString()));
+        assertEquals(List.of(), changes); // Sync point was saved
+    }
+
+    @Test
+    public void readDelta_cutShort_nothingMerged() throws IOException {
+        SyncEngine laptop = new SyncEngine(laptopPath);
+        laptop.reconcile(List.of(new ToDo("read")));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        laptop.writeDelta(out, 0);
+        String delta = out.toString(StandardCharsets.UTF_8);
+        byte[] cutDelta = delta.substring(0, delta.indexOf("END")).getBytes(StandardCharsets.UTF_8);
+
+        SyncEngine workstation = new SyncEngine(workstationPath);
+        List<JournalRecord> changes = new ArrayList<>();
+        assertThrows(IOException.class, () -> workstation.readDelta(new ByteArrayInputStream(cutDelta), changes::add));
+        assertEquals(0, changes.size());
+    }
+}
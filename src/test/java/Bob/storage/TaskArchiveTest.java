@@ -0,0 +1,133 @@
+package bob.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import bob.exceptions.InvalidTaskOperationException;
+import bob.tasks.Task;
+import bob.tasks.ToDo;
+
+public class TaskArchiveTest {
+    private static final String filePath = Paths.get("test_data", "test_archive_tasks.txt").toString();
+    private static final LocalDate today = LocalDate.of(2025, 3, 1);
+
+    @AfterEach
+    public void tearDown() {
+        new File(filePath + TaskArchive.archiveSuffix).delete();
+        new File(filePath + TaskArchive.completedSuffix).delete();
+    }
+
+    @Test
+    public void archiveExpired_manyTasksWithoutDays_daysRecordedWithOneWrite() {
+        List<List<Task>> recordedTasks = new ArrayList<>();
+        TaskArchive archive = new TaskArchive(filePath, 7) {
+            @Override
+            public synchronized void recordCompletions(List<Task> tasks, LocalDate day) {
+                recordedTasks.add(new ArrayList<>(tasks));
+                super.recordCompletions(tasks, day);
+            }
+        };
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            tasks.add(new ToDo("report " + i, true));
+        }
+
+        assertTrue(archive.archiveExpired(tasks, today).isEmpty());
+        assertEquals(1, recordedTasks.size());
+        assertEquals(tasks, recordedTasks.get(0));
+        assertEquals(tasks, new TaskArchive(filePath, 7).archiveExpired(tasks, today.plusDays(8)));
+    }
+
+    @Test
+    public void archiveExpired_tasksCompletedOnDifferentDays_onlyExpiredTasksArchived()
+            throws InvalidTaskOperationException {
+        TaskArchive archive = new TaskArchive(filePath, 7);
+        List<Task> tasks = new ArrayList<>();
+        for (String name : new String[]{"old report", "new report", "open report", "unrecorded report"}) {
+            tasks.add(new ToDo(name));
+        }
+        tasks.get(0).markTask();
+        tasks.get(1).markTask();
+        tasks.get(3).markTask();
+        archive.recordCompletion(tasks.get(0), today.minusDays(8));
+        archive.recordCompletion(tasks.get(1), today.minusDays(7));
+
+        assertEquals(List.of(tasks.get(0)), archive.archiveExpired(tasks, today));
+        assertTrue(archive.archiveExpired(tasks.subList(1, 4), today).isEmpty());
+
+        // Reopened, so completion days are read back from the completion file
+        archive = new TaskArchive(filePath, 7);
+        assertEquals(List.of(tasks.get(1), tasks.get(3)), archive.archiveExpired(tasks.subList(1, 4),
+                today.plusDays(8)));
+
+        List<String> archivedTasks = new ArrayList<>();
+        archive.loadTasks((t) -> archivedTasks.add(t.toString()));
+        assertEquals(List.of("[X] | T | old report", "[X] | T | new report", "[X] | T | unrecorded report"),
+                archivedTasks);
+        List<String> matchingTasks = new ArrayList<>();
+        archive.loadTasksMatching("new", (t) -> matchingTasks.add(t.toString()));
+        assertEquals(List.of("[X] | T | new report"), matchingTasks);
+    }
+
+    @Test
+    public void restoreFrom_backupArchive_completionDaysAndArchivedTasksRestored()
+            throws InvalidTaskOperationException {
+        String backupFilePath = Paths.get("test_data", "test_archive_backup.txt").toString();
+        try {
+            TaskArchive backup = new TaskArchive(backupFilePath, 7);
+            Task oldTask = new ToDo("old report");
+            oldTask.markTask();
+            backup.recordCompletion(oldTask, today.minusDays(30));
+            backup.archiveExpired(List.of(oldTask), today);
+            Task doneTask = new ToDo("done report");
+            doneTask.markTask();
+            backup.recordCompletion(doneTask, today.minusDays(8));
+
+            TaskArchive archive = new TaskArchive(filePath, 7);
+            archive.recordCompletion(doneTask, today);
+            List<Task> tasks = List.of(doneTask, new ToDo("open report"));
+            archive.restoreFrom(new TaskArchive(backupFilePath, 7), tasks);
+
+            assertEquals(List.of(doneTask), archive.archiveExpired(tasks, today));
+            List<String> archivedTasks = new ArrayList<>();
+            new TaskArchive(filePath, 7).loadTasks((t) -> archivedTasks.add(t.toString()));
+            assertEquals(List.of("[X] | T | old report", "[X] | T | done report"), archivedTasks);
+        } finally {
+            new File(backupFilePath + TaskArchive.archiveSuffix).delete();
+            new File(backupFilePath + TaskArchive.completedSuffix).delete();
+        }
+    }
+
+    @Test
+    public void loadTasks_damagedRecord_otherTasksLoaded() throws InvalidTaskOperationException, IOException {
+        TaskArchive archive = new TaskArchive(filePath, 0);
+        List<Task> tasks = new ArrayList<>();
+        for (String name : new String[]{"first", "second"}) {
+            Task task = new ToDo(name);
+            task.markTask();
+            archive.recordCompletion(task, today.minusDays(1));
+            tasks.add(task);
+        }
+        archive.archiveExpired(tasks, today);
+
+        try (RandomAccessFile file = new RandomAccessFile(filePath + TaskArchive.archiveSuffix, "rw")) {
+            file.seek(file.length() - 2);
+            file.write('x');
+        }
+
+        List<String> archivedTasks = new ArrayList<>();
+        archive.loadTasks((t) -> archivedTasks.add(t.toString()));
+        assertEquals(List.of("[X] | T | first"), archivedTasks);
+    }
+}
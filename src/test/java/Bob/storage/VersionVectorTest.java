@@ -0,0 +1,32 @@
+package bob.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+public class VersionVectorTest {
+    @Test
+    public void compareTo_incrementedVersions_correctOrder() {
+        VersionVector base = VersionVector.empty().increment("a");
+        VersionVector laptop = base.increment("a");
+        VersionVector workstation = base.increment("b");
+
+        assertEquals(VersionVector.Order.EQUAL, base.compareTo(VersionVector.parse("a:1")));
+        assertEquals(VersionVector.Order.BEFORE, base.compareTo(laptop));
+        assertEquals(VersionVector.Order.AFTER, workstation.compareTo(base));
+        assertEquals(VersionVector.Order.CONCURRENT, laptop.compareTo(workstation));
+        assertEquals(VersionVector.Order.AFTER, laptop.merge(workstation).compareTo(workstation));
+    }
+
+    @Test
+    public void parse_toString_roundTrips() {
+        VersionVector version = VersionVector.parse("b:3,a:12");
+
+        assertEquals("a:12,b:3", version.toString());
+        assertEquals(12, version.get("a"));
+        assertEquals(0, version.get("c"));
+        assertEquals("-", VersionVector.parse("-").toString());
+        assertThrows(IllegalArgumentException.class, () -> VersionVector.parse("a:b"));
+    }
+}
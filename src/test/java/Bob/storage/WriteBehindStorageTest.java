@@ -0,0 +1,183 @@
+package bob.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.File;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import bob.exceptions.InvalidTaskOperationException;
+import bob.managers.TaskManager;
+import bob.tasks.Task;
+import bob.tasks.ToDo;
+
+public class WriteBehindStorageTest {
+    private static final String filePath = Paths.get("test_data", "test_tasks.txt").toString();
+
+    private Storage fileStorage;
+    private WriteBehindStorage storage;
+
+    @BeforeEach
+    public void setUp() {
+        this.fileStorage = new Storage(filePath);
+        this.storage = new WriteBehindStorage(this.fileStorage, 2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.storage.close();
+        new File(filePath).delete();
+        new File(filePath + ".journal").delete();
+    }
+
+    @Test
+    public void flush_queuedChanges_allWritten() throws InvalidTaskOperationException {
+        ToDo todo = new ToDo("Task A");
+        this.storage.saveTask(todo);
+        this.storage.saveTask(new ToDo("Task B"));
+        this.storage.saveTask(new ToDo("Task C"));
+        todo.markTask();
+        this.storage.updateTask(todo);
+
+        this.storage.flush();
+        assertEquals(0, this.storage.getPendingCount());
+
+        List<Task> loadedTasks = load();
+        assertEquals(3, loadedTasks.size());
+        assertEquals("[X] | T | Task A", loadedTasks.get(0).toString());
+        assertEquals("[ ] | T | Task C", loadedTasks.get(2).toString());
+    }
+
+    @Test
+    public void deleteTask_addedThenDeleted_neverWritten() throws InterruptedException {
+        ToDo todo = new ToDo("Task A");
+
+        synchronized (this.fileStorage) { // Keeps the writer busy so the changes are merged
+            stallWriter();
+            this.storage.saveTask(todo);
+            this.storage.deleteTask(todo);
+            assertEquals(0, this.storage.getPendingCount());
+        }
+
+        this.storage.flush();
+        assertFalse(new File(filePath + ".journal").exists());
+        assertEquals(1, load().size());
+    }
+
+    @Test
+    public void updateTask_markedThenUnmarked_neverWritten()
+            throws InvalidTaskOperationException, InterruptedException {
+        ToDo todo = new ToDo("Task A");
+        this.storage.saveTask(todo);
+        this.storage.flush();
+
+        synchronized (this.fileStorage) {
+            stallWriter();
+            todo.markTask();
+            this.storage.updateTask(todo);
+            todo.unmarkTask();
+            this.storage.updateTask(todo);
+            assertEquals(0, this.storage.getPendingCount());
+        }
+
+        this.storage.flush();
+        assertFalse(new File(filePath + ".journal").exists());
+        assertEquals("[ ] | T | Task A", load().get(0).toString());
+    }
+
+    @Test
+    public void saveTask_deletedThenAddedAgain_movedToEnd() {
+        ToDo todo = new ToDo("Task A");
+        this.storage.saveTask(todo);
+        this.storage.saveTask(new ToDo("Task B"));
+        this.storage.flush();
+
+        this.storage.deleteTask(todo);
+        this.storage.saveTask(new ToDo("Task A"));
+
+        this.storage.flush();
+        List<Task> loadedTasks = load();
+        assertEquals(2, loadedTasks.size());
+        assertEquals("[ ] | T | Task B", loadedTasks.get(0).toString());
+        assertEquals("[ ] | T | Task A", loadedTasks.get(1).toString());
+    }
+
+    @Test
+    public void saveTask_afterClose_writtenImmediately() {
+        this.storage.close();
+
+        this.storage.saveTask(new ToDo("Task A"));
+
+        assertEquals(0, this.storage.getPendingCount());
+        assertEquals(1, load().size());
+    }
+
+    @Test
+    public void loadExternalChanges_writePending_commandNotBlocked() throws InvalidTaskOperationException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean isChanged = new AtomicBoolean(true);
+        InMemoryStorage slowStorage = new InMemoryStorage() {
+            @Override
+            public void saveTask(Task newTask) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.saveTask(newTask);
+            }
+
+            @Override
+            public boolean loadExternalChanges(Consumer<JournalRecord> applyChange) {
+                if (isChanged.getAndSet(false)) { // Another process added Task C
+                    applyChange.accept(JournalRecord.ofAdd(new ToDo("Task C")));
+                }
+                return true;
+            }
+        };
+        WriteBehindStorage slowWriteBehindStorage = new WriteBehindStorage(slowStorage, 2);
+        TaskManager taskManager = new TaskManager(slowWriteBehindStorage);
+
+        taskManager.addTask("T", new String[] {"Task A"});
+        taskManager.refresh(); // Run before every command
+        taskManager.addTask("T", new String[] {"Task B"});
+        taskManager.refresh();
+
+        assertEquals(0, slowStorage.getSize(), "Commands should not have waited for Task A to be written");
+        release.countDown();
+        slowWriteBehindStorage.flush();
+        taskManager.refresh();
+
+        assertEquals(2, slowStorage.getSize());
+        assertEquals(3, taskManager.getSize());
+        assertEquals(1, taskManager.getMatchingTasks("Task C").size());
+        slowWriteBehindStorage.close();
+    }
+
+    /**
+     * Queues a task and waits until the writer has taken it, leaving the writer blocked on the file
+     * storage lock held by the caller.
+     */
+    private void stallWriter() throws InterruptedException {
+        this.storage.saveTask(new ToDo("Stalled"));
+        while (this.storage.getPendingCount() > 0) {
+            Thread.sleep(1);
+        }
+    }
+
+    private List<Task> load() {
+        List<Task> loadedTasks = new ArrayList<>();
+        new Storage(filePath).loadTasks(loadedTasks::add);
+        return loadedTasks;
+    }
+}
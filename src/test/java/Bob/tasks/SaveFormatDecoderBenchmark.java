@@ -0,0 +1,93 @@
+package bob.tasks;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Compares throughput of the split-based and single pass save format decoders.
+ * Run with the number of lines as the only argument, e.g. {@code SaveFormatDecoderBenchmark 1000000}.
+ */
+public class SaveFormatDecoderBenchmark {
+    private static final int runs = 5;
+
+    public static void main(String[] args) {
+        int lineCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        List<String> lines = generateLines(lineCount);
+
+        StringBuilder text = new StringBuilder();
+        lines.forEach((line) -> text.append(line).append('\n'));
+        ByteBuffer bytes = ByteBuffer.allocateDirect(text.length() * 2);
+        bytes.put(text.toString().getBytes(StandardCharsets.UTF_8)).flip();
+
+        System.out.printf("%d lines, %,d bytes%n", lineCount, bytes.limit());
+        time("split decoder", lineCount, (n) -> {
+            int count = 0;
+            for (String line : lines) {
+                count += SaveFormatDecoderTest.decodeWithSplit(line).getTaskName().length();
+            }
+            return count;
+        });
+        time("single pass (String)", lineCount, (n) -> {
+            int count = 0;
+            for (String line : lines) {
+                count += SaveFormatDecoder.decode(line).getTaskName().length();
+            }
+            return count;
+        });
+        time("single pass (ByteBuffer)", lineCount, (n) -> {
+            int count = 0;
+            int lineStart = 0;
+            for (int i = 0; i < bytes.limit(); i++) {
+                if (bytes.get(i) == '\n') {
+                    count += SaveFormatDecoder.decode(bytes, lineStart, i).getTaskName().length();
+                    lineStart = i + 1;
+                }
+            }
+            return count;
+        });
+    }
+
+    private static List<String> generateLines(int lineCount) {
+        List<String> lines = new ArrayList<>(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            String date = String.format("%02d/%02d/2025 %02d:%02d", i % 28 + 1, i % 12 + 1, i % 24, i % 60);
+            switch (i % 3) {
+            case 0:
+                lines.add(new ToDo("read chapter " + i, i % 2 == 0).toString());
+                break;
+            case 1:
+                lines.add(new Deadline("submit assignment " + i, date, i % 2 == 0).toString());
+                break;
+            default:
+                lines.add(new Event("project meeting " + i, date, date, i % 2 == 0).toString());
+                break;
+            }
+        }
+
+        return lines;
+    }
+
+    /**
+     * Prints the best time and throughput of several runs, after one warm up run.
+     *
+     * @param name name of decoder.
+     * @param lineCount number of lines decoded per run.
+     * @param measured decoding run, returning a value so the work is not optimised away.
+     */
+    private static void time(String name, int lineCount, ToIntFunction<Integer> measured) {
+        measured.applyAsInt(0);
+        long best = Long.MAX_VALUE;
+        int result = 0;
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            result += measured.applyAsInt(i);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        System.out.printf("%-28s %8.1f ms %8.2f M lines/s (%d)%n", name + ":", best / 1e6,
+                lineCount / (best / 1e3), result / runs);
+    }
+}
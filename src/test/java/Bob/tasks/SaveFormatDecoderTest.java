@@ -0,0 +1,107 @@
+package bob.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class SaveFormatDecoderTest {
+    private static final List<String> corpus = List.of(
+            "[ ] | T | todo",
+            "[X] | T | read book",
+            "[ ] | D | deadline | by: 31/01/2025",
+            "[X] | D | return book | by: 20/02/2025 10:30",
+            "[ ] | E | event | from: 31/01/2025 | to: 31/01/2025",
+            "[X] | E | project meeting | from: 20/02/2025 10:30 | to: 21/02/2025 09:30",
+            "[ ] | D | free text date | by: next monday",
+            "[ ] | D | comma, in name | by: monday, 3pm",
+            "[ ] | D | prefix later | no by: here",
+            "[ ] | E | caf\u00e9 trip | from: 01/02/2024 | to: 02/02/2024",
+            "  [X]  |  T  |  padded name  ",
+            "[ ] | T | extra | fields | ignored",
+            "[ ] | T |  | trailing",
+            "[ ] | E | event | from: a | to: b | extra");
+
+    private static final List<String> invalidCorpus = List.of(
+            "",
+            "[ ] | T",
+            "[ ] | T | ",
+            "[ ] | T |  | ",
+            "[ ] | X | name",
+            "[ ] | D | name",
+            "[ ] | E | name | from: a",
+            "garbage");
+
+    @Test
+    public void decode_corpus_sameAsSplitDecoder() {
+        for (String line : corpus) {
+            assertEquals(decodeWithSplit(line).toString(), SaveFormatDecoder.decode(line).toString());
+            assertEquals(decodeWithSplit(line).getClass(), SaveFormatDecoder.decode(line).getClass());
+        }
+    }
+
+    @Test
+    public void decode_byteBuffer_sameAsCharSequence() {
+        for (String line : corpus) {
+            byte[] bytes = ("xx" + line + "\n").getBytes(StandardCharsets.UTF_8);
+            ByteBuffer heapBuffer = ByteBuffer.wrap(bytes);
+            ByteBuffer directBuffer = ByteBuffer.allocateDirect(bytes.length).put(bytes);
+            int end = bytes.length - 1;
+
+            String expected = SaveFormatDecoder.decode(line).toString();
+            assertEquals(expected, SaveFormatDecoder.decode(heapBuffer, 2, end).toString());
+            assertEquals(expected, SaveFormatDecoder.decode(directBuffer, 2, end).toString());
+        }
+    }
+
+    @Test
+    public void decode_invalidLines_exceptionThrown() {
+        for (String line : invalidCorpus) {
+            assertThrows(RuntimeException.class, () -> decodeWithSplit(line));
+            assertThrows(IllegalArgumentException.class, () -> SaveFormatDecoder.decode(line), line);
+        }
+    }
+
+    @Test
+    public void decode_invalidTaskType_typeReported() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () ->
+                SaveFormatDecoder.decode("[ ] |  X  | name"));
+
+        assertEquals("Invalid task type: X", e.getMessage());
+    }
+
+    /**
+     * Decodes a line by splitting it on a regular expression, as the save format was originally read.
+     *
+     * @param line line from save file.
+     * @return saved Task object.
+     */
+    static Task decodeWithSplit(String line) {
+        String[] parts = line.split(" \\| ");
+        if (parts.length < 3) {
+            throw new IllegalArgumentException("Invalid save format: " + line);
+        }
+
+        boolean isCompleted = parts[0].trim().equals("[X]");
+        String taskType = parts[1].trim();
+        String taskName = parts[2].trim();
+
+        switch (taskType) {
+        case "T":
+            return new ToDo(taskName, isCompleted);
+        case "D":
+            String by = parts[3].trim().replaceFirst("by: ", "");
+            return new Deadline(taskName, by, isCompleted);
+        case "E":
+            String start = parts[3].trim().replaceFirst("from: ", "");
+            String end = parts[4].trim().replaceFirst("to: ", "");
+            return new Event(taskName, start, end, isCompleted);
+        default:
+            throw new IllegalArgumentException("Invalid task type: " + taskType);
+        }
+    }
+}
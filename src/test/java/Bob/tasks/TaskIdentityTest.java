@@ -0,0 +1,34 @@
+package bob.tasks;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+
+import bob.exceptions.InvalidTaskOperationException;
+
+public class TaskIdentityTest {
+    @Test
+    public void equals_sameTaskInOtherDateFormatOrStatus_identitiesEqual() throws InvalidTaskOperationException {
+        Deadline deadline = new Deadline("submit", "31/10/2025 23:59");
+        Deadline longFormDeadline = new Deadline("submit", "31 October 2025 23:59");
+        longFormDeadline.markTask();
+
+        assertEquals(deadline.getIdentity(), longFormDeadline.getIdentity());
+        assertEquals(deadline.getIdentity().hashCode(), longFormDeadline.getIdentity().hashCode());
+        assertEquals(new ToDo("read").getIdentity(), new ToDo("read", true).getIdentity());
+        assertEquals(new Event("trip", "Monday", "01/11/2025 10:00").getIdentity(),
+                new Event("trip", "Monday", "01 November 2025 10:00").getIdentity());
+    }
+
+    @Test
+    public void equals_differentTypeNameOrDate_identitiesNotEqual() {
+        TaskIdentity identity = new Deadline("submit", "31/10/2025 23:59").getIdentity();
+
+        assertNotEquals(identity, new Deadline("submit", "31/10/2025 23:58").getIdentity());
+        assertNotEquals(identity, new Deadline("Submit", "31/10/2025 23:59").getIdentity());
+        assertNotEquals(identity, new Event("submit", "31/10/2025 23:59", "31/10/2025 23:59").getIdentity());
+        assertNotEquals(new ToDo("submit").getIdentity(), new Deadline("submit", "Monday").getIdentity());
+        assertEquals("D | submit | 2025-10-31T23:59", identity.toString());
+    }
+}